@@ -0,0 +1,131 @@
+package utils;
+
+import java.util.Spliterator;
+
+/**
+ * {@link AbstractBatchSkippingIterator} 提供了对支持批量读取的后端的 {@link SkippingIterator} 基础实现；
+ * <p>
+ * 
+ * 子类只需实现 {@link #fetch(long, int)} 一次读取一段连续的元素：逐个迭代时按页读取并缓冲，
+ * 通过 {@link #next(Object[], int, int)} 批量读取时直接从页缓冲复制，不足一页的部分也只需一次读取；
+ * 
+ * @author huanghaiquan
+ *
+ * @param <T>
+ */
+public abstract class AbstractBatchSkippingIterator<T> extends AbstractSkippingIterator<T> {
+
+	public static final int DEFAULT_PAGE_SIZE = 256;
+
+	private final int pageSize;
+
+	/**
+	 * 当前的页缓冲；
+	 */
+	private T[] page;
+
+	/**
+	 * 页缓冲的第一个元素的位置；
+	 */
+	private long pageStart = -1;
+
+	protected AbstractBatchSkippingIterator() {
+		this(DEFAULT_PAGE_SIZE);
+	}
+
+	/**
+	 * @param pageSize 每次读取的元素个数；
+	 */
+	protected AbstractBatchSkippingIterator(int pageSize) {
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("The page size is less than 1!");
+		}
+		this.pageSize = pageSize;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * 从后端读取从指定位置开始的连续多个元素；
+	 * 
+	 * @param fromIndex 起始位置；取值范围大于等于 0 ， 小于 {@link #getTotalCount()};
+	 * @param count     元素的个数；不会超出 {@link #getTotalCount()} 的范围；
+	 * @return 长度为 count 的数组；
+	 */
+	protected abstract T[] fetch(long fromIndex, int count);
+
+	/**
+	 * 加载一页元素；默认直接调用 {@link #fetch(long, int)}，子类可以重写以实现预读；
+	 * 
+	 * @param fromIndex 起始位置；
+	 * @param count     元素的个数；
+	 * @return
+	 */
+	protected T[] loadPage(long fromIndex, int count) {
+		return fetch(fromIndex, count);
+	}
+
+	@Override
+	protected T get(long cursor) {
+		if (page == null || cursor < pageStart || cursor >= pageStart + page.length) {
+			int count = (int) Math.min(pageSize, getTotalCount() - cursor);
+			page = load(cursor, count);
+			pageStart = cursor;
+		}
+		return page[(int) (cursor - pageStart)];
+	}
+
+	@Override
+	public int next(T[] datas, int offset, int maxCount) {
+		int count = (int) Math.min(getCount(), (long) maxCount);
+		int i = 0;
+		while (i < count) {
+			long index = cursor + 1;
+			int remaining = count - i;
+			int n;
+			if (page != null && index >= pageStart && index < pageStart + page.length) {
+				int pos = (int) (index - pageStart);
+				n = Math.min(remaining, page.length - pos);
+				System.arraycopy(page, pos, datas, offset + i, n);
+			} else if (remaining >= pageSize) {
+				// 一次读取剩余的全部元素，不经过页缓冲；
+				T[] fetched = load(index, remaining);
+				System.arraycopy(fetched, 0, datas, offset + i, remaining);
+				n = remaining;
+			} else {
+				get(index);
+				continue;
+			}
+			i += n;
+			cursor += n;
+		}
+		return i;
+	}
+
+	/**
+	 * 返回遍历剩余元素的 {@link BatchSpliterator}；迭代器随之到达末尾；
+	 * <p>
+	 * 
+	 * 返回的 {@link Spliterator} 可按位置范围分割并行处理，此时 {@link #fetch(long, int)} 会被多个线程同时调用；
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		long from = cursor + 1;
+		long total = getTotalCount();
+		cursor = total - 1;
+		return new BatchSpliterator<T>(this::fetch, Math.min(from, total), total, pageSize);
+	}
+
+	private T[] load(long fromIndex, int count) {
+		T[] datas = loadPage(fromIndex, count);
+		if (datas == null || datas.length < count) {
+			throw new IllegalStateException(
+					"The backend returned fewer elements than requested! --[fromIndex=" + fromIndex + ", count="
+							+ count + "]");
+		}
+		return datas;
+	}
+
+}
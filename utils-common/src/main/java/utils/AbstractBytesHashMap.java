@@ -0,0 +1,332 @@
+package utils;
+
+import utils.io.ByteArray;
+
+/**
+ * 以定长字节序列为键的开放寻址哈希表的基类；
+ * <p>
+ *
+ * 键以定长方式内联保存在扁平的存储中，采用线性探测和删除时的后移（backward shift）策略，不产生墓碑；<br>
+ *
+ * 哈希码与 {@link Bytes#hashCode()} 的算法一致，因此对于 {@link Bytes} 和 {@link ByteArray} 类型的键直接复用其已缓存的哈希码；<br>
+ *
+ * 可选择堆外模式，把键和值保存在直接内存中，以支持上亿条目的索引而不增加 GC 的负担；<br>
+ *
+ * 注：此类不是线程安全的；
+ *
+ * @author huanghaiquan
+ *
+ */
+public abstract class AbstractBytesHashMap implements Disposable {
+
+	public static final int DEFAULT_EXPECTED_SIZE = 16;
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private static final int MIN_CAPACITY = 2;
+
+	/**
+	 * 代替 0 的哈希码；0 在槽位中表示空槽；
+	 */
+	private static final int ZERO_HASH = 1;
+
+	private static final int FIBONACCI_HASH = 0x9E3779B9;
+
+	private static final float LOAD_FACTOR = 0.75f;
+
+	private final int keySize;
+
+	private final byte[] keyBuffer;
+
+	/**
+	 * 按 {@link HashSlots} 的记录格式打包后的当前键；
+	 */
+	private final long[] keyWords;
+
+	HashSlots slots;
+
+	private int capacityBits;
+
+	private int mask;
+
+	private int size;
+
+	private int threshold;
+
+	protected AbstractBytesHashMap(int keySize, int expectedSize, boolean offHeap, HashSlots.ValueType valueType) {
+		if (keySize < 1) {
+			throw new IllegalArgumentException("The key size is less than 1!");
+		}
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("The expected size is negative!");
+		}
+		this.keySize = keySize;
+		this.keyBuffer = new byte[keySize];
+		init(HashSlots.create(keySize, capacityFor(expectedSize), valueType, offHeap));
+		this.keyWords = new long[slots.keyWords];
+	}
+
+	private static int capacityFor(int expectedSize) {
+		long capacity = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR);
+		if (capacity >= MAX_CAPACITY) {
+			return MAX_CAPACITY;
+		}
+		int cap = Integer.highestOneBit((int) Math.max(capacity, MIN_CAPACITY) - 1) << 1;
+		return Math.max(cap, MIN_CAPACITY);
+	}
+
+	private void init(HashSlots slots) {
+		this.slots = slots;
+		this.capacityBits = Integer.numberOfTrailingZeros(slots.capacity);
+		this.mask = slots.capacity - 1;
+		this.threshold = slots.capacity == MAX_CAPACITY ? MAX_CAPACITY - 1 : (int) (slots.capacity * LOAD_FACTOR);
+	}
+
+	/**
+	 * 键的字节长度；
+	 *
+	 * @return int
+	 */
+	public int getKeySize() {
+		return keySize;
+	}
+
+	/**
+	 * 条目数；
+	 *
+	 * @return int
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 当前的槽位数；
+	 *
+	 * @return int
+	 */
+	public int capacity() {
+		return slots.capacity;
+	}
+
+	/**
+	 * 是否把键和值保存在堆外内存；
+	 *
+	 * @return boolean
+	 */
+	public boolean isOffHeap() {
+		return slots.isOffHeap();
+	}
+
+	public boolean containsKey(byte[] key) {
+		return indexOf(key) >= 0;
+	}
+
+	public boolean containsKey(ByteSequence key) {
+		return indexOf(key) >= 0;
+	}
+
+	public boolean remove(byte[] key) {
+		return removeAt(indexOf(key));
+	}
+
+	public boolean remove(ByteSequence key) {
+		return removeAt(indexOf(key));
+	}
+
+	/**
+	 * 清除全部条目，保留已分配的存储空间；
+	 */
+	public void clear() {
+		slots.clearAll();
+		size = 0;
+	}
+
+	/**
+	 * 释放存储空间；对于堆外模式，直接内存在释放引用后由 JVM 回收；
+	 * <p>
+	 * 释放之后不能再使用；
+	 */
+	@Override
+	public void dispose() {
+		if (slots != null) {
+			slots.release();
+			slots = null;
+		}
+		size = 0;
+	}
+
+	// ------------------------------------------------------------
+
+	/**
+	 * 计算与 {@link Bytes#hashCode()} 一致的哈希码；
+	 */
+	static int hashCode(byte[] key, int offset, int length) {
+		int hash = Bytes.INIT_CODE;
+		for (int i = 0; i < length; i++) {
+			hash = 31 * hash + key[offset + i];
+		}
+		return hash;
+	}
+
+	private static int normalize(int hash) {
+		return hash == 0 ? ZERO_HASH : hash;
+	}
+
+	private int home(int hash) {
+		return (hash * FIBONACCI_HASH) >>> (32 - capacityBits);
+	}
+
+	private void checkKey(int length) {
+		if (length != keySize) {
+			throw new IllegalArgumentException(
+					"The size of key is " + length + ", but the expected key size is " + keySize + "!");
+		}
+	}
+
+	/**
+	 * 查找指定键所在的槽位；
+	 *
+	 * @return 槽位；不存在时返回 -1；
+	 */
+	final int indexOf(byte[] key) {
+		checkKey(key.length);
+		slots.pack(key, keyWords);
+		return find(normalize(hashCode(key, 0, keySize)));
+	}
+
+	final int indexOf(ByteSequence key) {
+		checkKey(key.size());
+		key.copyTo(keyBuffer, 0, keySize);
+		slots.pack(keyBuffer, keyWords);
+		return find(normalize(hashOf(key)));
+	}
+
+	private int hashOf(ByteSequence key) {
+		if (key instanceof Bytes || key instanceof ByteArray) {
+			return key.hashCode();
+		}
+		return hashCode(keyBuffer, 0, keySize);
+	}
+
+	private int find(int hash) {
+		HashSlots slots = this.slots;
+		int slot = home(hash);
+		int h;
+		while ((h = slots.getHash(slot)) != 0) {
+			if (h == hash && slots.keyEquals(slot, keyWords)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * 返回指定键所在的槽位；如果不存在，则插入该键，返回新的槽位；
+	 *
+	 * @return 已存在的槽位返回非负值；新插入的槽位返回 (-slot - 1)；
+	 */
+	final int insert(byte[] key) {
+		checkKey(key.length);
+		slots.pack(key, keyWords);
+		return insert(normalize(hashCode(key, 0, keySize)));
+	}
+
+	final int insert(ByteSequence key) {
+		checkKey(key.size());
+		key.copyTo(keyBuffer, 0, keySize);
+		slots.pack(keyBuffer, keyWords);
+		return insert(normalize(hashOf(key)));
+	}
+
+	private int insert(int hash) {
+		HashSlots slots = this.slots;
+		int slot = home(hash);
+		int h;
+		while ((h = slots.getHash(slot)) != 0) {
+			if (h == hash && slots.keyEquals(slot, keyWords)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (size >= threshold) {
+			if (slots.capacity == MAX_CAPACITY) {
+				throw new IllegalStateException("The map is full!");
+			}
+			resize(slots.capacity << 1);
+			return insert(hash);
+		}
+		slots.setKey(slot, keyWords);
+		slots.setHash(slot, hash);
+		size++;
+		return -slot - 1;
+	}
+
+	private void resize(int newCapacity) {
+		HashSlots oldSlots = this.slots;
+		HashSlots newSlots = oldSlots.newSlots(newCapacity);
+		init(newSlots);
+		for (int i = 0; i < oldSlots.capacity; i++) {
+			int hash = oldSlots.getHash(i);
+			if (hash == 0) {
+				continue;
+			}
+			int slot = home(hash);
+			while (newSlots.getHash(slot) != 0) {
+				slot = (slot + 1) & mask;
+			}
+			oldSlots.copySlot(i, newSlots, slot);
+		}
+		oldSlots.release();
+	}
+
+	/**
+	 * 删除指定槽位，并把后续同一探测链上的条目前移，以保持线性探测的不变式；
+	 */
+	final boolean removeAt(int slot) {
+		if (slot < 0) {
+			return false;
+		}
+		HashSlots slots = this.slots;
+		int gap = slot;
+		int next = (gap + 1) & mask;
+		int hash;
+		while ((hash = slots.getHash(next)) != 0) {
+			int home = home(hash);
+			// 当 home 不在 (gap, next] 的循环区间内时，条目可以移到空位；
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				slots.copySlot(next, slots, gap);
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+		slots.clearSlot(gap);
+		size--;
+		return true;
+	}
+
+	/**
+	 * 遍历全部已占用的槽位；
+	 */
+	final void forEachSlot(SlotVisitor visitor) {
+		HashSlots slots = this.slots;
+		for (int i = 0; i < slots.capacity; i++) {
+			if (slots.getHash(i) != 0) {
+				byte[] key = new byte[keySize];
+				slots.copyKey(i, key, 0);
+				visitor.visit(i, new Bytes(key));
+			}
+		}
+	}
+
+	static interface SlotVisitor {
+
+		void visit(int slot, Bytes key);
+
+	}
+}
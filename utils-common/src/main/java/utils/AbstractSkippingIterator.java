@@ -1,5 +1,8 @@
 package utils;
 
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
 /**
  * {@link AbstractSkippingIterator} 提供了对 {@link SkippingIterator} 的基础实现；
  * 
@@ -63,4 +66,71 @@ public abstract class AbstractSkippingIterator<T> implements SkippingIterator<T>
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * 返回遍历剩余元素的 {@link Spliterator}；迭代器随之到达末尾；
+	 * <p>
+	 * 
+	 * 返回的 {@link Spliterator} 通过 {@link #get(long)} 按位置读取元素，分割时把剩余的位置范围从中间一分为二，
+	 * 可以并行处理，此时 {@link #get(long)} 会被多个线程同时调用；不支持 {@link #get(long)} 的子类应重写此方法；
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		long from = cursor + 1;
+		long total = getTotalCount();
+		cursor = total - 1;
+		return new RangeSpliterator(Math.min(from, total), total);
+	}
+
+	/**
+	 * 通过 {@link AbstractSkippingIterator#get(long)} 遍历 [index, fence) 范围内元素的 {@link Spliterator}；
+	 */
+	private class RangeSpliterator implements Spliterator<T> {
+
+		private long index;
+
+		private final long fence;
+
+		RangeSpliterator(long fromIndex, long toIndex) {
+			this.index = fromIndex;
+			this.fence = toIndex;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (index >= fence) {
+				return false;
+			}
+			action.accept(get(index++));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			while (index < fence) {
+				action.accept(get(index++));
+			}
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			long half = (fence - index) >>> 1;
+			if (half == 0) {
+				return null;
+			}
+			long from = index;
+			index += half;
+			return new RangeSpliterator(from, index);
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED;
+		}
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Bytes} 的 Base58 编码缓存；
+ * <p>
+ *
+ * 以 {@link Bytes} 的内容为键（使用 {@link Bytes#hashCode()} 定位，{@link Bytes#equals(Bytes)}
+ * 确认），缓存其 Base58 编码结果；<br>
+ *
+ * 缓存采用固定容量的直接映射表：每个哈希槽只保存一个条目，新的条目直接覆盖旧条目；读写都不加锁，内存占用以容量为上限；<br>
+ *
+ * 通过 {@link Bytes#setBase58Cache(Base58Cache)} 开启，默认不开启；
+ *
+ * @author huanghaiquan
+ *
+ */
+public class Base58Cache {
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private final AtomicReferenceArray<Entry> entries;
+
+	private final int mask;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * @param capacity 缓存的最大条目数；实际容量会向上取整为 2 的幂；
+	 */
+	public Base58Cache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity of cache is less than 1!");
+		}
+		int size = capacity >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit(capacity - 1) << 1;
+		if (size == 0) {
+			size = 1;
+		}
+		this.entries = new AtomicReferenceArray<Entry>(size);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * 缓存的容量；
+	 *
+	 * @return int
+	 */
+	public int getCapacity() {
+		return entries.length();
+	}
+
+	/**
+	 * 返回指定字节的 Base58 编码；如果缓存未命中，则进行编码并写入缓存；
+	 *
+	 * @param bytes bytes
+	 * @return String
+	 */
+	public String encode(Bytes bytes) {
+		int index = indexOf(bytes.hashCode());
+		Entry entry = entries.get(index);
+		if (entry != null && entry.key.equals(bytes)) {
+			hits.increment();
+			return entry.value;
+		}
+		misses.increment();
+		String value = bytes.encodeBase58();
+		entries.lazySet(index, new Entry(bytes, value));
+		return value;
+	}
+
+	/**
+	 * 命中次数；
+	 *
+	 * @return long
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * 未命中次数；
+	 *
+	 * @return long
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * 命中率；尚未有请求时返回 0；
+	 *
+	 * @return double
+	 */
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	/**
+	 * 清空缓存条目和统计数据；
+	 */
+	public void clear() {
+		for (int i = 0; i < entries.length(); i++) {
+			entries.set(i, null);
+		}
+		hits.reset();
+		misses.reset();
+	}
+
+	private int indexOf(int hashCode) {
+		return (hashCode ^ (hashCode >>> 16)) & mask;
+	}
+
+	private static class Entry {
+
+		private final Bytes key;
+
+		private final String value;
+
+		public Entry(Bytes key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
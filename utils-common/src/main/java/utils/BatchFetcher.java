@@ -0,0 +1,22 @@
+package utils;
+
+/**
+ * 批量读取数据的后端；
+ * 
+ * @author huanghaiquan
+ *
+ * @param <T>
+ */
+@FunctionalInterface
+public interface BatchFetcher<T> {
+
+	/**
+	 * 读取从指定位置开始的连续多个元素；
+	 * 
+	 * @param fromIndex 起始位置；
+	 * @param count     元素的个数；调用者保证不超出数据的范围；
+	 * @return 长度为 count 的数组；
+	 */
+	T[] fetch(long fromIndex, int count);
+
+}
@@ -0,0 +1,135 @@
+package utils;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 按位置范围分割的 {@link Spliterator}；
+ * <p>
+ * 
+ * 遍历 [fromIndex, toIndex) 范围内的元素，每次通过 {@link BatchFetcher} 读取一批；
+ * 分割时把范围从中间一分为二，因此可以通过 {@link java.util.stream.StreamSupport#stream(Spliterator, boolean)}
+ * 在 fork-join 线程池中并行处理各个子范围；并行处理时 {@link BatchFetcher} 会被多个线程同时调用；
+ * 
+ * @author huanghaiquan
+ *
+ * @param <T>
+ */
+public class BatchSpliterator<T> implements Spliterator<T> {
+
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
+	private final BatchFetcher<T> fetcher;
+
+	private final int batchSize;
+
+	/**
+	 * 下一个尚未读取的元素的位置；
+	 */
+	private long index;
+
+	private final long fence;
+
+	/**
+	 * 已读取但尚未遍历的元素；
+	 */
+	private T[] batch;
+
+	private int batchPos;
+
+	public BatchSpliterator(BatchFetcher<T> fetcher, long fromIndex, long toIndex) {
+		this(fetcher, fromIndex, toIndex, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * @param fetcher   批量读取数据的后端；
+	 * @param fromIndex 起始位置（含）；
+	 * @param toIndex   结束位置（不含）；
+	 * @param batchSize 每次读取的元素个数，也是分割的最小粒度；
+	 */
+	public BatchSpliterator(BatchFetcher<T> fetcher, long fromIndex, long toIndex, int batchSize) {
+		if (fromIndex < 0 || toIndex < fromIndex) {
+			throw new IllegalArgumentException("The range is out of bound! --[" + fromIndex + ", " + toIndex + ")");
+		}
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("The batch size is less than 1!");
+		}
+		this.fetcher = fetcher;
+		this.index = fromIndex;
+		this.fence = toIndex;
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		if (batch == null || batchPos == batch.length) {
+			if (index >= fence) {
+				return false;
+			}
+			batch = fetch((int) Math.min(batchSize, fence - index));
+			batchPos = 0;
+		}
+		T v = batch[batchPos];
+		batch[batchPos++] = null;
+		action.accept(v);
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		if (batch != null) {
+			while (batchPos < batch.length) {
+				T v = batch[batchPos];
+				batch[batchPos++] = null;
+				action.accept(v);
+			}
+			batch = null;
+		}
+		while (index < fence) {
+			T[] datas = fetch((int) Math.min(batchSize, fence - index));
+			for (T v : datas) {
+				action.accept(v);
+			}
+		}
+	}
+
+	private T[] fetch(int count) {
+		T[] datas = fetcher.fetch(index, count);
+		if (datas == null || datas.length < count) {
+			throw new IllegalStateException("The backend returned fewer elements than requested! --[fromIndex="
+					+ index + ", count=" + count + "]");
+		}
+		index += count;
+		return datas;
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		if (batch != null && batchPos < batch.length) {
+			// 已经开始遍历当前批次时不再分割；
+			return null;
+		}
+		long half = (fence - index) >>> 1;
+		if (half < batchSize) {
+			return null;
+		}
+		long from = index;
+		index += half;
+		return new BatchSpliterator<>(fetcher, from, index, batchSize);
+	}
+
+	@Override
+	public long estimateSize() {
+		long size = fence - index;
+		if (batch != null) {
+			size += batch.length - batchPos;
+		}
+		return size;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED;
+	}
+
+}
@@ -38,6 +38,8 @@ public class Bytes implements ByteSequence, BytesSerializable, Serializable {
 		}
 	}
 
+	private static volatile Base58Cache base58Cache;
+
 	private final Bytes prefix;
 
 	private final int prefixSize;
@@ -140,6 +142,27 @@ public class Bytes implements ByteSequence, BytesSerializable, Serializable {
 		return new Bytes(Base58Utils.decode(base58Str));
 	}
 
+	/**
+	 * 设置 {@link #toBase58()} 和 {@link #toString()} 使用的 Base58 编码缓存；
+	 * <p>
+	 * 
+	 * 参数为 null 时关闭缓存；默认不开启缓存；
+	 * 
+	 * @param cache
+	 */
+	public static void setBase58Cache(Base58Cache cache) {
+		base58Cache = cache;
+	}
+
+	/**
+	 * 返回当前的 Base58 编码缓存；未开启时返回 null；
+	 * 
+	 * @return
+	 */
+	public static Base58Cache getBase58Cache() {
+		return base58Cache;
+	}
+
 	public Bytes concat(ByteSequence key) {
 		if (key instanceof Bytes) {
 			return new Bytes(this, (Bytes) key);
@@ -384,7 +407,27 @@ public class Bytes implements ByteSequence, BytesSerializable, Serializable {
 		return buffer;
 	}
 
+	/**
+	 * 返回 Base58 编码的字符；
+	 * <p>
+	 * 
+	 * 如果已经通过 {@link #setBase58Cache(Base58Cache)} 开启了缓存，则优先从缓存中获取；
+	 * 
+	 * @return String
+	 */
 	public String toBase58() {
+		Base58Cache cache = base58Cache;
+		if (cache != null) {
+			return cache.encode(this);
+		}
+		return encodeBase58();
+	}
+
+	String encodeBase58() {
+		if (prefix == null || prefixSize == 0) {
+			// 编码过程不会修改输入，无需复制；
+			return Base58Utils.encode(bytes);
+		}
 		return Base58Utils.encode(toBytes());
 	}
 
@@ -0,0 +1,108 @@
+package utils;
+
+import java.util.function.ObjLongConsumer;
+
+/**
+ * 以定长字节序列为键、以 long 为值的哈希表；
+ * <p>
+ *
+ * 相比 HashMap&lt;Bytes, Long&gt;，不为每个条目创建节点对象和装箱的值，键和值都内联保存在扁平的存储中；<br>
+ *
+ * 典型用法是以 32 字节的哈希为键，记录版本号或偏移量；
+ *
+ * @author huanghaiquan
+ *
+ */
+public class BytesLongMap extends AbstractBytesHashMap {
+
+	/**
+	 * @param keySize 键的字节长度；
+	 */
+	public BytesLongMap(int keySize) {
+		this(keySize, DEFAULT_EXPECTED_SIZE, false);
+	}
+
+	/**
+	 * @param keySize      键的字节长度；
+	 * @param expectedSize 预期的条目数；
+	 * @param offHeap      是否把键和值保存在堆外内存；
+	 */
+	public BytesLongMap(int keySize, int expectedSize, boolean offHeap) {
+		super(keySize, expectedSize, offHeap, HashSlots.ValueType.LONG);
+	}
+
+	/**
+	 * 返回指定键的值；
+	 *
+	 * @param key          键；
+	 * @param defaultValue 键不存在时返回的默认值；
+	 * @return long
+	 */
+	public long get(byte[] key, long defaultValue) {
+		int slot = indexOf(key);
+		return slot < 0 ? defaultValue : slots.getValue(slot);
+	}
+
+	public long get(ByteSequence key, long defaultValue) {
+		int slot = indexOf(key);
+		return slot < 0 ? defaultValue : slots.getValue(slot);
+	}
+
+	/**
+	 * 设置指定键的值；
+	 *
+	 * @param key   键；
+	 * @param value 值；
+	 * @return 如果键是新加入的，返回 true；如果是更新已有的键，返回 false；
+	 */
+	public boolean put(byte[] key, long value) {
+		return set(insert(key), value);
+	}
+
+	public boolean put(ByteSequence key, long value) {
+		return set(insert(key), value);
+	}
+
+	/**
+	 * 把指定键的值加上增量；键不存在时以 0 为初始值；
+	 *
+	 * @param key   键；
+	 * @param delta 增量；
+	 * @return 新的值；
+	 */
+	public long increment(byte[] key, long delta) {
+		return add(insert(key), delta);
+	}
+
+	public long increment(ByteSequence key, long delta) {
+		return add(insert(key), delta);
+	}
+
+	/**
+	 * 遍历全部条目；每次回调的键都是新创建的 {@link Bytes} 对象；
+	 *
+	 * @param action
+	 */
+	public void forEach(ObjLongConsumer<Bytes> action) {
+		forEachSlot((slot, key) -> action.accept(key, slots.getValue(slot)));
+	}
+
+	private boolean set(int slot, long value) {
+		if (slot < 0) {
+			slots.setValue(-slot - 1, value);
+			return true;
+		}
+		slots.setValue(slot, value);
+		return false;
+	}
+
+	private long add(int slot, long delta) {
+		if (slot < 0) {
+			slots.setValue(-slot - 1, delta);
+			return delta;
+		}
+		long value = slots.getValue(slot) + delta;
+		slots.setValue(slot, value);
+		return value;
+	}
+}
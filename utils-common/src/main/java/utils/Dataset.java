@@ -1,5 +1,8 @@
 package utils;
 
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Key-Value data set;
  * 
@@ -94,4 +97,28 @@ public interface Dataset<K, V> {
 
 	DataEntry<K, V>[] getDataEntries(long fromIndex, int count);
 
+	/**
+	 * Return a stream of the data entries in the specified range;<br>
+	 * 
+	 * The entries are loaded page by page through
+	 * {@link #getDataEntries(long, int)}. The stream is sequential; call
+	 * {@link Stream#parallel()} to process the range in parallel on the fork-join
+	 * pool, which splits the range and calls {@link #getDataEntries(long, int)}
+	 * concurrently.
+	 * 
+	 * @param fromIndex The index of the first entry;
+	 * @param count     The max number of entries; It is truncated to the total
+	 *                  count of data entries;
+	 * @return
+	 */
+	default Stream<DataEntry<K, V>> stream(long fromIndex, long count) {
+		if (fromIndex < 0 || count < 0) {
+			throw new IllegalArgumentException("The range is out of bound!");
+		}
+		long total = getDataCount();
+		long from = Math.min(fromIndex, total);
+		long to = count < total - from ? from + count : total;
+		return StreamSupport.stream(new BatchSpliterator<DataEntry<K, V>>(this::getDataEntries, from, to), false);
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package utils;
+
+import java.util.function.BiConsumer;
+
+/**
+ * 以 32 字节哈希为键的对象哈希表；
+ * <p>
+ *
+ * 键内联保存在扁平的存储中（可选择堆外），值保存在堆内的对象数组中；
+ *
+ * @author huanghaiquan
+ *
+ * @param <V> 值的类型；
+ */
+public class Hash32ObjectMap<V> extends AbstractBytesHashMap {
+
+	public static final int KEY_SIZE = 32;
+
+	public Hash32ObjectMap() {
+		this(DEFAULT_EXPECTED_SIZE, false);
+	}
+
+	/**
+	 * @param expectedSize 预期的条目数；
+	 * @param offHeap      是否把键保存在堆外内存；
+	 */
+	public Hash32ObjectMap(int expectedSize, boolean offHeap) {
+		super(KEY_SIZE, expectedSize, offHeap, HashSlots.ValueType.OBJECT);
+	}
+
+	public V get(byte[] key) {
+		return valueAt(indexOf(key));
+	}
+
+	public V get(ByteSequence key) {
+		return valueAt(indexOf(key));
+	}
+
+	/**
+	 * 设置指定键的值；
+	 *
+	 * @param key   键；
+	 * @param value 值；
+	 * @return 返回原来的值；如果键是新加入的，返回 null；
+	 */
+	public V put(byte[] key, V value) {
+		return set(insert(key), value);
+	}
+
+	public V put(ByteSequence key, V value) {
+		return set(insert(key), value);
+	}
+
+	/**
+	 * 遍历全部条目；每次回调的键都是新创建的 {@link Bytes} 对象；
+	 *
+	 * @param action
+	 */
+	public void forEach(BiConsumer<Bytes, V> action) {
+		forEachSlot((slot, key) -> action.accept(key, valueAt(slot)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(int slot) {
+		return slot < 0 ? null : (V) slots.getObject(slot);
+	}
+
+	private V set(int slot, V value) {
+		if (slot < 0) {
+			slots.setObject(-slot - 1, value);
+			return null;
+		}
+		V old = valueAt(slot);
+		slots.setObject(slot, value);
+		return old;
+	}
+}
@@ -0,0 +1,340 @@
+package utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 开放寻址哈希表的槽位存储；
+ * <p>
+ *
+ * 每个槽位是一条由若干个 64 位字（word）构成的定长记录：<br>
+ * [哈希码(32) | int 值(32)] [long 值（可选）] [键（按大端序打包为 long，末尾补 0）]<br>
+ * 哈希码为 0 表示空槽；<br>
+ *
+ * 记录连续地保存在扁平的存储中，不为每个条目创建对象，一次探测只访问一段连续内存；存储空间按页分段，因此总容量不受单个数组 2GB
+ * 上限的限制；<br>
+ *
+ * 提供堆内（long[]）和堆外（直接内存）两种实现；对象类型的值始终保存在堆内的对象数组中；
+ *
+ * @author huanghaiquan
+ *
+ */
+abstract class HashSlots {
+
+	/**
+	 * 单个存储页的最大字数（1GB）；
+	 */
+	static final int MAX_PAGE_WORDS = 1 << 27;
+
+	private static final long LOW_MASK = 0xFFFFFFFFL;
+
+	enum ValueType {
+
+		NONE,
+
+		INT,
+
+		LONG,
+
+		OBJECT;
+
+	}
+
+	protected final int keySize;
+
+	protected final int capacity;
+
+	protected final ValueType valueType;
+
+	/**
+	 * 键占用的字数；
+	 */
+	protected final int keyWords;
+
+	/**
+	 * 键在记录中的起始字；
+	 */
+	protected final int keyOffset;
+
+	/**
+	 * 每条记录的字数；
+	 */
+	protected final int recordWords;
+
+	private Object[] objects;
+
+	protected HashSlots(int keySize, int capacity, ValueType valueType) {
+		this.keySize = keySize;
+		this.capacity = capacity;
+		this.valueType = valueType;
+		this.keyWords = (keySize + 7) >>> 3;
+		this.keyOffset = valueType == ValueType.LONG ? 2 : 1;
+		this.recordWords = keyOffset + keyWords;
+		if (valueType == ValueType.OBJECT) {
+			objects = new Object[capacity];
+		}
+	}
+
+	static HashSlots create(int keySize, int capacity, ValueType valueType, boolean offHeap) {
+		return offHeap ? new OffHeapSlots(keySize, capacity, valueType)
+				: new HeapSlots(keySize, capacity, valueType);
+	}
+
+	/**
+	 * 计算每页的记录数，取 2 的幂以便通过移位定位；
+	 */
+	static int slotsPerPage(int recordWords, int capacity) {
+		int slots = Integer.highestOneBit(MAX_PAGE_WORDS / recordWords);
+		return Math.min(slots, capacity);
+	}
+
+	/**
+	 * 把键按大端序打包为 long 数组，末尾不足 8 字节的部分补 0；
+	 *
+	 * @param key   键；
+	 * @param words 输出；
+	 */
+	void pack(byte[] key, long[] words) {
+		for (int w = 0, i = 0; w < keyWords; w++) {
+			long word = 0;
+			for (int k = 0; k < 8; k++, i++) {
+				word = (word << 8) | (i < keySize ? key[i] & 0xFF : 0);
+			}
+			words[w] = word;
+		}
+	}
+
+	/**
+	 * 创建一个相同类型和键长度的新存储；
+	 *
+	 * @param capacity 新的容量；
+	 * @return
+	 */
+	abstract HashSlots newSlots(int capacity);
+
+	abstract boolean isOffHeap();
+
+	abstract long getWord(int slot, int index);
+
+	abstract void setWord(int slot, int index, long word);
+
+	int getHash(int slot) {
+		return (int) (getWord(slot, 0) >>> 32);
+	}
+
+	void setHash(int slot, int hash) {
+		setWord(slot, 0, ((long) hash << 32) | (getWord(slot, 0) & LOW_MASK));
+	}
+
+	boolean keyEquals(int slot, long[] key) {
+		for (int i = 0; i < keyWords; i++) {
+			if (getWord(slot, keyOffset + i) != key[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	void setKey(int slot, long[] key) {
+		for (int i = 0; i < keyWords; i++) {
+			setWord(slot, keyOffset + i, key[i]);
+		}
+	}
+
+	void copyKey(int slot, byte[] dest, int offset) {
+		for (int w = 0, i = 0; w < keyWords; w++) {
+			long word = getWord(slot, keyOffset + w);
+			for (int k = 56; k >= 0 && i < keySize; k -= 8, i++) {
+				dest[offset + i] = (byte) (word >>> k);
+			}
+		}
+	}
+
+	long getValue(int slot) {
+		if (valueType == ValueType.LONG) {
+			return getWord(slot, 1);
+		}
+		return (int) getWord(slot, 0);
+	}
+
+	void setValue(int slot, long value) {
+		if (valueType == ValueType.LONG) {
+			setWord(slot, 1, value);
+		} else {
+			setWord(slot, 0, (getWord(slot, 0) & ~LOW_MASK) | (value & LOW_MASK));
+		}
+	}
+
+	Object getObject(int slot) {
+		return objects[slot];
+	}
+
+	void setObject(int slot, Object value) {
+		objects[slot] = value;
+	}
+
+	/**
+	 * 把指定槽位的全部内容复制到目标存储的指定槽位；
+	 *
+	 * @param slot       源槽位；
+	 * @param target     目标存储；
+	 * @param targetSlot 目标槽位；
+	 */
+	void copySlot(int slot, HashSlots target, int targetSlot) {
+		for (int i = 0; i < recordWords; i++) {
+			target.setWord(targetSlot, i, getWord(slot, i));
+		}
+		if (objects != null) {
+			target.objects[targetSlot] = objects[slot];
+		}
+	}
+
+	/**
+	 * 清空指定槽位；
+	 *
+	 * @param slot
+	 */
+	void clearSlot(int slot) {
+		setWord(slot, 0, 0);
+		if (objects != null) {
+			objects[slot] = null;
+		}
+	}
+
+	/**
+	 * 清空全部槽位；
+	 */
+	void clearAll() {
+		for (int i = 0; i < capacity; i++) {
+			clearSlot(i);
+		}
+	}
+
+	/**
+	 * 释放存储空间；
+	 */
+	void release() {
+		objects = null;
+	}
+
+	// ------------------------------------------------------------
+
+	/**
+	 * 堆内存储：记录保存在分页的 long[] 中；
+	 */
+	private static class HeapSlots extends HashSlots {
+
+		private long[][] pages;
+
+		private final int pageShift;
+
+		private final int pageMask;
+
+		public HeapSlots(int keySize, int capacity, ValueType valueType) {
+			super(keySize, capacity, valueType);
+			int slotsPerPage = slotsPerPage(recordWords, capacity);
+			this.pageShift = Integer.numberOfTrailingZeros(slotsPerPage);
+			this.pageMask = slotsPerPage - 1;
+			this.pages = new long[capacity / slotsPerPage][];
+			for (int i = 0; i < pages.length; i++) {
+				pages[i] = new long[slotsPerPage * recordWords];
+			}
+		}
+
+		@Override
+		HashSlots newSlots(int capacity) {
+			return new HeapSlots(keySize, capacity, valueType);
+		}
+
+		@Override
+		boolean isOffHeap() {
+			return false;
+		}
+
+		@Override
+		long getWord(int slot, int index) {
+			return pages[slot >>> pageShift][(slot & pageMask) * recordWords + index];
+		}
+
+		@Override
+		void setWord(int slot, int index, long word) {
+			pages[slot >>> pageShift][(slot & pageMask) * recordWords + index] = word;
+		}
+
+		@Override
+		boolean keyEquals(int slot, long[] key) {
+			long[] page = pages[slot >>> pageShift];
+			int pos = (slot & pageMask) * recordWords + keyOffset;
+			for (int i = 0; i < keyWords; i++) {
+				if (page[pos + i] != key[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		void release() {
+			super.release();
+			pages = null;
+		}
+	}
+
+	// ------------------------------------------------------------
+
+	/**
+	 * 堆外存储：记录保存在分页的直接内存中；
+	 * <p>
+	 *
+	 * 直接内存在存储对象被回收时由 JVM 释放；
+	 */
+	private static class OffHeapSlots extends HashSlots {
+
+		private ByteBuffer[] pages;
+
+		private final int recordBytes;
+
+		private final int pageShift;
+
+		private final int pageMask;
+
+		public OffHeapSlots(int keySize, int capacity, ValueType valueType) {
+			super(keySize, capacity, valueType);
+			this.recordBytes = recordWords << 3;
+			int slotsPerPage = slotsPerPage(recordWords, capacity);
+			this.pageShift = Integer.numberOfTrailingZeros(slotsPerPage);
+			this.pageMask = slotsPerPage - 1;
+			this.pages = new ByteBuffer[capacity / slotsPerPage];
+			for (int i = 0; i < pages.length; i++) {
+				// 新分配的直接内存已初始化为 0，即全部为空槽；
+				pages[i] = ByteBuffer.allocateDirect(slotsPerPage * recordBytes).order(ByteOrder.nativeOrder());
+			}
+		}
+
+		@Override
+		HashSlots newSlots(int capacity) {
+			return new OffHeapSlots(keySize, capacity, valueType);
+		}
+
+		@Override
+		boolean isOffHeap() {
+			return true;
+		}
+
+		@Override
+		long getWord(int slot, int index) {
+			return pages[slot >>> pageShift].getLong((slot & pageMask) * recordBytes + (index << 3));
+		}
+
+		@Override
+		void setWord(int slot, int index, long word) {
+			pages[slot >>> pageShift].putLong((slot & pageMask) * recordBytes + (index << 3), word);
+		}
+
+		@Override
+		void release() {
+			super.release();
+			pages = null;
+		}
+	}
+}
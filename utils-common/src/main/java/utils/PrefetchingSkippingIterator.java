@@ -0,0 +1,134 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import utils.concurrent.ThreadExecutors;
+
+/**
+ * 预读下一页的 {@link SkippingIterator}；
+ * <p>
+ * 
+ * 每加载一页之后，立即在执行器中异步读取紧随其后的一页，调用者处理当前页的同时下一页已在读取，
+ * 从而把后端的读取延迟和调用者的处理时间重叠起来；跳过元素之后预读的页不再连续时被取消，尚未开始的读取不再执行；<br>
+ * 
+ * 迭代器本身不是线程安全的；{@link BatchFetcher} 会在执行器的线程中被调用，可能与调用者线程中的读取同时进行；
+ * 
+ * @author huanghaiquan
+ *
+ * @param <T>
+ */
+public class PrefetchingSkippingIterator<T> extends AbstractBatchSkippingIterator<T> {
+
+	private final long totalCount;
+
+	private final BatchFetcher<T> fetcher;
+
+	private final Executor executor;
+
+	private CompletableFuture<T[]> prefetch;
+
+	private long prefetchStart = -1;
+
+	public PrefetchingSkippingIterator(long totalCount, BatchFetcher<T> fetcher) {
+		this(totalCount, DEFAULT_PAGE_SIZE, fetcher, ThreadExecutors.getDefaultExecutor());
+	}
+
+	/**
+	 * @param totalCount 元素的总数；
+	 * @param pageSize   每页的元素个数；
+	 * @param fetcher    批量读取数据的后端；
+	 * @param executor   执行预读的执行器；
+	 */
+	public PrefetchingSkippingIterator(long totalCount, int pageSize, BatchFetcher<T> fetcher, Executor executor) {
+		super(pageSize);
+		if (totalCount < 0) {
+			throw new IllegalArgumentException("The total count is negative!");
+		}
+		if (fetcher == null) {
+			throw new IllegalArgumentException("Fetcher is null!");
+		}
+		if (executor == null) {
+			throw new IllegalArgumentException("Executor is null!");
+		}
+		this.totalCount = totalCount;
+		this.fetcher = fetcher;
+		this.executor = executor;
+	}
+
+	@Override
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	@Override
+	public long skip(long skippingCount) {
+		long skipped = super.skip(skippingCount);
+		if (prefetch != null && cursor + 1 > prefetchStart) {
+			cancelPrefetch();
+		}
+		return skipped;
+	}
+
+	@Override
+	protected T[] fetch(long fromIndex, int count) {
+		return fetcher.fetch(fromIndex, count);
+	}
+
+	@Override
+	protected T[] loadPage(long fromIndex, int count) {
+		T[] datas;
+		CompletableFuture<T[]> f = prefetch;
+		if (f != null && prefetchStart == fromIndex) {
+			datas = join(f);
+			if (datas != null && datas.length < count) {
+				// 请求的数量多于预读的一页，补齐剩余部分；
+				T[] rest = fetch(fromIndex + datas.length, count - datas.length);
+				int len = datas.length;
+				datas = Arrays.copyOf(datas, count);
+				System.arraycopy(rest, 0, datas, len, count - len);
+			}
+		} else {
+			if (f != null) {
+				cancelPrefetch();
+			}
+			datas = fetch(fromIndex, count);
+		}
+		prefetchNext(fromIndex + count);
+		return datas;
+	}
+
+	private void prefetchNext(long fromIndex) {
+		if (fromIndex >= totalCount) {
+			prefetch = null;
+			prefetchStart = -1;
+			return;
+		}
+		int count = (int) Math.min(getPageSize(), totalCount - fromIndex);
+		prefetchStart = fromIndex;
+		prefetch = CompletableFuture.supplyAsync(() -> fetcher.fetch(fromIndex, count), executor);
+	}
+
+	private void cancelPrefetch() {
+		prefetch.cancel(true);
+		prefetch = null;
+		prefetchStart = -1;
+	}
+
+	private static <T> T[] join(CompletableFuture<T[]> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+package utils;
+
+import utils.concurrent.ThreadExecutors;
+
+/**
+ * 基于 {@link SkippingIterator} 的 {@link DataIterator} 实现；
+ * <p>
+ * 
+ * {@link #next(int)} 通过 {@link SkippingIterator#next(Object[], int, int)} 批量读取，
+ * 当源迭代器是 {@link AbstractBatchSkippingIterator} 时只需要一次或少数几次后端读取；
+ * 
+ * @author huanghaiquan
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class SkippingDataIterator<K, V> implements DataIterator<K, V> {
+
+	private final SkippingIterator<DataEntry<K, V>> entries;
+
+	public SkippingDataIterator(SkippingIterator<DataEntry<K, V>> entries) {
+		this.entries = entries;
+	}
+
+	/**
+	 * 创建按页预读数据集的迭代器；
+	 * <p>
+	 * 
+	 * 迭代的范围是创建时数据集中的全部数据项；
+	 * 
+	 * @param dataset  数据集；
+	 * @param pageSize 每页的数据项个数；
+	 * @return
+	 */
+	public static <K, V> DataIterator<K, V> of(Dataset<K, V> dataset, int pageSize) {
+		return new SkippingDataIterator<K, V>(new PrefetchingSkippingIterator<DataEntry<K, V>>(dataset.getDataCount(),
+				pageSize, dataset::getDataEntries, ThreadExecutors.getDefaultExecutor()));
+	}
+
+	@Override
+	public void skip(long count) {
+		entries.skip(count);
+	}
+
+	@Override
+	public DataEntry<K, V> next() {
+		return entries.next();
+	}
+
+	@Override
+	public DataEntry<K, V>[] next(int count) {
+		int n = (int) Math.min(entries.getCount(), (long) count);
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		DataEntry<K, V>[] datas = new DataEntry[n];
+		entries.next(datas, 0, n);
+		return datas;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return entries.hasNext();
+	}
+
+}
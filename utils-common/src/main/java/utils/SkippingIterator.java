@@ -2,6 +2,10 @@ package utils;
 
 import java.lang.reflect.Array;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 可跳过中间项的迭代器；
@@ -88,7 +92,7 @@ public interface SkippingIterator<E> extends Iterator<E> {
 	 * @return 实际输出的元素的数量；
 	 */
 	default int next(E[] datas, int offset) {
-		return next(datas, 0, datas.length);
+		return next(datas, offset, datas.length - offset);
 	}
 
 	/**
@@ -103,10 +107,10 @@ public interface SkippingIterator<E> extends Iterator<E> {
 		int count = (int) Math.min(getCount(), (long) maxCount);
 		int i = 0;
 		while (i < count && hasNext()) {
-			datas[i] = next();
+			datas[offset + i] = next();
 			i++;
 		}
-		return count;
+		return i;
 	}
 	
 	/**
@@ -150,7 +154,7 @@ public interface SkippingIterator<E> extends Iterator<E> {
 	 * @return 实际输出的元素的数量；
 	 */
 	default <T> int next(T[] datas, int offset, Mapper<E, T> mapper) {
-		return next(datas, 0, datas.length, mapper);
+		return next(datas, offset, datas.length - offset, mapper);
 	}
 	
 	
@@ -166,12 +170,34 @@ public interface SkippingIterator<E> extends Iterator<E> {
 		int count = (int) Math.min(getCount(), (long) maxCount);
 		int i = 0;
 		while (i < count && hasNext()) {
-			datas[i] = mapper.from(next());
+			datas[offset + i] = mapper.from(next());
 			i++;
 		}
-		return count;
+		return i;
 	}
 	
+	/**
+	 * 返回遍历剩余元素的 {@link Spliterator}；
+	 * <p>
+	 * 
+	 * 默认实现在分割时把元素读取到数组中，由迭代器按顺序提供元素；支持随机读取的实现可以重写以按位置范围分割；
+	 * 
+	 * @return
+	 */
+	default Spliterator<E> spliterator() {
+		return Spliterators.spliterator(this, getCount(), Spliterator.ORDERED);
+	}
+
+	/**
+	 * 返回剩余元素的流；
+	 * 
+	 * @param parallel 是否并行；
+	 * @return
+	 */
+	default Stream<E> stream(boolean parallel) {
+		return StreamSupport.stream(spliterator(), parallel);
+	}
+
 	default <T> SkippingIterator<T> iterateAs(Mapper<E, T> mapper){
 		SkippingIterator<E> source = this;
 		return new SkippingIterator<T>() {
@@ -0,0 +1,133 @@
+package utils.codec;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.CharBuffer;
+
+/**
+ * {@link Base58InputStream} 解码由 {@link Base58OutputStream} 产生的分块 Base58 格式；
+ * <p>
+ * 
+ * 每次读取并解码一行（一个数据块），内存占用以块大小为上限；兼容以 "\r\n" 结尾的行，忽略空行；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public class Base58InputStream extends FilterInputStream {
+
+	private final char[] chars;
+
+	private final CharBuffer charBuffer;
+
+	private final byte[] single = new byte[1];
+
+	private final byte[] buffer = new byte[4096];
+
+	private int bufferPosition;
+
+	private int bufferLimit;
+
+	private byte[] chunk = new byte[0];
+
+	private int position;
+
+	public Base58InputStream(InputStream in) {
+		this(in, Base58OutputStream.DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param in           输入流；
+	 * @param maxChunkSize 允许的最大数据块的字节数；超出时抛出 {@link DataDecodeException}；
+	 */
+	public Base58InputStream(InputStream in, int maxChunkSize) {
+		super(in);
+		if (maxChunkSize < 1) {
+			throw new IllegalArgumentException("The max chunk size is less than 1!");
+		}
+		this.chars = new char[Base58Utils.getMaxEncodedLength(maxChunkSize)];
+		this.charBuffer = CharBuffer.wrap(chars);
+	}
+
+	@Override
+	public int read() throws IOException {
+		int n = read(single, 0, 1);
+		return n < 0 ? -1 : single[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || off + len > b.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		while (position == chunk.length) {
+			if (!readChunk()) {
+				return -1;
+			}
+		}
+		int n = Math.min(len, chunk.length - position);
+		System.arraycopy(chunk, position, b, off, n);
+		position += n;
+		return n;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return chunk.length - position;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("Mark/reset not supported!");
+	}
+
+	/**
+	 * 读取并解码下一行；
+	 * 
+	 * @return 到达输入流末尾时返回 false；
+	 * @throws IOException
+	 */
+	private boolean readChunk() throws IOException {
+		int length = 0;
+		int c;
+		while ((c = readChar()) >= 0 && c != Base58OutputStream.LINE_SEPARATOR) {
+			if (c == '\r') {
+				continue;
+			}
+			if (length == chars.length) {
+				throw new DataDecodeException("The Base58 chunk exceeds the max chunk size!");
+			}
+			chars[length++] = (char) c;
+		}
+		if (c < 0 && length == 0) {
+			return false;
+		}
+		chunk = Base58Utils.decode(charBuffer, 0, length);
+		position = 0;
+		return true;
+	}
+
+	private int readChar() throws IOException {
+		if (bufferPosition == bufferLimit) {
+			int n = in.read(buffer, 0, buffer.length);
+			if (n <= 0) {
+				return -1;
+			}
+			bufferPosition = 0;
+			bufferLimit = n;
+		}
+		return buffer[bufferPosition++] & 0xFF;
+	}
+}
@@ -0,0 +1,108 @@
+package utils.codec;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link Base58OutputStream} 把写入的字节按固定大小分块，每块独立进行 Base58 编码后作为一行写入被包装的输出流；
+ * <p>
+ * 
+ * Base58 编码的运算量随数据长度平方增长，不能对整个数据流直接编码，因此采用分块的格式：<br>
+ * 每个数据块编码为一行 ASCII 字符，以 '\n' 结尾；最后一块可以不足块大小；<br>
+ * 
+ * 分块格式由 {@link Base58InputStream} 解码；最后一块在 {@link #finish()} 或 {@link #close()} 时写出；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public class Base58OutputStream extends FilterOutputStream {
+
+	/**
+	 * 默认的数据块大小；
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 256;
+
+	static final byte LINE_SEPARATOR = '\n';
+
+	private final byte[] chunk;
+
+	private int count;
+
+	private final char[] chars;
+
+	private final byte[] line;
+
+	public Base58OutputStream(OutputStream out) {
+		this(out, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param out       输出流；
+	 * @param chunkSize 数据块的字节数；
+	 */
+	public Base58OutputStream(OutputStream out, int chunkSize) {
+		super(out);
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("The chunk size is less than 1!");
+		}
+		this.chunk = new byte[chunkSize];
+		this.chars = new char[Base58Utils.getMaxEncodedLength(chunkSize)];
+		this.line = new byte[chars.length + 1];
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		chunk[count++] = (byte) b;
+		if (count == chunk.length) {
+			writeChunk();
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || off + len > b.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		int end = off + len;
+		while (off < end) {
+			int n = Math.min(chunk.length - count, end - off);
+			System.arraycopy(b, off, chunk, count, n);
+			count += n;
+			off += n;
+			if (count == chunk.length) {
+				writeChunk();
+			}
+		}
+	}
+
+	/**
+	 * 写出缓冲中剩余的不足一块的数据，但不关闭被包装的输出流；
+	 * 
+	 * @throws IOException
+	 */
+	public void finish() throws IOException {
+		if (count > 0) {
+			writeChunk();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			finish();
+		} finally {
+			super.close();
+		}
+	}
+
+	private void writeChunk() throws IOException {
+		int size = Base58Utils.encode(chunk, 0, count, chars, 0);
+		for (int i = 0; i < size; i++) {
+			line[i] = (byte) chars[i];
+		}
+		line[size] = LINE_SEPARATOR;
+		out.write(line, 0, size + 1);
+		count = 0;
+	}
+}
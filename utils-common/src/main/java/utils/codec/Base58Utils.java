@@ -1,63 +1,191 @@
 package utils.codec;
 
+/**
+ * Base58 编解码工具；
+ * <p>
+ *
+ * 编码过程把输入看作大端序的无符号大整数，以 32 位整数为单元（limb），每轮对 58<sup>5</sup>
+ * 做一次长除法，一次得到 5 个 Base58 字符；解码过程则每次累加 5 个字符，对 limb 数组做一次乘加；<br>
+ *
+ * 相比逐字节的 divmod58，运算次数降低约一个数量级，且输出与逐字节算法完全一致；
+ */
 public class Base58Utils {
-	
+
 	private static final char[] ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz"
 			.toCharArray();
 	private static final int BASE_58 = ALPHABET.length;
-	private static final int BASE_256 = 256;
 
-	private static final int[] INDEXES = new int[128];
+	private static final char ENCODED_ZERO = ALPHABET[0];
+
+	/**
+	 * 每个 limb 运算单元对应的 Base58 字符数；
+	 */
+	private static final int DIGITS_PER_CHUNK = 5;
+
+	/**
+	 * 58^5 = 656356768，小于 2^30，保证长除法中间结果不超出 long 的表示范围；
+	 */
+	private static final long CHUNK_BASE = 58L * 58 * 58 * 58 * 58;
+
+	private static final long[] POWERS = { 1L, 58L, 58L * 58, 58L * 58 * 58, 58L * 58 * 58 * 58, CHUNK_BASE };
+
+	private static final long LIMB_MASK = 0xFFFFFFFFL;
+
+	/**
+	 * 32 字节（哈希）和 33 字节（压缩公钥/地址）输入的编码长度上限；
+	 */
+	private static final int MAX_ENCODED_LENGTH_32 = getMaxEncodedLength(32);
+	private static final int MAX_ENCODED_LENGTH_33 = getMaxEncodedLength(33);
+
+	private static final byte[] INDEXES = new byte[128];
 	static {
 		for (int i = 0; i < INDEXES.length; i++) {
 			INDEXES[i] = -1;
 		}
 		for (int i = 0; i < ALPHABET.length; i++) {
-			INDEXES[ALPHABET[i]] = i;
+			INDEXES[ALPHABET[i]] = (byte) i;
 		}
 	}
-	
-	
+
+	/**
+	 * 返回指定长度的字节数据经过 Base58 编码后的最大字符数；
+	 * <p>
+	 *
+	 * 调用 {@link #encode(byte[], int, int, char[], int)} 时，输出缓冲区应至少预留这个长度的空间；
+	 *
+	 * @param length 字节数据的长度；
+	 * @return int
+	 */
+	public static int getMaxEncodedLength(int length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("Length is negative!");
+		}
+		// log(256)/log(58) ≈ 1.3657；额外预留最后一轮长除法产生的前导 '1' 的空间；
+		return (int) ((length * 1366L + 999) / 1000) + DIGITS_PER_CHUNK;
+	}
 
 	public static String encode(byte[] input) {
-		if (input.length == 0) {
+		return encode(input, 0, input.length);
+	}
+
+	public static String encode(byte[] input, int offset, int length) {
+		if (length == 0) {
 			// paying with the same coin
 			return "";
 		}
+		char[] output = new char[maxEncodedLength(length)];
+		int size = encode(input, offset, length, output, 0);
+		return new String(output, 0, size);
+	}
 
-		//
-		// Make a copy of the input since we are going to modify it.
-		//
-		input = copyOfRange(input, 0, input.length);
+	/**
+	 * 把 Base58 编码结果追加到指定的 {@link StringBuilder}；
+	 *
+	 * @param input  输入；
+	 * @param offset 输入的起始位置；
+	 * @param length 输入的长度；
+	 * @param output 输出；
+	 * @return 返回写入的字符数；
+	 */
+	public static int encode(byte[] input, int offset, int length, StringBuilder output) {
+		if (length == 0) {
+			return 0;
+		}
+		char[] buffer = new char[maxEncodedLength(length)];
+		int size = encode(input, offset, length, buffer, 0);
+		output.append(buffer, 0, size);
+		return size;
+	}
+
+	/**
+	 * 把 Base58 编码结果写入调用者提供的字符数组；
+	 * <p>
+	 *
+	 * 输出缓冲区从 outOffset 开始至少应有 {@link #getMaxEncodedLength(int)} 个字符的空间；编码过程会使用这段空间作为暂存区，
+	 * 但只有返回值指定长度的字符是有效的编码结果；
+	 *
+	 * @param input     输入；
+	 * @param offset    输入的起始位置；
+	 * @param length    输入的长度；
+	 * @param output    输出缓冲区；
+	 * @param outOffset 输出缓冲区的起始位置；
+	 * @return 返回写入的字符数；
+	 */
+	public static int encode(byte[] input, int offset, int length, char[] output, int outOffset) {
+		if (offset < 0 || length < 0 || offset + length > input.length) {
+			throw new IndexOutOfBoundsException("The input range is out of bounds!");
+		}
+		if (length == 0) {
+			return 0;
+		}
+		int capacity = maxEncodedLength(length);
+		if (outOffset < 0 || outOffset + capacity > output.length) {
+			throw new IndexOutOfBoundsException("The output buffer is not large enough!");
+		}
 
 		//
 		// Count leading zeroes
 		//
+		int end = offset + length;
 		int zeroCount = 0;
-		while (zeroCount < input.length && input[zeroCount] == 0) {
+		while (offset + zeroCount < end && input[offset + zeroCount] == 0) {
 			++zeroCount;
 		}
 
 		//
-		// The actual encoding
+		// Pack the significant bytes into big-endian 32-bit limbs; the first limb
+		// holds the remainder bytes when the length is not a multiple of 4;
 		//
-		byte[] temp = new byte[input.length * 2];
-		int j = temp.length;
+		int start = offset + zeroCount;
+		int significant = end - start;
+		int limbCount = (significant + 3) >>> 2;
+		int[] limbs = new int[limbCount];
+		int head = significant & 3;
+		if (head == 0) {
+			head = 4;
+		}
+		int pos = start;
+		if (limbCount > 0) {
+			int limb = 0;
+			for (int i = 0; i < head; i++) {
+				limb = (limb << 8) | (input[pos++] & 0xFF);
+			}
+			limbs[0] = limb;
+			for (int i = 1; i < limbCount; i++) {
+				limbs[i] = ((input[pos] & 0xFF) << 24) | ((input[pos + 1] & 0xFF) << 16)
+						| ((input[pos + 2] & 0xFF) << 8) | (input[pos + 3] & 0xFF);
+				pos += 4;
+			}
+		}
 
-		int startAt = zeroCount;
-		while (startAt < input.length) {
-			byte mod = divmod58(input, startAt);
-			if (input[startAt] == 0) {
+		//
+		// The actual encoding: every pass divides the number by 58^5 and yields 5
+		// digits; the digits are written right-aligned in the output buffer;
+		//
+		int outEnd = outOffset + capacity;
+		int j = outEnd;
+		int startAt = 0;
+		while (startAt < limbCount) {
+			long remainder = 0;
+			for (int i = startAt; i < limbCount; i++) {
+				long temp = (remainder << 32) | (limbs[i] & LIMB_MASK);
+				limbs[i] = (int) (temp / CHUNK_BASE);
+				remainder = temp % CHUNK_BASE;
+			}
+			while (startAt < limbCount && limbs[startAt] == 0) {
 				++startAt;
 			}
-
-			temp[--j] = (byte) ALPHABET[mod];
+			int chunk = (int) remainder;
+			for (int k = 0; k < DIGITS_PER_CHUNK; k++) {
+				output[--j] = ALPHABET[chunk % BASE_58];
+				chunk /= BASE_58;
+			}
 		}
 
 		//
 		// Strip extra '1' if any
 		//
-		while (j < temp.length && temp[j] == ALPHABET[0]) {
+		while (j < outEnd && output[j] == ENCODED_ZERO) {
 			++j;
 		}
 
@@ -65,103 +193,114 @@ public class Base58Utils {
 		// Add as many leading '1' as there were leading zeros.
 		//
 		while (--zeroCount >= 0) {
-			temp[--j] = (byte) ALPHABET[0];
+			output[--j] = ENCODED_ZERO;
 		}
 
-		byte[] output = copyOfRange(temp, j, temp.length);
-		return new String(output);
+		int size = outEnd - j;
+		if (j > outOffset) {
+			System.arraycopy(output, j, output, outOffset, size);
+		}
+		return size;
 	}
 
 	public static byte[] decode(String input) {
-		if (input.length() == 0) {
+		return decode(input, 0, input.length());
+	}
+
+	/**
+	 * 解码字符序列中指定范围的 Base58 字符，不产生中间字符串；
+	 *
+	 * @param input  输入；
+	 * @param offset 起始位置；
+	 * @param length 字符数；
+	 * @return byte[]
+	 */
+	public static byte[] decode(CharSequence input, int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > input.length()) {
+			throw new IndexOutOfBoundsException("The input range is out of bounds!");
+		}
+		if (length == 0) {
 			// paying with the same coin
 			return new byte[0];
 		}
-
-		byte[] input58 = new byte[input.length()];
-		//
-		// Transform the String to a base58 byte sequence
-		//
-		for (int i = 0; i < input.length(); ++i) {
-			char c = input.charAt(i);
-
-			int digit58 = -1;
-			if (c >= 0 && c < 128) {
-				digit58 = INDEXES[c];
-			}
-			if (digit58 < 0) {
-				throw new RuntimeException("Not a Base58 input  ddd: " + input);
-			}
-
-			input58[i] = (byte) digit58;
-		}
+		int end = offset + length;
 
 		//
 		// Count leading zeroes
 		//
 		int zeroCount = 0;
-		while (zeroCount < input58.length && input58[zeroCount] == 0) {
+		while (offset + zeroCount < end && input.charAt(offset + zeroCount) == ENCODED_ZERO) {
 			++zeroCount;
 		}
 
 		//
-		// The encoding
+		// Accumulate up to 5 digits at a time, then multiply-add them into the
+		// little-endian 32-bit limbs;
 		//
-		byte[] temp = new byte[input.length()];
-		int j = temp.length;
+		int digitCount = length - zeroCount;
+		// log(58)/log(256) ≈ 0.7322；
+		int maxBytes = (int) ((digitCount * 733L + 999) / 1000);
+		int[] limbs = new int[(maxBytes + 3) >>> 2];
+		int used = 0;
 
-		int startAt = zeroCount;
-		while (startAt < input58.length) {
-			byte mod = divmod256(input58, startAt);
-			if (input58[startAt] == 0) {
-				++startAt;
+		int i = offset + zeroCount;
+		while (i < end) {
+			int chunkLen = Math.min(DIGITS_PER_CHUNK, end - i);
+			long chunk = 0;
+			for (int k = 0; k < chunkLen; k++, i++) {
+				chunk = chunk * BASE_58 + digit58(input, i, offset, length);
+			}
+			long multiplier = POWERS[chunkLen];
+			long carry = chunk;
+			for (int l = 0; l < used; l++) {
+				long temp = (limbs[l] & LIMB_MASK) * multiplier + carry;
+				limbs[l] = (int) temp;
+				carry = temp >>> 32;
+			}
+			if (carry != 0) {
+				limbs[used++] = (int) carry;
 			}
-
-			temp[--j] = mod;
 		}
 
 		//
-		// Do no add extra leading zeroes, move j to first non null byte.
+		// Do no add extra leading zeroes, skip the zero bytes of the most
+		// significant limb.
 		//
-		while (j < temp.length && temp[j] == 0) {
-			++j;
+		int significant = used << 2;
+		if (used > 0) {
+			significant -= Integer.numberOfLeadingZeros(limbs[used - 1]) >>> 3;
 		}
 
-		return copyOfRange(temp, j - zeroCount, temp.length);
-	}
-
-	private static byte divmod58(byte[] number, int startAt) {
-		int remainder = 0;
-		for (int i = startAt; i < number.length; i++) {
-			int digit256 = (int) number[i] & 0xFF;
-			int temp = remainder * BASE_256 + digit256;
-
-			number[i] = (byte) (temp / BASE_58);
-
-			remainder = temp % BASE_58;
+		byte[] output = new byte[zeroCount + significant];
+		int pos = output.length;
+		for (int l = 0; l < used; l++) {
+			int limb = limbs[l];
+			for (int k = 0; k < 4 && pos > zeroCount; k++) {
+				output[--pos] = (byte) limb;
+				limb >>>= 8;
+			}
 		}
-
-		return (byte) remainder;
+		return output;
 	}
 
-	private static byte divmod256(byte[] number58, int startAt) {
-		int remainder = 0;
-		for (int i = startAt; i < number58.length; i++) {
-			int digit58 = (int) number58[i] & 0xFF;
-			int temp = remainder * BASE_58 + digit58;
-
-			number58[i] = (byte) (temp / BASE_256);
-
-			remainder = temp % BASE_256;
+	private static int digit58(CharSequence input, int index, int offset, int length) {
+		char c = input.charAt(index);
+		int digit58 = c < 128 ? INDEXES[c] : -1;
+		if (digit58 < 0) {
+			throw new DataDecodeException(
+					"Not a Base58 input: " + input.subSequence(offset, offset + length));
 		}
-
-		return (byte) remainder;
+		return digit58;
 	}
 
-	private static byte[] copyOfRange(byte[] source, int from, int to) {
-		byte[] range = new byte[to - from];
-		System.arraycopy(source, from, range, 0, range.length);
-
-		return range;
+	private static int maxEncodedLength(int length) {
+		switch (length) {
+		case 32:
+			return MAX_ENCODED_LENGTH_32;
+		case 33:
+			return MAX_ENCODED_LENGTH_33;
+		default:
+			return getMaxEncodedLength(length);
+		}
 	}
-}
\ No newline at end of file
+}
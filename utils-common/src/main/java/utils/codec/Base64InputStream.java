@@ -0,0 +1,34 @@
+package utils.codec;
+
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.util.Base64;
+
+/**
+ * {@link Base64InputStream} 从被包装的输入流读取 Base64 字符，解码后返回原始字节；
+ * <p>
+ * 
+ * 默认采用与 {@link utils.io.ByteArray#fromBase64(String)} 一致的 URL 安全字符集；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public class Base64InputStream extends FilterInputStream {
+
+	public Base64InputStream(InputStream in) {
+		this(in, true);
+	}
+
+	/**
+	 * @param in      输入流；
+	 * @param urlSafe 是否采用 URL 安全字符集；
+	 */
+	public Base64InputStream(InputStream in, boolean urlSafe) {
+		super((urlSafe ? Base64.getUrlDecoder() : Base64.getDecoder()).wrap(in));
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+}
@@ -0,0 +1,37 @@
+package utils.codec;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Base64;
+
+/**
+ * {@link Base64OutputStream} 把写入的字节以 Base64 编码后写入被包装的输出流；
+ * <p>
+ * 
+ * 默认采用与 {@link utils.io.ByteArray#toBase64(byte[])} 一致的 URL 安全字符集；<br>
+ * 
+ * 末尾的不足 3 字节的数据及填充字符在 {@link #close()} 时写出，因此必须关闭流才能得到完整的编码结果；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public class Base64OutputStream extends FilterOutputStream {
+
+	public Base64OutputStream(OutputStream out) {
+		this(out, true);
+	}
+
+	/**
+	 * @param out     输出流；
+	 * @param urlSafe 是否采用 URL 安全字符集；
+	 */
+	public Base64OutputStream(OutputStream out, boolean urlSafe) {
+		super((urlSafe ? Base64.getUrlEncoder() : Base64.getEncoder()).wrap(out));
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+	}
+}
@@ -0,0 +1,107 @@
+package utils.codec;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link HexInputStream} 从被包装的输入流读取 16 进制字符（ASCII），解码后返回原始字节；
+ * <p>
+ * 
+ * 按块读取和解码，内存占用与数据总量无关；输入中出现非 16 进制字符，或者字符总数为奇数时，抛出
+ * {@link DataDecodeException}；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public class HexInputStream extends FilterInputStream {
+
+	private static final int CHUNK_SIZE = 4096;
+
+	private final byte[] chars = new byte[CHUNK_SIZE << 1];
+
+	/**
+	 * 上一次读取后剩余的未成对的字符；
+	 */
+	private int pendingChar = -1;
+
+	private final byte[] single = new byte[1];
+
+	public HexInputStream(InputStream in) {
+		super(in);
+	}
+
+	@Override
+	public int read() throws IOException {
+		int n = read(single, 0, 1);
+		return n < 0 ? -1 : single[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || off + len > b.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		int size = Math.min(len, CHUNK_SIZE) << 1;
+		int count = 0;
+		if (pendingChar >= 0) {
+			chars[0] = (byte) pendingChar;
+			pendingChar = -1;
+			count = 1;
+		}
+		// 至少读到一对字符，或者到达输入流末尾；
+		while (count < 2) {
+			int n = in.read(chars, count, size - count);
+			if (n < 0) {
+				if (count > 0) {
+					throw new DataDecodeException("Odd number of characters.");
+				}
+				return -1;
+			}
+			count += n;
+		}
+		if ((count & 1) != 0) {
+			pendingChar = chars[--count] & 0xFF;
+		}
+		return HexUtils.decode(chars, 0, count, b, off);
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		if (n <= 0) {
+			return 0;
+		}
+		long skipped = 0;
+		byte[] buffer = new byte[(int) Math.min(n, CHUNK_SIZE)];
+		while (skipped < n) {
+			int len = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+			if (len < 0) {
+				break;
+			}
+			skipped += len;
+		}
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (in.available() + (pendingChar >= 0 ? 1 : 0)) >>> 1;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("Mark/reset not supported!");
+	}
+}
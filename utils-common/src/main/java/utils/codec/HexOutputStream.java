@@ -0,0 +1,56 @@
+package utils.codec;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link HexOutputStream} 把写入的字节编码为 16 进制字符（ASCII），然后写入被包装的输出流；
+ * <p>
+ * 
+ * 编码按块进行，内部缓冲区可重复使用，内存占用与数据总量无关；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public class HexOutputStream extends FilterOutputStream {
+
+	private static final int CHUNK_SIZE = 4096;
+
+	private final boolean upperCase;
+
+	private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE << 1);
+
+	private final byte[] single = new byte[1];
+
+	public HexOutputStream(OutputStream out) {
+		this(out, false);
+	}
+
+	public HexOutputStream(OutputStream out, boolean upperCase) {
+		super(out);
+		this.upperCase = upperCase;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		single[0] = (byte) b;
+		write(single, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || off + len > b.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		int end = off + len;
+		while (off < end) {
+			int n = Math.min(CHUNK_SIZE, end - off);
+			buffer.clear();
+			HexUtils.encode(b, off, n, buffer, upperCase);
+			out.write(buffer.array(), 0, buffer.position());
+			off += n;
+		}
+	}
+}
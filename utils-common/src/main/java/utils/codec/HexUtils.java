@@ -1,49 +1,300 @@
 package utils.codec;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 
-import org.apache.commons.codec.DecoderException;
-import org.apache.commons.codec.binary.Hex;
+import utils.io.RuntimeIOException;
 
+/**
+ * 16 进制编解码工具；
+ * <p>
+ *
+ * 编码采用查表方式，每个字节通过一次查表得到两个字符；解码同样查表，并严格校验字符的有效性；<br>
+ *
+ * 除了返回字符串的方法之外，还提供直接写入 {@link Appendable}、char[] 和 {@link ByteBuffer}
+ * 的方法，以及从 {@link CharSequence} 解码的方法，避免产生中间字符串；
+ *
+ * @author huanghaiquan
+ *
+ */
 public class HexUtils {
 
+	private static final char[] LOWER_DIGITS = "0123456789abcdef".toCharArray();
+
+	private static final char[] UPPER_DIGITS = "0123456789ABCDEF".toCharArray();
+
+	/**
+	 * 小写编码表；下标为 (byte & 0xFF) * 2 的两个字符即为该字节的编码；
+	 */
+	private static final char[] LOWER_PAIRS = pairs(LOWER_DIGITS);
+
+	/**
+	 * 大写编码表；
+	 */
+	private static final char[] UPPER_PAIRS = pairs(UPPER_DIGITS);
+
+	/**
+	 * 解码表；无效字符对应 -1；
+	 */
+	private static final byte[] VALUES = new byte[128];
+
+	static {
+		for (int i = 0; i < VALUES.length; i++) {
+			VALUES[i] = -1;
+		}
+		for (int i = 0; i < 16; i++) {
+			VALUES[LOWER_DIGITS[i]] = (byte) i;
+			VALUES[UPPER_DIGITS[i]] = (byte) i;
+		}
+	}
+
+	private static char[] pairs(char[] digits) {
+		char[] pairs = new char[512];
+		for (int i = 0; i < 256; i++) {
+			pairs[i << 1] = digits[i >>> 4];
+			pairs[(i << 1) + 1] = digits[i & 0x0F];
+		}
+		return pairs;
+	}
+
 	public static byte[] decode(String hexString) {
-		try {
-			return Hex.decodeHex(hexString.toCharArray());
-		} catch (DecoderException e) {
-			throw new DataDecodeException(e.getMessage(), e);
+		return decode((CharSequence) hexString);
+	}
+
+	/**
+	 * 解码 16 进制字符序列，大小写均可；
+	 *
+	 * @param hex 16 进制字符序列；
+	 * @return byte[]
+	 * @throws DataDecodeException 长度为奇数或者包含非 16 进制字符时抛出；
+	 */
+	public static byte[] decode(CharSequence hex) {
+		int length = hex.length();
+		if ((length & 1) != 0) {
+			throw new DataDecodeException("Odd number of characters.");
+		}
+		byte[] bytes = new byte[length >>> 1];
+		decode(hex, 0, length, bytes, 0);
+		return bytes;
+	}
+
+	/**
+	 * 把 16 进制字符序列的指定范围解码到调用者提供的字节数组；
+	 *
+	 * @param hex       16 进制字符序列；
+	 * @param offset    起始位置；
+	 * @param length    字符数；必须为偶数；
+	 * @param output    输出；
+	 * @param outOffset 输出的起始位置；
+	 * @return 返回写入的字节数；
+	 * @throws DataDecodeException 长度为奇数或者包含非 16 进制字符时抛出；
+	 */
+	public static int decode(CharSequence hex, int offset, int length, byte[] output, int outOffset) {
+		if ((length & 1) != 0) {
+			throw new DataDecodeException("Odd number of characters.");
+		}
+		if (offset < 0 || length < 0 || offset + length > hex.length()) {
+			throw new IndexOutOfBoundsException("The input range is out of bounds!");
+		}
+		int size = length >>> 1;
+		if (outOffset < 0 || outOffset + size > output.length) {
+			throw new IndexOutOfBoundsException("The output buffer is not large enough!");
+		}
+		for (int i = offset, j = outOffset, end = offset + length; i < end; i += 2, j++) {
+			output[j] = pair(hex.charAt(i), hex.charAt(i + 1), i);
+		}
+		return size;
+	}
+
+	/**
+	 * 把 ASCII 编码的 16 进制字符解码到调用者提供的字节数组；
+	 *
+	 * @param hex       ASCII 编码的 16 进制字符；
+	 * @param offset    起始位置；
+	 * @param length    字符数；必须为偶数；
+	 * @param output    输出；
+	 * @param outOffset 输出的起始位置；
+	 * @return 返回写入的字节数；
+	 * @throws DataDecodeException 长度为奇数或者包含非 16 进制字符时抛出；
+	 */
+	public static int decode(byte[] hex, int offset, int length, byte[] output, int outOffset) {
+		if ((length & 1) != 0) {
+			throw new DataDecodeException("Odd number of characters.");
+		}
+		checkRange(hex, offset, length);
+		int size = length >>> 1;
+		if (outOffset < 0 || outOffset + size > output.length) {
+			throw new IndexOutOfBoundsException("The output buffer is not large enough!");
 		}
+		for (int i = offset, j = outOffset, end = offset + length; i < end; i += 2, j++) {
+			output[j] = pair((char) (hex[i] & 0xFF), (char) (hex[i + 1] & 0xFF), i);
+		}
+		return size;
+	}
+
+	/**
+	 * 解码一对字符；两个字符的有效性合并为一次判断；
+	 */
+	private static byte pair(char high, char low, int index) {
+		if ((high | low) >= 128) {
+			throw illegalCharacter(high < 128 ? low : high, high < 128 ? index + 1 : index);
+		}
+		int h = VALUES[high];
+		int l = VALUES[low];
+		if ((h | l) < 0) {
+			throw illegalCharacter(h < 0 ? high : low, h < 0 ? index : index + 1);
+		}
+		return (byte) ((h << 4) | l);
+	}
+
+	private static DataDecodeException illegalCharacter(char c, int index) {
+		return new DataDecodeException("Illegal hexadecimal character " + c + " at index " + index);
 	}
 
 	public static String encode(byte[] bytes) {
-		return Hex.encodeHexString(bytes);
+		return encode(bytes, false);
+	}
+
+	/**
+	 * 编码为 16 进制字符串；
+	 *
+	 * @param bytes     bytes
+	 * @param upperCase 是否使用大写字母；
+	 * @return String
+	 */
+	public static String encode(byte[] bytes, boolean upperCase) {
+		char[] chars = new char[bytes.length << 1];
+		encode(bytes, 0, bytes.length, chars, 0, upperCase);
+		return new String(chars);
+	}
+
+	/**
+	 * 把字节数组的指定范围编码到调用者提供的字符数组；
+	 *
+	 * @param bytes     输入；
+	 * @param offset    输入的起始位置；
+	 * @param length    输入的字节数；
+	 * @param output    输出；至少需要 length * 2 个字符的空间；
+	 * @param outOffset 输出的起始位置；
+	 * @param upperCase 是否使用大写字母；
+	 * @return 返回写入的字符数；
+	 */
+	public static int encode(byte[] bytes, int offset, int length, char[] output, int outOffset,
+			boolean upperCase) {
+		checkRange(bytes, offset, length);
+		int size = length << 1;
+		if (outOffset < 0 || outOffset + size > output.length) {
+			throw new IndexOutOfBoundsException("The output buffer is not large enough!");
+		}
+		char[] pairs = upperCase ? UPPER_PAIRS : LOWER_PAIRS;
+		for (int i = offset, j = outOffset, end = offset + length; i < end; i++, j += 2) {
+			int p = (bytes[i] & 0xFF) << 1;
+			output[j] = pairs[p];
+			output[j + 1] = pairs[p + 1];
+		}
+		return size;
 	}
 
+	/**
+	 * 把字节数组的指定范围编码后追加到 {@link Appendable}；
+	 *
+	 * @param bytes     输入；
+	 * @param offset    输入的起始位置；
+	 * @param length    输入的字节数；
+	 * @param output    输出；
+	 * @param upperCase 是否使用大写字母；
+	 * @return 返回写入的字符数；
+	 */
+	public static int encode(byte[] bytes, int offset, int length, Appendable output, boolean upperCase) {
+		checkRange(bytes, offset, length);
+		char[] pairs = upperCase ? UPPER_PAIRS : LOWER_PAIRS;
+		try {
+			if (output instanceof StringBuilder) {
+				StringBuilder builder = (StringBuilder) output;
+				builder.ensureCapacity(builder.length() + (length << 1));
+				for (int i = offset, end = offset + length; i < end; i++) {
+					int p = (bytes[i] & 0xFF) << 1;
+					builder.append(pairs[p]).append(pairs[p + 1]);
+				}
+			} else {
+				for (int i = offset, end = offset + length; i < end; i++) {
+					int p = (bytes[i] & 0xFF) << 1;
+					output.append(pairs[p]).append(pairs[p + 1]);
+				}
+			}
+		} catch (IOException e) {
+			throw new RuntimeIOException(e.getMessage(), e);
+		}
+		return length << 1;
+	}
+
+	/**
+	 * 把字节数组的指定范围编码为 ASCII 字符写入 {@link ByteBuffer}；
+	 *
+	 * @param bytes     输入；
+	 * @param offset    输入的起始位置；
+	 * @param length    输入的字节数；
+	 * @param output    输出；剩余空间至少需要 length * 2 个字节；
+	 * @param upperCase 是否使用大写字母；
+	 * @return 返回写入的字节数；
+	 */
+	public static int encode(byte[] bytes, int offset, int length, ByteBuffer output, boolean upperCase) {
+		checkRange(bytes, offset, length);
+		int size = length << 1;
+		if (output.remaining() < size) {
+			throw new IndexOutOfBoundsException("The output buffer is not large enough!");
+		}
+		char[] pairs = upperCase ? UPPER_PAIRS : LOWER_PAIRS;
+		for (int i = offset, end = offset + length; i < end; i++) {
+			int p = (bytes[i] & 0xFF) << 1;
+			output.put((byte) pairs[p]);
+			output.put((byte) pairs[p + 1]);
+		}
+		return size;
+	}
+
+	/**
+	 * 编码 {@link ByteBuffer} 中剩余的字节；调用后 ByteBuffer 的位置移动到末尾；
+	 *
+	 * @param bytes bytes
+	 * @return String
+	 */
 	public static String encode(ByteBuffer bytes) {
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
-		byte[] buf = new byte[64];
-		int len;
-		while (bytes.remaining() > 0) {
-			len = Math.min(buf.length, bytes.remaining());
-			bytes.get(buf, 0, len);
-			out.write(buf, 0, len);
+		char[] chars = new char[bytes.remaining() << 1];
+		char[] pairs = LOWER_PAIRS;
+		int j = 0;
+		while (bytes.hasRemaining()) {
+			int p = (bytes.get() & 0xFF) << 1;
+			chars[j++] = pairs[p];
+			chars[j++] = pairs[p + 1];
 		}
-		return Hex.encodeHexString(out.toByteArray());
+		return new String(chars);
 	}
 
 	/**
 	 * 判断是否16进制字符串
-	 * 
+	 *
 	 * @param hexString hexString
 	 * @return boolean
 	 */
 	public static boolean isHex(String hexString) {
-		String regex = "^[A-Fa-f0-9]+$";
-		if (hexString.matches(regex)) {
-			return true;
+		int length = hexString.length();
+		if (length == 0) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c = hexString.charAt(i);
+			if (c >= 128 || VALUES[c] < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void checkRange(byte[] bytes, int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > bytes.length) {
+			throw new IndexOutOfBoundsException("The input range is out of bounds!");
 		}
-		return false;
 	}
 
 }
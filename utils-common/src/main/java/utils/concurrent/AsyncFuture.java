@@ -4,6 +4,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * 提供对异步操作的结果描述；
@@ -76,6 +77,64 @@ public interface AsyncFuture<V> extends Future<V> {
 	boolean isCancelled();
 	
 
+	/**
+	 * 返回一个新的 {@link AsyncFuture}，在当前操作成功完成后以指定函数转换的结果完成；
+	 * <p>
+	 * 
+	 * 当前操作或者转换函数发生异常时，新的 {@link AsyncFuture} 以该异常完成；<br>
+	 * 
+	 * 默认实现基于 {@link #whenComplete(AsyncHandle)}；
+	 * 
+	 * @param fn 转换函数；
+	 * @return 新的 {@link AsyncFuture}；
+	 */
+	public default <U> AsyncFuture<U> thenApply(Function<? super V, ? extends U> fn) {
+		CompletableAsyncFuture<U> result = new CompletableAsyncFuture<U>();
+		whenComplete((value, error) -> CompletableAsyncFuture.applyTo(result, fn, value, error));
+		return result;
+	}
+
+	/**
+	 * 与 {@link #thenApply(Function)} 相同，但转换函数在默认执行器 {@link ThreadExecutors#getDefaultExecutor()} 中执行；
+	 * 
+	 * @param fn 转换函数；
+	 * @return 新的 {@link AsyncFuture}；
+	 */
+	public default <U> AsyncFuture<U> thenApplyAsync(Function<? super V, ? extends U> fn) {
+		return thenApplyAsync(fn, ThreadExecutors.getDefaultExecutor());
+	}
+
+	/**
+	 * 与 {@link #thenApply(Function)} 相同，但转换函数在指定的执行器中执行；
+	 * <p>
+	 * 
+	 * 默认实现基于 {@link #whenCompleteAsync(AsyncHandle, Executor)}；
+	 * 
+	 * @param fn       转换函数；
+	 * @param executor 执行转换函数的执行器；
+	 * @return 新的 {@link AsyncFuture}；
+	 */
+	public default <U> AsyncFuture<U> thenApplyAsync(Function<? super V, ? extends U> fn, Executor executor) {
+		CompletableAsyncFuture<U> result = new CompletableAsyncFuture<U>();
+		whenCompleteAsync((value, error) -> CompletableAsyncFuture.applyTo(result, fn, value, error), executor);
+		return result;
+	}
+
+	/**
+	 * 返回一个新的 {@link AsyncFuture}，在当前操作成功完成后，以指定函数返回的异步操作的结果完成；
+	 * <p>
+	 * 
+	 * 默认实现基于 {@link #whenComplete(AsyncHandle)}；
+	 * 
+	 * @param fn 返回下一个异步操作的函数；
+	 * @return 新的 {@link AsyncFuture}；
+	 */
+	public default <U> AsyncFuture<U> thenCompose(Function<? super V, ? extends AsyncFuture<U>> fn) {
+		CompletableAsyncFuture<U> result = new CompletableAsyncFuture<U>();
+		whenComplete((value, error) -> CompletableAsyncFuture.composeTo(result, fn, value, error));
+		return result;
+	}
+
 	public AsyncFuture<V> thenAccept(Consumer<? super V> action);
 
 	public AsyncFuture<V> thenAcceptAsync(Consumer<? super V> action);
@@ -94,4 +153,65 @@ public interface AsyncFuture<V> extends Future<V> {
 
 	public AsyncFuture<V> whenCompleteAsync(AsyncHandle<? super V> action, Executor executor);
 
+	/**
+	 * 如果在指定的时间内未完成，则以超时异常 {@link RuntimeTimeoutException} 完成；
+	 * <p>
+	 * 
+	 * 超时由共享的时间轮定时器 {@link HashedWheelTimer#getDefault()} 调度，不会占用等待的线程；操作完成时自动取消定时；<br>
+	 * 
+	 * 默认实现返回一个新的 {@link AsyncFuture}，以当前操作的结果或者超时异常完成；{@link CompletableAsyncFuture} 直接以超时异常完成当前对象；
+	 * 
+	 * @param timeout 超时时间；
+	 * @param unit    超时时间的单位；
+	 * @return 带有超时的 {@link AsyncFuture}；
+	 */
+	public default AsyncFuture<V> orTimeout(long timeout, TimeUnit unit) {
+		if (isDone()) {
+			return this;
+		}
+		CompletableAsyncFuture<V> result = new CompletableAsyncFuture<V>();
+		Timeout task = HashedWheelTimer.getDefault().newTimeout(
+				() -> result.error(new RuntimeTimeoutException("Timeout after " + timeout + " " + unit + "!")), timeout,
+				unit);
+		whenComplete((value, error) -> {
+			task.cancel();
+			if (error != null) {
+				result.error(CompletableAsyncFuture.unwrap(error));
+			} else {
+				result.complete(value);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 如果在指定的时间内未完成，则以指定的值完成；
+	 * <p>
+	 * 
+	 * 超时由共享的时间轮定时器 {@link HashedWheelTimer#getDefault()} 调度，不会占用等待的线程；操作完成时自动取消定时；<br>
+	 * 
+	 * 默认实现返回一个新的 {@link AsyncFuture}，以当前操作的结果或者指定的值完成；{@link CompletableAsyncFuture} 直接以指定的值完成当前对象；
+	 * 
+	 * @param value   超时时返回的值；
+	 * @param timeout 超时时间；
+	 * @param unit    超时时间的单位；
+	 * @return 带有超时的 {@link AsyncFuture}；
+	 */
+	public default AsyncFuture<V> completeOnTimeout(V value, long timeout, TimeUnit unit) {
+		if (isDone()) {
+			return this;
+		}
+		CompletableAsyncFuture<V> result = new CompletableAsyncFuture<V>();
+		Timeout task = HashedWheelTimer.getDefault().newTimeout(() -> result.complete(value), timeout, unit);
+		whenComplete((v, error) -> {
+			task.cancel();
+			if (error != null) {
+				result.error(CompletableAsyncFuture.unwrap(error));
+			} else {
+				result.complete(v);
+			}
+		});
+		return result;
+	}
+
 }
@@ -0,0 +1,278 @@
+package utils.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * {@link AsyncFuture} 的组合工具；
+ * <p>
+ *
+ * 提供等待一组异步操作全部完成（{@link #allOf(Collection)}）、任意一个完成（{@link #anyOf(Collection)}）、
+ * 按顺序收集结果（{@link #collect(List)}）以及以有限的并发数批量执行异步操作（{@link #mapAsync(Collection, Function, int)}）的方法；<br>
+ *
+ * 所有方法都基于完成回调实现，不会阻塞调用线程；
+ *
+ * @author huanghaiquan
+ *
+ */
+public abstract class AsyncFutures {
+
+	/**
+	 * 返回一个在全部异步操作完成后完成的 {@link AsyncFuture}；
+	 * <p>
+	 *
+	 * 如果有任何一个操作发生异常，则在全部操作完成后以第一个发生的异常完成；
+	 *
+	 * @param futures
+	 * @return
+	 */
+	public static AsyncFuture<Void> allOf(AsyncFuture<?>... futures) {
+		return allOf(Arrays.asList(futures));
+	}
+
+	/**
+	 * 返回一个在全部异步操作完成后完成的 {@link AsyncFuture}；
+	 * <p>
+	 *
+	 * 如果有任何一个操作发生异常，则在全部操作完成后以第一个发生的异常完成；
+	 *
+	 * @param futures
+	 * @return
+	 */
+	public static AsyncFuture<Void> allOf(Collection<? extends AsyncFuture<?>> futures) {
+		CompletableAsyncFuture<Void> result = new CompletableAsyncFuture<Void>();
+		if (futures.isEmpty()) {
+			result.complete(null);
+			return result;
+		}
+		AtomicInteger remaining = new AtomicInteger(futures.size());
+		AtomicReference<Throwable> firstError = new AtomicReference<Throwable>();
+		for (AsyncFuture<?> future : futures) {
+			future.whenComplete((value, error) -> {
+				if (error != null) {
+					firstError.compareAndSet(null, CompletableAsyncFuture.unwrap(error));
+				}
+				if (remaining.decrementAndGet() == 0) {
+					Throwable e = firstError.get();
+					if (e == null) {
+						result.complete(null);
+					} else {
+						result.error(e);
+					}
+				}
+			});
+		}
+		return result;
+	}
+
+	/**
+	 * 返回一个以最先完成的异步操作的结果完成的 {@link AsyncFuture}；
+	 *
+	 * @param futures
+	 * @return
+	 */
+	@SafeVarargs
+	public static <T> AsyncFuture<T> anyOf(AsyncFuture<? extends T>... futures) {
+		CompletableAsyncFuture<T> result = new CompletableAsyncFuture<T>();
+		for (AsyncFuture<? extends T> future : futures) {
+			if (result.isDone()) {
+				break;
+			}
+			completeOnFirst(result, future);
+		}
+		return result;
+	}
+
+	/**
+	 * 返回一个以最先完成的异步操作的结果完成的 {@link AsyncFuture}；
+	 * <p>
+	 *
+	 * 最先完成的操作如果发生异常，则以该异常完成；集合为空时返回的 {@link AsyncFuture} 永远不会完成；
+	 *
+	 * @param futures
+	 * @return
+	 */
+	public static <T> AsyncFuture<T> anyOf(Collection<? extends AsyncFuture<? extends T>> futures) {
+		CompletableAsyncFuture<T> result = new CompletableAsyncFuture<T>();
+		for (AsyncFuture<? extends T> future : futures) {
+			if (result.isDone()) {
+				break;
+			}
+			completeOnFirst(result, future);
+		}
+		return result;
+	}
+
+	private static <T> void completeOnFirst(CompletableAsyncFuture<T> result, AsyncFuture<? extends T> future) {
+		future.whenComplete((value, error) -> {
+			if (error != null) {
+				result.error(CompletableAsyncFuture.unwrap(error));
+			} else {
+				result.complete(value);
+			}
+		});
+	}
+
+	/**
+	 * 返回一个按原顺序收集全部异步操作结果的 {@link AsyncFuture}；
+	 * <p>
+	 *
+	 * 任何一个操作发生异常时，立即以该异常完成，不再等待其余的操作；
+	 *
+	 * @param futures
+	 * @return
+	 */
+	public static <T> AsyncFuture<List<T>> collect(List<? extends AsyncFuture<? extends T>> futures) {
+		CompletableAsyncFuture<List<T>> result = new CompletableAsyncFuture<List<T>>();
+		int size = futures.size();
+		if (size == 0) {
+			result.complete(Collections.<T>emptyList());
+			return result;
+		}
+		Object[] values = new Object[size];
+		AtomicInteger remaining = new AtomicInteger(size);
+		for (int i = 0; i < size; i++) {
+			int index = i;
+			futures.get(i).whenComplete((value, error) -> {
+				if (error != null) {
+					result.error(CompletableAsyncFuture.unwrap(error));
+					return;
+				}
+				values[index] = value;
+				if (remaining.decrementAndGet() == 0) {
+					result.complete(asList(values));
+				}
+			});
+		}
+		return result;
+	}
+
+	/**
+	 * 对每一个元素执行异步操作，同时进行中的操作不超过指定的数量；返回按原顺序收集结果的 {@link AsyncFuture}；
+	 * <p>
+	 *
+	 * 每当一个操作完成时才启动下一个操作；任何一个操作发生异常时，立即以该异常完成，并且不再启动新的操作；
+	 *
+	 * @param items       元素；
+	 * @param fn          对元素启动异步操作的函数；
+	 * @param maxInFlight 同时进行中的操作的最大数量；
+	 * @return
+	 */
+	public static <T, R> AsyncFuture<List<R>> mapAsync(Collection<? extends T> items,
+			Function<? super T, ? extends AsyncFuture<? extends R>> fn, int maxInFlight) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("The max in-flight count is less than 1!");
+		}
+		BoundedMapper<T, R> mapper = new BoundedMapper<T, R>(new ArrayList<T>(items), fn, maxInFlight);
+		mapper.drain();
+		return mapper.result;
+	}
+
+	/**
+	 * 在指定的执行器中对每一个元素执行同步的转换函数，同时执行的转换不超过指定的数量；返回按原顺序收集结果的 {@link AsyncFuture}；
+	 *
+	 * @param items       元素；
+	 * @param fn          转换函数；
+	 * @param maxInFlight 同时执行的转换的最大数量；
+	 * @param executor    执行转换的执行器；
+	 * @return
+	 */
+	public static <T, R> AsyncFuture<List<R>> mapAsync(Collection<? extends T> items, Function<? super T, ? extends R> fn,
+			int maxInFlight, Executor executor) {
+		return mapAsync(items, item -> CompletableAsyncFuture.callAsync((Callable<R>) () -> fn.apply(item), executor),
+				maxInFlight);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> asList(Object[] values) {
+		return (List<T>) Arrays.asList(values);
+	}
+
+	// ------------------------------------------------------------
+
+	/**
+	 * 以有限的并发数依次启动异步操作；
+	 * <p>
+	 *
+	 * 启动操作的循环由 {@link #wip} 串行化；当操作同步完成时，完成回调只是增加计数，由正在执行的循环继续启动下一个操作，因此不会产生递归调用；
+	 */
+	private static class BoundedMapper<T, R> {
+
+		private final List<T> items;
+
+		private final Function<? super T, ? extends AsyncFuture<? extends R>> fn;
+
+		private final Object[] values;
+
+		private final CompletableAsyncFuture<List<R>> result = new CompletableAsyncFuture<List<R>>();
+
+		private final AtomicInteger permits;
+
+		private final AtomicInteger remaining;
+
+		private final AtomicInteger wip = new AtomicInteger();
+
+		/**
+		 * 下一个待启动的元素；只在 {@link #drain()} 的循环中访问；
+		 */
+		private int next;
+
+		BoundedMapper(List<T> items, Function<? super T, ? extends AsyncFuture<? extends R>> fn, int maxInFlight) {
+			this.items = items;
+			this.fn = fn;
+			this.values = new Object[items.size()];
+			this.permits = new AtomicInteger(maxInFlight);
+			this.remaining = new AtomicInteger(items.size());
+			if (items.isEmpty()) {
+				result.complete(Collections.<R>emptyList());
+			}
+		}
+
+		void drain() {
+			if (wip.getAndIncrement() != 0) {
+				return;
+			}
+			do {
+				while (!result.isDone() && next < values.length && permits.get() > 0) {
+					permits.decrementAndGet();
+					start(next++);
+				}
+			} while (wip.decrementAndGet() != 0);
+		}
+
+		private void start(int index) {
+			AsyncFuture<? extends R> future;
+			try {
+				future = fn.apply(items.get(index));
+			} catch (Throwable e) {
+				result.error(e);
+				return;
+			}
+			if (future == null) {
+				result.error(new IllegalStateException("The future of item[" + index + "] is null!"));
+				return;
+			}
+			future.whenComplete((value, error) -> {
+				if (error != null) {
+					result.error(CompletableAsyncFuture.unwrap(error));
+					return;
+				}
+				values[index] = value;
+				if (remaining.decrementAndGet() == 0) {
+					result.complete(AsyncFutures.<R>asList(values));
+					return;
+				}
+				permits.incrementAndGet();
+				drain();
+			});
+		}
+	}
+}
@@ -0,0 +1,303 @@
+package utils.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import utils.Disposable;
+
+/**
+ * 以批次方式处理数据的流水线阶段；
+ * <p>
+ *
+ * 数据通过 {@link RingBuffer} 传递给单个消费者线程；消费者每次取出最多 maxBatchSize 个数据交给处理器，
+ * 如果已到达的数据不足一个批次，则最多再等待 maxBatchDelay 的时间，然后处理这段时间内到达的全部数据；<br>
+ *
+ * 多个阶段可以通过在处理器中调用下一个阶段的 {@link #submit(Object)} 串联成流水线；<br>
+ *
+ * 每次提交要么抛出 {@link IllegalStateException}，要么其数据一定会被处理器处理：{@link #stop()} 先等待正在提交的生产者发布已申请的序号，
+ * 再由消费者处理完截至游标的全部数据；
+ *
+ * @author huanghaiquan
+ *
+ * @param <T> 数据的类型；
+ */
+public class BatchingStage<T> implements Disposable {
+
+	public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+	public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+	private final RingBuffer<Slot<T>> ringBuffer;
+
+	/**
+	 * 消费者已处理的最大序号；
+	 */
+	private final AtomicLong sequence = new AtomicLong(RingBuffer.INITIAL_SEQUENCE);
+
+	private final int maxBatchSize;
+
+	private final long maxBatchDelayNanos;
+
+	private final Consumer<List<T>> handler;
+
+	private final BiConsumer<List<T>, Throwable> errorHandler;
+
+	private final Thread consumerThread;
+
+	private final BooleanSupplier halted = () -> this.sealed;
+
+	/**
+	 * 正在提交数据的生产者数量；
+	 */
+	private final AtomicInteger producers = new AtomicInteger();
+
+	private volatile boolean started;
+
+	private volatile boolean stopped;
+
+	/**
+	 * 已经停止，并且全部已申请的序号都已发布；此后游标不再前进；
+	 */
+	private volatile boolean sealed;
+
+	/**
+	 * 创建多生产者、默认缓冲区大小和批次大小、不等待凑批的阶段；
+	 *
+	 * @param name    消费者线程的名称；
+	 * @param handler 批次的处理器；
+	 */
+	public BatchingStage(String name, Consumer<List<T>> handler) {
+		this(name, DEFAULT_BUFFER_SIZE, true, WaitStrategies.parking(50, TimeUnit.MICROSECONDS), DEFAULT_MAX_BATCH_SIZE,
+				0, TimeUnit.MICROSECONDS, handler, null);
+	}
+
+	/**
+	 * 创建阶段；
+	 *
+	 * @param name          消费者线程的名称；通过 {@link NamedThreadFactory} 创建守护线程；
+	 * @param bufferSize    缓冲区的槽位数；必须是 2 的幂；
+	 * @param multiProducer 是否允许多个线程提交数据；
+	 * @param waitStrategy  消费者的等待策略；
+	 * @param maxBatchSize  每个批次的最大数据量；
+	 * @param maxBatchDelay 数据不足一个批次时的最长等待时间；为 0 时立即处理已到达的数据；
+	 * @param unit          等待时间的单位；
+	 * @param handler       批次的处理器；
+	 * @param errorHandler  处理器异常的处理器；可以为 null，此时忽略处理器的异常；
+	 */
+	public BatchingStage(String name, int bufferSize, boolean multiProducer, WaitStrategy waitStrategy,
+			int maxBatchSize, long maxBatchDelay, TimeUnit unit, Consumer<List<T>> handler,
+			BiConsumer<List<T>, Throwable> errorHandler) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("The max batch size is less than 1!");
+		}
+		if (maxBatchDelay < 0) {
+			throw new IllegalArgumentException("The max batch delay is negative!");
+		}
+		if (handler == null) {
+			throw new IllegalArgumentException("Handler is null!");
+		}
+		this.ringBuffer = multiProducer ? RingBuffer.createMultiProducer(Slot::new, bufferSize, waitStrategy)
+				: RingBuffer.createSingleProducer(Slot::new, bufferSize, waitStrategy);
+		this.ringBuffer.addGatingSequence(sequence);
+		this.maxBatchSize = Math.min(maxBatchSize, bufferSize);
+		this.maxBatchDelayNanos = unit.toNanos(maxBatchDelay);
+		this.handler = handler;
+		this.errorHandler = errorHandler;
+		this.consumerThread = new NamedThreadFactory(name, true).newThread(this::consume);
+	}
+
+	/**
+	 * 启动消费者线程；
+	 */
+	public synchronized void start() {
+		if (started) {
+			return;
+		}
+		if (stopped) {
+			throw new IllegalStateException("The stage has been stopped!");
+		}
+		started = true;
+		consumerThread.start();
+	}
+
+	/**
+	 * 提交数据；缓冲区已满时等待；
+	 * <p>
+	 *
+	 * 等待期间阶段被停止时不再等待，抛出 {@link IllegalStateException}；
+	 *
+	 * @param item 数据；
+	 */
+	public void submit(T item) {
+		enter();
+		try {
+			long seq;
+			while ((seq = ringBuffer.tryNext()) < 0) {
+				checkRunning();
+				LockSupport.parkNanos(1);
+			}
+			publish(seq, item);
+		} finally {
+			producers.decrementAndGet();
+		}
+	}
+
+	/**
+	 * 尝试提交数据；
+	 *
+	 * @param item 数据；
+	 * @return 缓冲区已满时返回 false；
+	 */
+	public boolean trySubmit(T item) {
+		enter();
+		try {
+			long seq = ringBuffer.tryNext();
+			if (seq < 0) {
+				return false;
+			}
+			publish(seq, item);
+			return true;
+		} finally {
+			producers.decrementAndGet();
+		}
+	}
+
+	/**
+	 * 尚未处理的数据量的近似值；
+	 *
+	 * @return
+	 */
+	public long getBacklog() {
+		return ringBuffer.getBufferSize() - ringBuffer.remainingCapacity();
+	}
+
+	/**
+	 * 停止阶段；在处理完已提交的数据之后返回；
+	 * <p>
+	 *
+	 * 停止之后不能再提交数据；阶段未启动时，已提交的数据由调用者线程处理；
+	 */
+	public void stop() {
+		synchronized (this) {
+			if (stopped) {
+				return;
+			}
+			stopped = true;
+		}
+		// 之后开始提交的生产者都会看到 stopped 并放弃；等待已在提交中的生产者发布其序号；
+		while (producers.get() > 0) {
+			Thread.yield();
+		}
+		sealed = true;
+		if (!started) {
+			consume();
+			return;
+		}
+		if (Thread.currentThread() == consumerThread) {
+			// 在处理器中停止；处理器返回后消费者处理完剩余的数据再退出；
+			return;
+		}
+		boolean interrupted = false;
+		while (consumerThread.isAlive()) {
+			try {
+				consumerThread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void dispose() {
+		stop();
+	}
+
+	/**
+	 * 登记正在提交的生产者；与 {@link #stop()} 中先设置 stopped 再检查生产者数量的顺序相对应，
+	 * 二者至少有一方能看到对方，从而保证停止之后不会再有序号被发布；
+	 */
+	private void enter() {
+		producers.incrementAndGet();
+		if (stopped) {
+			producers.decrementAndGet();
+			throw new IllegalStateException("The stage has been stopped!");
+		}
+	}
+
+	private void checkRunning() {
+		if (stopped) {
+			throw new IllegalStateException("The stage has been stopped!");
+		}
+	}
+
+	/**
+	 * 发布已申请的序号；已申请的序号必须发布，否则多生产者模式下之后的序号都无法被消费；
+	 */
+	private void publish(long seq, T item) {
+		ringBuffer.get(seq).value = item;
+		ringBuffer.publish(seq);
+	}
+
+	private void consume() {
+		long next = sequence.get() + 1;
+		for (;;) {
+			long available = ringBuffer.waitFor(next, -1, halted);
+			if (available < next) {
+				if (sealed) {
+					// 停止后处理完剩余的数据再退出；
+					available = ringBuffer.waitFor(next, 0, halted);
+					if (available < next) {
+						return;
+					}
+				} else {
+					continue;
+				}
+			}
+			long end = next + maxBatchSize - 1;
+			if (available < end && maxBatchDelayNanos > 0 && !sealed) {
+				// 等待凑满一个批次，然后处理这段时间内已连续发布的全部数据；
+				ringBuffer.waitFor(end, maxBatchDelayNanos, halted);
+				available = Math.max(available, ringBuffer.waitFor(next, 0, halted));
+			}
+			end = Math.min(available, end);
+
+			List<T> batch = new ArrayList<T>((int) (end - next + 1));
+			for (long s = next; s <= end; s++) {
+				Slot<T> slot = ringBuffer.get(s);
+				batch.add(slot.value);
+				slot.value = null;
+			}
+			// 数据已经取出，释放槽位给生产者；
+			sequence.lazySet(end);
+			next = end + 1;
+
+			try {
+				handler.accept(batch);
+			} catch (Throwable e) {
+				if (errorHandler != null) {
+					try {
+						errorHandler.accept(batch, e);
+					} catch (Throwable ex) {
+						// 忽略错误处理器的异常；
+					}
+				}
+			}
+		}
+	}
+
+	private static class Slot<T> {
+
+		private T value;
+
+	}
+}
@@ -2,11 +2,13 @@ package utils.concurrent;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public class CompletableAsyncFuture<T> implements AsyncFuture<T> {
@@ -26,9 +28,14 @@ public class CompletableAsyncFuture<T> implements AsyncFuture<T> {
 		return new CompletableAsyncFuture<>(cf);
 	}
 	
+	/**
+	 * 在默认执行器 {@link ThreadExecutors#getDefaultExecutor()} 中异步执行；
+	 * 
+	 * @param runnable
+	 * @return
+	 */
 	public static CompletableAsyncFuture<Void> runAsync(Runnable runnable){
-		CompletableFuture<Void> cf = CompletableFuture.runAsync(runnable);
-		return new CompletableAsyncFuture<>(cf);
+		return runAsync(runnable, ThreadExecutors.getDefaultExecutor());
 	}
 	
 	public static CompletableAsyncFuture<Void> runAsync(Runnable runnable, Executor executor){
@@ -36,18 +43,14 @@ public class CompletableAsyncFuture<T> implements AsyncFuture<T> {
 		return new CompletableAsyncFuture<>(cf);
 	}
 	
+	/**
+	 * 在默认执行器 {@link ThreadExecutors#getDefaultExecutor()} 中异步执行；
+	 * 
+	 * @param callable
+	 * @return
+	 */
 	public static <T> CompletableAsyncFuture<T> callAsync(Callable<T> callable){
-		CompletableFuture<T> cf = CompletableFuture.supplyAsync(new Supplier<T>() {
-			@Override
-			public T get() {
-				try {
-					return callable.call();
-				} catch (Exception e) {
-					throw new RuntimeExecutionException(e.getMessage(), e);
-				}
-			}
-		});
-		return new CompletableAsyncFuture<>(cf);
+		return callAsync(callable, ThreadExecutors.getDefaultExecutor());
 	}
 	
 	public static <T> CompletableAsyncFuture<T> callAsync(Callable<T> callable, Executor executor){
@@ -64,9 +67,14 @@ public class CompletableAsyncFuture<T> implements AsyncFuture<T> {
 		return new CompletableAsyncFuture<>(cf);
 	}
 	
+	/**
+	 * 在默认执行器 {@link ThreadExecutors#getDefaultExecutor()} 中异步执行；
+	 * 
+	 * @param supplier
+	 * @return
+	 */
 	public static <T> CompletableAsyncFuture<T> callAsync(Supplier<T> supplier){
-		CompletableFuture<T> cf = CompletableFuture.supplyAsync(supplier);
-		return new CompletableAsyncFuture<>(cf);
+		return callAsync(supplier, ThreadExecutors.getDefaultExecutor());
 	}
 	
 	public static <T> CompletableAsyncFuture<T> callAsync(Supplier<T> supplier, Executor executor){
@@ -100,6 +108,10 @@ public class CompletableAsyncFuture<T> implements AsyncFuture<T> {
 			if (cause == null) {
 				cause = e;
 			}
+			if (cause instanceof RuntimeTimeoutException) {
+				// 由 orTimeout 引发的超时；
+				throw (RuntimeTimeoutException) cause;
+			}
 			throw new RuntimeExecutionException(cause.getMessage(), cause);
 		}
 	}
@@ -115,6 +127,10 @@ public class CompletableAsyncFuture<T> implements AsyncFuture<T> {
 			if (cause == null) {
 				cause = e;
 			}
+			if (cause instanceof RuntimeTimeoutException) {
+				// 由 orTimeout 引发的超时；
+				throw (RuntimeTimeoutException) cause;
+			}
 			throw new RuntimeExecutionException(cause.getMessage(), cause);
 		} catch (TimeoutException e) {
 			throw new RuntimeTimeoutException(e.getMessage(), e);
@@ -131,6 +147,96 @@ public class CompletableAsyncFuture<T> implements AsyncFuture<T> {
 		return cf.isCompletedExceptionally();
 	}
 
+	@Override
+	public <U> AsyncFuture<U> thenApply(Function<? super T, ? extends U> fn) {
+		return new CompletableAsyncFuture<U>(cf.thenApply(fn));
+	}
+
+	@Override
+	public <U> AsyncFuture<U> thenApplyAsync(Function<? super T, ? extends U> fn) {
+		return new CompletableAsyncFuture<U>(cf.thenApplyAsync(fn, ThreadExecutors.getDefaultExecutor()));
+	}
+
+	@Override
+	public <U> AsyncFuture<U> thenApplyAsync(Function<? super T, ? extends U> fn, Executor executor) {
+		return new CompletableAsyncFuture<U>(cf.thenApplyAsync(fn, executor));
+	}
+
+	@Override
+	public <U> AsyncFuture<U> thenCompose(Function<? super T, ? extends AsyncFuture<U>> fn) {
+		CompletableAsyncFuture<U> result = new CompletableAsyncFuture<U>();
+		cf.whenComplete((value, error) -> composeTo(result, fn, value, error));
+		return result;
+	}
+
+	/**
+	 * 以转换函数的结果完成指定的 {@link CompletableAsyncFuture}；
+	 * 
+	 * @param result 待完成的对象；
+	 * @param fn     转换函数；
+	 * @param value  上一个操作的结果；
+	 * @param error  上一个操作的异常；
+	 */
+	static <T, U> void applyTo(CompletableAsyncFuture<U> result, Function<? super T, ? extends U> fn, T value,
+			Throwable error) {
+		if (error != null) {
+			result.error(unwrap(error));
+			return;
+		}
+		try {
+			result.complete(fn.apply(value));
+		} catch (Throwable e) {
+			result.error(e);
+		}
+	}
+
+	/**
+	 * 以转换函数返回的异步操作的结果完成指定的 {@link CompletableAsyncFuture}；
+	 * 
+	 * @param result 待完成的对象；
+	 * @param fn     返回下一个异步操作的函数；
+	 * @param value  上一个操作的结果；
+	 * @param error  上一个操作的异常；
+	 */
+	static <T, U> void composeTo(CompletableAsyncFuture<U> result, Function<? super T, ? extends AsyncFuture<U>> fn,
+			T value, Throwable error) {
+		if (error != null) {
+			result.error(unwrap(error));
+			return;
+		}
+		AsyncFuture<U> next;
+		try {
+			next = fn.apply(value);
+		} catch (Throwable e) {
+			result.error(e);
+			return;
+		}
+		if (next == null) {
+			result.error(new IllegalStateException("The composed future is null!"));
+			return;
+		}
+		next.whenComplete((nextValue, nextError) -> {
+			if (nextError != null) {
+				result.error(unwrap(nextError));
+			} else {
+				result.complete(nextValue);
+			}
+		});
+	}
+
+	/**
+	 * 去除 {@link CompletableFuture} 在传递异常时包装的 {@link CompletionException}；
+	 * 
+	 * @param error
+	 * @return
+	 */
+	static Throwable unwrap(Throwable error) {
+		if (error instanceof CompletionException && error.getCause() != null) {
+			return error.getCause();
+		}
+		return error;
+	}
+
 	@Override
 	public AsyncFuture<T> thenAccept(Consumer<? super T> action) {
 		cf.thenAccept(action);
@@ -139,7 +245,7 @@ public class CompletableAsyncFuture<T> implements AsyncFuture<T> {
 
 	@Override
 	public AsyncFuture<T> thenAcceptAsync(Consumer<? super T> action) {
-		cf.thenAcceptAsync(action);
+		cf.thenAcceptAsync(action, ThreadExecutors.getDefaultExecutor());
 		return this;
 	}
 
@@ -157,7 +263,7 @@ public class CompletableAsyncFuture<T> implements AsyncFuture<T> {
 
 	@Override
 	public AsyncFuture<T> thenRunAsync(Runnable action) {
-		cf.thenRunAsync(action);
+		cf.thenRunAsync(action, ThreadExecutors.getDefaultExecutor());
 		return this;
 	}
 
@@ -175,14 +281,62 @@ public class CompletableAsyncFuture<T> implements AsyncFuture<T> {
 
 	@Override
 	public AsyncFuture<T> whenCompleteAsync(AsyncHandle<? super T> action) {
-		cf.whenCompleteAsync(action);
+		cf.whenCompleteAsync(action, ThreadExecutors.getDefaultExecutor());
 		return this;
 	}
 
 	@Override
 	public AsyncFuture<T> whenCompleteAsync(AsyncHandle<? super T> action, Executor executor) {
 		cf.whenCompleteAsync(action, executor);
-		cf.whenCompleteAsync((a, b) -> action.accept(a, b), executor);
+		return this;
+	}
+
+	@Override
+	public AsyncFuture<T> orTimeout(long timeout, TimeUnit unit) {
+		return orTimeout(timeout, unit, HashedWheelTimer.getDefault());
+	}
+
+	/**
+	 * 如果在指定的时间内未完成，则以超时异常 {@link RuntimeTimeoutException} 完成；
+	 * 
+	 * @param timeout 超时时间；
+	 * @param unit    超时时间的单位；
+	 * @param timer   调度超时的定时器；
+	 * @return 当前对象；
+	 */
+	public AsyncFuture<T> orTimeout(long timeout, TimeUnit unit, HashedWheelTimer timer) {
+		if (cf.isDone()) {
+			return this;
+		}
+		Timeout task = timer.newTimeout(() -> {
+			if (!cf.isDone()) {
+				cf.completeExceptionally(new RuntimeTimeoutException("Timeout after " + timeout + " " + unit + "!"));
+			}
+		}, timeout, unit);
+		cf.whenComplete((v, e) -> task.cancel());
+		return this;
+	}
+
+	@Override
+	public AsyncFuture<T> completeOnTimeout(T value, long timeout, TimeUnit unit) {
+		return completeOnTimeout(value, timeout, unit, HashedWheelTimer.getDefault());
+	}
+
+	/**
+	 * 如果在指定的时间内未完成，则以指定的值完成；
+	 * 
+	 * @param value   超时时返回的值；
+	 * @param timeout 超时时间；
+	 * @param unit    超时时间的单位；
+	 * @param timer   调度超时的定时器；
+	 * @return 当前对象；
+	 */
+	public AsyncFuture<T> completeOnTimeout(T value, long timeout, TimeUnit unit, HashedWheelTimer timer) {
+		if (cf.isDone()) {
+			return this;
+		}
+		Timeout task = timer.newTimeout(() -> cf.complete(value), timeout, unit);
+		cf.whenComplete((v, e) -> task.cancel());
 		return this;
 	}
 
@@ -0,0 +1,497 @@
+package utils.concurrent;
+
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+import utils.Disposable;
+
+/**
+ * 基于哈希时间轮（Hashed Wheel）的定时器；
+ * <p>
+ *
+ * 时间轮由固定数量的槽（bucket）构成，每个槽是一个双向链表；单个工作线程以固定的节拍（tick）推进时间轮，每个节拍处理一个槽中到期的任务；<br>
+ *
+ * 添加和取消任务都只是向无锁队列中放入一个元素，由工作线程在下一个节拍统一转移到槽中或者从槽中摘除，因此两者的时间复杂度都是 O(1)，
+ * 并且调用者之间没有锁竞争，适合同时维护数以百万计的待定超时；<br>
+ *
+ * 到期时间的精度为一个节拍；任务默认在工作线程中执行，必须足够短小，否则应指定执行任务的执行器；
+ *
+ * @author huanghaiquan
+ *
+ */
+public class HashedWheelTimer implements Disposable {
+
+	public static final long DEFAULT_TICK_MILLIS = 10;
+
+	public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+	private static final int MAX_TICKS_PER_WHEEL = 1 << 30;
+
+	/**
+	 * 每个节拍从待添加队列中最多转移的任务数，以免大量添加任务时推迟到期任务的执行；
+	 */
+	private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+	private static final int WORKER_INIT = 0;
+
+	private static final int WORKER_STARTED = 1;
+
+	private static final int WORKER_SHUTDOWN = 2;
+
+	private static volatile HashedWheelTimer defaultTimer;
+
+	private final AtomicInteger workerState = new AtomicInteger(WORKER_INIT);
+
+	private final long tickNanos;
+
+	private final Bucket[] wheel;
+
+	private final int mask;
+
+	private final Executor taskExecutor;
+
+	private final Thread workerThread;
+
+	private final Queue<Entry> additions = new ConcurrentLinkedQueue<Entry>();
+
+	private final Queue<Entry> cancellations = new ConcurrentLinkedQueue<Entry>();
+
+	private final AtomicLong pendingCount = new AtomicLong();
+
+	private final CountDownLatch startedLatch = new CountDownLatch(1);
+
+	private volatile long startTime;
+
+	private Set<Timeout> unprocessed;
+
+	/**
+	 * 创建以默认节拍（{@value #DEFAULT_TICK_MILLIS} 毫秒）和默认槽数（{@value #DEFAULT_TICKS_PER_WHEEL}）运行的定时器；
+	 *
+	 * @param name 工作线程的名称；
+	 */
+	public HashedWheelTimer(String name) {
+		this(name, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_TICKS_PER_WHEEL, null);
+	}
+
+	/**
+	 * 创建定时器；
+	 * <p>
+	 *
+	 * 工作线程为守护线程，在第一次添加任务时启动；
+	 *
+	 * @param name          工作线程的名称；
+	 * @param tickDuration  节拍的时长；
+	 * @param unit          节拍的时长的单位；
+	 * @param ticksPerWheel 时间轮的槽数；向上取整为 2 的幂；
+	 * @param taskExecutor  执行到期任务的执行器；如果为 null，则在工作线程中直接执行；
+	 */
+	public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, Executor taskExecutor) {
+		if (tickDuration <= 0) {
+			throw new IllegalArgumentException("The tick duration must be positive!");
+		}
+		if (ticksPerWheel <= 0 || ticksPerWheel > MAX_TICKS_PER_WHEEL) {
+			throw new IllegalArgumentException("The ticks per wheel is out of range (0, " + MAX_TICKS_PER_WHEEL + "]!");
+		}
+		this.tickNanos = Math.max(unit.toNanos(tickDuration), 1);
+		int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+		size = Math.max(size, 1);
+		if (tickNanos >= Long.MAX_VALUE / size) {
+			throw new IllegalArgumentException("The tick duration is too long!");
+		}
+		this.wheel = new Bucket[size];
+		for (int i = 0; i < size; i++) {
+			wheel[i] = new Bucket();
+		}
+		this.mask = size - 1;
+		this.taskExecutor = taskExecutor;
+		this.workerThread = new NamedThreadFactory(name, true).newThread(new Worker());
+	}
+
+	/**
+	 * 返回全局共享的定时器；
+	 * <p>
+	 *
+	 * 到期的任务提交到 {@link ThreadExecutors#getDefaultExecutor()} 中执行，避免阻塞时间轮；
+	 *
+	 * @return
+	 */
+	public static HashedWheelTimer getDefault() {
+		HashedWheelTimer timer = defaultTimer;
+		if (timer == null) {
+			synchronized (HashedWheelTimer.class) {
+				timer = defaultTimer;
+				if (timer == null) {
+					timer = new HashedWheelTimer("utils-timer", DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS,
+							DEFAULT_TICKS_PER_WHEEL, task -> ThreadExecutors.getDefaultExecutor().execute(task));
+					defaultTimer = timer;
+				}
+			}
+		}
+		return timer;
+	}
+
+	/**
+	 * 节拍的时长（纳秒）；
+	 *
+	 * @return
+	 */
+	public long getTickNanos() {
+		return tickNanos;
+	}
+
+	/**
+	 * 时间轮的槽数；
+	 *
+	 * @return
+	 */
+	public int getTicksPerWheel() {
+		return wheel.length;
+	}
+
+	/**
+	 * 尚未到期且未取消的任务数；
+	 *
+	 * @return
+	 */
+	public long getPendingCount() {
+		return pendingCount.get();
+	}
+
+	/**
+	 * 添加一个在指定延迟之后执行的任务；
+	 *
+	 * @param task  任务；
+	 * @param delay 延迟；小于等于 0 时在下一个节拍执行；
+	 * @param unit  延迟的单位；
+	 * @return 可用于取消任务的句柄；
+	 */
+	public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+		if (task == null) {
+			throw new IllegalArgumentException("Task is null!");
+		}
+		start();
+		long deadline = System.nanoTime() + unit.toNanos(Math.max(delay, 0)) - startTime;
+		if (deadline < 0) {
+			// 溢出；
+			deadline = Long.MAX_VALUE;
+		}
+		Entry entry = new Entry(task, deadline);
+		pendingCount.incrementAndGet();
+		additions.add(entry);
+		if (workerState.get() == WORKER_SHUTDOWN && additions.remove(entry)) {
+			// 工作线程已经取走最后一批任务，此任务既不会执行也不会由 stop 返回；
+			pendingCount.decrementAndGet();
+			throw new IllegalStateException("The timer has been stopped!");
+		}
+		return entry;
+	}
+
+	private void start() {
+		if (workerState.get() == WORKER_INIT) {
+			// 与 stop 互斥，保证 stop 看到 WORKER_STARTED 时工作线程已经启动；
+			synchronized (this) {
+				if (workerState.compareAndSet(WORKER_INIT, WORKER_STARTED)) {
+					workerThread.start();
+				}
+			}
+		}
+		if (workerState.get() == WORKER_SHUTDOWN) {
+			throw new IllegalStateException("The timer has been stopped!");
+		}
+		try {
+			startedLatch.await();
+		} catch (InterruptedException e) {
+			throw new RuntimeInterruptedException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 停止定时器，返回尚未执行也未取消的任务；
+	 * <p>
+	 *
+	 * 停止后不能再添加任务；不允许在到期任务中调用此方法；
+	 *
+	 * @return
+	 */
+	public synchronized Set<Timeout> stop() {
+		if (Thread.currentThread() == workerThread) {
+			throw new IllegalStateException("Cannot stop the timer from the worker thread!");
+		}
+		if (!workerState.compareAndSet(WORKER_STARTED, WORKER_SHUTDOWN)) {
+			workerState.set(WORKER_SHUTDOWN);
+			return unprocessed == null ? new HashSet<Timeout>() : unprocessed;
+		}
+		boolean interrupted = false;
+		while (workerThread.isAlive()) {
+			workerThread.interrupt();
+			try {
+				workerThread.join(100);
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return unprocessed;
+	}
+
+	@Override
+	public void dispose() {
+		stop();
+	}
+
+	private void expire(Entry entry) {
+		if (!entry.markExpired()) {
+			return;
+		}
+		pendingCount.decrementAndGet();
+		if (taskExecutor == null) {
+			runTask(entry.task);
+			return;
+		}
+		try {
+			taskExecutor.execute(entry.task);
+		} catch (Throwable e) {
+			// 执行器拒绝时在工作线程中执行，保证任务不会丢失；
+			runTask(entry.task);
+		}
+	}
+
+	private static void runTask(Runnable task) {
+		try {
+			task.run();
+		} catch (Throwable e) {
+			// 忽略任务的异常，避免终止工作线程；
+		}
+	}
+
+	// ------------------------------------------------------------
+
+	private final class Worker implements Runnable {
+
+		private long tick;
+
+		@Override
+		public void run() {
+			startTime = System.nanoTime();
+			startedLatch.countDown();
+
+			while (workerState.get() == WORKER_STARTED) {
+				long deadline = waitForNextTick();
+				if (deadline < 0) {
+					continue;
+				}
+				removeCancelled();
+				transferAdditions();
+				wheel[(int) (tick & mask)].expire(deadline);
+				tick++;
+			}
+
+			Set<Timeout> pending = new HashSet<Timeout>();
+			for (Bucket bucket : wheel) {
+				bucket.drain(pending);
+			}
+			Entry entry;
+			while ((entry = additions.poll()) != null) {
+				if (!entry.isCancelled()) {
+					pending.add(entry);
+				}
+			}
+			removeCancelled();
+			unprocessed = pending;
+		}
+
+		/**
+		 * 等待下一个节拍；
+		 *
+		 * @return 返回当前节拍的截止时间（相对于启动时间）；如果定时器已停止则返回 -1；
+		 */
+		private long waitForNextTick() {
+			long deadline = tickNanos * (tick + 1);
+			for (;;) {
+				long current = System.nanoTime() - startTime;
+				long sleepNanos = deadline - current;
+				if (sleepNanos <= 0) {
+					return current;
+				}
+				try {
+					TimeUnit.NANOSECONDS.sleep(sleepNanos);
+				} catch (InterruptedException e) {
+					if (workerState.get() == WORKER_SHUTDOWN) {
+						return -1;
+					}
+				}
+			}
+		}
+
+		private void transferAdditions() {
+			for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+				Entry entry = additions.poll();
+				if (entry == null) {
+					break;
+				}
+				if (entry.isCancelled()) {
+					continue;
+				}
+				long calculated = entry.deadline / tickNanos;
+				entry.remainingRounds = (calculated - tick) / wheel.length;
+				// 已经过期的任务放在当前节拍的槽中；
+				long ticks = Math.max(calculated, tick);
+				wheel[(int) (ticks & mask)].add(entry);
+			}
+		}
+
+		private void removeCancelled() {
+			Entry entry;
+			while ((entry = cancellations.poll()) != null) {
+				if (entry.bucket != null) {
+					entry.bucket.remove(entry);
+				}
+			}
+		}
+	}
+
+	// ------------------------------------------------------------
+
+	/**
+	 * 时间轮的槽；只由工作线程访问；
+	 */
+	private final class Bucket {
+
+		private Entry head;
+
+		private Entry tail;
+
+		void add(Entry entry) {
+			entry.bucket = this;
+			if (head == null) {
+				head = tail = entry;
+			} else {
+				tail.next = entry;
+				entry.prev = tail;
+				tail = entry;
+			}
+		}
+
+		void remove(Entry entry) {
+			Entry next = entry.next;
+			if (entry.prev != null) {
+				entry.prev.next = next;
+			}
+			if (next != null) {
+				next.prev = entry.prev;
+			}
+			if (entry == head) {
+				head = next;
+			}
+			if (entry == tail) {
+				tail = entry.prev;
+			}
+			entry.prev = null;
+			entry.next = null;
+			entry.bucket = null;
+		}
+
+		void expire(long deadline) {
+			Entry entry = head;
+			while (entry != null) {
+				Entry next = entry.next;
+				if (entry.remainingRounds <= 0) {
+					remove(entry);
+					if (entry.deadline <= deadline) {
+						HashedWheelTimer.this.expire(entry);
+					} else {
+						// 放入了错误的槽，不应发生；
+						throw new IllegalStateException("Timeout deadline (" + entry.deadline
+								+ ") is greater than the tick deadline (" + deadline + ")!");
+					}
+				} else if (entry.isCancelled()) {
+					remove(entry);
+				} else {
+					entry.remainingRounds--;
+				}
+				entry = next;
+			}
+		}
+
+		void drain(Set<Timeout> pending) {
+			Entry entry;
+			while ((entry = head) != null) {
+				remove(entry);
+				if (!entry.isExpired() && !entry.isCancelled()) {
+					pending.add(entry);
+				}
+			}
+		}
+	}
+
+	// ------------------------------------------------------------
+
+	private final class Entry implements Timeout {
+
+		private static final int ST_INIT = 0;
+
+		private static final int ST_CANCELLED = 1;
+
+		private static final int ST_EXPIRED = 2;
+
+		private final Runnable task;
+
+		private final long deadline;
+
+		// 由外部类的 STATE_UPDATER 访问；Java 8 不允许字段更新器访问其他类的 private 字段，因此不能声明为 private；
+		volatile int state = ST_INIT;
+
+		// 以下字段只由工作线程访问；
+
+		private long remainingRounds;
+
+		private Entry prev;
+
+		private Entry next;
+
+		private Bucket bucket;
+
+		Entry(Runnable task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		boolean markExpired() {
+			return STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED);
+		}
+
+		@Override
+		public boolean isExpired() {
+			return state == ST_EXPIRED;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return state == ST_CANCELLED;
+		}
+
+		@Override
+		public boolean cancel() {
+			if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+				return false;
+			}
+			pendingCount.decrementAndGet();
+			// 由工作线程在下一个节拍从槽中摘除；
+			cancellations.add(this);
+			return true;
+		}
+	}
+
+	private static final AtomicIntegerFieldUpdater<Entry> STATE_UPDATER = AtomicIntegerFieldUpdater
+			.newUpdater(Entry.class, "state");
+}
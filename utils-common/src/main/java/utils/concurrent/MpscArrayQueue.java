@@ -0,0 +1,127 @@
+package utils.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 有界的无锁多生产者单消费者（MPSC）队列；
+ * <p>
+ *
+ * 基于环形数组实现，每个槽位带有一个序号：生产者通过 CAS 竞争写入位置，写入元素后更新槽位的序号以发布元素；消费者只需读取槽位的序号即可判断元素是否可读，
+ * 不需要任何 CAS；<br>
+ *
+ * 注：{@link #poll()} 只允许由单个线程调用；{@link #offer(Object)} 可由任意多个线程并发调用；
+ *
+ * @author huanghaiquan
+ *
+ * @param <E>
+ */
+public class MpscArrayQueue<E> {
+
+	private final Object[] elements;
+
+	/**
+	 * 槽位的序号；等于 index 表示可写，等于 index + 1 表示可读；
+	 */
+	private final AtomicLongArray sequences;
+
+	private final int mask;
+
+	private final AtomicLong tail = new AtomicLong();
+
+	private volatile long head;
+
+	/**
+	 * 创建队列；
+	 *
+	 * @param capacity 容量；向上取整为 2 的幂，最小为 2；
+	 */
+	public MpscArrayQueue(int capacity) {
+		if (capacity < 1 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("The capacity is out of range [1, 2^30]!");
+		}
+		// 容量为 1 时“可读”和“下一轮可写”的序号相同，因此至少需要 2 个槽位；
+		int size = Math.max(Integer.highestOneBit(capacity - 1) << 1, 2);
+		this.elements = new Object[size];
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+		this.mask = size - 1;
+	}
+
+	public int capacity() {
+		return elements.length;
+	}
+
+	/**
+	 * 加入元素；
+	 *
+	 * @param e 元素；不允许为 null；
+	 * @return 队列已满时返回 false；
+	 */
+	public boolean offer(E e) {
+		if (e == null) {
+			throw new IllegalArgumentException("Element is null!");
+		}
+		for (;;) {
+			long t = tail.get();
+			int index = (int) t & mask;
+			long diff = sequences.get(index) - t;
+			if (diff == 0) {
+				if (tail.compareAndSet(t, t + 1)) {
+					elements[index] = e;
+					sequences.lazySet(index, t + 1);
+					return true;
+				}
+			} else if (diff < 0) {
+				// 槽位中的元素尚未被消费，队列已满；
+				return false;
+			}
+			// diff > 0 表示其它生产者已经占用了该位置，重新读取 tail；
+		}
+	}
+
+	/**
+	 * 取出元素；只允许由消费者线程调用；
+	 *
+	 * @return 队列为空时返回 null；
+	 */
+	@SuppressWarnings("unchecked")
+	public E poll() {
+		long h = head;
+		int index = (int) h & mask;
+		if (sequences.get(index) != h + 1) {
+			// 队列为空，或者生产者已经占用位置但尚未完成写入；
+			return null;
+		}
+		E e = (E) elements[index];
+		elements[index] = null;
+		sequences.lazySet(index, h + elements.length);
+		head = h + 1;
+		return e;
+	}
+
+	/**
+	 * 队列是否为空；
+	 * <p>
+	 *
+	 * 生产者已经占用位置但尚未完成写入的元素视为不存在；
+	 *
+	 * @return
+	 */
+	public boolean isEmpty() {
+		long h = head;
+		return sequences.get((int) h & mask) != h + 1;
+	}
+
+	/**
+	 * 返回元素数量的近似值；
+	 *
+	 * @return
+	 */
+	public int size() {
+		long size = tail.get() - head;
+		return (int) Math.max(0, Math.min(size, elements.length));
+	}
+}
@@ -18,6 +18,8 @@ public class NamedThreadFactory implements ThreadFactory {
 	private AtomicLong index;
 
 	private boolean deamon;
+
+	private boolean virtual;
 	
 	/**
 	 * 创建 NamedThreadFactory 实例；
@@ -52,12 +54,49 @@ public class NamedThreadFactory implements ThreadFactory {
 	 *            是否守护线程；
 	 */
 	public NamedThreadFactory(String name, boolean indexThread, boolean deamon) {
+		this(name, indexThread, deamon, false);
+	}
+
+	/**
+	 * 创建 NamedThreadFactory 实例；
+	 * 
+	 * @param name
+	 *            名称；
+	 * @param indexThread
+	 *            是否记录创建的线程个数；
+	 * @param deamon
+	 *            是否守护线程；对虚拟线程无效，虚拟线程总是守护线程；
+	 * @param virtual
+	 *            是否创建虚拟线程；如果当前 JVM 不支持虚拟线程（JDK 21 以下），则创建平台线程；
+	 */
+	public NamedThreadFactory(String name, boolean indexThread, boolean deamon, boolean virtual) {
 		this.name = name;
 		this.indexThread = indexThread;
 		if (indexThread) {
 			index = new AtomicLong(0);
 		}
 		this.deamon = deamon;
+		this.virtual = virtual && VirtualThreads.isSupported();
+	}
+
+	/**
+	 * 创建虚拟线程的工厂；如果当前 JVM 不支持虚拟线程，则创建守护的平台线程；
+	 * 
+	 * @param name
+	 *            名称；线程名称会加上索引值；
+	 * @return
+	 */
+	public static NamedThreadFactory virtual(String name) {
+		return new NamedThreadFactory(name, true, true, true);
+	}
+
+	/**
+	 * 是否创建虚拟线程；
+	 * 
+	 * @return
+	 */
+	public boolean isVirtual() {
+		return virtual;
 	}
 
 	@Override
@@ -67,6 +106,11 @@ public class NamedThreadFactory implements ThreadFactory {
 			long i = index.incrementAndGet();
 			thrdName = name +"-" + i;
 		}
+		if (virtual) {
+			Thread thrd = VirtualThreads.newThread(r);
+			thrd.setName(thrdName);
+			return thrd;
+		}
 		Thread thrd = new Thread(r, thrdName);
 		thrd.setDaemon(deamon);
 		return thrd;
@@ -0,0 +1,368 @@
+package utils.concurrent;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 预分配槽位的环形缓冲区（Disruptor 风格）；
+ * <p>
+ *
+ * 槽位中的事件对象在创建时一次性分配，生产者通过“申请序号 - 写入槽位 - 发布序号”三个步骤传递数据，不会为每个数据创建节点，也不需要锁；<br>
+ *
+ * 消费者各自维护一个门控序号（gating sequence），表示已经处理完成的最大序号；生产者不会覆盖任何一个消费者尚未处理的槽位，
+ * 缓冲区已满时生产者自旋等待；消费者通过 {@link #waitFor(long, long, BooleanSupplier)} 按照指定的 {@link WaitStrategy} 等待数据；<br>
+ *
+ * 分为单生产者和多生产者两种模式：单生产者模式申请序号不需要 CAS，但只允许由一个线程发布数据；
+ *
+ * @author huanghaiquan
+ *
+ * @param <E> 事件的类型；
+ */
+public abstract class RingBuffer<E> {
+
+	static final long INITIAL_SEQUENCE = -1L;
+
+	private final Object[] entries;
+
+	protected final int bufferSize;
+
+	protected final int mask;
+
+	private final WaitStrategy waitStrategy;
+
+	/**
+	 * 游标；单生产者模式下表示已发布的最大序号；多生产者模式下表示已申请的最大序号；
+	 */
+	protected final AtomicLong cursor = new AtomicLong(INITIAL_SEQUENCE);
+
+	private volatile AtomicLong[] gatingSequences = new AtomicLong[0];
+
+	private RingBuffer(Supplier<E> factory, int bufferSize, WaitStrategy waitStrategy) {
+		if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+			throw new IllegalArgumentException("The buffer size must be a power of 2!");
+		}
+		this.bufferSize = bufferSize;
+		this.mask = bufferSize - 1;
+		this.waitStrategy = waitStrategy;
+		this.entries = new Object[bufferSize];
+		for (int i = 0; i < bufferSize; i++) {
+			entries[i] = factory.get();
+		}
+	}
+
+	/**
+	 * 创建单生产者模式的环形缓冲区；
+	 *
+	 * @param factory      事件对象的工厂；
+	 * @param bufferSize   槽位数；必须是 2 的幂；
+	 * @param waitStrategy 消费者的等待策略；
+	 * @return
+	 */
+	public static <E> RingBuffer<E> createSingleProducer(Supplier<E> factory, int bufferSize,
+			WaitStrategy waitStrategy) {
+		return new SingleProducerRingBuffer<E>(factory, bufferSize, waitStrategy);
+	}
+
+	/**
+	 * 创建多生产者模式的环形缓冲区；
+	 *
+	 * @param factory      事件对象的工厂；
+	 * @param bufferSize   槽位数；必须是 2 的幂；
+	 * @param waitStrategy 消费者的等待策略；
+	 * @return
+	 */
+	public static <E> RingBuffer<E> createMultiProducer(Supplier<E> factory, int bufferSize,
+			WaitStrategy waitStrategy) {
+		return new MultiProducerRingBuffer<E>(factory, bufferSize, waitStrategy);
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * 返回指定序号的槽位中的事件对象；
+	 *
+	 * @param sequence
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public E get(long sequence) {
+		return (E) entries[(int) sequence & mask];
+	}
+
+	/**
+	 * 添加消费者的门控序号；生产者不会覆盖门控序号之后的槽位；
+	 * <p>
+	 *
+	 * 新的门控序号应当在开始发布数据之前添加，初始值通常为 {@link #getCursor()}；
+	 *
+	 * @param sequence
+	 */
+	public synchronized void addGatingSequence(AtomicLong sequence) {
+		AtomicLong[] current = gatingSequences;
+		AtomicLong[] sequences = new AtomicLong[current.length + 1];
+		System.arraycopy(current, 0, sequences, 0, current.length);
+		sequences[current.length] = sequence;
+		gatingSequences = sequences;
+	}
+
+	/**
+	 * 移除消费者的门控序号；
+	 *
+	 * @param sequence
+	 * @return
+	 */
+	public synchronized boolean removeGatingSequence(AtomicLong sequence) {
+		AtomicLong[] current = gatingSequences;
+		for (int i = 0; i < current.length; i++) {
+			if (current[i] == sequence) {
+				AtomicLong[] sequences = new AtomicLong[current.length - 1];
+				System.arraycopy(current, 0, sequences, 0, i);
+				System.arraycopy(current, i + 1, sequences, i, current.length - i - 1);
+				gatingSequences = sequences;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 游标的当前值；
+	 *
+	 * @return
+	 */
+	public long getCursor() {
+		return cursor.get();
+	}
+
+	/**
+	 * 申请下一个序号；缓冲区已满时自旋等待；
+	 *
+	 * @return
+	 */
+	public long next() {
+		return next(1);
+	}
+
+	/**
+	 * 申请连续的 n 个序号；缓冲区已满时自旋等待；
+	 *
+	 * @param n 序号个数；
+	 * @return 返回申请到的最大序号；
+	 */
+	public abstract long next(int n);
+
+	/**
+	 * 尝试申请下一个序号；
+	 *
+	 * @return 返回申请到的序号；缓冲区已满时返回 -1；
+	 */
+	public abstract long tryNext();
+
+	/**
+	 * 发布指定的序号，使其对消费者可见；
+	 *
+	 * @param sequence
+	 */
+	public abstract void publish(long sequence);
+
+	/**
+	 * 指定的序号是否已经发布；
+	 *
+	 * @param sequence
+	 * @return
+	 */
+	public abstract boolean isPublished(long sequence);
+
+	/**
+	 * 返回 [lowerBound, availableSequence] 区间内连续发布的最大序号；
+	 */
+	protected abstract long getHighestPublished(long lowerBound, long availableSequence);
+
+	/**
+	 * 等待直至指定的序号已经发布，或者超时，或者被要求停止；
+	 *
+	 * @param sequence     等待的序号；
+	 * @param timeoutNanos 超时时长（纳秒）；小于 0 表示不超时；
+	 * @param halted       是否要求停止等待；
+	 * @return 返回从 sequence 开始连续发布的最大序号；小于 sequence 表示没有可用的数据；
+	 */
+	public long waitFor(long sequence, long timeoutNanos, BooleanSupplier halted) {
+		long available = waitStrategy.waitFor(sequence, cursor, timeoutNanos, halted);
+		if (available < sequence) {
+			return available;
+		}
+		return getHighestPublished(sequence, available);
+	}
+
+	/**
+	 * 剩余的空闲槽位数；
+	 *
+	 * @return
+	 */
+	public long remainingCapacity() {
+		long produced = cursor.get();
+		return bufferSize - (produced - getMinimumGatingSequence(produced));
+	}
+
+	protected long getMinimumGatingSequence(long defaultValue) {
+		long minimum = defaultValue;
+		for (AtomicLong sequence : gatingSequences) {
+			long value = sequence.get();
+			if (value < minimum) {
+				minimum = value;
+			}
+		}
+		return minimum;
+	}
+
+	// ------------------------------------------------------------
+
+	private static class SingleProducerRingBuffer<E> extends RingBuffer<E> {
+
+		/**
+		 * 已申请的最大序号；只由生产者线程访问；
+		 */
+		private long nextValue = INITIAL_SEQUENCE;
+
+		private long cachedGating = INITIAL_SEQUENCE;
+
+		SingleProducerRingBuffer(Supplier<E> factory, int bufferSize, WaitStrategy waitStrategy) {
+			super(factory, bufferSize, waitStrategy);
+		}
+
+		@Override
+		public long next(int n) {
+			if (n < 1 || n > bufferSize) {
+				throw new IllegalArgumentException("n must be in range [1, bufferSize]!");
+			}
+			long current = nextValue;
+			long next = current + n;
+			long wrapPoint = next - bufferSize;
+			if (wrapPoint > cachedGating || cachedGating > current) {
+				long minimum;
+				while (wrapPoint > (minimum = getMinimumGatingSequence(current))) {
+					LockSupport.parkNanos(1);
+				}
+				cachedGating = minimum;
+			}
+			nextValue = next;
+			return next;
+		}
+
+		@Override
+		public long tryNext() {
+			long current = nextValue;
+			long next = current + 1;
+			long wrapPoint = next - bufferSize;
+			if (wrapPoint > cachedGating || cachedGating > current) {
+				long minimum = getMinimumGatingSequence(current);
+				cachedGating = minimum;
+				if (wrapPoint > minimum) {
+					return -1;
+				}
+			}
+			nextValue = next;
+			return next;
+		}
+
+		@Override
+		public void publish(long sequence) {
+			cursor.set(sequence);
+		}
+
+		@Override
+		public boolean isPublished(long sequence) {
+			return sequence <= cursor.get();
+		}
+
+		@Override
+		protected long getHighestPublished(long lowerBound, long availableSequence) {
+			return availableSequence;
+		}
+	}
+
+	// ------------------------------------------------------------
+
+	private static class MultiProducerRingBuffer<E> extends RingBuffer<E> {
+
+		/**
+		 * 每个槽位最近一次发布时所在的轮次；
+		 */
+		private final AtomicIntegerArray availableBuffer;
+
+		private final int indexShift;
+
+		private final AtomicLong cachedGating = new AtomicLong(INITIAL_SEQUENCE);
+
+		MultiProducerRingBuffer(Supplier<E> factory, int bufferSize, WaitStrategy waitStrategy) {
+			super(factory, bufferSize, waitStrategy);
+			this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+			this.availableBuffer = new AtomicIntegerArray(bufferSize);
+			for (int i = 0; i < bufferSize; i++) {
+				availableBuffer.set(i, -1);
+			}
+		}
+
+		@Override
+		public long next(int n) {
+			if (n < 1 || n > bufferSize) {
+				throw new IllegalArgumentException("n must be in range [1, bufferSize]!");
+			}
+			for (;;) {
+				long current = cursor.get();
+				long next = current + n;
+				long wrapPoint = next - bufferSize;
+				long gating = cachedGating.get();
+				if (wrapPoint > gating || gating > current) {
+					long minimum = getMinimumGatingSequence(current);
+					if (wrapPoint > minimum) {
+						LockSupport.parkNanos(1);
+						continue;
+					}
+					cachedGating.set(minimum);
+				} else if (cursor.compareAndSet(current, next)) {
+					return next;
+				}
+			}
+		}
+
+		@Override
+		public long tryNext() {
+			for (;;) {
+				long current = cursor.get();
+				long next = current + 1;
+				if (next - bufferSize > getMinimumGatingSequence(current)) {
+					return -1;
+				}
+				if (cursor.compareAndSet(current, next)) {
+					return next;
+				}
+			}
+		}
+
+		@Override
+		public void publish(long sequence) {
+			availableBuffer.lazySet((int) sequence & mask, (int) (sequence >>> indexShift));
+		}
+
+		@Override
+		public boolean isPublished(long sequence) {
+			return availableBuffer.get((int) sequence & mask) == (int) (sequence >>> indexShift);
+		}
+
+		@Override
+		protected long getHighestPublished(long lowerBound, long availableSequence) {
+			for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+				if (!isPublished(sequence)) {
+					return sequence - 1;
+				}
+			}
+			return availableSequence;
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package utils.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 执行器工具；提供池化平台线程、{@link ForkJoinPool} 和虚拟线程三种执行方式；
+ * <p>
+ *
+ * 虚拟线程需要 JDK 21 及以上版本，通过反射检测；在较低版本的 JDK 上自动退化为池化的平台线程；<br>
+ *
+ * 此外维护一个全局的默认执行器，供 {@link CompletableAsyncFuture} 中未指定执行器的异步方法使用；默认执行器在支持虚拟线程时为虚拟线程执行器，否则为池化的守护线程；
+ *
+ * @author huanghaiquan
+ *
+ */
+public abstract class ThreadExecutors {
+
+	private static final String DEFAULT_EXECUTOR_NAME = "utils-async";
+
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private static volatile Executor defaultExecutor;
+
+	/**
+	 * 当前 JVM 是否支持虚拟线程；
+	 *
+	 * @return
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return VirtualThreads.isSupported();
+	}
+
+	/**
+	 * 创建为每个任务启动一个新虚拟线程的执行器；
+	 * <p>
+	 *
+	 * 如果当前 JVM 不支持虚拟线程，则返回 {@link #newCachedThreadPool(String)}；
+	 *
+	 * @param name 线程名称的前缀；
+	 * @return
+	 */
+	public static ExecutorService newVirtualThreadExecutor(String name) {
+		if (!VirtualThreads.isSupported()) {
+			return newCachedThreadPool(name);
+		}
+		return VirtualThreads.newThreadPerTaskExecutor(NamedThreadFactory.virtual(name));
+	}
+
+	/**
+	 * 创建按需扩展、空闲线程自动回收的平台线程池；线程为守护线程；
+	 *
+	 * @param name 线程名称的前缀；
+	 * @return
+	 */
+	public static ExecutorService newCachedThreadPool(String name) {
+		return new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>(), new NamedThreadFactory(name, true, true));
+	}
+
+	/**
+	 * 创建固定线程数的平台线程池；线程为守护线程；
+	 *
+	 * @param name    线程名称的前缀；
+	 * @param threads 线程数；
+	 * @return
+	 */
+	public static ExecutorService newFixedThreadPool(String name, int threads) {
+		return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+				new NamedThreadFactory(name, true, true));
+	}
+
+	/**
+	 * 创建工作线程带有名称的 {@link ForkJoinPool}；
+	 *
+	 * @param name        线程名称的前缀；
+	 * @param parallelism 并行度；
+	 * @return
+	 */
+	public static ForkJoinPool newForkJoinPool(String name, int parallelism) {
+		AtomicLong index = new AtomicLong(0);
+		return new ForkJoinPool(parallelism, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName(name + "-" + index.incrementAndGet());
+			return thread;
+		}, null, false);
+	}
+
+	/**
+	 * 返回全局的默认执行器；
+	 *
+	 * @return
+	 */
+	public static Executor getDefaultExecutor() {
+		Executor executor = defaultExecutor;
+		if (executor == null) {
+			synchronized (ThreadExecutors.class) {
+				executor = defaultExecutor;
+				if (executor == null) {
+					executor = newVirtualThreadExecutor(DEFAULT_EXECUTOR_NAME);
+					defaultExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * 设置全局的默认执行器；
+	 * <p>
+	 *
+	 * 原来的执行器不会被关闭，由调用者负责管理其生命周期；
+	 *
+	 * @param executor 执行器；不允许为 null；
+	 */
+	public static void setDefaultExecutor(Executor executor) {
+		if (executor == null) {
+			throw new IllegalArgumentException("Executor is null!");
+		}
+		defaultExecutor = executor;
+	}
+}
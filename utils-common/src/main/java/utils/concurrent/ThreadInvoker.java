@@ -1,7 +1,17 @@
 package utils.concurrent;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
- * 在新线程执行调用的工具类；<br>
+ * 在其它线程执行调用的工具类；<br>
+ * 
+ * 调用由执行器执行，避免每次调用都创建新的线程；默认执行器的线程是非守护线程，与每次调用启动一个新线程时一样，
+ * 主线程返回之后 JVM 仍会等待正在执行的调用完成；空闲的线程在 {@link #IDLE_SECONDS} 秒之后回收；<br>
  * 
  * 注意：一个实例只能调用一次，并且不应在多线程间共享；
  * 
@@ -11,12 +21,33 @@ package utils.concurrent;
  */
 public abstract class ThreadInvoker<T> {
 
+	/**
+	 * 默认执行器的空闲线程的存活时间；
+	 */
+	public static final long IDLE_SECONDS = 1;
+
 	private volatile T retn;
 
 	private volatile Exception error;
 
 	private volatile boolean started = false;
 
+	private final Executor executor;
+
+	/**
+	 * 创建采用默认执行器的实例；
+	 */
+	public ThreadInvoker() {
+		this(null);
+	}
+
+	/**
+	 * @param executor 执行调用的执行器；如果为 null，则在调用时采用默认执行器；
+	 */
+	public ThreadInvoker(Executor executor) {
+		this.executor = executor;
+	}
+
 	public Exception getError() {
 		return error;
 	}
@@ -28,31 +59,22 @@ public abstract class ThreadInvoker<T> {
 	protected abstract T invoke() throws Exception;
 
 	/**
-	 * Start invoke in new thread, and wait for the invoking thread to die;
+	 * Start invoke in the executor, and wait for the invoking to finish;
 	 * 
 	 * @return t
 	 */
 	public T startAndWait() {
-		Thread thrd = doStart();
-		try {
-			thrd.join();
-		} catch (InterruptedException e) {
-			throw new IllegalStateException(e.getMessage(), e);
-		}
-		if (error != null) {
-			throw new IllegalStateException(error.getMessage(), error);
-		}
-		return retn;
+		return start().waitReturn();
 	}
 
 	/**
-	 * Start invoke in new thread;
+	 * Start invoke in the executor;
 	 * 
 	 * @return AsyncCallback t;
 	 */
 	public AsyncCallback<T> start() {
-		Thread thrd = doStart();
-		return new AsyncCallback<T>(thrd, this);
+		CountDownLatch latch = doStart();
+		return new AsyncCallback<T>(latch, this);
 	}
 
 	public synchronized void reset() {
@@ -63,7 +85,7 @@ public abstract class ThreadInvoker<T> {
 		error = null;
 	}
 
-	private synchronized Thread doStart() {
+	private synchronized CountDownLatch doStart() {
 		if (started) {
 			throw new IllegalStateException("Invoker thread has started. Cann't start again until it's over.");
 		}
@@ -71,7 +93,8 @@ public abstract class ThreadInvoker<T> {
 			throw new IllegalStateException("Cann't start again until the result of last invoking is reseted.");
 		}
 		started = true;
-		Thread thrd = new Thread(new Runnable() {
+		CountDownLatch latch = new CountDownLatch(1);
+		Runnable task = new Runnable() {
 			@Override
 			public void run() {
 				try {
@@ -80,16 +103,34 @@ public abstract class ThreadInvoker<T> {
 					error = e;
 				} finally {
 					started = false;
+					latch.countDown();
 				}
 			}
-		});
-		thrd.start();
-		return thrd;
+		};
+		try {
+			(executor == null ? DefaultExecutor.INSTANCE : executor).execute(task);
+		} catch (RejectedExecutionException e) {
+			started = false;
+			throw e;
+		}
+		return latch;
+	}
+
+	/**
+	 * 默认执行器；线程为非守护线程，首次调用时才创建；
+	 */
+	private static class DefaultExecutor {
+
+		static final Executor INSTANCE = new ThreadPoolExecutor(0, Integer.MAX_VALUE, IDLE_SECONDS, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>(), new NamedThreadFactory("thread-invoker", true, false));
+
 	}
 
 	public static class AsyncCallback<T> {
 		private Thread thrd;
 
+		private CountDownLatch latch;
+
 		private ThreadInvoker<T> invoker;
 
 		public AsyncCallback(Thread thrd, ThreadInvoker<T> invoker) {
@@ -97,13 +138,22 @@ public abstract class ThreadInvoker<T> {
 			this.invoker = invoker;
 		}
 
+		AsyncCallback(CountDownLatch latch, ThreadInvoker<T> invoker) {
+			this.latch = latch;
+			this.invoker = invoker;
+		}
+
 		/**
 		 * 等待调用返回；
 		 * @return class t;
 		 */
 		public T waitReturn() {
 			try {
-				thrd.join();
+				if (latch != null) {
+					latch.await();
+				} else {
+					thrd.join();
+				}
 			} catch (InterruptedException e) {
 				throw new IllegalStateException(e.getMessage(), e);
 			}
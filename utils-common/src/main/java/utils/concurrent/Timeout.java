@@ -0,0 +1,35 @@
+package utils.concurrent;
+
+/**
+ * 由 {@link HashedWheelTimer} 调度的一个超时任务的句柄；
+ *
+ * @author huanghaiquan
+ *
+ */
+public interface Timeout {
+
+	/**
+	 * 任务是否已经到期并执行；
+	 *
+	 * @return
+	 */
+	boolean isExpired();
+
+	/**
+	 * 任务是否已经取消；
+	 *
+	 * @return
+	 */
+	boolean isCancelled();
+
+	/**
+	 * 取消任务；
+	 * <p>
+	 *
+	 * 取消操作的时间复杂度为 O(1)，不会阻塞；任务已经到期或者已经取消时返回 false；
+	 *
+	 * @return true - 表示此操作使得任务从“待执行”状态转为“已取消”状态；
+	 */
+	boolean cancel();
+
+}
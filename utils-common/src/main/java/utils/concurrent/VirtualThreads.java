@@ -0,0 +1,75 @@
+package utils.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 通过反射访问 JDK 21 提供的虚拟线程（Virtual Thread），以保持对 JDK 8 的编译和运行兼容；
+ *
+ * @author huanghaiquan
+ *
+ */
+class VirtualThreads {
+
+	private static final ThreadFactory FACTORY;
+
+	private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+	static {
+		ThreadFactory factory = null;
+		Method newThreadPerTaskExecutor = null;
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+			newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+		} catch (Exception | LinkageError e) {
+			// 当前 JDK 不支持虚拟线程；
+			factory = null;
+			newThreadPerTaskExecutor = null;
+		}
+		FACTORY = factory;
+		NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+	}
+
+	private VirtualThreads() {
+	}
+
+	static boolean isSupported() {
+		return FACTORY != null;
+	}
+
+	/**
+	 * 创建一个未启动的虚拟线程；
+	 *
+	 * @param task
+	 * @return
+	 */
+	static Thread newThread(Runnable task) {
+		checkSupported();
+		return FACTORY.newThread(task);
+	}
+
+	/**
+	 * 创建为每个任务启动一个新的虚拟线程的执行器；
+	 *
+	 * @param threadFactory 创建虚拟线程的工厂；
+	 * @return
+	 */
+	static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+		checkSupported();
+		try {
+			return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+		} catch (Exception e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+
+	private static void checkSupported() {
+		if (FACTORY == null) {
+			throw new UnsupportedOperationException("Virtual thread is not supported by the current JVM!");
+		}
+	}
+}
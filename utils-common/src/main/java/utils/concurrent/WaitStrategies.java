@@ -0,0 +1,134 @@
+package utils.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 常用的 {@link WaitStrategy}；
+ * <p>
+ *
+ * 忙等（busy spin）的延迟最低，但会占满一个 CPU 核心；让出（yield）在自旋一段时间后调用 {@link Thread#yield()}；
+ * 休眠（park）在自旋和让出之后以固定的时长休眠，CPU 占用最低，延迟取决于休眠时长；
+ *
+ * @author huanghaiquan
+ *
+ */
+public abstract class WaitStrategies {
+
+	private static final int SPIN_TRIES = 100;
+
+	private static final int YIELD_TRIES = 100;
+
+	private static final WaitStrategy BUSY_SPIN = new BusySpinWaitStrategy();
+
+	private static final WaitStrategy YIELDING = new YieldingWaitStrategy();
+
+	/**
+	 * 忙等；适用于消费者线程独占 CPU 核心的场景；
+	 *
+	 * @return
+	 */
+	public static WaitStrategy busySpin() {
+		return BUSY_SPIN;
+	}
+
+	/**
+	 * 自旋后让出 CPU；
+	 *
+	 * @return
+	 */
+	public static WaitStrategy yielding() {
+		return YIELDING;
+	}
+
+	/**
+	 * 自旋和让出之后以指定的时长休眠；
+	 *
+	 * @param parkTime 每次休眠的时长；
+	 * @param unit     时长的单位；
+	 * @return
+	 */
+	public static WaitStrategy parking(long parkTime, TimeUnit unit) {
+		long parkNanos = unit.toNanos(parkTime);
+		if (parkNanos <= 0) {
+			throw new IllegalArgumentException("The park time must be positive!");
+		}
+		return new ParkingWaitStrategy(parkNanos);
+	}
+
+	// ------------------------------------------------------------
+
+	private abstract static class AbstractWaitStrategy implements WaitStrategy {
+
+		@Override
+		public long waitFor(long sequence, AtomicLong cursor, long timeoutNanos, BooleanSupplier halted) {
+			long available = cursor.get();
+			if (available >= sequence) {
+				return available;
+			}
+			long deadline = timeoutNanos < 0 ? 0 : System.nanoTime() + timeoutNanos;
+			int counter = 0;
+			while ((available = cursor.get()) < sequence) {
+				if (halted.getAsBoolean()) {
+					return available;
+				}
+				if (timeoutNanos >= 0 && System.nanoTime() - deadline >= 0) {
+					return available;
+				}
+				idle(counter++);
+			}
+			return available;
+		}
+
+		/**
+		 * 空闲一次；
+		 *
+		 * @param counter 已经空闲的次数；
+		 */
+		protected abstract void idle(int counter);
+
+	}
+
+	private static class BusySpinWaitStrategy extends AbstractWaitStrategy {
+
+		@Override
+		protected void idle(int counter) {
+		}
+
+	}
+
+	private static class YieldingWaitStrategy extends AbstractWaitStrategy {
+
+		@Override
+		protected void idle(int counter) {
+			if (counter >= SPIN_TRIES) {
+				Thread.yield();
+			}
+		}
+
+	}
+
+	private static class ParkingWaitStrategy extends AbstractWaitStrategy {
+
+		private final long parkNanos;
+
+		ParkingWaitStrategy(long parkNanos) {
+			this.parkNanos = parkNanos;
+		}
+
+		@Override
+		protected void idle(int counter) {
+			if (counter < SPIN_TRIES) {
+				return;
+			}
+			if (counter < SPIN_TRIES + YIELD_TRIES) {
+				Thread.yield();
+			} else {
+				LockSupport.parkNanos(parkNanos);
+			}
+		}
+
+	}
+}
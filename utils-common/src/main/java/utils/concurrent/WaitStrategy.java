@@ -0,0 +1,28 @@
+package utils.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 消费者等待 {@link RingBuffer} 中的序号可用的策略；
+ * <p>
+ *
+ * 常用的实现由 {@link WaitStrategies} 提供；
+ *
+ * @author huanghaiquan
+ *
+ */
+public interface WaitStrategy {
+
+	/**
+	 * 等待直至游标到达指定的序号，或者超时，或者被要求停止；
+	 *
+	 * @param sequence     等待的序号；
+	 * @param cursor       游标；
+	 * @param timeoutNanos 超时时长（纳秒）；小于 0 表示不超时；
+	 * @param halted       是否要求停止等待；
+	 * @return 返回游标的当前值；超时或者停止时可能小于 sequence；
+	 */
+	long waitFor(long sequence, AtomicLong cursor, long timeoutNanos, BooleanSupplier halted);
+
+}
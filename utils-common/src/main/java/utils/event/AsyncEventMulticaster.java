@@ -0,0 +1,263 @@
+package utils.event;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import utils.concurrent.MpscArrayQueue;
+import utils.concurrent.RuntimeInterruptedException;
+import utils.concurrent.ThreadExecutors;
+
+/**
+ * 异步的事件广播器；
+ * <p>
+ *
+ * 每个监听器拥有一个有界的无锁队列（{@link MpscArrayQueue}），发布事件只是把事件放入各个监听器的队列，然后立即返回；<br>
+ *
+ * 每个监听器的事件由执行器中的任务按发布的顺序依次通知，同一时刻每个监听器最多只有一个任务在执行，因此监听器不必是线程安全的；
+ * 一个监听器处理缓慢不会影响发布事件的线程和其它的监听器；<br>
+ *
+ * 队列已满时按照指定的 {@link BackPressurePolicy} 处理；监听器在自己的通知任务中向自己的已满队列发布事件时，由于唯一的消费者就是当前线程，
+ * {@link BackPressurePolicy#BLOCK} 策略退化为在当前线程中直接通知，以免永久阻塞；
+ *
+ * @author huanghaiquan
+ *
+ * @param <TListener> TListener
+ */
+public class AsyncEventMulticaster<TListener> extends EventMulticaster<TListener> {
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	/**
+	 * 每个通知任务连续处理的最大事件数；超过后重新提交任务，以免长期占用执行器的线程；
+	 */
+	private static final int MAX_BATCH_SIZE = 256;
+
+	private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final int queueCapacity;
+
+	private final BackPressurePolicy policy;
+
+	private final Executor executor;
+
+	private final List<ListenerQueue> queues = new CopyOnWriteArrayList<ListenerQueue>();
+
+	private final LongAdder droppedCount = new LongAdder();
+
+	private volatile boolean disposed;
+
+	public AsyncEventMulticaster(Class<TListener> listenerClass) {
+		this(listenerClass, null, DEFAULT_QUEUE_CAPACITY, BackPressurePolicy.BLOCK, null);
+	}
+
+	public AsyncEventMulticaster(Class<TListener> listenerClass, int queueCapacity, BackPressurePolicy policy) {
+		this(listenerClass, null, queueCapacity, policy, null);
+	}
+
+	/**
+	 * 创建异步的事件广播器；
+	 *
+	 * @param listenerClass 监听器接口；
+	 * @param exHandle      监听器异常的处理器；在通知监听器的线程中调用；
+	 * @param queueCapacity 每个监听器的队列容量；
+	 * @param policy        队列已满时的处理策略；
+	 * @param executor      通知监听器的执行器；如果为 null，则采用 {@link ThreadExecutors#getDefaultExecutor()}；
+	 */
+	public AsyncEventMulticaster(Class<TListener> listenerClass, ExceptionHandle<TListener> exHandle, int queueCapacity,
+			BackPressurePolicy policy, Executor executor) {
+		super(listenerClass, exHandle);
+		if (queueCapacity < 1) {
+			throw new IllegalArgumentException("The queue capacity is less than 1!");
+		}
+		if (policy == null) {
+			throw new IllegalArgumentException("The back pressure policy is null!");
+		}
+		this.queueCapacity = queueCapacity;
+		this.policy = policy;
+		this.executor = executor == null ? ThreadExecutors.getDefaultExecutor() : executor;
+	}
+
+	public BackPressurePolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * 由于队列已满而被丢弃的事件数；只在 {@link BackPressurePolicy#DROP} 策略下产生；
+	 *
+	 * @return
+	 */
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	/**
+	 * 全部监听器的队列中尚未通知的事件数的近似值；
+	 *
+	 * @return
+	 */
+	public int getPendingCount() {
+		int count = 0;
+		for (ListenerQueue queue : queues) {
+			count += queue.queue.size();
+		}
+		return count;
+	}
+
+	@Override
+	public void addListener(TListener listener) {
+		queues.add(new ListenerQueue(listener));
+		super.addListener(listener);
+	}
+
+	@Override
+	public void removeListener(TListener listener) {
+		super.removeListener(listener);
+		for (ListenerQueue queue : queues) {
+			if (queue.listener == listener) {
+				queues.remove(queue);
+				break;
+			}
+		}
+	}
+
+	@Override
+	protected void doNotify(List<TListener> listeners, Method method, Object[] args) {
+		if (disposed) {
+			return;
+		}
+		Event event = new Event(method, getInvoker(method), args);
+		for (ListenerQueue queue : queues) {
+			queue.publish(event);
+		}
+	}
+
+	/**
+	 * 释放广播器；队列中尚未通知的事件将被丢弃；
+	 */
+	@Override
+	public void dispose() {
+		disposed = true;
+		queues.clear();
+		super.dispose();
+	}
+
+	// ------------------------------------------------------------
+
+	private static class Event {
+
+		private final Method method;
+
+		private final MethodHandle invoker;
+
+		private final Object[] args;
+
+		Event(Method method, MethodHandle invoker, Object[] args) {
+			this.method = method;
+			this.invoker = invoker;
+			this.args = args;
+		}
+	}
+
+	/**
+	 * 单个监听器的事件队列以及通知任务；
+	 */
+	private class ListenerQueue implements Runnable {
+
+		private final TListener listener;
+
+		private final MpscArrayQueue<Event> queue;
+
+		/**
+		 * 通知任务是否已经提交到执行器；
+		 */
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		/**
+		 * 正在执行通知任务的线程；
+		 */
+		private volatile Thread consumer;
+
+		ListenerQueue(TListener listener) {
+			this.listener = listener;
+			this.queue = new MpscArrayQueue<Event>(queueCapacity);
+		}
+
+		void publish(Event event) {
+			if (queue.offer(event)) {
+				schedule();
+				return;
+			}
+			switch (policy) {
+			case DROP:
+				droppedCount.increment();
+				break;
+			case CALLER_RUNS:
+				notifyListener(event);
+				break;
+			default:
+				if (consumer == Thread.currentThread()) {
+					// 监听器在通知中向自己发布事件，阻塞等待当前线程消费队列将永远无法返回；
+					notifyListener(event);
+					break;
+				}
+				while (!queue.offer(event)) {
+					if (disposed || !queues.contains(this)) {
+						return;
+					}
+					schedule();
+					LockSupport.parkNanos(BLOCK_PARK_NANOS);
+					if (Thread.interrupted()) {
+						throw new RuntimeInterruptedException("Interrupted while waiting for the event queue!");
+					}
+				}
+				schedule();
+			}
+		}
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				try {
+					executor.execute(this);
+				} catch (RuntimeException e) {
+					scheduled.set(false);
+					throw e;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			Event event;
+			int count = 0;
+			consumer = Thread.currentThread();
+			try {
+				while (count < MAX_BATCH_SIZE && (event = queue.poll()) != null) {
+					notifyListener(event);
+					count++;
+				}
+			} finally {
+				consumer = null;
+			}
+			scheduled.set(false);
+			// 在复位标志之前加入的事件由本任务负责重新调度；
+			if (!queue.isEmpty() && !disposed) {
+				schedule();
+			}
+		}
+
+		private void notifyListener(Event event) {
+			try {
+				invoke(listener, event.method, event.invoker, event.args);
+			} catch (RuntimeException e) {
+				// 异常处理器重新抛出的异常；在异步通知中无法传递给发布者，忽略以保证后续事件的通知；
+			}
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package utils.event;
+
+/**
+ * 异步事件的监听器队列已满时的处理策略；
+ *
+ * @author huanghaiquan
+ *
+ */
+public enum BackPressurePolicy {
+
+	/**
+	 * 阻塞发布事件的线程，直至队列有空位；
+	 */
+	BLOCK,
+
+	/**
+	 * 丢弃该监听器的本次事件；
+	 */
+	DROP,
+
+	/**
+	 * 在发布事件的线程中直接通知该监听器；
+	 * <p>
+	 *
+	 * 注：此时该监听器收到事件的顺序可能与发布的顺序不一致，并且可能与异步的通知并发执行，监听器需要是线程安全的；
+	 */
+	CALLER_RUNS
+
+}
@@ -1,10 +1,15 @@
 package utils.event;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.ArrayList;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.springframework.util.ReflectionUtils;
@@ -15,6 +20,9 @@ import utils.Disposable;
  * 将针对一个特定的 listener 的方法调用事件广播到多个 listener对应的方法；
  * 
  * 只支持无返回值的，非 Object 类的方法；
+ * <p>
+ * 
+ * 对监听器方法的调用通过预先生成的 {@link MethodHandle} 完成，而不是反射调用；
  * 
  * @author haiq
  *
@@ -24,7 +32,14 @@ public class EventMulticaster<TListener> implements Disposable {
 
 	private TListener listenerProxy;
 
-	private Method[] supportedMethods;
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Object[].class);
+
+	private static final Object[] EMPTY_ARGS = {};
+
+	/**
+	 * 支持的方法及其调用句柄；
+	 */
+	private Map<Method, MethodHandle> supportedMethods;
 
 	private List<TListener> listeners = new CopyOnWriteArrayList<TListener>();
 
@@ -44,7 +59,7 @@ public class EventMulticaster<TListener> implements Disposable {
 
 		// 解析出不支持的方法；
 		Method[] methods = ReflectionUtils.getAllDeclaredMethods(listenerClass);
-		List<Method> supMths = new ArrayList<Method>();
+		Map<Method, MethodHandle> supMths = new HashMap<Method, MethodHandle>();
 		for (Method method : methods) {
 			if (method.getDeclaringClass() == Object.class) {
 				// 不支持 Object 方法；
@@ -54,9 +69,9 @@ public class EventMulticaster<TListener> implements Disposable {
 				// 不支持带返回值的方法；
 				continue;
 			}
-			supMths.add(method);
+			supMths.put(method, createInvoker(method));
 		}
-		supportedMethods = supMths.toArray(new Method[supMths.size()]);
+		supportedMethods = supMths;
 
 		// 生成代理类；
 		listenerProxy = (TListener) Proxy.newProxyInstance(listenerClass.getClassLoader(),
@@ -69,22 +84,43 @@ public class EventMulticaster<TListener> implements Disposable {
 				});
 	}
 
-	private void multicast(Object proxy, Method method, Object[] args) {
-		boolean supported = false;
-		for (Method mth : supportedMethods) {
-			if (mth.equals(method)) {
-				supported = true;
-				break;
-			}
+	/**
+	 * 生成以 (Object listener, Object[] args) 为参数调用指定方法的句柄；
+	 */
+	private static MethodHandle createInvoker(Method method) {
+		try {
+			method.setAccessible(true);
+			MethodHandle handle = MethodHandles.lookup().unreflect(method);
+			return handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			throw new IllegalArgumentException(
+					"Cannot access the method[" + method.getName() + "] of listener! --" + e.getMessage(), e);
 		}
-		if (supported) {
-			doNotify(listeners, method, args);
+	}
+
+	private void multicast(Object proxy, Method method, Object[] args) {
+		if (supportedMethods.containsKey(method)) {
+			doNotify(listeners, method, args == null ? EMPTY_ARGS : args);
 		} else {
 			// 调用了不支持的方法；
 			throw new UnsupportedOperationException("Unsupported method for event multicasting!");
 		}
 	}
 
+	/**
+	 * 返回指定方法的调用句柄；
+	 * 
+	 * @param method
+	 * @return
+	 */
+	MethodHandle getInvoker(Method method) {
+		MethodHandle invoker = supportedMethods.get(method);
+		if (invoker == null) {
+			throw new UnsupportedOperationException("Unsupported method for event multicasting!");
+		}
+		return invoker;
+	}
+
 	protected void doNotify(List<TListener> listeners, Method method, Object[] args) {
 		for (TListener listener : listeners) {
 			doNotifySingle(listener, method, args);
@@ -92,10 +128,21 @@ public class EventMulticaster<TListener> implements Disposable {
 	}
 
 	protected void doNotifySingle(TListener listener, Method method, Object[] args) {
+		invoke(listener, method, getInvoker(method), args);
+	}
+
+	/**
+	 * 通过调用句柄通知单个监听器；监听器抛出的异常交由 {@link ExceptionHandle} 处理；
+	 */
+	final void invoke(TListener listener, Method method, MethodHandle invoker, Object[] args) {
 		try {
-			ReflectionUtils.invokeMethod(method, listener, args);
+			invoker.invokeExact((Object) listener, args);
 		} catch (Exception e) {
 			exHandle.handle(e, listener, method, args);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			exHandle.handle(new UndeclaredThrowableException(e), listener, method, args);
 		}
 	}
 
@@ -0,0 +1,41 @@
+package utils.id;
+
+/**
+ * 36 进制格式化；
+ *
+ * @author huanghaiquan
+ *
+ */
+class Base36 {
+
+	private static final char[] DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+	private Base36() {
+	}
+
+	/**
+	 * 把非负整数以固定宽度、左侧补 0 的 36 进制格式写入字符数组；
+	 *
+	 * @param value  非负整数；
+	 * @param output 输出；
+	 * @param offset 输出的起始位置；
+	 * @param width  宽度；
+	 * @return 返回写入的字符数，即 width；
+	 */
+	static int format(long value, char[] output, int offset, int width) {
+		if (value < 0) {
+			throw new IllegalArgumentException("The value is negative!");
+		}
+		if (offset < 0 || offset + width > output.length) {
+			throw new IndexOutOfBoundsException("The output buffer is not large enough!");
+		}
+		for (int i = offset + width - 1; i >= offset; i--) {
+			output[i] = DIGITS[(int) (value % 36)];
+			value /= 36;
+		}
+		if (value != 0) {
+			throw new IllegalArgumentException("The value exceeds the width!");
+		}
+		return width;
+	}
+}
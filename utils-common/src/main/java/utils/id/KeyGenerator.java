@@ -3,5 +3,21 @@ package utils.id;
 public interface KeyGenerator {
 	
 	public String next();
+
+	/**
+	 * 生成下一个 key，并把字符写入调用者提供的数组；
+	 * <p>
+	 * 
+	 * 支持的实现以不产生任何对象的方式写入；
+	 * 
+	 * @param output 输出；
+	 * @param offset 输出的起始位置；
+	 * @return 返回写入的字符数；
+	 */
+	default int nextInto(char[] output, int offset) {
+		String key = next();
+		key.getChars(0, key.length(), output, offset);
+		return key.length();
+	}
 	
 }
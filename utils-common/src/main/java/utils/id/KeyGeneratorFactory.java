@@ -1,5 +1,7 @@
 package utils.id;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class KeyGeneratorFactory {
 
 	private static final char[] base36 = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h',
@@ -44,7 +46,7 @@ public class KeyGeneratorFactory {
 	/**
 	 * 创建一个 KeyGenerator 实例；
 	 * 
-	 * 注：此方法返回的 KeyGenerator 的实现不是线程安全的；
+	 * 返回的 KeyGenerator 是线程安全的；
 	 * 
 	 * @return KeyGenerator
 	 */
@@ -54,37 +56,27 @@ public class KeyGeneratorFactory {
 
 	private class CommonKeyGenerator implements KeyGenerator {
 
-		private int[] indexes;
-
 		/**
-		 * 创建一个 KeyGenerator 的实例；
-		 * 
-		 * @param baseChars
-		 *            数位的基；一个二元数组，其长度表示生成的 key 的位数以及每一位的取值的字符范围；
+		 * 已生成的 key 的个数；每一个 key 由计数值按各个数位的基换算得到，超出全部数位的表示范围时从头开始；
 		 */
-		private CommonKeyGenerator() {
-			indexes = new int[baseChars.length];
-		}
+		private final AtomicLong counter = new AtomicLong();
 
 		@Override
 		public String next() {
-			StringBuilder key = new StringBuilder();
-			for (int i = 0; i < baseChars.length; i++) {
-				key.append(baseChars[i][indexes[i]]);
-			}
-			indexes[baseChars.length - 1]++;
-			for (int i = indexes.length - 1; i > -1; i--) {
-				if (indexes[i] == baseChars[i].length) {
-					if (i > 0) {
-						// 进位；
-						indexes[i - 1]++;
-					} else {
-						// 溢出；忽略；
-					}
-					indexes[i] = 0;
-				}
+			char[] key = new char[baseChars.length];
+			nextInto(key, 0);
+			return new String(key);
+		}
+
+		@Override
+		public int nextInto(char[] output, int offset) {
+			long value = counter.getAndIncrement();
+			for (int i = baseChars.length - 1; i > -1; i--) {
+				char[] digits = baseChars[i];
+				output[offset + i] = digits[(int) (value % digits.length)];
+				value = value / digits.length;
 			}
-			return key.toString();
+			return baseChars.length;
 		}
 
 	}
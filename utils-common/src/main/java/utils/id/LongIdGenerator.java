@@ -0,0 +1,41 @@
+package utils.id;
+
+/**
+ * 生成 64 位整数 ID 的生成器；
+ * <p>
+ *
+ * 生成的 ID 为非负数；字符串形式为固定 {@value #BASE36_LENGTH} 位、左侧补 0 的 36 进制表示，因此字符串的字典顺序与数值顺序一致；
+ *
+ * @author huanghaiquan
+ *
+ */
+public interface LongIdGenerator extends KeyGenerator {
+
+	/**
+	 * 非负 long 的 36 进制表示的最大位数；
+	 */
+	public static final int BASE36_LENGTH = 13;
+
+	/**
+	 * 生成下一个 ID；
+	 *
+	 * @return
+	 */
+	long nextId();
+
+	@Override
+	default String next() {
+		char[] chars = new char[BASE36_LENGTH];
+		nextInto(chars, 0);
+		return new String(chars);
+	}
+
+	/**
+	 * 生成下一个 ID，并把固定 {@value #BASE36_LENGTH} 位的 36 进制表示写入调用者提供的数组；不产生任何对象；
+	 */
+	@Override
+	default int nextInto(char[] output, int offset) {
+		return Base36.format(nextId(), output, offset, BASE36_LENGTH);
+	}
+
+}
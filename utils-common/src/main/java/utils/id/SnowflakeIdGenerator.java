@@ -0,0 +1,120 @@
+package utils.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Snowflake 风格的 64 位 ID 生成器；线程安全且无锁；
+ * <p>
+ *
+ * ID 的结构为：[符号位 0 (1)] [时间戳 (41)] [节点 (10)] [序号 (12)]；时间戳为相对于纪元的毫秒数，41 位可使用约 69 年；<br>
+ *
+ * 时间戳和序号合并保存在一个 {@link AtomicLong} 中，通过一次 CAS 同时推进；同一毫秒内的序号用尽时借用下一毫秒，
+ * 时钟回拨时继续沿用已生成的最大时间戳，因此同一个生成器生成的 ID 严格递增；借用的时间超过 {@link #MAX_BORROW_MILLIS}
+ * 时等待时钟追上；<br>
+ *
+ * 单个生成器持续生成的速率上限为每毫秒 4096 个，需要更高的吞吐量并且不要求按时间排序时可采用 {@link StripedIdGenerator}；
+ * 不同节点的生成器必须使用不同的节点号；
+ *
+ * @author huanghaiquan
+ *
+ */
+public class SnowflakeIdGenerator implements LongIdGenerator {
+
+	public static final int NODE_BITS = 10;
+
+	public static final int SEQUENCE_BITS = 12;
+
+	public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+	/**
+	 * 默认的纪元：2020-01-01T00:00:00Z；
+	 */
+	public static final long DEFAULT_EPOCH_MILLIS = 1577836800000L;
+
+	/**
+	 * 允许借用的未来时间的最大毫秒数；
+	 */
+	public static final long MAX_BORROW_MILLIS = 1000;
+
+	private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+	private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+	private static final long MAX_TIMESTAMP = (1L << (63 - TIMESTAMP_SHIFT)) - 1;
+
+	private final long epochMillis;
+
+	private final long nodeBits;
+
+	/**
+	 * 最近一次生成的 [时间戳 | 序号]；
+	 */
+	private final AtomicLong state = new AtomicLong();
+
+	public SnowflakeIdGenerator(int nodeId) {
+		this(nodeId, DEFAULT_EPOCH_MILLIS);
+	}
+
+	/**
+	 * 创建 Snowflake ID 生成器；
+	 *
+	 * @param nodeId      节点号；范围 [0, {@value #MAX_NODE_ID}]；
+	 * @param epochMillis 纪元；不能晚于当前时间；
+	 */
+	public SnowflakeIdGenerator(int nodeId, long epochMillis) {
+		if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+			throw new IllegalArgumentException("The node id is out of range [0, " + MAX_NODE_ID + "]!");
+		}
+		if (epochMillis > System.currentTimeMillis()) {
+			throw new IllegalArgumentException("The epoch is in the future!");
+		}
+		this.epochMillis = epochMillis;
+		this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+	}
+
+	@Override
+	public long nextId() {
+		for (;;) {
+			long now = System.currentTimeMillis() - epochMillis;
+			long last = state.get();
+			long lastTimestamp = last >>> SEQUENCE_BITS;
+			long next;
+			if (now > lastTimestamp) {
+				next = now << SEQUENCE_BITS;
+			} else {
+				// 同一毫秒内或者时钟回拨：序号递增，用尽时自动进位到下一毫秒；
+				next = last + 1;
+				if ((next >>> SEQUENCE_BITS) - now > MAX_BORROW_MILLIS) {
+					LockSupport.parkNanos(100000);
+					continue;
+				}
+			}
+			if (state.compareAndSet(last, next)) {
+				long timestamp = next >>> SEQUENCE_BITS;
+				if (timestamp > MAX_TIMESTAMP) {
+					throw new IllegalStateException("The timestamp exceeds the range since the epoch!");
+				}
+				return (timestamp << TIMESTAMP_SHIFT) | nodeBits | (next & SEQUENCE_MASK);
+			}
+		}
+	}
+
+	/**
+	 * 返回 ID 的生成时间（毫秒）；
+	 *
+	 * @param id
+	 * @return
+	 */
+	public long getTimeMillis(long id) {
+		return (id >>> TIMESTAMP_SHIFT) + epochMillis;
+	}
+
+	public static int getNodeId(long id) {
+		return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+	}
+
+	public static int getSequence(long id) {
+		return (int) (id & SEQUENCE_MASK);
+	}
+}
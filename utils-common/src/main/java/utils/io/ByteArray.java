@@ -81,7 +81,7 @@ public class ByteArray implements Externalizable, ByteSequence {
 	
 	@Override
 	public int hashCode() {
-		return Arrays.hashCode(bytes);
+		return hashCode;
 	}
 
 	/**
@@ -321,6 +321,7 @@ public class ByteArray implements Externalizable, ByteSequence {
 		in.readFully(bts);
 
 		this.bytes = bts;
+		this.hashCode = Arrays.hashCode(bts);
 	}
 
 	@Override
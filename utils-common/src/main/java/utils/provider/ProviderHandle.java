@@ -0,0 +1,83 @@
+package utils.provider;
+
+import java.util.function.Function;
+
+/**
+ * 指向一个具名服务提供者的句柄；由 {@link ProviderManager#getHandle(Class, String)} 创建；
+ * <p>
+ *
+ * 句柄在第一次解析到提供者之后将其缓存，之后获取服务只需读取一个字段，不再按名称查找；提供者一旦安装不会被替换，因此缓存始终有效；
+ *
+ * @author huanghaiquan
+ *
+ * @param <S> Type of Service
+ */
+public final class ProviderHandle<S> {
+
+	private final Class<S> serviceClazz;
+
+	private final String name;
+
+	private final Function<String, Provider<S>> resolver;
+
+	private volatile Provider<S> provider;
+
+	ProviderHandle(Class<S> serviceClazz, String name, Function<String, Provider<S>> resolver) {
+		this.serviceClazz = serviceClazz;
+		this.name = name;
+		this.resolver = resolver;
+	}
+
+	public Class<S> getServiceClass() {
+		return serviceClazz;
+	}
+
+	/**
+	 * 创建句柄时指定的提供者名称；
+	 *
+	 * @return
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * 返回提供者；
+	 *
+	 * @return 提供者尚未安装时返回 null；
+	 */
+	public Provider<S> getProvider() {
+		Provider<S> p = provider;
+		if (p == null) {
+			p = resolver.apply(name);
+			if (p != null) {
+				provider = p;
+			}
+		}
+		return p;
+	}
+
+	/**
+	 * 提供者是否已经安装；
+	 *
+	 * @return
+	 */
+	public boolean isAvailable() {
+		return getProvider() != null;
+	}
+
+	/**
+	 * 返回提供者的服务；
+	 *
+	 * @return
+	 * @throws ProviderException 提供者尚未安装时抛出；
+	 */
+	public S getService() {
+		Provider<S> p = getProvider();
+		if (p == null) {
+			throw new ProviderException("[" + serviceClazz.getName() + "] Provider " + name + " not found!");
+		}
+		return p.getService();
+	}
+
+}
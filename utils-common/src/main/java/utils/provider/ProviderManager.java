@@ -1,15 +1,29 @@
 package utils.provider;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import utils.concurrent.ThreadExecutors;
 
 /**
  * The ProviderManager manages all serivce providers in the system.
@@ -25,6 +39,21 @@ import java.util.concurrent.ConcurrentHashMap;
  * A provider must have a name, and implementor can use the annotation
  * {@link NamedProvider} to specify a short name, otherwise the system defaults
  * to the full name of the implementation class.
+ * <p>
+ * 
+ * The providers of each service are kept in an immutable snapshot which is
+ * replaced on installation (copy-on-write), so a lookup is a single volatile
+ * read plus a hash lookup without any lock. Callers on hot paths can cache a
+ * {@link ProviderHandle} to skip the name lookup entirely.
+ * <p>
+ * 
+ * Providers are discovered from the "META-INF/services/" configuration files
+ * (the same format as {@link java.util.ServiceLoader}). Discovery only loads
+ * the provider classes without initializing them; a provider is instantiated
+ * on the first call of {@link Provider#getService()}. Multiple class loaders
+ * can be scanned in parallel by
+ * {@link #installAllProviders(Class, ClassLoader...)}, and the time spent on
+ * each provider is reported by {@link #getTimings()}.
  * 
  * 
  * @author huanghaiquan
@@ -48,12 +77,36 @@ public final class ProviderManager {
 		return providers.getService(providerName);
 	}
 	
+	/**
+	 * 返回指定提供者的句柄；
+	 * <p>
+	 * 
+	 * 句柄在第一次解析成功后缓存提供者，之后获取服务不再需要按名称查找，适合在频繁调用的代码中保存使用；<br>
+	 * 如果提供者尚未安装，句柄会在每次调用时重新解析，直至提供者被安装；
+	 * 
+	 * @param serviceClazz 服务类型；
+	 * @param providerName 提供者的名称；可以是短名称或者全名；
+	 * @return
+	 */
+	public <S> ProviderHandle<S> getHandle(Class<S> serviceClazz, String providerName) {
+		NamedProviders<S> providers = getNamedProviders(serviceClazz);
+		return new ProviderHandle<S>(serviceClazz, providerName, providers::getProvider);
+	}
+
+	/**
+	 * 返回指定的提供者；
+	 * 
+	 * @param serviceClazz 服务类型；
+	 * @param providerName 提供者的名称；可以是短名称或者全名；
+	 * @return 提供者不存在时返回 null；
+	 */
 	public <S> Provider<S> getProvider(Class<S> serviceClazz, String providerName) {
 		@SuppressWarnings("unchecked")
 		NamedProviders<S> providers = (NamedProviders<S>) serviceProviders.get(serviceClazz);
 		if (providers == null) {
 			return null;
 		}
+		providers.ensureDiscovered();
 		return providers.getProvider(providerName);
 	}
 
@@ -63,6 +116,7 @@ public final class ProviderManager {
 		if (providers == null) {
 			return Collections.emptyList();
 		}
+		providers.ensureDiscovered();
 		return providers.getProviders();
 	}
 
@@ -81,6 +135,33 @@ public final class ProviderManager {
 		providers.installAll(classLoader);
 	}
 
+	/**
+	 * 从多个类加载器中发现并安装服务提供者；
+	 * <p>
+	 * 
+	 * 各个类加载器的扫描并行执行，安装的顺序与类加载器的顺序一致；重复的提供者会被忽略；
+	 * 
+	 * @param serviceClazz 服务类型；
+	 * @param classLoaders 类加载器；
+	 */
+	public <S> void installAllProviders(Class<S> serviceClazz, ClassLoader... classLoaders) {
+		NamedProviders<S> providers = getNamedProviders(serviceClazz);
+		providers.installAll(classLoaders);
+	}
+
+	/**
+	 * 返回全部已安装的提供者的耗时统计；
+	 * 
+	 * @return
+	 */
+	public List<ProviderTiming> getTimings() {
+		List<ProviderTiming> timings = new ArrayList<>();
+		for (NamedProviders<?> providers : serviceProviders.values()) {
+			providers.collectTimings(timings);
+		}
+		return timings;
+	}
+
 	@SuppressWarnings("unchecked")
 	private <S> NamedProviders<S> getNamedProviders(Class<S> serviceClazz) {
 		NamedProviders<S> providers = (NamedProviders<S>) serviceProviders.get(serviceClazz);
@@ -93,6 +174,8 @@ public final class ProviderManager {
 				}
 			}
 		}
+		// 在全局锁之外发现提供者，不同服务的发现互不阻塞；
+		providers.ensureDiscovered();
 		return providers;
 	}
 
@@ -103,22 +186,38 @@ public final class ProviderManager {
 	 */
 	private class NamedProviders<S> {
 
+		private static final String SERVICES_PATH = "META-INF/services/";
+
 		private Class<S> serviceClazz;
 
-		private Map<String, String> shortNames = new HashMap<>();
-		private Map<String, Provider<S>> namedProviders = new LinkedHashMap<>();
+		/**
+		 * 当前的提供者快照；安装时整体替换；
+		 */
+		private volatile Registry<S> registry = new Registry<>(Collections.<ProviderInfo<S>>emptyList());
+
+		private volatile boolean discovered;
 
 		private AccessControlContext acc;
 
 		public NamedProviders(Class<S> serviceClazz) {
 			this.serviceClazz = serviceClazz;
 			this.acc = (System.getSecurityManager() != null) ? AccessController.getContext() : null;
-			installAll();
+		}
+
+		void ensureDiscovered() {
+			if (discovered) {
+				return;
+			}
+			synchronized (this) {
+				if (!discovered) {
+					installAll();
+					discovered = true;
+				}
+			}
 		}
 
 		public void installAll(ClassLoader classLoader) {
-			ServiceLoader<S> sl = ServiceLoader.load(serviceClazz, classLoader);
-			installAll(sl);
+			install(discover(classLoader));
 		}
 
 		public void installAll() {
@@ -127,9 +226,92 @@ public final class ProviderManager {
 			installAll(classLoader);
 		}
 
-		private synchronized void installAll(ServiceLoader<S> sl) {
-			for (S provider : sl) {
-				install(provider);
+		public void installAll(ClassLoader... classLoaders) {
+			if (classLoaders.length == 1) {
+				installAll(classLoaders[0]);
+				return;
+			}
+			List<CompletableFuture<List<ProviderInfo<S>>>> futures = new ArrayList<>(classLoaders.length);
+			for (ClassLoader classLoader : classLoaders) {
+				futures.add(CompletableFuture.supplyAsync(() -> discover(classLoader),
+						ThreadExecutors.getDefaultExecutor()));
+			}
+			List<ProviderInfo<S>> discoveredProviders = new ArrayList<>();
+			for (CompletableFuture<List<ProviderInfo<S>>> future : futures) {
+				try {
+					discoveredProviders.addAll(future.join());
+				} catch (CompletionException e) {
+					if (e.getCause() instanceof RuntimeException) {
+						throw (RuntimeException) e.getCause();
+					}
+					throw e;
+				}
+			}
+			install(discoveredProviders);
+		}
+
+		/**
+		 * 从类加载器的 "META-INF/services/" 配置文件中发现提供者；只加载提供者的类，不进行初始化和实例化；
+		 * 
+		 * @param classLoader 类加载器；为 null 时采用系统类加载器；
+		 */
+		private List<ProviderInfo<S>> discover(ClassLoader classLoader) {
+			if (classLoader == null) {
+				// 与 ServiceLoader 一致，未指定类加载器时采用系统类加载器；否则 Class.forName 会采用启动类加载器，无法加载应用的提供者；
+				classLoader = ClassLoader.getSystemClassLoader();
+			}
+			Set<String> classNames = new LinkedHashSet<>();
+			String path = SERVICES_PATH + serviceClazz.getName();
+			try {
+				Enumeration<URL> configs = classLoader.getResources(path);
+				while (configs.hasMoreElements()) {
+					parse(configs.nextElement(), classNames);
+				}
+			} catch (IOException e) {
+				throw new ProviderException(
+						"[" + serviceClazz.getName() + "] Error reading configuration file! --" + e.getMessage());
+			}
+			List<ProviderInfo<S>> providers = new ArrayList<>(classNames.size());
+			for (String className : classNames) {
+				long startTime = System.nanoTime();
+				Class<? extends S> clazz = loadClass(className, classLoader);
+				providers.add(createProvider(clazz, System.nanoTime() - startTime, null));
+			}
+			return providers;
+		}
+
+		/**
+		 * 按照 {@link java.util.ServiceLoader} 的格式解析配置文件：每行一个类名，"#" 之后为注释；
+		 */
+		private void parse(URL config, Set<String> classNames) throws IOException {
+			try (InputStream in = config.openStream();
+					BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					int comment = line.indexOf('#');
+					if (comment >= 0) {
+						line = line.substring(0, comment);
+					}
+					line = line.trim();
+					if (line.length() > 0) {
+						classNames.add(line);
+					}
+				}
+			}
+		}
+
+		/**
+		 * 安装发现的提供者；与已有的提供者重名的被忽略；
+		 */
+		private synchronized void install(List<ProviderInfo<S>> discoveredProviders) {
+			List<ProviderInfo<S>> providers = new ArrayList<>(registry.providers);
+			for (ProviderInfo<S> provider : discoveredProviders) {
+				if (!isDuplicated(provider, providers)) {
+					providers.add(provider);
+				}
+			}
+			if (providers.size() > registry.providers.size()) {
+				registry = new Registry<>(providers);
 			}
 		}
 
@@ -140,32 +322,49 @@ public final class ProviderManager {
 		 * 
 		 * 如果同名的服务提供者不存在，则返回 false；
 		 * 
-		 * @param service
-		 *            提供者的服务实现；
+		 * @param provider
+		 *            提供者；
 		 * @return
 		 */
-		private synchronized boolean install(S service) {
-			String fullName = service.getClass().getName();
-			if (namedProviders.containsKey(fullName)) {
+		private synchronized boolean install(ProviderInfo<S> provider) {
+			List<ProviderInfo<S>> providers = new ArrayList<>(registry.providers);
+			if (isDuplicated(provider, providers)) {
 				return false;
 			}
+			providers.add(provider);
+			registry = new Registry<>(providers);
+			return true;
+		}
+
+		private boolean isDuplicated(ProviderInfo<S> provider, List<ProviderInfo<S>> providers) {
+			for (ProviderInfo<S> p : providers) {
+				if (p.fullName.equals(provider.fullName)) {
+					return true;
+				}
+				if (provider.shortName != null && provider.shortName.equals(p.shortName)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * 创建提供者的描述；
+		 * 
+		 * @param clazz     提供者的类；
+		 * @param loadNanos 加载类的耗时；
+		 * @param service   已创建的服务实例；为 null 时在第一次使用时实例化；
+		 */
+		private ProviderInfo<S> createProvider(Class<? extends S> clazz, long loadNanos, S service) {
 			String shortName = null;
-			NamedProvider annoNP = service.getClass().getAnnotation(NamedProvider.class);
+			NamedProvider annoNP = clazz.getAnnotation(NamedProvider.class);
 			if (annoNP != null && annoNP.value() != null) {
 				String n = annoNP.value().trim();
 				if (n.length() > 0) {
 					shortName = n;
 				}
 			}
-			if (shortName != null && shortNames.containsKey(shortName)) {
-				return false;
-			}
-			ProviderInfo<S> provider = new ProviderInfo<>(shortName, fullName, service);
-			if (shortName != null) {
-				shortNames.put(shortName, fullName);
-			}
-			namedProviders.put(fullName, provider);
-			return true;
+			return new ProviderInfo<S>(serviceClazz, shortName, clazz, loadNanos, service, this::instantiate);
 		}
 
 		public S install(String providerFullName) {
@@ -175,18 +374,13 @@ public final class ProviderManager {
 		public S install(String providerFullName, ClassLoader classLoader) {
 			// 默认采用线程上下文的类加载器；避免直接采用系统的类加载器: ClassLoader.getSystemClassLoader() ;
 			ClassLoader cl = (classLoader == null) ? Thread.currentThread().getContextClassLoader() : classLoader;
-			S p = null;
-			if (acc == null) {
-				p = instantiate(providerFullName, cl);
-			} else {
-				PrivilegedAction<S> action = new PrivilegedAction<S>() {
-					public S run() {
-						return instantiate(providerFullName, cl);
-					}
-				};
-				p = AccessController.doPrivileged(action, acc);
-			}
-			if (!install(p)) {
+			long startTime = System.nanoTime();
+			Class<? extends S> clazz = loadClass(providerFullName, cl);
+			long loadNanos = System.nanoTime() - startTime;
+			ProviderInfo<S> provider = createProvider(clazz, loadNanos, null);
+			// 显式安装的提供者立即实例化；
+			S p = provider.getService();
+			if (!install(provider)) {
 				throw new ProviderException(
 						"[" + serviceClazz.getName() + "] Provider " + providerFullName + " already exist!");
 			}
@@ -194,27 +388,30 @@ public final class ProviderManager {
 		}
 
 		public Collection<Provider<S>> getProviders() {
-			return namedProviders.values();
+			return registry.providerList;
 		}
-		
 
-		public Provider<S> getProvider(String providerFullName) {
-			return namedProviders.get(providerFullName);
+		public Provider<S> getProvider(String name) {
+			return registry.names.get(name);
 		}
 
 		public S getService(String name) {
-			String fullName = shortNames.get(name);
-			if (fullName == null) {
-				fullName = name;
-			}
-			Provider<S> pd = namedProviders.get(fullName);
+			Provider<S> pd = registry.names.get(name);
 			return pd == null ? null : pd.getService();
 		}
 
-		private S instantiate(String className, ClassLoader classLoader) {
+		void collectTimings(List<ProviderTiming> timings) {
+			for (ProviderInfo<S> provider : registry.providers) {
+				timings.add(new ProviderTiming(serviceClazz.getName(), provider.fullName, provider.shortName,
+						provider.loadNanos, provider.instantiateNanos));
+			}
+		}
+
+		private Class<? extends S> loadClass(String className, ClassLoader classLoader) {
 			Class<?> c = null;
 			try {
-				c = Class.forName(className, false, classLoader);
+				c = Class.forName(className, false,
+						classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader);
 			} catch (ClassNotFoundException x) {
 				throw new ProviderException("[" + serviceClazz.getName() + "] Provider " + className + " not found");
 			}
@@ -222,28 +419,99 @@ public final class ProviderManager {
 				throw new ProviderException(
 						"[" + serviceClazz.getName() + "] Provider " + className + " not a subtype");
 			}
+			return c.asSubclass(serviceClazz);
+		}
+
+		private S instantiate(Class<? extends S> clazz) {
+			if (acc == null) {
+				return newInstance(clazz);
+			}
+			PrivilegedAction<S> action = new PrivilegedAction<S>() {
+				public S run() {
+					return newInstance(clazz);
+				}
+			};
+			return AccessController.doPrivileged(action, acc);
+		}
+
+		private S newInstance(Class<? extends S> clazz) {
 			try {
-				S provider = serviceClazz.cast(c.newInstance());
+				S provider = serviceClazz.cast(clazz.newInstance());
 				return provider;
 			} catch (Throwable e) {
-				throw new ProviderException("[" + serviceClazz.getName() + "] Provider " + className
+				throw new ProviderException("[" + serviceClazz.getName() + "] Provider " + clazz.getName()
 						+ " could not be instantiated! --" + e.getMessage());
 			}
 		}
 	}
 
+	/**
+	 * 一个服务的全部提供者的不可变快照；
+	 * 
+	 * @param <S> Type of Service
+	 */
+	private static class Registry<S> {
+
+		private final List<ProviderInfo<S>> providers;
+
+		private final Collection<Provider<S>> providerList;
+
+		/**
+		 * 短名称和全名到提供者的映射；短名称优先；
+		 */
+		private final Map<String, ProviderInfo<S>> names;
+
+		public Registry(List<ProviderInfo<S>> providers) {
+			this.providers = Collections.unmodifiableList(new ArrayList<>(providers));
+			this.providerList = Collections.<Provider<S>>unmodifiableList(this.providers);
+			Map<String, ProviderInfo<S>> names = new HashMap<>();
+			for (ProviderInfo<S> provider : providers) {
+				names.put(provider.fullName, provider);
+			}
+			for (ProviderInfo<S> provider : providers) {
+				if (provider.shortName != null) {
+					names.put(provider.shortName, provider);
+				}
+			}
+			this.names = names;
+		}
+	}
+
+	/**
+	 * 提供者的描述；服务实例在第一次使用时创建；
+	 * 
+	 * @param <S> Type of Service
+	 */
 	private static class ProviderInfo<S> implements Provider<S> {
 
+		private final Class<S> serviceClazz;
+
 		private final String shortName;
 
 		private final String fullName;
 
-		private final S service;
+		private final Class<? extends S> providerClazz;
+
+		private final Function<Class<? extends S>, S> factory;
+
+		private final long loadNanos;
 
-		public ProviderInfo(String shortName, String fullName, S service) {
+		private volatile long instantiateNanos = -1;
+
+		private volatile S service;
+
+		public ProviderInfo(Class<S> serviceClazz, String shortName, Class<? extends S> providerClazz, long loadNanos,
+				S service, Function<Class<? extends S>, S> factory) {
+			this.serviceClazz = serviceClazz;
 			this.shortName = shortName;
-			this.fullName = fullName;
+			this.fullName = providerClazz.getName();
+			this.providerClazz = providerClazz;
+			this.loadNanos = loadNanos;
 			this.service = service;
+			this.factory = factory;
+			if (service != null) {
+				instantiateNanos = 0;
+			}
 		}
 
 		@Override
@@ -258,7 +526,23 @@ public final class ProviderManager {
 
 		@Override
 		public S getService() {
-			return service;
+			S s = service;
+			if (s == null) {
+				synchronized (this) {
+					s = service;
+					if (s == null) {
+						long startTime = System.nanoTime();
+						s = factory.apply(providerClazz);
+						if (s == null) {
+							throw new ProviderException(
+									"[" + serviceClazz.getName() + "] Provider " + fullName + " is null!");
+						}
+						instantiateNanos = System.nanoTime() - startTime;
+						service = s;
+					}
+				}
+			}
+			return s;
 		}
 
 	}
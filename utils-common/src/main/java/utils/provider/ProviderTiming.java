@@ -0,0 +1,80 @@
+package utils.provider;
+
+/**
+ * 服务提供者的启动耗时；由 {@link ProviderManager#getTimings()} 返回；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public final class ProviderTiming {
+
+	private final String serviceName;
+
+	private final String fullName;
+
+	private final String shortName;
+
+	private final long classLoadNanos;
+
+	private final long instantiateNanos;
+
+	ProviderTiming(String serviceName, String fullName, String shortName, long classLoadNanos,
+			long instantiateNanos) {
+		this.serviceName = serviceName;
+		this.fullName = fullName;
+		this.shortName = shortName;
+		this.classLoadNanos = classLoadNanos;
+		this.instantiateNanos = instantiateNanos;
+	}
+
+	/**
+	 * 服务类型的名称；
+	 * 
+	 * @return
+	 */
+	public String getServiceName() {
+		return serviceName;
+	}
+
+	public String getFullName() {
+		return fullName;
+	}
+
+	public String getShortName() {
+		return shortName;
+	}
+
+	/**
+	 * 加载提供者的类的耗时（纳秒）；
+	 * 
+	 * @return
+	 */
+	public long getClassLoadNanos() {
+		return classLoadNanos;
+	}
+
+	/**
+	 * 实例化提供者的耗时（纳秒）；
+	 * 
+	 * @return 尚未实例化时返回 -1；
+	 */
+	public long getInstantiateNanos() {
+		return instantiateNanos;
+	}
+
+	/**
+	 * 提供者是否已经实例化；
+	 * 
+	 * @return
+	 */
+	public boolean isInstantiated() {
+		return instantiateNanos >= 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s -> %s [load=%.3fms, instantiate=%s]", serviceName,
+				shortName == null ? fullName : shortName + "(" + fullName + ")", classLoadNanos / 1000000.0D,
+				isInstantiated() ? String.format("%.3fms", instantiateNanos / 1000000.0D) : "lazy");
+	}
+}
@@ -1,5 +1,7 @@
 package utils.security;
 
+import java.nio.ByteBuffer;
+
 public interface Hasher {
 
 	/**
@@ -17,7 +19,24 @@ public interface Hasher {
 	void update(byte[] bytes, int offset, int len);
 
 	/**
-	 * 完成哈希计算并返回结果；
+	 * 追加缓冲区中剩余的数据；之后缓冲区的 position 等于 limit；
+	 * 
+	 * @param buffer
+	 */
+	default void update(ByteBuffer buffer) {
+		if (buffer.hasArray()) {
+			int len = buffer.remaining();
+			update(buffer.array(), buffer.arrayOffset() + buffer.position(), len);
+			buffer.position(buffer.position() + len);
+		} else {
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			update(bytes);
+		}
+	}
+
+	/**
+	 * 完成哈希计算并返回结果；之后计算器被重置，可以继续计算下一个哈希；
 	 * 
 	 * @return
 	 */
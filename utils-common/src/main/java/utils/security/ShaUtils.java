@@ -16,6 +16,14 @@ import java.util.Arrays;
 @Deprecated
 public class ShaUtils {
 
+	/**
+	 * 每个线程复用的 SHA-256 摘要对象；
+	 * <p>
+	 * 
+	 * 只用于一次调用内即完成计算的字节数组输入，期间不会执行外部代码，因此不会在同一线程中被重入；
+	 */
+	private static final ThreadLocal<MessageDigest> SHA256_DIGESTS = ThreadLocal.withInitial(ShaUtils::createSha256);
+
 	/**
 	 * 对指定的字节数组进行 SHA128 哈希；
 	 * @param bytes bytes
@@ -32,14 +40,9 @@ public class ShaUtils {
 	 * @return 返回长度为 32 的字节数组；
 	 */
 	public static byte[] hash_256(byte[] bytes) {
-		MessageDigest md = null;
-		try {
-			md = MessageDigest.getInstance("SHA-256");
-			md.update(bytes);
-			return md.digest();
-		} catch (NoSuchAlgorithmException e) {
-			throw new IllegalStateException(e.getMessage(), e);
-		}
+		MessageDigest md = threadSha256();
+		md.update(bytes);
+		return md.digest();
 	}
 
 	/**
@@ -61,37 +64,64 @@ public class ShaUtils {
 	 * @return 返回长度为 32 的字节数组；
 	 */
 	public static int hash_256(byte[] bytes, byte[] outputBuffer, int offset, int length) {
-		MessageDigest md = null;
+		MessageDigest md = threadSha256();
 		try {
-			md = MessageDigest.getInstance("SHA-256");
 			md.update(bytes);
 			return md.digest(outputBuffer, offset, length);
-		} catch (NoSuchAlgorithmException | DigestException e) {
+		} catch (DigestException e) {
 			throw new IllegalStateException(e.getMessage(), e);
 		}
 	}
 
+	/**
+	 * 对输入流中的全部数据进行 SHA256 哈希；
+	 * <p>
+	 * 
+	 * 读取输入流时会执行外部代码，其中可能再次调用本类的方法，因此使用独立的摘要对象，而不是线程复用的摘要对象；
+	 * 
+	 * @param input input
+	 * @return 返回长度为 32 的字节数组；
+	 */
 	public static byte[] hash_256(InputStream input) {
-		MessageDigest md = null;
+		MessageDigest md = createSha256();
 		try {
-			md = MessageDigest.getInstance("SHA-256");
 			byte[] buff = new byte[64];
 			int len = 0;
 			while ((len = input.read(buff)) > 0) {
 				md.update(buff, 0, len);
 			}
 			return md.digest();
-		} catch (NoSuchAlgorithmException e) {
-			throw new IllegalStateException(e.getMessage(), e);
 		} catch (IOException e) {
 			throw new IllegalStateException(e.getMessage(), e);
 		}
 	}
 
+	/**
+	 * 返回一个新的 SHA256 计算器；计算器可能跨越多次调用，因此不使用线程复用的摘要对象；
+	 * 
+	 * @return
+	 */
 	public static Hasher hash_256() {
+		return new SHA256HashImpl(createSha256());
+	}
+
+	/**
+	 * 返回当前线程复用的 SHA-256 摘要对象；
+	 * <p>
+	 * 
+	 * 摘要对象在返回之前重置，以清除上一次调用因异常而遗留的状态；
+	 * 
+	 * @return
+	 */
+	private static MessageDigest threadSha256() {
+		MessageDigest md = SHA256_DIGESTS.get();
+		md.reset();
+		return md;
+	}
+
+	private static MessageDigest createSha256() {
 		try {
-			MessageDigest md = MessageDigest.getInstance("SHA-256");
-			return new SHA256HashImpl(md);
+			return MessageDigest.getInstance("SHA-256");
 		} catch (NoSuchAlgorithmException e) {
 			throw new IllegalStateException(e.getMessage(), e);
 		}
@@ -0,0 +1,164 @@
+package test.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import utils.Bytes;
+import utils.BytesIntMap;
+import utils.BytesLongMap;
+import utils.Hash32ObjectMap;
+import utils.io.ByteArray;
+
+public class BytesHashMapTest {
+
+	@Test
+	public void testBytesLongMap() {
+		testBytesLongMap(false);
+		testBytesLongMap(true);
+	}
+
+	private void testBytesLongMap(boolean offHeap) {
+		Random random = new Random();
+		Bytes[] keys = randomKeys(random, 5000, 32);
+
+		BytesLongMap map = new BytesLongMap(32, 0, offHeap);
+		assertEquals(offHeap, map.isOffHeap());
+		Map<Bytes, Long> expected = new HashMap<Bytes, Long>();
+
+		// 随机插入、更新、删除，并与 HashMap 的结果对比；
+		for (int i = 0; i < 50000; i++) {
+			Bytes key = keys[random.nextInt(keys.length)];
+			int op = random.nextInt(10);
+			if (op < 6) {
+				long value = random.nextLong();
+				boolean added = i % 2 == 0 ? map.put(key, value) : map.put(key.toBytes(), value);
+				assertEquals(expected.put(key, value) == null, added);
+			} else if (op < 9) {
+				assertEquals(expected.remove(key) != null, map.remove(key));
+			} else {
+				Long value = expected.get(key);
+				assertEquals(value == null ? -1L : value.longValue(), map.get(key.toBytes(), -1L));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+
+		for (Bytes key : keys) {
+			Long value = expected.get(key);
+			assertEquals(value != null, map.containsKey(key));
+			assertEquals(value == null ? -1L : value.longValue(), map.get(key, -1L));
+			// ByteArray 的哈希码与 Bytes 一致；
+			assertEquals(key.hashCode(), ByteArray.wrap(key.toBytes()).hashCode());
+			assertEquals(value == null ? -1L : value.longValue(), map.get(ByteArray.wrap(key.toBytes()), -1L));
+		}
+
+		Map<Bytes, Long> visited = new HashMap<Bytes, Long>();
+		map.forEach((key, value) -> visited.put(key, value));
+		assertEquals(expected, visited);
+
+		map.clear();
+		assertEquals(0, map.size());
+		assertFalse(map.containsKey(keys[0]));
+		map.dispose();
+	}
+
+	@Test
+	public void testBytesIntMap() {
+		Random random = new Random();
+		Bytes[] keys = randomKeys(random, 1000, 20);
+		BytesIntMap map = new BytesIntMap(20, 10, true);
+		for (int i = 0; i < keys.length; i++) {
+			assertTrue(map.put(keys[i], i));
+		}
+		assertEquals(keys.length, map.size());
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(i, map.get(keys[i], -1));
+			assertEquals(i + 5, map.increment(keys[i], 5));
+		}
+		assertEquals(7, map.increment(new Bytes(new byte[20]), 7));
+		assertEquals(keys.length + 1, map.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongKeySize() {
+		BytesIntMap map = new BytesIntMap(32);
+		map.put(new byte[31], 1);
+	}
+
+	@Test
+	public void testHash32ObjectMap() {
+		Random random = new Random();
+		Bytes[] keys = randomKeys(random, 3000, 32);
+		Hash32ObjectMap<String> map = new Hash32ObjectMap<String>(0, false);
+		for (int i = 0; i < keys.length; i++) {
+			assertNull(map.put(keys[i], "V-" + i));
+		}
+		assertEquals("V-0", map.put(keys[0], "NEW"));
+		for (int i = 0; i < keys.length; i += 2) {
+			assertTrue(map.remove(keys[i]));
+		}
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(i % 2 == 0 ? null : "V-" + i, map.get(keys[i]));
+		}
+		assertEquals(keys.length / 2, map.size());
+	}
+
+	/**
+	 * 对比 HashMap&lt;Bytes, Long&gt; 与 {@link BytesLongMap} 的性能；
+	 * <p>
+	 * 查询时使用内容相同的新实例，并打乱顺序，以模拟从网络或存储中解析出的键；
+	 */
+	@Test
+	public void testPerformance() {
+		Random random = new Random();
+		Bytes[] keys = randomKeys(random, 1000000, 32);
+		List<Bytes> queries = new ArrayList<Bytes>(keys.length);
+		for (Bytes key : keys) {
+			queries.add(new Bytes(key.toBytes()));
+		}
+		Collections.shuffle(queries, random);
+
+		Map<Bytes, Long> hashMap = new HashMap<Bytes, Long>();
+		BytesLongMap map = new BytesLongMap(32);
+		for (int i = 0; i < keys.length; i++) {
+			hashMap.put(keys[i], (long) i);
+			map.put(keys[i], i);
+		}
+
+		for (int n = 0; n < 3; n++) {
+			long startTs = System.nanoTime();
+			long sum = 0;
+			for (Bytes key : queries) {
+				sum += hashMap.get(key);
+			}
+			long ts1 = System.nanoTime() - startTs;
+
+			startTs = System.nanoTime();
+			long sum2 = 0;
+			for (Bytes key : queries) {
+				sum2 += map.get(key, -1);
+			}
+			long ts2 = System.nanoTime() - startTs;
+			assertEquals(sum, sum2);
+
+			System.out.printf("Time for HashMap: %s\r\nTime for BytesLongMap: %s\r\n", ts1, ts2);
+		}
+	}
+
+	private static Bytes[] randomKeys(Random random, int count, int keySize) {
+		Bytes[] keys = new Bytes[count];
+		for (int i = 0; i < count; i++) {
+			byte[] key = new byte[keySize];
+			random.nextBytes(key);
+			keys[i] = new Bytes(key);
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,423 @@
+package test.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.Test;
+
+import utils.AbstractBatchSkippingIterator;
+import utils.AbstractSkippingIterator;
+import utils.BatchFetcher;
+import utils.BatchSpliterator;
+import utils.DataEntry;
+import utils.DataIterator;
+import utils.Dataset;
+import utils.PrefetchingSkippingIterator;
+import utils.SkippingDataIterator;
+import utils.SkippingIterator;
+import utils.concurrent.ThreadExecutors;
+
+public class SkippingIteratorTest {
+
+	private static class RangeIterator extends AbstractSkippingIterator<Long> {
+
+		private final long count;
+
+		public RangeIterator(long count) {
+			this.count = count;
+		}
+
+		@Override
+		public long getTotalCount() {
+			return count;
+		}
+
+		@Override
+		protected Long get(long cursor) {
+			return cursor;
+		}
+	}
+
+	private static class CountingFetcher implements BatchFetcher<Long> {
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		private final long latencyNanos;
+
+		public CountingFetcher(long latencyNanos) {
+			this.latencyNanos = latencyNanos;
+		}
+
+		@Override
+		public Long[] fetch(long fromIndex, int count) {
+			calls.incrementAndGet();
+			if (latencyNanos > 0) {
+				LockSupport.parkNanos(latencyNanos);
+			}
+			Long[] datas = new Long[count];
+			for (int i = 0; i < count; i++) {
+				datas[i] = fromIndex + i;
+			}
+			return datas;
+		}
+	}
+
+	private static class BatchRangeIterator extends AbstractBatchSkippingIterator<Long> {
+
+		private final long count;
+
+		private final CountingFetcher fetcher;
+
+		public BatchRangeIterator(long count, int pageSize, CountingFetcher fetcher) {
+			super(pageSize);
+			this.count = count;
+			this.fetcher = fetcher;
+		}
+
+		@Override
+		public long getTotalCount() {
+			return count;
+		}
+
+		@Override
+		protected Long[] fetch(long fromIndex, int count) {
+			return fetcher.fetch(fromIndex, count);
+		}
+	}
+
+	@Test
+	public void testNextWithOffset() {
+		SkippingIterator<Long> iterator = new RangeIterator(10);
+		Long[] datas = new Long[8];
+		int n = iterator.next(datas, 3, 4);
+		assertEquals(4, n);
+		assertNull(datas[2]);
+		assertArrayEquals(new Long[] { 0L, 1L, 2L, 3L }, Arrays.copyOfRange(datas, 3, 7));
+		assertNull(datas[7]);
+
+		datas = new Long[8];
+		n = iterator.next(datas, 5);
+		assertEquals(3, n);
+		assertArrayEquals(new Long[] { 4L, 5L, 6L }, Arrays.copyOfRange(datas, 5, 8));
+
+		// 剩余数量不足时返回实际的数量；
+		datas = new Long[8];
+		n = iterator.next(datas, 1, 7);
+		assertEquals(3, n);
+		assertEquals(Long.valueOf(9), datas[3]);
+		assertFalse(iterator.hasNext());
+
+		String[] texts = new String[4];
+		n = new RangeIterator(2).next(texts, 2, (v) -> "#" + v);
+		assertEquals(2, n);
+		assertArrayEquals(new String[] { null, null, "#0", "#1" }, texts);
+	}
+
+	@Test
+	public void testBatchIterator() {
+		CountingFetcher fetcher = new CountingFetcher(0);
+		BatchRangeIterator iterator = new BatchRangeIterator(1000, 100, fetcher);
+
+		// 逐个迭代时每页只读取一次；
+		for (long i = 0; i < 150; i++) {
+			assertEquals(Long.valueOf(i), iterator.next());
+		}
+		assertEquals(2, fetcher.calls.get());
+
+		// 批量读取先复制页缓冲中剩余的部分，再一次读取剩余的全部元素；
+		Long[] datas = new Long[500];
+		assertEquals(500, iterator.next(datas, 0, 500));
+		for (int i = 0; i < datas.length; i++) {
+			assertEquals(Long.valueOf(150 + i), datas[i]);
+		}
+		assertEquals(3, fetcher.calls.get());
+		assertEquals(649, iterator.getCursor());
+
+		assertEquals(300, iterator.skip(300));
+		assertEquals(Long.valueOf(950), iterator.next());
+		datas = new Long[100];
+		assertEquals(49, iterator.next(datas, 10, 100));
+		assertEquals(Long.valueOf(951), datas[10]);
+		assertEquals(Long.valueOf(999), datas[58]);
+		assertFalse(iterator.hasNext());
+		assertNull(iterator.next());
+	}
+
+	@Test
+	public void testPrefetchingIterator() {
+		CountingFetcher fetcher = new CountingFetcher(0);
+		PrefetchingSkippingIterator<Long> iterator = new PrefetchingSkippingIterator<>(1050, 100, fetcher,
+				ThreadExecutors.getDefaultExecutor());
+		for (long i = 0; i < 250; i++) {
+			assertEquals(Long.valueOf(i), iterator.next());
+		}
+		iterator.skip(500);
+		Long[] datas = new Long[300];
+		assertEquals(300, iterator.next(datas, 0, 300));
+		for (int i = 0; i < datas.length; i++) {
+			assertEquals(Long.valueOf(750 + i), datas[i]);
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testCancelStalePrefetch() {
+		CountingFetcher fetcher = new CountingFetcher(0);
+		List<Runnable> tasks = new ArrayList<>();
+		PrefetchingSkippingIterator<Long> iterator = new PrefetchingSkippingIterator<>(1000, 100, fetcher, tasks::add);
+		assertEquals(Long.valueOf(0), iterator.next());
+		assertEquals(1, fetcher.calls.get());
+		assertEquals(1, tasks.size());
+
+		// 跳过之后预读的页不再连续，被取消的读取不再执行；
+		iterator.skip(300);
+		tasks.remove(0).run();
+		assertEquals(1, fetcher.calls.get());
+
+		assertEquals(Long.valueOf(301), iterator.next());
+		assertEquals(2, fetcher.calls.get());
+		tasks.remove(0).run();
+		assertEquals(3, fetcher.calls.get());
+		// 连续读取时使用预读的页；
+		iterator.skip(99);
+		assertEquals(Long.valueOf(401), iterator.next());
+		assertEquals(3, fetcher.calls.get());
+	}
+
+	@Test
+	public void testDataIterator() {
+		BatchFetcher<DataEntry<String, Long>> fetcher = (fromIndex, count) -> {
+			@SuppressWarnings("unchecked")
+			DataEntry<String, Long>[] entries = new DataEntry[count];
+			for (int i = 0; i < count; i++) {
+				entries[i] = new Entry("k" + (fromIndex + i), fromIndex + i);
+			}
+			return entries;
+		};
+		DataIterator<String, Long> iterator = new SkippingDataIterator<>(
+				new PrefetchingSkippingIterator<>(100, 16, fetcher, ThreadExecutors.getDefaultExecutor()));
+		assertEquals("k0", iterator.next().getKey());
+		iterator.skip(9);
+		DataEntry<String, Long>[] entries = iterator.next(50);
+		assertEquals(50, entries.length);
+		assertEquals("k10", entries[0].getKey());
+		assertEquals(Long.valueOf(59), entries[49].getValue());
+		entries = iterator.next(50);
+		assertEquals(40, entries.length);
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testSpliterator() {
+		CountingFetcher fetcher = new CountingFetcher(0);
+		Spliterator<Long> spliterator = new BatchSpliterator<>(fetcher, 10, 1010, 100);
+		assertEquals(1000, spliterator.estimateSize());
+		assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+		Spliterator<Long> prefix = spliterator.trySplit();
+		assertEquals(500, prefix.estimateSize());
+		assertEquals(500, spliterator.estimateSize());
+		assertTrue(prefix.tryAdvance((v) -> assertEquals(Long.valueOf(10), v)));
+		assertNull(prefix.trySplit());
+		assertEquals(499, prefix.estimateSize());
+
+		// 并行处理的结果与顺序处理一致；
+		BatchRangeIterator iterator = new BatchRangeIterator(100000, 256, new CountingFetcher(0));
+		iterator.skip(1000);
+		List<Long> values = iterator.stream(true).map((v) -> v * 2).collect(Collectors.toList());
+		assertEquals(99000, values.size());
+		for (int i = 0; i < values.size(); i++) {
+			assertEquals(Long.valueOf((1000L + i) * 2), values.get(i));
+		}
+		assertFalse(iterator.hasNext());
+
+		assertEquals(45, new RangeIterator(10).stream(true).mapToLong(Long::longValue).sum());
+	}
+
+	@Test
+	public void testRangeSpliterator() {
+		RangeIterator iterator = new RangeIterator(1010);
+		iterator.skip(10);
+		Spliterator<Long> spliterator = iterator.spliterator();
+		assertFalse(iterator.hasNext());
+		assertEquals(1000, spliterator.estimateSize());
+		assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+		Spliterator<Long> prefix = spliterator.trySplit();
+		assertEquals(500, prefix.estimateSize());
+		assertEquals(500, spliterator.estimateSize());
+		assertTrue(prefix.tryAdvance((v) -> assertEquals(Long.valueOf(10), v)));
+		assertTrue(spliterator.tryAdvance((v) -> assertEquals(Long.valueOf(510), v)));
+		assertEquals(499, prefix.estimateSize());
+
+		// 并行处理的结果与顺序处理一致；
+		iterator = new RangeIterator(100000);
+		iterator.skip(1000);
+		List<Long> values = iterator.stream(true).map((v) -> v * 2).collect(Collectors.toList());
+		assertEquals(99000, values.size());
+		for (int i = 0; i < values.size(); i++) {
+			assertEquals(Long.valueOf((1000L + i) * 2), values.get(i));
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testDatasetStream() {
+		ListDataset dataset = new ListDataset();
+		for (long i = 0; i < 10000; i++) {
+			dataset.setValue("k" + i, i);
+		}
+		assertEquals(10000 * 9999L / 2, dataset.stream(0, Long.MAX_VALUE).parallel()
+				.mapToLong((e) -> e.getValue().longValue()).sum());
+		List<String> keys = dataset.stream(9990, 100).map(DataEntry::getKey).collect(Collectors.toList());
+		assertEquals(10, keys.size());
+		assertEquals("k9990", keys.get(0));
+		assertEquals(0, dataset.stream(20000, 10).count());
+		assertTrue(dataset.fetchCount.get() > 1);
+	}
+
+	@Test
+	public void testPerformance() {
+		int total = 20000;
+		int pageSize = 500;
+		long latencyNanos = TimeUnit.MICROSECONDS.toNanos(200);
+		long workNanos = TimeUnit.MICROSECONDS.toNanos(1);
+		for (int r = 0; r < 2; r++) {
+			// 逐个读取：每个元素一次往返；
+			CountingFetcher fetcher = new CountingFetcher(latencyNanos);
+			long start = System.nanoTime();
+			for (long i = 0; i < total / 20; i++) {
+				consume(fetcher.fetch(i, 1)[0], workNanos);
+			}
+			long singleNanos = (System.nanoTime() - start) * 20;
+
+			fetcher = new CountingFetcher(latencyNanos);
+			start = System.nanoTime();
+			BatchRangeIterator batch = new BatchRangeIterator(total, pageSize, fetcher);
+			while (batch.hasNext()) {
+				consume(batch.next(), workNanos);
+			}
+			long batchNanos = System.nanoTime() - start;
+
+			fetcher = new CountingFetcher(latencyNanos);
+			start = System.nanoTime();
+			PrefetchingSkippingIterator<Long> prefetching = new PrefetchingSkippingIterator<>(total, pageSize, fetcher,
+					ThreadExecutors.getDefaultExecutor());
+			while (prefetching.hasNext()) {
+				consume(prefetching.next(), workNanos);
+			}
+			long prefetchingNanos = System.nanoTime() - start;
+
+			System.out.printf("Iterate %s entries: single=%.1fms(estimated); batch=%.1fms; prefetching=%.1fms\r\n",
+					total, singleNanos / 1000000.0D, batchNanos / 1000000.0D, prefetchingNanos / 1000000.0D);
+		}
+	}
+
+	private static void consume(Long value, long workNanos) {
+		long deadline = System.nanoTime() + workNanos;
+		while (System.nanoTime() < deadline) {
+			// 模拟对数据的处理；
+		}
+	}
+
+	private static class Entry implements DataEntry<String, Long> {
+
+		private final String key;
+
+		private final Long value;
+
+		public Entry(String key, Long value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public long getVersion() {
+			return 0;
+		}
+
+		@Override
+		public Long getValue() {
+			return value;
+		}
+	}
+
+	private static class ListDataset implements Dataset<String, Long> {
+
+		private final List<Entry> entries = new ArrayList<>();
+
+		private final AtomicInteger fetchCount = new AtomicInteger();
+
+		@Override
+		public long getDataCount() {
+			return entries.size();
+		}
+
+		@Override
+		public long setValue(String key, Long value, long version) {
+			if (version != -1) {
+				return -1;
+			}
+			return setValue(key, value);
+		}
+
+		@Override
+		public long setValue(String key, Long value) {
+			entries.add(new Entry(key, value));
+			return 0;
+		}
+
+		@Override
+		public Long getValue(String key, long version) {
+			DataEntry<String, Long> entry = getDataEntry(key, version);
+			return entry == null ? null : entry.getValue();
+		}
+
+		@Override
+		public Long getValue(String key) {
+			return getValue(key, -1);
+		}
+
+		@Override
+		public long getVersion(String key) {
+			return getDataEntry(key) == null ? -1 : 0;
+		}
+
+		@Override
+		public DataEntry<String, Long> getDataEntry(String key) {
+			return getDataEntry(key, -1);
+		}
+
+		@Override
+		public DataEntry<String, Long> getDataEntry(String key, long version) {
+			for (Entry entry : entries) {
+				if (entry.getKey().equals(key) && (version == -1 || version == 0)) {
+					return entry;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public DataEntry<String, Long>[] getDataEntries(long fromIndex, int count) {
+			fetchCount.incrementAndGet();
+			@SuppressWarnings("unchecked")
+			DataEntry<String, Long>[] datas = new DataEntry[count];
+			for (int i = 0; i < count; i++) {
+				datas[i] = entries.get((int) fromIndex + i);
+			}
+			return datas;
+		}
+	}
+}
@@ -4,8 +4,10 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import utils.codec.Base58Utils;
+import utils.codec.DataDecodeException;
 import utils.io.BytesUtils;
 
+import java.util.Arrays;
 import java.util.Random;
 
 public class Base58Test {
@@ -55,6 +57,84 @@ public class Base58Test {
         }
     }
 
+    /**
+     * 验证新的编解码实现与逐字节实现的输出完全一致；
+     */
+    @Test
+    public void testCompatibility() {
+        Random random = new Random();
+        for (int i = 0; i < 4096; i++) {
+            byte[] bs = new byte[random.nextInt(300)];
+            random.nextBytes(bs);
+            // 覆盖前导零的情况；
+            int zeros = Math.min(bs.length, random.nextInt(4));
+            Arrays.fill(bs, 0, zeros, (byte) 0);
+
+            String expected = Base58Utils_v0.encode(bs);
+            Assert.assertEquals(expected, Base58Utils.encode(bs));
+            Assert.assertArrayEquals(Base58Utils_v0.decode(expected), Base58Utils.decode(expected));
+        }
+        Assert.assertEquals(Base58Utils_v0.encode(new byte[3]), Base58Utils.encode(new byte[3]));
+        Assert.assertArrayEquals(new byte[3], Base58Utils.decode("111"));
+    }
+
+    @Test
+    public void testEncodeToBuffer() {
+        Random random = new Random();
+        byte[] bs = new byte[33];
+        random.nextBytes(bs);
+        String expected = Base58Utils.encode(bs);
+
+        char[] chars = new char[Base58Utils.getMaxEncodedLength(bs.length) + 8];
+        int size = Base58Utils.encode(bs, 0, bs.length, chars, 8);
+        Assert.assertEquals(expected, new String(chars, 8, size));
+
+        StringBuilder builder = new StringBuilder("prefix:");
+        Base58Utils.encode(bs, 1, 32, builder);
+        Assert.assertEquals("prefix:" + Base58Utils.encode(Arrays.copyOfRange(bs, 1, 33)), builder.toString());
+
+        String text = "[" + expected + "]";
+        Assert.assertArrayEquals(bs, Base58Utils.decode(text, 1, expected.length()));
+    }
+
+    @Test(expected = DataDecodeException.class)
+    public void testIllegalInput() {
+        Base58Utils.decode("3yZe7d0Il");
+    }
+
+    /**
+     * 对比逐字节实现与 limb 实现的性能；
+     */
+    @Test
+    public void testPerformance() {
+        Random random = new Random();
+        int[] sizes = { 32, 33, 256 };
+        for (int size : sizes) {
+            byte[][] inputs = new byte[256][size];
+            for (byte[] input : inputs) {
+                random.nextBytes(input);
+            }
+            int runTimes = size > 100 ? 2000 : 20000;
+
+            long ts1 = testEncodePerformance(true, inputs, runTimes);
+            long ts2 = testEncodePerformance(false, inputs, runTimes);
+            System.out.printf("------ %s bytes ------\r\nTime for v0 : %s\r\nTime for new: %s\r\n", size, ts1, ts2);
+        }
+    }
+
+    private long testEncodePerformance(boolean v0, byte[][] inputs, int runTimes) {
+        long startTs = System.nanoTime();
+        for (int i = 0; i < runTimes; i++) {
+            byte[] input = inputs[i % inputs.length];
+            if (v0) {
+                Base58Utils_v0.encode(input);
+            } else {
+                Base58Utils.encode(input);
+            }
+        }
+        return System.nanoTime() - startTs;
+    }
+
     public String generateString(Random random, int length) {
         String chars = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
 
@@ -0,0 +1,142 @@
+package test.utils.codec;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+import utils.codec.Base58InputStream;
+import utils.codec.Base58OutputStream;
+import utils.codec.Base58Utils;
+import utils.codec.Base64InputStream;
+import utils.codec.Base64OutputStream;
+import utils.codec.DataDecodeException;
+import utils.codec.HexInputStream;
+import utils.codec.HexOutputStream;
+import utils.codec.HexUtils;
+import utils.io.ByteArray;
+import utils.io.BytesUtils;
+
+public class CodecStreamTest {
+
+	@Test
+	public void testHexStream() throws IOException {
+		byte[] data = randomBytes(10000);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream hexOut = new HexOutputStream(out)) {
+			writeInPieces(data, hexOut);
+		}
+		assertEquals(HexUtils.encode(data), BytesUtils.toString(out.toByteArray()));
+
+		byte[] decoded = readInPieces(new HexInputStream(new ByteArrayInputStream(out.toByteArray())));
+		assertArrayEquals(data, decoded);
+	}
+
+	@Test(expected = DataDecodeException.class)
+	public void testHexStreamOddLength() throws IOException {
+		readInPieces(new HexInputStream(new ByteArrayInputStream(BytesUtils.toBytes("abc"))));
+	}
+
+	@Test
+	public void testBase64Stream() throws IOException {
+		byte[] data = randomBytes(10001);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream base64Out = new Base64OutputStream(out)) {
+			writeInPieces(data, base64Out);
+		}
+		assertEquals(ByteArray.toBase64(data), BytesUtils.toString(out.toByteArray()));
+
+		byte[] decoded = readInPieces(new Base64InputStream(new ByteArrayInputStream(out.toByteArray())));
+		assertArrayEquals(data, decoded);
+	}
+
+	@Test
+	public void testBase58Stream() throws IOException {
+		byte[] data = randomBytes(10000);
+		// 覆盖块首为 0 的情况；
+		data[0] = 0;
+		data[100] = 0;
+		data[101] = 0;
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream base58Out = new Base58OutputStream(out, 100)) {
+			writeInPieces(data, base58Out);
+		}
+		String text = BytesUtils.toString(out.toByteArray());
+		String[] lines = text.split("\n");
+		assertEquals(100, lines.length);
+		assertEquals(Base58Utils.encode(data, 0, 100), lines[0]);
+
+		byte[] decoded = readInPieces(new Base58InputStream(new ByteArrayInputStream(out.toByteArray()), 100));
+		assertArrayEquals(data, decoded);
+
+		// 兼容 "\r\n" 结尾的行；
+		String crlf = text.replace("\n", "\r\n");
+		decoded = readInPieces(new Base58InputStream(new ByteArrayInputStream(BytesUtils.toBytes(crlf)), 100));
+		assertArrayEquals(data, decoded);
+	}
+
+	@Test(expected = DataDecodeException.class)
+	public void testBase58StreamChunkTooLarge() throws IOException {
+		byte[] data = randomBytes(1000);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream base58Out = new Base58OutputStream(out, 1000)) {
+			base58Out.write(data);
+		}
+		readInPieces(new Base58InputStream(new ByteArrayInputStream(out.toByteArray()), 100));
+	}
+
+	private static byte[] randomBytes(int size) {
+		byte[] data = new byte[size];
+		new Random().nextBytes(data);
+		return data;
+	}
+
+	private static void writeInPieces(byte[] data, OutputStream out) throws IOException {
+		int offset = 0;
+		Random random = new Random();
+		while (offset < data.length) {
+			if (random.nextInt(10) == 0) {
+				out.write(data[offset++]);
+				continue;
+			}
+			int len = Math.min(data.length - offset, random.nextInt(5000));
+			out.write(data, offset, len);
+			offset += len;
+		}
+	}
+
+	private static byte[] readInPieces(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Random random = new Random();
+		byte[] buffer = new byte[3000];
+		try {
+			while (true) {
+				if (random.nextInt(10) == 0) {
+					int b = in.read();
+					if (b < 0) {
+						break;
+					}
+					out.write(b);
+					continue;
+				}
+				int n = in.read(buffer, 0, 1 + random.nextInt(buffer.length - 1));
+				if (n < 0) {
+					break;
+				}
+				out.write(buffer, 0, n);
+			}
+		} finally {
+			in.close();
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,137 @@
+package test.utils.codec;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+import utils.codec.DataDecodeException;
+import utils.codec.HexUtils;
+
+public class HexUtilsTest {
+
+	@Test
+	public void testEncodeAndDecode() throws DecoderException {
+		Random random = new Random();
+		for (int i = 0; i < 1024; i++) {
+			byte[] data = new byte[random.nextInt(256)];
+			random.nextBytes(data);
+
+			String hex = HexUtils.encode(data);
+			assertEquals(Hex.encodeHexString(data), hex);
+			assertEquals(hex.toUpperCase(), HexUtils.encode(data, true));
+			assertArrayEquals(data, HexUtils.decode(hex));
+			assertArrayEquals(data, HexUtils.decode(hex.toUpperCase()));
+			assertArrayEquals(Hex.decodeHex(hex.toCharArray()), HexUtils.decode(hex));
+		}
+		assertEquals("", HexUtils.encode(new byte[0]));
+		assertArrayEquals(new byte[0], HexUtils.decode(""));
+	}
+
+	@Test
+	public void testEncodeToTargets() {
+		byte[] data = { 0x00, 0x1f, (byte) 0xa0, (byte) 0xff, 0x7e };
+
+		char[] chars = new char[12];
+		assertEquals(6, HexUtils.encode(data, 1, 3, chars, 2, false));
+		assertEquals("1fa0ff", new String(chars, 2, 6));
+
+		StringBuilder builder = new StringBuilder("0x");
+		HexUtils.encode(data, 0, data.length, builder, true);
+		assertEquals("0x001FA0FF7E", builder.toString());
+
+		ByteBuffer buffer = ByteBuffer.allocate(10);
+		HexUtils.encode(data, 0, data.length, buffer, false);
+		assertEquals("001fa0ff7e", new String(buffer.array()));
+
+		assertEquals("001fa0ff7e", HexUtils.encode(ByteBuffer.wrap(data)));
+
+		byte[] output = new byte[4];
+		assertEquals(2, HexUtils.decode("hash:1Fa0", 5, 4, output, 1));
+		assertEquals(0x1f, output[1]);
+		assertEquals((byte) 0xa0, output[2]);
+	}
+
+	@Test
+	public void testIsHex() {
+		assertTrue(HexUtils.isHex("0123456789abcdefABCDEF"));
+		assertFalse(HexUtils.isHex(""));
+		assertFalse(HexUtils.isHex("12g4"));
+		assertFalse(HexUtils.isHex("12é4"));
+	}
+
+	@Test(expected = DataDecodeException.class)
+	public void testOddLength() {
+		HexUtils.decode("abc");
+	}
+
+	@Test(expected = DataDecodeException.class)
+	public void testIllegalCharacter() {
+		HexUtils.decode("0x12");
+	}
+
+	/**
+	 * 对比 commons-codec 的 {@link Hex} 与 {@link HexUtils} 的性能；
+	 */
+	@Test
+	public void testPerformance() throws DecoderException {
+		Random random = new Random();
+		byte[] data = new byte[32];
+		random.nextBytes(data);
+		String hex = HexUtils.encode(data);
+		char[] buffer = new char[64];
+		byte[] output = new byte[32];
+
+		int runTimes = 1000000;
+		for (int i = 0; i < runTimes; i++) {
+			Hex.encodeHexString(data);
+			HexUtils.encode(data);
+		}
+
+		long startTs = System.nanoTime();
+		for (int i = 0; i < runTimes; i++) {
+			Hex.encodeHexString(data);
+		}
+		long ts1 = System.nanoTime() - startTs;
+
+		startTs = System.nanoTime();
+		for (int i = 0; i < runTimes; i++) {
+			HexUtils.encode(data);
+		}
+		long ts2 = System.nanoTime() - startTs;
+
+		startTs = System.nanoTime();
+		for (int i = 0; i < runTimes; i++) {
+			HexUtils.encode(data, 0, data.length, buffer, 0, false);
+		}
+		long ts3 = System.nanoTime() - startTs;
+
+		System.out.printf("------ encode ------\r\nTime for commons-codec: %s\r\nTime for HexUtils: %s\r\nTime for HexUtils(char[]): %s\r\n",
+				ts1, ts2, ts3);
+
+		startTs = System.nanoTime();
+		for (int i = 0; i < runTimes; i++) {
+			Hex.decodeHex(hex.toCharArray());
+		}
+		ts1 = System.nanoTime() - startTs;
+
+		startTs = System.nanoTime();
+		for (int i = 0; i < runTimes; i++) {
+			HexUtils.decode(hex);
+		}
+		ts2 = System.nanoTime() - startTs;
+
+		startTs = System.nanoTime();
+		for (int i = 0; i < runTimes; i++) {
+			HexUtils.decode(hex, 0, hex.length(), output, 0);
+		}
+		ts3 = System.nanoTime() - startTs;
+
+		System.out.printf("------ decode ------\r\nTime for commons-codec: %s\r\nTime for HexUtils: %s\r\nTime for HexUtils(byte[]): %s\r\n",
+				ts1, ts2, ts3);
+	}
+}
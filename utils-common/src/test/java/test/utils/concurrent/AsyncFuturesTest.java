@@ -0,0 +1,184 @@
+package test.utils.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import utils.concurrent.AsyncFuture;
+import utils.concurrent.AsyncFutures;
+import utils.concurrent.CompletableAsyncFuture;
+import utils.concurrent.RuntimeExecutionException;
+import utils.concurrent.ThreadExecutors;
+
+public class AsyncFuturesTest {
+
+	@Test
+	public void testThenApplyAndCompose() {
+		CompletableAsyncFuture<Integer> future = new CompletableAsyncFuture<>();
+		AsyncFuture<String> mapped = future.thenApply(v -> "v" + v);
+		AsyncFuture<Integer> composed = future.thenCompose(v -> CompletableAsyncFuture.completeFuture(v * 2));
+		future.complete(21);
+		assertEquals("v21", mapped.get());
+		assertEquals(42, composed.get().intValue());
+
+		CompletableAsyncFuture<Integer> failed = new CompletableAsyncFuture<>();
+		AsyncFuture<Integer> failedComposed = failed.thenCompose(v -> CompletableAsyncFuture.completeFuture(v));
+		failed.error(new IllegalStateException("ERROR"));
+		try {
+			failedComposed.get();
+			fail("Exception is expected!");
+		} catch (RuntimeExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void testAsyncDefaultExecutor() {
+		Executor original = ThreadExecutors.getDefaultExecutor();
+		AtomicInteger submitted = new AtomicInteger();
+		ThreadExecutors.setDefaultExecutor(task -> {
+			submitted.incrementAndGet();
+			original.execute(task);
+		});
+		try {
+			CompletableAsyncFuture<Integer> future = new CompletableAsyncFuture<>();
+			AsyncFuture<String> mapped = future.thenApplyAsync(v -> "v" + v);
+			future.complete(1);
+			assertEquals("v1", mapped.get());
+			assertEquals(1, submitted.get());
+		} finally {
+			ThreadExecutors.setDefaultExecutor(original);
+		}
+	}
+
+	@Test
+	public void testWhenCompleteAsyncOnce() throws InterruptedException {
+		ExecutorService executor = ThreadExecutors.newFixedThreadPool("test", 2);
+		try {
+			CompletableAsyncFuture<String> future = new CompletableAsyncFuture<>();
+			AtomicInteger count = new AtomicInteger();
+			future.whenCompleteAsync((v, e) -> count.incrementAndGet(), executor);
+			future.complete("ok");
+			Thread.sleep(100);
+			assertEquals(1, count.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testAllOfAnyOfCollect() {
+		CompletableAsyncFuture<String> f1 = new CompletableAsyncFuture<>();
+		CompletableAsyncFuture<String> f2 = new CompletableAsyncFuture<>();
+		AsyncFuture<Void> all = AsyncFutures.allOf(f1, f2);
+		AsyncFuture<String> any = AsyncFutures.anyOf(f1, f2);
+		AsyncFuture<List<String>> collected = AsyncFutures.collect(Arrays.asList(f1, f2));
+
+		f2.complete("B");
+		assertEquals("B", any.get());
+		assertFalse(all.isDone());
+		assertFalse(collected.isDone());
+
+		f1.complete("A");
+		assertNull(all.get());
+		assertEquals(Arrays.asList("A", "B"), collected.get());
+
+		CompletableAsyncFuture<String> f3 = new CompletableAsyncFuture<>();
+		CompletableAsyncFuture<String> f4 = new CompletableAsyncFuture<>();
+		AsyncFuture<List<String>> failed = AsyncFutures.collect(Arrays.asList(f3, f4));
+		f4.error(new IllegalStateException("ERROR"));
+		// 快速失败，不等待其余的操作；
+		assertTrue(failed.isExceptionally());
+
+		assertTrue(AsyncFutures.allOf().isDone());
+		assertTrue(AsyncFutures.collect(new ArrayList<AsyncFuture<String>>()).get().isEmpty());
+	}
+
+	@Test
+	public void testMapAsync() throws InterruptedException {
+		ExecutorService executor = ThreadExecutors.newFixedThreadPool("test", 8);
+		try {
+			List<Integer> items = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				items.add(i);
+			}
+			AtomicInteger inFlight = new AtomicInteger();
+			AtomicInteger maxInFlight = new AtomicInteger();
+			List<Integer> results = AsyncFutures.mapAsync(items, (Integer i) -> {
+				int n = inFlight.incrementAndGet();
+				maxInFlight.accumulateAndGet(n, Math::max);
+				return CompletableAsyncFuture.callAsync((Callable<Integer>) () -> {
+					Thread.sleep(0, 100);
+					inFlight.decrementAndGet();
+					return i * 2;
+				}, executor);
+			}, 4).get(10, TimeUnit.SECONDS);
+			assertEquals(items.size(), results.size());
+			for (int i = 0; i < items.size(); i++) {
+				assertEquals(i * 2, results.get(i).intValue());
+			}
+			assertTrue(maxInFlight.get() <= 4);
+
+			// 同步完成的操作不会导致递归过深；
+			List<Integer> syncResults = AsyncFutures
+					.mapAsync(items, (Integer i) -> CompletableAsyncFuture.completeFuture(i + 1), 1).get();
+			assertEquals(1000, syncResults.get(999).intValue());
+
+			List<Integer> converted = AsyncFutures.mapAsync(items, (Integer i) -> i + 1, 4, executor).get();
+			assertEquals(1, converted.get(0).intValue());
+
+			AtomicInteger started = new AtomicInteger();
+			AsyncFuture<List<Integer>> failed = AsyncFutures.mapAsync(items, (Integer i) -> {
+				started.incrementAndGet();
+				CompletableAsyncFuture<Integer> f = new CompletableAsyncFuture<>();
+				if (i == 2) {
+					f.error(new IllegalStateException("ERROR"));
+				} else {
+					f.complete(i);
+				}
+				return f;
+			}, 1);
+			assertTrue(failed.isExceptionally());
+			assertEquals(3, started.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * 未重写转换方法的实现采用默认实现；
+	 */
+	@Test
+	public void testDefaultTransforms() {
+		ForwardingFuture<Integer> future = new ForwardingFuture<>();
+		AsyncFuture<String> mapped = future.thenApply(v -> "v" + v);
+		AsyncFuture<String> mappedAsync = future.thenApplyAsync(v -> Thread.currentThread().getName());
+		AsyncFuture<Integer> composed = future.thenCompose(v -> CompletableAsyncFuture.completeFuture(v * 2));
+		future.delegate.complete(21);
+		assertEquals("v21", mapped.get());
+		assertNotEquals(Thread.currentThread().getName(), mappedAsync.get());
+		assertEquals(42, composed.get().intValue());
+
+		ForwardingFuture<Integer> failed = new ForwardingFuture<>();
+		mapped = failed.thenApply(v -> "v" + v);
+		composed = failed.thenCompose(v -> CompletableAsyncFuture.completeFuture(v));
+		failed.delegate.error(new IllegalStateException("ERROR"));
+		for (AsyncFuture<?> f : new AsyncFuture<?>[] { mapped, composed }) {
+			try {
+				f.get();
+				fail("Exception is expected!");
+			} catch (RuntimeException e) {
+				assertTrue(e.getCause() instanceof IllegalStateException);
+			}
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package test.utils.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import utils.concurrent.AsyncFuture;
+import utils.concurrent.AsyncHandle;
+import utils.concurrent.CompletableAsyncFuture;
+
+/**
+ * 只实现 {@link AsyncFuture} 原有抽象方法的实现；用于验证后来增加的方法的默认实现；
+ * 
+ * @param <V>
+ */
+class ForwardingFuture<V> implements AsyncFuture<V> {
+
+	final CompletableAsyncFuture<V> delegate = new CompletableAsyncFuture<V>();
+
+	@Override
+	public V get() {
+		return delegate.get();
+	}
+
+	@Override
+	public V get(long timeout, TimeUnit unit) {
+		return delegate.get(timeout, unit);
+	}
+
+	@Override
+	public boolean isDone() {
+		return delegate.isDone();
+	}
+
+	@Override
+	public boolean isExceptionally() {
+		return delegate.isExceptionally();
+	}
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		return delegate.cancel(mayInterruptIfRunning);
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return delegate.isCancelled();
+	}
+
+	@Override
+	public AsyncFuture<V> thenAccept(Consumer<? super V> action) {
+		delegate.thenAccept(action);
+		return this;
+	}
+
+	@Override
+	public AsyncFuture<V> thenAcceptAsync(Consumer<? super V> action) {
+		delegate.thenAcceptAsync(action);
+		return this;
+	}
+
+	@Override
+	public AsyncFuture<V> thenAcceptAsync(Consumer<? super V> action, Executor executor) {
+		delegate.thenAcceptAsync(action, executor);
+		return this;
+	}
+
+	@Override
+	public AsyncFuture<V> thenRun(Runnable action) {
+		delegate.thenRun(action);
+		return this;
+	}
+
+	@Override
+	public AsyncFuture<V> thenRunAsync(Runnable action) {
+		delegate.thenRunAsync(action);
+		return this;
+	}
+
+	@Override
+	public AsyncFuture<V> thenRunAsync(Runnable action, Executor executor) {
+		delegate.thenRunAsync(action, executor);
+		return this;
+	}
+
+	@Override
+	public AsyncFuture<V> whenComplete(AsyncHandle<? super V> action) {
+		delegate.whenComplete(action);
+		return this;
+	}
+
+	@Override
+	public AsyncFuture<V> whenCompleteAsync(AsyncHandle<? super V> action) {
+		delegate.whenCompleteAsync(action);
+		return this;
+	}
+
+	@Override
+	public AsyncFuture<V> whenCompleteAsync(AsyncHandle<? super V> action, Executor executor) {
+		delegate.whenCompleteAsync(action, executor);
+		return this;
+	}
+
+}
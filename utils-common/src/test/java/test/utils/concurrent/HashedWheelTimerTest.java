@@ -0,0 +1,230 @@
+package test.utils.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import utils.concurrent.AsyncFuture;
+import utils.concurrent.CompletableAsyncFuture;
+import utils.concurrent.HashedWheelTimer;
+import utils.concurrent.RuntimeTimeoutException;
+import utils.concurrent.Timeout;
+
+public class HashedWheelTimerTest {
+
+	@Test
+	public void testTimeout() throws InterruptedException {
+		HashedWheelTimer timer = new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 8, null);
+		try {
+			CountDownLatch latch = new CountDownLatch(3);
+			long start = System.nanoTime();
+			// 延迟超过一圈的任务；
+			Timeout t1 = timer.newTimeout(latch::countDown, 100, TimeUnit.MILLISECONDS);
+			Timeout t2 = timer.newTimeout(latch::countDown, 20, TimeUnit.MILLISECONDS);
+			Timeout t3 = timer.newTimeout(latch::countDown, 0, TimeUnit.MILLISECONDS);
+			Timeout cancelled = timer.newTimeout(() -> fail("Cancelled task is executed!"), 30, TimeUnit.MILLISECONDS);
+			assertTrue(cancelled.cancel());
+			assertFalse(cancelled.cancel());
+
+			assertTrue(latch.await(2, TimeUnit.SECONDS));
+			assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+			assertTrue(t1.isExpired());
+			assertTrue(t2.isExpired());
+			assertTrue(t3.isExpired());
+			assertFalse(t1.cancel());
+			assertTrue(cancelled.isCancelled());
+			assertEquals(0, timer.getPendingCount());
+		} finally {
+			timer.stop();
+		}
+	}
+
+	@Test
+	public void testDefaultTimer() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		Timeout timeout = HashedWheelTimer.getDefault().newTimeout(latch::countDown, 10, TimeUnit.MILLISECONDS);
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		assertTrue(timeout.isExpired());
+		assertFalse(timeout.cancel());
+	}
+
+	/**
+	 * 到期与取消并发时，每个任务要么被执行，要么被取消，二者恰好发生其一；
+	 */
+	@Test
+	public void testCancelRace() throws InterruptedException {
+		HashedWheelTimer timer = new HashedWheelTimer("test-timer", 1, TimeUnit.MILLISECONDS, 8, null);
+		try {
+			int count = 2000;
+			AtomicInteger executed = new AtomicInteger();
+			Timeout[] timeouts = new Timeout[count];
+			for (int i = 0; i < count; i++) {
+				timeouts[i] = timer.newTimeout(executed::incrementAndGet, i % 3, TimeUnit.MILLISECONDS);
+			}
+			int cancelled = 0;
+			for (Timeout timeout : timeouts) {
+				if (timeout.cancel()) {
+					cancelled++;
+				}
+			}
+			long deadline = System.currentTimeMillis() + 2000;
+			while (executed.get() + cancelled < count && System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+			assertEquals(count, executed.get() + cancelled);
+			for (Timeout timeout : timeouts) {
+				assertTrue(timeout.isExpired() ^ timeout.isCancelled());
+			}
+			assertEquals(0, timer.getPendingCount());
+		} finally {
+			timer.stop();
+		}
+	}
+
+	@Test
+	public void testManyTimeouts() throws InterruptedException {
+		HashedWheelTimer timer = new HashedWheelTimer("test-timer");
+		try {
+			int count = 1000000;
+			AtomicInteger expired = new AtomicInteger();
+			Timeout[] timeouts = new Timeout[count];
+			long start = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				timeouts[i] = timer.newTimeout(expired::incrementAndGet, 1000 + (i & 0xFF), TimeUnit.MILLISECONDS);
+			}
+			long addNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < count; i += 2) {
+				timeouts[i].cancel();
+			}
+			long cancelNanos = System.nanoTime() - start;
+			System.out.printf("Add %s timeouts: %.1f ns/op; cancel half of them: %.1f ns/op\r\n", count,
+					addNanos / (double) count, cancelNanos / (double) (count / 2));
+
+			long deadline = System.currentTimeMillis() + 5000;
+			while (expired.get() < count / 2 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertEquals(count / 2, expired.get());
+			assertEquals(0, timer.getPendingCount());
+		} finally {
+			timer.stop();
+		}
+	}
+
+	@Test
+	public void testStop() {
+		HashedWheelTimer timer = new HashedWheelTimer("test-timer");
+		Timeout timeout = timer.newTimeout(() -> {
+		}, 1, TimeUnit.HOURS);
+		Set<Timeout> unprocessed = timer.stop();
+		assertEquals(1, unprocessed.size());
+		assertTrue(unprocessed.contains(timeout));
+		try {
+			timer.newTimeout(() -> {
+			}, 1, TimeUnit.SECONDS);
+			fail("Timer has been stopped!");
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	/**
+	 * 与添加任务并发地停止定时器：stop 总是返回集合，添加成功的任务都在其中；
+	 */
+	@Test
+	public void testConcurrentStop() throws InterruptedException {
+		for (int r = 0; r < 50; r++) {
+			HashedWheelTimer timer = new HashedWheelTimer("test-timer-" + r);
+			int producers = 2;
+			Set<Timeout> added = Collections.newSetFromMap(new ConcurrentHashMap<>());
+			CountDownLatch ready = new CountDownLatch(producers);
+			Thread[] threads = new Thread[producers];
+			for (int i = 0; i < producers; i++) {
+				threads[i] = new Thread(() -> {
+					ready.countDown();
+					try {
+						for (;;) {
+							added.add(timer.newTimeout(() -> {
+							}, 1, TimeUnit.HOURS));
+						}
+					} catch (IllegalStateException e) {
+						// 定时器已停止；
+					}
+				});
+				threads[i].start();
+			}
+			ready.await();
+			Set<Timeout> unprocessed = timer.stop();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			assertNotNull(unprocessed);
+			assertEquals(added.size(), unprocessed.size());
+			assertTrue(unprocessed.containsAll(added));
+		}
+	}
+
+	@Test
+	public void testFutureTimeout() {
+		CompletableAsyncFuture<String> future = new CompletableAsyncFuture<>();
+		AsyncFuture<String> f = future.orTimeout(20, TimeUnit.MILLISECONDS);
+		assertSame(future, f);
+		try {
+			future.get();
+			fail("Timeout is expected!");
+		} catch (RuntimeTimeoutException e) {
+		}
+		assertTrue(future.isExceptionally());
+
+		future = new CompletableAsyncFuture<>();
+		future.completeOnTimeout("default", 20, TimeUnit.MILLISECONDS);
+		assertEquals("default", future.get());
+
+		future = new CompletableAsyncFuture<>();
+		future.orTimeout(20, TimeUnit.MILLISECONDS);
+		future.complete("value");
+		assertEquals("value", future.get());
+		assertFalse(future.isExceptionally());
+	}
+
+	/**
+	 * 未重写超时方法的实现采用默认实现；
+	 */
+	@Test
+	public void testDefaultFutureTimeout() {
+		ForwardingFuture<String> future = new ForwardingFuture<>();
+		AsyncFuture<String> f = future.orTimeout(20, TimeUnit.MILLISECONDS);
+		try {
+			f.get();
+			fail("Timeout is expected!");
+		} catch (RuntimeTimeoutException e) {
+		}
+		assertFalse(future.isDone());
+
+		future = new ForwardingFuture<>();
+		assertEquals("default", future.completeOnTimeout("default", 20, TimeUnit.MILLISECONDS).get());
+
+		future = new ForwardingFuture<>();
+		f = future.orTimeout(1, TimeUnit.SECONDS);
+		future.delegate.complete("value");
+		assertEquals("value", f.get());
+
+		future = new ForwardingFuture<>();
+		f = future.completeOnTimeout("default", 1, TimeUnit.SECONDS);
+		future.delegate.error(new IllegalStateException("ERROR"));
+		try {
+			f.get();
+			fail("Exception is expected!");
+		} catch (RuntimeException e) {
+			assertEquals("ERROR", e.getCause().getMessage());
+		}
+	}
+}
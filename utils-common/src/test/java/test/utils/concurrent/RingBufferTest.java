@@ -0,0 +1,287 @@
+package test.utils.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import utils.concurrent.BatchingStage;
+import utils.concurrent.RingBuffer;
+import utils.concurrent.WaitStrategies;
+
+public class RingBufferTest {
+
+	private static class LongEvent {
+
+		long value;
+
+	}
+
+	@Test
+	public void testRingBuffer() throws InterruptedException {
+		RingBuffer<LongEvent> ringBuffer = RingBuffer.createSingleProducer(LongEvent::new, 8,
+				WaitStrategies.yielding());
+		AtomicLong consumed = new AtomicLong(ringBuffer.getCursor());
+		ringBuffer.addGatingSequence(consumed);
+
+		int count = 10000;
+		long[] sum = new long[1];
+		Thread consumer = new Thread(() -> {
+			long next = 0;
+			while (next < count) {
+				long available = ringBuffer.waitFor(next, -1, () -> false);
+				for (; next <= available; next++) {
+					assertEquals(next, ringBuffer.get(next).value);
+					sum[0] += ringBuffer.get(next).value;
+				}
+				consumed.set(available);
+			}
+		});
+		consumer.start();
+		for (int i = 0; i < count; i++) {
+			long seq = ringBuffer.next();
+			ringBuffer.get(seq).value = seq;
+			ringBuffer.publish(seq);
+		}
+		consumer.join(5000);
+		assertEquals((long) count * (count - 1) / 2, sum[0]);
+
+		// 缓冲区已满时 tryNext 返回 -1；
+		RingBuffer<LongEvent> full = RingBuffer.createMultiProducer(LongEvent::new, 4, WaitStrategies.busySpin());
+		full.addGatingSequence(new AtomicLong(full.getCursor()));
+		for (int i = 0; i < 4; i++) {
+			full.publish(full.tryNext());
+		}
+		assertEquals(-1, full.tryNext());
+		assertEquals(0, full.remainingCapacity());
+		assertTrue(full.isPublished(3));
+		assertFalse(full.isPublished(4));
+	}
+
+	@Test
+	public void testBatchingStage() throws InterruptedException {
+		int producers = 4;
+		int perProducer = 20000;
+		List<Long> received = new ArrayList<>();
+		int[] maxBatch = new int[1];
+		BatchingStage<Long> stage = new BatchingStage<>("stage", 256, true, WaitStrategies.yielding(), 32, 0,
+				TimeUnit.MICROSECONDS, batch -> {
+					maxBatch[0] = Math.max(maxBatch[0], batch.size());
+					received.addAll(batch);
+				}, null);
+		stage.start();
+		Thread[] threads = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			long base = (long) p << 32;
+			threads[p] = new Thread(() -> {
+				for (int i = 0; i < perProducer; i++) {
+					stage.submit(base | i);
+				}
+			});
+			threads[p].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		stage.stop();
+
+		assertEquals(producers * perProducer, received.size());
+		assertTrue(maxBatch[0] <= 32);
+		// 同一个生产者提交的数据保持顺序；
+		long[] last = new long[producers];
+		for (int p = 0; p < producers; p++) {
+			last[p] = -1;
+		}
+		for (long value : received) {
+			int p = (int) (value >>> 32);
+			long i = value & 0xFFFFFFFFL;
+			assertTrue(i > last[p]);
+			last[p] = i;
+		}
+		try {
+			stage.submit(1L);
+			fail("Stage has been stopped!");
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	/**
+	 * 缓冲区已满时阻塞的生产者在阶段停止后立即放弃，已提交的数据全部被处理；
+	 */
+	@Test
+	public void testStopReleasesBlockedProducer() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicLong processed = new AtomicLong();
+		BatchingStage<Integer> stage = new BatchingStage<>("stage", 4, true, WaitStrategies.yielding(), 1, 0,
+				TimeUnit.MICROSECONDS, batch -> {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					processed.addAndGet(batch.size());
+				}, null);
+		stage.start();
+		AtomicLong accepted = new AtomicLong();
+		Throwable[] error = new Throwable[1];
+		Thread producer = new Thread(() -> {
+			try {
+				for (int i = 0; i < 100; i++) {
+					stage.submit(i);
+					accepted.incrementAndGet();
+				}
+			} catch (Throwable e) {
+				error[0] = e;
+			}
+		});
+		producer.start();
+		// 处理器取走 1 个数据后阻塞，缓冲区再容纳 4 个，之后生产者阻塞；
+		while (accepted.get() < 5) {
+			Thread.sleep(1);
+		}
+		Thread.sleep(20);
+		assertEquals(5, accepted.get());
+
+		Thread stopper = new Thread(stage::stop);
+		stopper.start();
+		producer.join(2000);
+		assertFalse(producer.isAlive());
+		assertTrue(error[0] instanceof IllegalStateException);
+
+		release.countDown();
+		stopper.join(2000);
+		assertFalse(stopper.isAlive());
+		assertEquals(accepted.get(), processed.get());
+	}
+
+	/**
+	 * 与停止并发的提交要么抛出异常，要么其数据被处理；
+	 */
+	@Test
+	public void testConcurrentSubmitAndStop() throws InterruptedException {
+		for (int round = 0; round < 20; round++) {
+			AtomicLong processed = new AtomicLong();
+			BatchingStage<Integer> stage = new BatchingStage<>("stage", 16, true, WaitStrategies.yielding(), 8, 0,
+					TimeUnit.MICROSECONDS, batch -> processed.addAndGet(batch.size()), null);
+			stage.start();
+			AtomicLong accepted = new AtomicLong();
+			Thread[] producers = new Thread[4];
+			for (int p = 0; p < producers.length; p++) {
+				producers[p] = new Thread(() -> {
+					try {
+						for (;;) {
+							stage.submit(1);
+							accepted.incrementAndGet();
+						}
+					} catch (IllegalStateException e) {
+						// 阶段已停止；
+					}
+				});
+				producers[p].start();
+			}
+			Thread.sleep(5);
+			stage.stop();
+			for (Thread producer : producers) {
+				producer.join(2000);
+				assertFalse(producer.isAlive());
+			}
+			assertEquals(accepted.get(), processed.get());
+		}
+	}
+
+	@Test
+	public void testStopWithoutStart() {
+		List<Integer> received = new ArrayList<>();
+		BatchingStage<Integer> stage = new BatchingStage<>("stage", received::addAll);
+		stage.submit(1);
+		stage.submit(2);
+		assertTrue(stage.trySubmit(3));
+		stage.stop();
+		assertEquals(3, received.size());
+	}
+
+	@Test
+	public void testBatchDelay() throws InterruptedException {
+		List<Integer> sizes = new ArrayList<>();
+		CountDownLatch latch = new CountDownLatch(1);
+		BatchingStage<Integer> stage = new BatchingStage<>("stage", 64, false, WaitStrategies.parking(10,
+				TimeUnit.MICROSECONDS), 16, 200, TimeUnit.MILLISECONDS, batch -> {
+					sizes.add(batch.size());
+					latch.countDown();
+				}, null);
+		stage.start();
+		stage.submit(1);
+		stage.submit(2);
+		stage.submit(3);
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		stage.stop();
+		// 不足一个批次的数据在等待时间内合并为一个批次；
+		assertEquals(1, sizes.size());
+		assertEquals(3, sizes.get(0).intValue());
+	}
+
+	@Test
+	public void testPerformance() throws InterruptedException {
+		int count = 2000000;
+		for (int r = 0; r < 2; r++) {
+			long queueNanos = runBlockingQueue(count);
+			long stageNanos = runBatchingStage(count);
+			System.out.printf("SPSC %s items: ArrayBlockingQueue %.1f ns/item, BatchingStage %.1f ns/item\r\n", count,
+					queueNanos / (double) count, stageNanos / (double) count);
+		}
+	}
+
+	private static long runBlockingQueue(int count) throws InterruptedException {
+		ArrayBlockingQueue<Long> queue = new ArrayBlockingQueue<>(1024);
+		long[] sum = new long[1];
+		Thread consumer = new Thread(() -> {
+			try {
+				for (int i = 0; i < count; i++) {
+					sum[0] += queue.take();
+				}
+			} catch (InterruptedException e) {
+			}
+		});
+		long start = System.nanoTime();
+		consumer.start();
+		for (long i = 0; i < count; i++) {
+			queue.put(i);
+		}
+		consumer.join();
+		long elapsed = System.nanoTime() - start;
+		assertEquals((long) count * (count - 1) / 2, sum[0]);
+		return elapsed;
+	}
+
+	private static long runBatchingStage(int count) throws InterruptedException {
+		long[] sum = new long[1];
+		CountDownLatch done = new CountDownLatch(1);
+		long[] received = new long[1];
+		BatchingStage<Long> stage = new BatchingStage<>("bench", 1024, false, WaitStrategies.yielding(), 256, 0,
+				TimeUnit.MICROSECONDS, batch -> {
+					for (Long v : batch) {
+						sum[0] += v;
+					}
+					received[0] += batch.size();
+					if (received[0] == count) {
+						done.countDown();
+					}
+				}, null);
+		long start = System.nanoTime();
+		stage.start();
+		for (long i = 0; i < count; i++) {
+			stage.submit(i);
+		}
+		done.await();
+		long elapsed = System.nanoTime() - start;
+		stage.stop();
+		assertEquals((long) count * (count - 1) / 2, sum[0]);
+		return elapsed;
+	}
+}
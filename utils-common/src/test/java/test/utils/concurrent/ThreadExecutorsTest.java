@@ -0,0 +1,107 @@
+package test.utils.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import utils.concurrent.CompletableAsyncFuture;
+import utils.concurrent.NamedThreadFactory;
+import utils.concurrent.ThreadExecutors;
+import utils.concurrent.ThreadInvoker;
+import utils.concurrent.ThreadInvoker.AsyncCallback;
+
+public class ThreadExecutorsTest {
+
+	@Test
+	public void testThreadInvoker() {
+		ThreadInvoker<String> invoker = new ThreadInvoker<String>() {
+			@Override
+			protected String invoke() throws Exception {
+				return Thread.currentThread().getName();
+			}
+		};
+		String threadName = invoker.startAndWait();
+		assertNotEquals(Thread.currentThread().getName(), threadName);
+
+		// 重置后可再次调用；
+		invoker.reset();
+		AsyncCallback<String> callback = invoker.start();
+		assertNotNull(callback.waitReturn());
+
+		ThreadInvoker<String> failed = new ThreadInvoker<String>() {
+			@Override
+			protected String invoke() throws Exception {
+				throw new Exception("ERROR");
+			}
+		};
+		try {
+			failed.startAndWait();
+			fail("Exception is expected!");
+		} catch (IllegalStateException e) {
+			assertEquals("ERROR", e.getMessage());
+			assertEquals("ERROR", failed.getError().getMessage());
+		}
+	}
+
+	/**
+	 * 默认执行器的线程不是守护线程，JVM 退出前等待正在执行的调用；
+	 */
+	@Test
+	public void testThreadInvokerNonDaemon() {
+		ThreadInvoker<Boolean> invoker = new ThreadInvoker<Boolean>() {
+			@Override
+			protected Boolean invoke() throws Exception {
+				return Thread.currentThread().isDaemon();
+			}
+		};
+		assertFalse(invoker.startAndWait());
+	}
+
+	@Test
+	public void testThreadInvokerWithExecutor() throws InterruptedException {
+		ExecutorService executor = ThreadExecutors.newFixedThreadPool("invoker", 2);
+		try {
+			ThreadInvoker<String> invoker = new ThreadInvoker<String>(executor) {
+				@Override
+				protected String invoke() throws Exception {
+					return Thread.currentThread().getName();
+				}
+			};
+			assertEquals("invoker-1", invoker.startAndWait());
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void testExecutors() throws InterruptedException {
+		ExecutorService virtual = ThreadExecutors.newVirtualThreadExecutor("vt");
+		ForkJoinPool forkJoin = ThreadExecutors.newForkJoinPool("fj", 2);
+		try {
+			Callable<String> threadName = () -> Thread.currentThread().getName();
+			String name = CompletableAsyncFuture.callAsync(threadName, virtual).get();
+			assertTrue(name.startsWith("vt-"));
+
+			name = CompletableAsyncFuture.callAsync(threadName, forkJoin).get();
+			assertTrue(name.startsWith("fj-"));
+
+			assertEquals("ok", CompletableAsyncFuture.callAsync((Callable<String>) () -> "ok").get());
+		} finally {
+			virtual.shutdown();
+			forkJoin.shutdown();
+		}
+
+		NamedThreadFactory factory = NamedThreadFactory.virtual("test");
+		assertEquals(ThreadExecutors.isVirtualThreadSupported(), factory.isVirtual());
+		Thread thread = factory.newThread(() -> {
+		});
+		assertEquals("test-1", thread.getName());
+		assertTrue(thread.isDaemon());
+	}
+}
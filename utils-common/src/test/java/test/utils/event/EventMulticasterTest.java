@@ -0,0 +1,297 @@
+package test.utils.event;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import utils.concurrent.ThreadExecutors;
+import utils.event.AsyncEventMulticaster;
+import utils.event.BackPressurePolicy;
+import utils.event.EventMulticaster;
+
+public class EventMulticasterTest {
+
+	interface Listener {
+
+		void onEvent(int seq);
+
+		void onReset();
+
+		String getName();
+	}
+
+	private static class RecordingListener implements Listener {
+
+		private final List<Integer> events = new ArrayList<>();
+
+		private final AtomicInteger resets = new AtomicInteger();
+
+		private volatile CountDownLatch gate;
+
+		private volatile CountDownLatch done;
+
+		@Override
+		public void onEvent(int seq) {
+			CountDownLatch g = gate;
+			if (g != null) {
+				try {
+					g.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			synchronized (events) {
+				events.add(seq);
+			}
+			CountDownLatch d = done;
+			if (d != null) {
+				d.countDown();
+			}
+		}
+
+		@Override
+		public void onReset() {
+			resets.incrementAndGet();
+		}
+
+		@Override
+		public String getName() {
+			return "recording";
+		}
+
+		List<Integer> getEvents() {
+			synchronized (events) {
+				return new ArrayList<>(events);
+			}
+		}
+	}
+
+	@Test
+	public void testSyncMulticast() {
+		EventMulticaster<Listener> multicaster = new EventMulticaster<>(Listener.class);
+		RecordingListener l1 = new RecordingListener();
+		RecordingListener l2 = new RecordingListener();
+		multicaster.addListener(l1);
+		multicaster.addListener(l2);
+
+		multicaster.getBroadcaster().onEvent(1);
+		multicaster.getBroadcaster().onReset();
+		assertEquals(1, l1.getEvents().size());
+		assertEquals(1, l2.resets.get());
+		try {
+			multicaster.getBroadcaster().getName();
+			fail("Method with return value is not supported!");
+		} catch (UnsupportedOperationException e) {
+		}
+
+		multicaster.addListener(new Listener() {
+			@Override
+			public void onEvent(int seq) {
+				throw new IllegalStateException("ERROR");
+			}
+
+			@Override
+			public void onReset() {
+			}
+
+			@Override
+			public String getName() {
+				return null;
+			}
+		});
+		try {
+			multicaster.getBroadcaster().onEvent(2);
+			fail("Exception is expected!");
+		} catch (IllegalStateException e) {
+			assertEquals("ERROR", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testAsyncMulticast() throws InterruptedException {
+		ExecutorService executor = ThreadExecutors.newCachedThreadPool("event");
+		try {
+			AsyncEventMulticaster<Listener> multicaster = new AsyncEventMulticaster<>(Listener.class, null, 16,
+					BackPressurePolicy.BLOCK, executor);
+			RecordingListener slow = new RecordingListener();
+			RecordingListener fast = new RecordingListener();
+			slow.gate = new CountDownLatch(1);
+			fast.done = new CountDownLatch(10);
+			slow.done = new CountDownLatch(1000);
+			multicaster.addListener(slow);
+			multicaster.addListener(fast);
+
+			// 慢的监听器不影响其它监听器；
+			for (int i = 0; i < 10; i++) {
+				multicaster.getBroadcaster().onEvent(i);
+			}
+			assertTrue(fast.done.await(5, TimeUnit.SECONDS));
+			assertEquals(0, slow.getEvents().size());
+
+			// 队列已满时阻塞，直到慢的监听器恢复；
+			slow.gate.countDown();
+			for (int i = 10; i < 1000; i++) {
+				multicaster.getBroadcaster().onEvent(i);
+			}
+			assertTrue(slow.done.await(5, TimeUnit.SECONDS));
+			List<Integer> events = slow.getEvents();
+			for (int i = 0; i < 1000; i++) {
+				assertEquals(i, events.get(i).intValue());
+			}
+			assertEquals(0, multicaster.getDroppedCount());
+			multicaster.dispose();
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testDropAndCallerRuns() throws InterruptedException {
+		ExecutorService executor = ThreadExecutors.newCachedThreadPool("event");
+		try {
+			AsyncEventMulticaster<Listener> dropping = new AsyncEventMulticaster<>(Listener.class, null, 4,
+					BackPressurePolicy.DROP, executor);
+			RecordingListener listener = new RecordingListener();
+			listener.gate = new CountDownLatch(1);
+			dropping.addListener(listener);
+			for (int i = 0; i < 100; i++) {
+				dropping.getBroadcaster().onEvent(i);
+			}
+			// 通知任务阻塞在第一个事件上，队列中最多保存 4 个事件；
+			assertTrue(dropping.getDroppedCount() >= 100 - 5);
+			listener.gate.countDown();
+
+			AsyncEventMulticaster<Listener> callerRuns = new AsyncEventMulticaster<>(Listener.class, null, 1,
+					BackPressurePolicy.CALLER_RUNS, executor);
+			CountDownLatch entered = new CountDownLatch(1);
+			CountDownLatch gate = new CountDownLatch(1);
+			List<String> threads = new ArrayList<>();
+			callerRuns.addListener(new Listener() {
+				@Override
+				public void onEvent(int seq) {
+					if (seq == 0) {
+						entered.countDown();
+						try {
+							gate.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+					synchronized (threads) {
+						threads.add(seq + "@" + Thread.currentThread().getName());
+					}
+				}
+
+				@Override
+				public void onReset() {
+				}
+
+				@Override
+				public String getName() {
+					return null;
+				}
+			});
+			callerRuns.getBroadcaster().onEvent(0);
+			assertTrue(entered.await(5, TimeUnit.SECONDS));
+			// 事件 1 和 2 进入队列（最小容量为 2），事件 3 由于队列已满在当前线程中执行；
+			callerRuns.getBroadcaster().onEvent(1);
+			callerRuns.getBroadcaster().onEvent(2);
+			callerRuns.getBroadcaster().onEvent(3);
+			synchronized (threads) {
+				assertEquals(1, threads.size());
+				assertEquals("3@" + Thread.currentThread().getName(), threads.get(0));
+			}
+			gate.countDown();
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * 监听器在通知中向自己的已满队列发布事件，阻塞策略在当前线程中直接通知，而不是永久阻塞；
+	 */
+	@Test
+	public void testBlockOnOwnQueue() throws InterruptedException {
+		ExecutorService executor = ThreadExecutors.newCachedThreadPool("event");
+		try {
+			AsyncEventMulticaster<Listener> multicaster = new AsyncEventMulticaster<>(Listener.class, null, 1,
+					BackPressurePolicy.BLOCK, executor);
+			CountDownLatch done = new CountDownLatch(5);
+			List<Integer> events = new ArrayList<>();
+			multicaster.addListener(new Listener() {
+				@Override
+				public void onEvent(int seq) {
+					synchronized (events) {
+						events.add(seq);
+					}
+					if (seq == 0) {
+						for (int i = 1; i < 5; i++) {
+							multicaster.getBroadcaster().onEvent(i);
+						}
+					}
+					done.countDown();
+				}
+
+				@Override
+				public void onReset() {
+				}
+
+				@Override
+				public String getName() {
+					return null;
+				}
+			});
+			multicaster.getBroadcaster().onEvent(0);
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+			synchronized (events) {
+				assertEquals(5, events.size());
+				// 事件 1 和 2 进入队列（最小容量为 2），事件 3 和 4 在通知事件 0 的线程中直接通知；
+				assertEquals(Arrays.asList(0, 3, 4, 1, 2), events);
+			}
+			multicaster.dispose();
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testPerformance() {
+		EventMulticaster<Listener> multicaster = new EventMulticaster<>(Listener.class);
+		AtomicInteger counter = new AtomicInteger();
+		multicaster.addListener(new Listener() {
+			@Override
+			public void onEvent(int seq) {
+				counter.incrementAndGet();
+			}
+
+			@Override
+			public void onReset() {
+			}
+
+			@Override
+			public String getName() {
+				return null;
+			}
+		});
+		Listener broadcaster = multicaster.getBroadcaster();
+		int count = 1000000;
+		for (int i = 0; i < count; i++) {
+			broadcaster.onEvent(i);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			broadcaster.onEvent(i);
+		}
+		long elapsed = System.nanoTime() - start;
+		System.out.printf("Sync multicast: %.1f ns/op\r\n", elapsed / (double) count);
+		assertEquals(count * 2, counter.get());
+	}
+}
@@ -0,0 +1,135 @@
+package test.utils.id;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+import utils.id.KeyGenerator;
+import utils.id.KeyGeneratorFactory;
+import utils.id.LongIdGenerator;
+import utils.id.SnowflakeIdGenerator;
+import utils.id.StripedIdGenerator;
+
+public class IdGeneratorTest {
+
+	@Test
+	public void testKeyGenerator() {
+		KeyGenerator generator = KeyGeneratorFactory.createBase36Instance(2).createKeyGenerator();
+		assertEquals("00", generator.next());
+		assertEquals("01", generator.next());
+		for (int i = 2; i < 36; i++) {
+			generator.next();
+		}
+		assertEquals("10", generator.next());
+		for (int i = 37; i < 36 * 36; i++) {
+			generator.next();
+		}
+		// 溢出后从头开始；
+		assertEquals("00", generator.next());
+
+		char[] buffer = new char[4];
+		assertEquals(2, generator.nextInto(buffer, 1));
+		assertEquals("01", new String(buffer, 1, 2));
+	}
+
+	@Test
+	public void testSnowflake() throws InterruptedException {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5);
+		long last = -1;
+		for (int i = 0; i < 100000; i++) {
+			long id = generator.nextId();
+			assertTrue(id > last);
+			assertEquals(5, SnowflakeIdGenerator.getNodeId(id));
+			last = id;
+		}
+		long now = System.currentTimeMillis();
+		assertTrue(Math.abs(generator.getTimeMillis(last) - now) <= SnowflakeIdGenerator.MAX_BORROW_MILLIS + 1000);
+
+		// 字符串形式的字典顺序与数值顺序一致；
+		String s1 = generator.next();
+		String s2 = generator.next();
+		assertEquals(LongIdGenerator.BASE36_LENGTH, s1.length());
+		assertTrue(s1.compareTo(s2) < 0);
+		assertEquals(Long.parseLong(s1, 36) + 1, Long.parseLong(s2, 36));
+
+		assertUniqueAcrossThreads(generator, 4, 200000);
+
+		try {
+			new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1);
+			fail("Node id is out of range!");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testStriped() throws InterruptedException {
+		StripedIdGenerator generator = new StripedIdGenerator(100, 16);
+		long first = generator.nextId();
+		assertEquals(100, first);
+		for (int i = 1; i < 100; i++) {
+			assertEquals(100 + i, generator.nextId());
+		}
+		assertUniqueAcrossThreads(generator, 8, 200000);
+
+		char[] buffer = new char[LongIdGenerator.BASE36_LENGTH];
+		generator.nextInto(buffer, 0);
+		assertTrue(Long.parseLong(new String(buffer), 36) > 0);
+	}
+
+	@Test
+	public void testPerformance() throws InterruptedException {
+		int threads = Runtime.getRuntime().availableProcessors();
+		int perThread = 2000000;
+		LongIdGenerator[] generators = { new SnowflakeIdGenerator(1), new StripedIdGenerator() };
+		for (LongIdGenerator generator : generators) {
+			for (int r = 0; r < 2; r++) {
+				long elapsed = run(generator, threads, perThread);
+				System.out.printf("%s: %s threads, %.1f M ids/s\r\n", generator.getClass().getSimpleName(), threads,
+						threads * (double) perThread * 1000 / elapsed);
+			}
+		}
+	}
+
+	private static long run(LongIdGenerator generator, int threads, int perThread) throws InterruptedException {
+		Thread[] workers = new Thread[threads];
+		char[][] buffers = new char[threads][LongIdGenerator.BASE36_LENGTH];
+		long start = System.nanoTime();
+		for (int t = 0; t < threads; t++) {
+			char[] buffer = buffers[t];
+			workers[t] = new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					generator.nextInto(buffer, 0);
+				}
+			});
+			workers[t].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static void assertUniqueAcrossThreads(LongIdGenerator generator, int threads, int perThread)
+			throws InterruptedException {
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			workers[t] = new Thread(() -> {
+				Set<Long> local = new HashSet<>();
+				for (int i = 0; i < perThread; i++) {
+					local.add(generator.nextId());
+				}
+				ids.addAll(local);
+			});
+			workers[t].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		assertEquals(threads * perThread, ids.size());
+	}
+}
@@ -9,7 +9,9 @@ import java.util.Random;
 
 import org.junit.Test;
 
+import utils.Base58Cache;
 import utils.Bytes;
+import utils.codec.Base58Utils;
 import utils.io.BytesUtils;
 import utils.security.ShaUtils;
 
@@ -87,4 +89,36 @@ public class BytesTest {
 
 	}
 
+	@Test
+	public void testBase58Cache() {
+		Random rand = new Random();
+		byte[] hash = new byte[32];
+		rand.nextBytes(hash);
+		Bytes key = new Bytes(hash);
+		String expected = Base58Utils.encode(hash);
+
+		Base58Cache cache = new Base58Cache(100);
+		assertEquals(128, cache.getCapacity());
+		Bytes.setBase58Cache(cache);
+		try {
+			assertEquals(expected, key.toBase58());
+			// 内容相同的不同实例同样命中缓存；
+			assertEquals(expected, new Bytes(hash.clone()).toString());
+			assertEquals(expected, new Bytes(new Bytes(Arrays.copyOf(hash, 10)), Arrays.copyOfRange(hash, 10, 32)).toBase58());
+			assertEquals(1, cache.getMissCount());
+			assertEquals(2, cache.getHitCount());
+			assertEquals(2.0 / 3, cache.getHitRate(), 0.0001);
+
+			cache.clear();
+			assertEquals(0, cache.getHitCount());
+			assertEquals(expected, key.toBase58());
+			assertEquals(1, cache.getMissCount());
+		} finally {
+			Bytes.setBase58Cache(null);
+		}
+		assertNull(Bytes.getBase58Cache());
+		assertEquals(expected, key.toBase58());
+		assertEquals(1, cache.getMissCount());
+	}
+
 }
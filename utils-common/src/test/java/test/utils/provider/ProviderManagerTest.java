@@ -0,0 +1,240 @@
+package test.utils.provider;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import utils.provider.NamedProvider;
+import utils.provider.Provider;
+import utils.provider.ProviderException;
+import utils.provider.ProviderHandle;
+import utils.provider.ProviderManager;
+import utils.provider.ProviderTiming;
+
+public class ProviderManagerTest {
+
+	public static interface Greeting {
+
+		String greet();
+
+	}
+
+	@NamedProvider("hello")
+	public static class HelloGreeting implements Greeting {
+
+		@Override
+		public String greet() {
+			return "hello";
+		}
+	}
+
+	public static class HiGreeting implements Greeting {
+
+		@Override
+		public String greet() {
+			return "hi";
+		}
+	}
+
+	@NamedProvider("hello")
+	public static class DuplicateGreeting implements Greeting {
+
+		@Override
+		public String greet() {
+			return "duplicate";
+		}
+	}
+
+	@NamedProvider("counting")
+	public static class CountingGreeting implements Greeting {
+
+		private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+		public CountingGreeting() {
+			INSTANCES.incrementAndGet();
+		}
+
+		@Override
+		public String greet() {
+			return "counting";
+		}
+	}
+
+	/**
+	 * 由测试资源中的 "META-INF/services/" 配置文件声明的服务；
+	 */
+	public static interface SystemGreeting {
+
+		String greet();
+
+	}
+
+	@NamedProvider("system")
+	public static class SystemHello implements SystemGreeting {
+
+		@Override
+		public String greet() {
+			return "system";
+		}
+	}
+
+	public static class SystemHi implements SystemGreeting {
+
+		@Override
+		public String greet() {
+			return "hi";
+		}
+	}
+
+	/**
+	 * 类加载器为 null 时采用系统类加载器发现和加载提供者；
+	 */
+	@Test
+	public void testNullClassLoader() {
+		ProviderManager pm = new ProviderManager();
+		pm.installAllProviders(SystemGreeting.class, (ClassLoader) null);
+		assertEquals("system", pm.getService(SystemGreeting.class, "system").greet());
+
+		// 线程上下文的类加载器为 null 时的自动发现；
+		Thread thread = Thread.currentThread();
+		ClassLoader contextLoader = thread.getContextClassLoader();
+		thread.setContextClassLoader(null);
+		try {
+			pm = new ProviderManager();
+			assertEquals("system", pm.getService(SystemGreeting.class, "system").greet());
+
+			assertEquals("hi", pm.installProvider(SystemGreeting.class, SystemHi.class.getName()).greet());
+		} finally {
+			thread.setContextClassLoader(contextLoader);
+		}
+	}
+
+	@Test
+	public void testLazyDiscovery() throws IOException {
+		URLClassLoader loader1 = createServiceLoader("# comment\n" + CountingGreeting.class.getName() + " # lazy\n\n");
+		URLClassLoader loader2 = createServiceLoader(HiGreeting.class.getName() + "\n" + CountingGreeting.class.getName());
+		try {
+			int instances = CountingGreeting.INSTANCES.get();
+			ProviderManager pm = new ProviderManager();
+			pm.installAllProviders(Greeting.class, loader1, loader2);
+
+			// 重复出现的提供者只安装一次，并且发现时不实例化；
+			Collection<Provider<Greeting>> providers = pm.getAllProviders(Greeting.class);
+			assertEquals(2, providers.size());
+			assertEquals(instances, CountingGreeting.INSTANCES.get());
+
+			List<ProviderTiming> timings = pm.getTimings();
+			assertEquals(2, timings.size());
+			for (ProviderTiming timing : timings) {
+				assertEquals(Greeting.class.getName(), timing.getServiceName());
+				assertTrue(timing.getClassLoadNanos() >= 0);
+				assertFalse(timing.isInstantiated());
+			}
+
+			Provider<Greeting> provider = pm.getProvider(Greeting.class, "counting");
+			assertEquals("counting", provider.getService().greet());
+			assertSame(provider.getService(), pm.getService(Greeting.class, CountingGreeting.class.getName()));
+			assertEquals(instances + 1, CountingGreeting.INSTANCES.get());
+
+			for (ProviderTiming timing : pm.getTimings()) {
+				assertEquals(CountingGreeting.class.getName().equals(timing.getFullName()), timing.isInstantiated());
+				System.out.println(timing);
+			}
+		} finally {
+			loader1.close();
+			loader2.close();
+		}
+	}
+
+	private static URLClassLoader createServiceLoader(String config) throws IOException {
+		File dir = Files.createTempDirectory("providers").toFile();
+		dir.deleteOnExit();
+		File services = new File(dir, "META-INF/services");
+		services.mkdirs();
+		File file = new File(services, Greeting.class.getName());
+		Files.write(file.toPath(), config.getBytes(StandardCharsets.UTF_8));
+		file.deleteOnExit();
+		return new URLClassLoader(new URL[] { dir.toURI().toURL() }, ProviderManagerTest.class.getClassLoader());
+	}
+
+	@Test
+	public void testLookup() {
+		ProviderManager pm = new ProviderManager();
+		ProviderHandle<Greeting> handle = pm.getHandle(Greeting.class, "hello");
+		assertFalse(handle.isAvailable());
+		try {
+			handle.getService();
+			fail("Provider is not installed!");
+		} catch (ProviderException e) {
+		}
+
+		pm.installProvider(Greeting.class, HelloGreeting.class.getName());
+		pm.installProvider(Greeting.class, HiGreeting.class.getName());
+
+		assertEquals("hello", pm.getService(Greeting.class, "hello").greet());
+		assertEquals("hello", pm.getService(Greeting.class, HelloGreeting.class.getName()).greet());
+		assertEquals("hi", pm.getService(Greeting.class, HiGreeting.class.getName()).greet());
+		assertNull(pm.getService(Greeting.class, "none"));
+
+		// 句柄在提供者安装后可用，并缓存解析结果；
+		assertTrue(handle.isAvailable());
+		Greeting service = handle.getService();
+		assertEquals("hello", service.greet());
+		assertSame(service, handle.getService());
+		assertEquals("hello", handle.getProvider().getShortName());
+
+		Provider<Greeting> provider = pm.getProvider(Greeting.class, HiGreeting.class.getName());
+		assertNull(provider.getShortName());
+
+		try {
+			pm.installProvider(Greeting.class, DuplicateGreeting.class.getName());
+			fail("Short name is duplicated!");
+		} catch (ProviderException e) {
+		}
+		try {
+			pm.installProvider(Greeting.class, HiGreeting.class.getName());
+			fail("Provider is duplicated!");
+		} catch (ProviderException e) {
+		}
+
+		Collection<Provider<Greeting>> providers = pm.getAllProviders(Greeting.class);
+		assertEquals(2, providers.size());
+		try {
+			providers.clear();
+			fail("The provider collection is a readonly snapshot!");
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+
+	@Test
+	public void testPerformance() {
+		ProviderManager pm = new ProviderManager();
+		pm.installProvider(Greeting.class, HelloGreeting.class.getName());
+		ProviderHandle<Greeting> handle = pm.getHandle(Greeting.class, "hello");
+		int count = 5000000;
+		for (int r = 0; r < 2; r++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				pm.getService(Greeting.class, "hello");
+			}
+			long lookupNanos = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				handle.getService();
+			}
+			long handleNanos = System.nanoTime() - start;
+			System.out.printf("getService by name: %.1f ns/op; by handle: %.1f ns/op\r\n",
+					lookupNanos / (double) count, handleNanos / (double) count);
+		}
+	}
+}
@@ -107,6 +107,25 @@ public class ShaUtilsTest {
 		assertArrayEquals(hash1, hash2);
 	}
 
+	/**
+	 * 读取输入流时在同一线程中再次进行哈希，不影响输入流的哈希结果；
+	 */
+	@Test
+	public void testHash_256StreamReentrant() {
+		byte[] randBytes = RandomUtils.generateRandomBytes(1000);
+		byte[] expected = hash_256(new ByteArrayInputStream(randBytes), 64);
+
+		InputStream in = new ByteArrayInputStream(randBytes) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				ShaUtils.hash_256(b);
+				ShaUtils.hash_256(new ByteArrayInputStream(b));
+				return super.read(b, off, len);
+			}
+		};
+		assertArrayEquals(expected, ShaUtils.hash_256(in));
+	}
+
 	private static byte[] hash_256(InputStream input, int buffSize) {
 		MessageDigest md = null;
 		try {
@@ -0,0 +1,25 @@
+package utils.crypto.base;
+
+/**
+ * 支持批量验证的签名验证器；
+ * <p>
+ * 
+ * 对于能够合并多个签名的验证运算的算法（例如 ED25519），批量验证比逐个验证更快；
+ * 
+ * @author huanghaiquan
+ *
+ * @param <K> 解码后的公钥的类型；
+ */
+public interface BatchSignatureVerifier<K> extends SignatureVerifier<K> {
+
+	/**
+	 * 批量验证签名；公钥或签名的格式无效时对应的结果为 false；
+	 * 
+	 * @param data       被签名的数据；
+	 * @param publicKeys 公钥的编码；与 data 一一对应；
+	 * @param signatures 签名；与 data 一一对应；
+	 * @return 每一个签名的验证结果；
+	 */
+	boolean[] verifyBatch(byte[][] data, byte[][] publicKeys, byte[][] signatures);
+
+}
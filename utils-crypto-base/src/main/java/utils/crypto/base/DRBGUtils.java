@@ -0,0 +1,106 @@
+package utils.crypto.base;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.prng.EntropySource;
+import org.bouncycastle.crypto.prng.EntropySourceProvider;
+import org.bouncycastle.crypto.prng.SP800SecureRandomBuilder;
+
+/**
+ * 确定性随机比特生成器（DRBG）；
+ * <p>
+ *
+ * 每次签名都创建并播种 {@link SecureRandom} 的开销很大；这里维护固定数量的、只播种一次的 SHA-256 Hash-DRBG（NIST SP
+ * 800-90A），线程按照线程 id 分散到其中一个，供签名等需要随机数的操作共享；
+ * DRBG 的数量只与处理器数量有关，大量短生命周期的线程（例如虚拟线程）不会导致重复播种；<br>
+ *
+ * 熵取自系统的 {@link SecureRandom#nextBytes(byte[])}，不会因为系统熵池不足而阻塞；DRBG 按照 SP 800-90A 的间隔自动重新播种；
+ *
+ * @author huanghaiquan
+ *
+ */
+public abstract class DRBGUtils {
+
+	private static final int NONCE_SIZE = 16;
+
+	private static final SecureRandom ENTROPY_RANDOM = new SecureRandom();
+
+	private static final EntropySourceProvider ENTROPY_PROVIDER = new EntropySourceProvider() {
+
+		@Override
+		public EntropySource get(final int bitsRequired) {
+			return new EntropySource() {
+
+				@Override
+				public boolean isPredictionResistant() {
+					return false;
+				}
+
+				@Override
+				public byte[] getEntropy() {
+					byte[] entropy = new byte[(bitsRequired + 7) / 8];
+					ENTROPY_RANDOM.nextBytes(entropy);
+					return entropy;
+				}
+
+				@Override
+				public int entropySize() {
+					return bitsRequired;
+				}
+			};
+		}
+	};
+
+	/**
+	 * DRBG 的数量；不小于处理器数量的 2 倍的 2 的幂；
+	 */
+	private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1);
+
+	private static final AtomicReferenceArray<SecureRandom> STRIPED_RANDOMS = new AtomicReferenceArray<>(STRIPES);
+
+	private static final AtomicLong DRBG_COUNTER = new AtomicLong();
+
+	/**
+	 * 返回当前线程共享的 DRBG；
+	 * <p>
+	 *
+	 * 按照线程 id 从固定数量的 DRBG 中选取一个，首次使用时才创建并播种；<br>
+	 * 
+	 * 返回的实例是线程安全的，同一个实例可能被多个线程同时使用，此时会产生竞争；
+	 *
+	 * @return
+	 */
+	public static SecureRandom getDefaultRandom() {
+		long id = Thread.currentThread().getId();
+		int index = (int) (id ^ (id >>> 32)) & (STRIPES - 1);
+		SecureRandom random = STRIPED_RANDOMS.get(index);
+		if (random == null) {
+			random = createHashDRBG("DRBGUtils-" + id + "-" + DRBG_COUNTER.incrementAndGet());
+			if (!STRIPED_RANDOMS.compareAndSet(index, null, random)) {
+				random = STRIPED_RANDOMS.get(index);
+			}
+		}
+		return random;
+	}
+
+	/**
+	 * 创建一个新的 SHA-256 Hash-DRBG；
+	 *
+	 * @param personalization 个性化字符串；可以为 null；
+	 * @return
+	 */
+	public static SecureRandom createHashDRBG(String personalization) {
+		byte[] nonce = new byte[NONCE_SIZE];
+		ENTROPY_RANDOM.nextBytes(nonce);
+		SP800SecureRandomBuilder builder = new SP800SecureRandomBuilder(ENTROPY_PROVIDER);
+		if (personalization != null) {
+			builder.setPersonalizationString(personalization.getBytes(StandardCharsets.UTF_8));
+		}
+		return builder.buildHash(new SHA256Digest(), nonce, false);
+	}
+
+}
@@ -0,0 +1,178 @@
+package utils.crypto.base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.bouncycastle.crypto.Digest;
+
+import utils.io.RuntimeIOException;
+
+/**
+ * 摘要计算的辅助方法；支持 {@link ByteBuffer}、输入流和文件的流式计算，以及大量小数据的并行批量计算；
+ * <p>
+ *
+ * 从堆外缓冲区和文件读取数据时，经由每个线程各自持有的一个固定大小的缓冲区分段计算；读取输入流时会执行输入流的代码，
+ * 其中可能在同一线程中再次计算摘要，因此每次调用分配各自的缓冲区；都不会随数据的长度分配内存；
+ *
+ * @author huanghaiquan
+ *
+ */
+public abstract class DigestUtils {
+
+	/**
+	 * 分段读取数据的缓冲区大小；
+	 */
+	public static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * 批量计算时每个并行任务至少处理的数据个数；个数少于此值的批量直接在调用者线程中计算；
+	 */
+	public static final int MIN_BATCH_SIZE = 64;
+
+	private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+	/**
+	 * 追加缓冲区中剩余的数据；
+	 * <p>
+	 *
+	 * 计算之后缓冲区的 position 等于 limit；
+	 *
+	 * @param digest
+	 * @param data
+	 */
+	public static void update(Digest digest, ByteBuffer data) {
+		if (data.hasArray()) {
+			int length = data.remaining();
+			digest.update(data.array(), data.arrayOffset() + data.position(), length);
+			data.position(data.position() + length);
+			return;
+		}
+		byte[] buffer = BUFFERS.get();
+		while (data.hasRemaining()) {
+			int length = Math.min(buffer.length, data.remaining());
+			data.get(buffer, 0, length);
+			digest.update(buffer, 0, length);
+		}
+	}
+
+	/**
+	 * 追加输入流中的全部数据；输入流不会被关闭；
+	 *
+	 * @param digest
+	 * @param input
+	 */
+	public static void update(Digest digest, InputStream input) {
+		// 输入流的 read 方法可能在同一线程中再次调用本方法，不能使用线程共享的缓冲区；
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try {
+			int length;
+			while ((length = input.read(buffer)) > -1) {
+				digest.update(buffer, 0, length);
+			}
+		} catch (IOException e) {
+			throw new RuntimeIOException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 追加文件的全部内容；
+	 *
+	 * @param digest
+	 * @param file
+	 */
+	public static void update(Digest digest, Path file) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			// 直接读入堆内的缓冲区；摘要只能从 byte 数组计算，映射到内存反而多一次复制；
+			ByteBuffer buffer = ByteBuffer.wrap(BUFFERS.get());
+			int length;
+			while ((length = channel.read(buffer)) > -1) {
+				if (length > 0) {
+					digest.update(buffer.array(), 0, length);
+				}
+				buffer.clear();
+			}
+		} catch (IOException e) {
+			throw new RuntimeIOException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 计算数据的摘要，并写入指定的缓冲区；
+	 * <p>
+	 *
+	 * 适用于复用的摘要对象：计算之后摘要对象处于重置状态，计算因参数错误而失败时也会重置；
+	 *
+	 * @param digest    摘要对象；
+	 * @param data      数据；
+	 * @param offset    数据的起始位置；
+	 * @param length    数据的长度；
+	 * @param output    输出缓冲区；
+	 * @param outOffset 输出的起始位置；
+	 * @return 写入的字节数；即摘要的长度；
+	 */
+	public static int hash(Digest digest, byte[] data, int offset, int length, byte[] output, int outOffset) {
+		int digestSize = digest.getDigestSize();
+		if (outOffset < 0 || output.length - outOffset < digestSize) {
+			throw new IllegalArgumentException("The output buffer is too short!");
+		}
+		try {
+			digest.update(data, offset, length);
+			return digest.doFinal(output, outOffset);
+		} catch (RuntimeException e) {
+			digest.reset();
+			throw e;
+		}
+	}
+
+	/**
+	 * 完成计算并返回摘要；摘要对象被重置，可以继续使用；
+	 *
+	 * @param digest
+	 * @return
+	 */
+	public static byte[] doFinal(Digest digest) {
+		byte[] result = new byte[digest.getDigestSize()];
+		digest.doFinal(result, 0);
+		return result;
+	}
+
+	/**
+	 * 分别计算每一项数据的摘要；
+	 * <p>
+	 *
+	 * 数据被分为若干段，在公共的 {@link ForkJoinPool} 中并行计算，每段只创建一个摘要对象；
+	 *
+	 * @param digestFactory 摘要对象的工厂；
+	 * @param inputs        数据列表；
+	 * @return 与数据列表一一对应的摘要；
+	 */
+	public static byte[][] hashAll(Supplier<? extends Digest> digestFactory, byte[][] inputs) {
+		byte[][] results = new byte[inputs.length][];
+		int parallelism = ForkJoinPool.getCommonPoolParallelism();
+		if (inputs.length < MIN_BATCH_SIZE * 2 || parallelism < 2) {
+			hashRange(digestFactory.get(), inputs, 0, inputs.length, results);
+			return results;
+		}
+		// 每个线程分到几段，以平衡长短不一的数据；
+		int batchSize = Math.max(MIN_BATCH_SIZE, inputs.length / (parallelism * 4));
+		int batches = (inputs.length + batchSize - 1) / batchSize;
+		IntStream.range(0, batches).parallel().forEach((i) -> hashRange(digestFactory.get(), inputs, i * batchSize,
+				Math.min(inputs.length, (i + 1) * batchSize), results));
+		return results;
+	}
+
+	private static void hashRange(Digest digest, byte[][] inputs, int from, int to, byte[][] results) {
+		for (int i = from; i < to; i++) {
+			digest.update(inputs[i], 0, inputs[i].length);
+			results[i] = doFinal(digest);
+		}
+	}
+
+}
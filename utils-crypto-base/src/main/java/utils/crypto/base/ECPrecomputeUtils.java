@@ -0,0 +1,74 @@
+package utils.crypto.base;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.math.ec.FixedPointUtil;
+import org.bouncycastle.math.ec.WNafUtil;
+
+/**
+ * 椭圆曲线点乘的预计算；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public abstract class ECPrecomputeUtils {
+
+	/**
+	 * wNAF 窗口宽度的上限；与 BouncyCastle 在 Shamir 双点乘中采用的上限一致；
+	 */
+	private static final int MAX_WNAF_WIDTH = 8;
+
+	private static final ECMultiplier FIXED_BASE_MULTIPLIER = new FixedPointCombMultiplier();
+
+	/**
+	 * 预计算公钥点的 wNAF 表；
+	 * <p>
+	 * 
+	 * 预计算表保存在点对象中，之后以该点对象进行的点乘（例如验签时的 u1·G + u2·Q）直接复用预计算表；
+	 * 因此预计算只对被缓存和复用的点对象有意义；
+	 * 
+	 * @param point 规范化的点；
+	 * @param order 群的阶；用于确定标量的位数；
+	 * @return 传入的点；
+	 */
+	public static ECPoint precomputeWNaf(ECPoint point, BigInteger order) {
+		int width = Math.max(2, Math.min(MAX_WNAF_WIDTH, WNafUtil.getWindowSize(order.bitLength())));
+		WNafUtil.precompute(point, width, true);
+		return point;
+	}
+
+	/**
+	 * 预计算基点的梳状（comb）表；
+	 * <p>
+	 * 
+	 * 预计算表在首次调用时构建并保存在基点对象中，之后所有以该基点对象进行的定点乘法共享同一个表，重复调用不会重新构建；
+	 * BouncyCastle 的签名器和密钥对生成器以域参数的基点进行定点乘法，因此共享同一个域参数对象的密钥生成、签名和
+	 * {@link #multiplyFixedBase(ECPoint, BigInteger)} 都复用同一个表；
+	 * 
+	 * @param basePoint 基点；
+	 * @return 传入的基点；
+	 */
+	public static ECPoint precomputeFixedBase(ECPoint basePoint) {
+		FixedPointUtil.precompute(basePoint);
+		return basePoint;
+	}
+
+	/**
+	 * 以梳状表计算基点的倍点；预计算表按需构建；
+	 * 
+	 * @param basePoint 基点；
+	 * @param k         标量；超出群的阶的位数时先对阶取模；
+	 * @return 规范化的点；
+	 */
+	public static ECPoint multiplyFixedBase(ECPoint basePoint, BigInteger k) {
+		BigInteger order = basePoint.getCurve().getOrder();
+		if (order != null && k.bitLength() > order.bitLength()) {
+			k = k.mod(order);
+		}
+		return FIXED_BASE_MULTIPLIER.multiply(basePoint, k).normalize();
+	}
+
+}
@@ -0,0 +1,59 @@
+package utils.crypto.base;
+
+/**
+ * 默克尔树的包含证明；
+ * <p>
+ *
+ * 证明由叶子的位置、生成证明时树的叶子总数以及自底向上的兄弟节点哈希组成；没有兄弟节点的层（该层的最后一个奇数节点）不包含在路径中；
+ *
+ * @author huanghaiquan
+ *
+ */
+public final class MerkleProof {
+
+	private final int index;
+
+	private final int leafCount;
+
+	private final byte[][] path;
+
+	public MerkleProof(int index, int leafCount, byte[][] path) {
+		if (index < 0 || index >= leafCount) {
+			throw new IllegalArgumentException("The leaf index is out of range!");
+		}
+		if (path == null) {
+			throw new IllegalArgumentException("Path is null!");
+		}
+		this.index = index;
+		this.leafCount = leafCount;
+		this.path = path;
+	}
+
+	/**
+	 * 叶子的位置；
+	 *
+	 * @return
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * 生成证明时树的叶子总数；
+	 *
+	 * @return
+	 */
+	public int getLeafCount() {
+		return leafCount;
+	}
+
+	/**
+	 * 自底向上的兄弟节点哈希；
+	 *
+	 * @return
+	 */
+	public byte[][] getPath() {
+		return path;
+	}
+
+}
@@ -0,0 +1,398 @@
+package utils.crypto.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+import utils.security.Hasher;
+
+/**
+ * 默克尔树；
+ * <p>
+ *
+ * 树的结构与 RFC 6962 相同：叶子节点的哈希为 H(0x00 || data)，内部节点的哈希为 H(0x01 || left || right)，每层末尾的奇数节点原样提升到上一层；
+ * 空树的根为空数据的哈希；<br>
+ *
+ * 节点按层存储在连续的字节数组中，每层一个数组，不为单个节点创建对象，因此千万级叶子的树也只占用约 2 倍于叶子哈希的内存；<br>
+ *
+ * 通过 {@link #build(Supplier, byte[][])} 一次性构建时，每层的节点划分为多个分段，在 {@link ForkJoinPool} 中并行计算；
+ * 之后追加或者修改叶子只需重新计算从该叶子到根的路径上的 O(log n) 个节点；<br>
+ *
+ * 哈希算法由 {@link Hasher} 的工厂指定，要求 {@link Hasher#complete()} 之后计算器被重置，可以继续计算下一个哈希；<br>
+ *
+ * 默克尔树不是线程安全的；
+ *
+ * @author huanghaiquan
+ *
+ */
+public class MerkleTree {
+
+	/**
+	 * 并行构建时每个分段的最大节点数；
+	 */
+	public static final int PARALLEL_THRESHOLD = 1024;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	private static final byte[] LEAF_PREFIX = { 0x00 };
+
+	private static final byte[] NODE_PREFIX = { 0x01 };
+
+	private final Supplier<Hasher> hasherFactory;
+
+	private final Hasher hasher;
+
+	private final int hashSize;
+
+	private final byte[] emptyRoot;
+
+	/**
+	 * 各层节点的哈希；第 0 层为叶子；
+	 */
+	private byte[][] levels;
+
+	/**
+	 * 各层的节点数；
+	 */
+	private int[] sizes;
+
+	/**
+	 * 根节点所在的层；
+	 */
+	private int top;
+
+	public MerkleTree(Supplier<Hasher> hasherFactory) {
+		this(hasherFactory, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param hasherFactory   哈希计算器的工厂；
+	 * @param initialCapacity 初始的叶子容量；
+	 */
+	public MerkleTree(Supplier<Hasher> hasherFactory, int initialCapacity) {
+		if (hasherFactory == null) {
+			throw new IllegalArgumentException("Hasher factory is null!");
+		}
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("The initial capacity is negative!");
+		}
+		this.hasherFactory = hasherFactory;
+		this.hasher = hasherFactory.get();
+		this.emptyRoot = hasher.complete();
+		this.hashSize = emptyRoot.length;
+		this.levels = new byte[0][];
+		this.sizes = new int[0];
+		ensureCapacity(Math.max(1, initialCapacity));
+	}
+
+	/**
+	 * 以公共的 {@link ForkJoinPool} 并行构建默克尔树；
+	 *
+	 * @param hasherFactory 哈希计算器的工厂；
+	 * @param leaves        叶子的数据；
+	 * @return
+	 */
+	public static MerkleTree build(Supplier<Hasher> hasherFactory, byte[][] leaves) {
+		return build(hasherFactory, leaves, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 并行构建默克尔树；
+	 *
+	 * @param hasherFactory 哈希计算器的工厂；
+	 * @param leaves        叶子的数据；
+	 * @param pool          执行计算的线程池；
+	 * @return
+	 */
+	public static MerkleTree build(Supplier<Hasher> hasherFactory, byte[][] leaves, ForkJoinPool pool) {
+		MerkleTree tree = new MerkleTree(hasherFactory, leaves.length);
+		if (leaves.length == 0) {
+			return tree;
+		}
+		tree.sizes[0] = leaves.length;
+		tree.hashLevel(pool, leaves, 0, leaves.length);
+		int level = 0;
+		while (tree.sizes[level] > 1) {
+			int parents = (tree.sizes[level] + 1) >>> 1;
+			tree.sizes[level + 1] = parents;
+			tree.hashLevel(pool, null, level, parents);
+			level++;
+		}
+		tree.top = level;
+		return tree;
+	}
+
+	/**
+	 * 哈希的长度；
+	 *
+	 * @return
+	 */
+	public int getHashSize() {
+		return hashSize;
+	}
+
+	/**
+	 * 叶子的数量；
+	 *
+	 * @return
+	 */
+	public int getLeafCount() {
+		return sizes[0];
+	}
+
+	/**
+	 * 根哈希；
+	 *
+	 * @return
+	 */
+	public byte[] getRoot() {
+		if (sizes[0] == 0) {
+			return emptyRoot.clone();
+		}
+		return Arrays.copyOf(levels[top], hashSize);
+	}
+
+	/**
+	 * 叶子的哈希；
+	 *
+	 * @param index 叶子的位置；
+	 * @return
+	 */
+	public byte[] getLeafHash(int index) {
+		checkIndex(index);
+		return copyNode(0, index);
+	}
+
+	/**
+	 * 追加叶子；
+	 *
+	 * @param data 叶子的数据；
+	 * @return 叶子的位置；
+	 */
+	public int append(byte[] data) {
+		int index = sizes[0];
+		ensureCapacity(index + 1);
+		hashLeaf(hasher, data, index);
+		sizes[0] = index + 1;
+		updatePath(index);
+		return index;
+	}
+
+	/**
+	 * 修改叶子；
+	 *
+	 * @param index 叶子的位置；
+	 * @param data  叶子的新数据；
+	 */
+	public void update(int index, byte[] data) {
+		checkIndex(index);
+		hashLeaf(hasher, data, index);
+		updatePath(index);
+	}
+
+	/**
+	 * 生成叶子的包含证明；
+	 *
+	 * @param index 叶子的位置；
+	 * @return
+	 */
+	public MerkleProof getProof(int index) {
+		checkIndex(index);
+		List<byte[]> path = new ArrayList<byte[]>();
+		int position = index;
+		for (int level = 0; sizes[level] > 1; level++) {
+			int sibling = position ^ 1;
+			if (sibling < sizes[level]) {
+				path.add(copyNode(level, sibling));
+			}
+			position >>>= 1;
+		}
+		return new MerkleProof(index, sizes[0], path.toArray(new byte[path.size()][]));
+	}
+
+	/**
+	 * 验证包含证明；
+	 *
+	 * @param hasherFactory 哈希计算器的工厂；必须与生成证明的树一致；
+	 * @param root          根哈希；
+	 * @param data          叶子的数据；
+	 * @param proof         包含证明；
+	 * @return 叶子包含在根哈希对应的树中时返回 true；
+	 */
+	public static boolean verify(Supplier<Hasher> hasherFactory, byte[] root, byte[] data, MerkleProof proof) {
+		Hasher hasher = hasherFactory.get();
+		hasher.update(LEAF_PREFIX);
+		hasher.update(data);
+		byte[] hash = hasher.complete();
+
+		byte[][] path = proof.getPath();
+		int position = proof.getIndex();
+		int size = proof.getLeafCount();
+		int step = 0;
+		while (size > 1) {
+			if ((position ^ 1) < size) {
+				if (step == path.length) {
+					return false;
+				}
+				hasher.update(NODE_PREFIX);
+				if ((position & 1) == 0) {
+					hasher.update(hash);
+					hasher.update(path[step]);
+				} else {
+					hasher.update(path[step]);
+					hasher.update(hash);
+				}
+				hash = hasher.complete();
+				step++;
+			}
+			position >>>= 1;
+			size = (size + 1) >>> 1;
+		}
+		return step == path.length && Arrays.equals(hash, root);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= sizes[0]) {
+			throw new IndexOutOfBoundsException("Leaf index: " + index + ", Leaf count: " + sizes[0]);
+		}
+	}
+
+	private byte[] copyNode(int level, int position) {
+		int offset = position * hashSize;
+		return Arrays.copyOfRange(levels[level], offset, offset + hashSize);
+	}
+
+	/**
+	 * 重新计算从指定叶子到根的路径；
+	 */
+	private void updatePath(int index) {
+		int position = index;
+		int level = 0;
+		while (sizes[level] > 1) {
+			int parent = position >>> 1;
+			sizes[level + 1] = (sizes[level] + 1) >>> 1;
+			hashNode(hasher, level, parent);
+			position = parent;
+			level++;
+		}
+		top = level;
+	}
+
+	private void hashLeaf(Hasher hasher, byte[] data, int index) {
+		hasher.update(LEAF_PREFIX);
+		hasher.update(data);
+		byte[] hash = hasher.complete();
+		System.arraycopy(hash, 0, levels[0], index * hashSize, hashSize);
+	}
+
+	/**
+	 * 计算上一层的节点；没有右侧兄弟的节点原样提升；
+	 */
+	private void hashNode(Hasher hasher, int level, int parent) {
+		byte[] children = levels[level];
+		int left = parent << 1;
+		if (left + 1 < sizes[level]) {
+			hasher.update(NODE_PREFIX);
+			hasher.update(children, left * hashSize, hashSize << 1);
+			byte[] hash = hasher.complete();
+			System.arraycopy(hash, 0, levels[level + 1], parent * hashSize, hashSize);
+		} else {
+			System.arraycopy(children, left * hashSize, levels[level + 1], parent * hashSize, hashSize);
+		}
+	}
+
+	/**
+	 * 计算一层节点；
+	 *
+	 * @param pool   线程池；
+	 * @param leaves 叶子的数据；计算叶子层时不为 null；
+	 * @param level  计算叶子层时为 0，否则为子节点所在的层；
+	 * @param count  要计算的节点数；
+	 */
+	private void hashLevel(ForkJoinPool pool, byte[][] leaves, int level, int count) {
+		if (count <= PARALLEL_THRESHOLD) {
+			hashRange(hasher, leaves, level, 0, count);
+		} else {
+			pool.invoke(new HashTask(leaves, level, 0, count));
+		}
+	}
+
+	private void hashRange(Hasher hasher, byte[][] leaves, int level, int from, int to) {
+		if (leaves != null) {
+			for (int i = from; i < to; i++) {
+				hashLeaf(hasher, leaves[i], i);
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				hashNode(hasher, level, i);
+			}
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		int current = levels.length == 0 ? 0 : levels[0].length / hashSize;
+		if (capacity <= current) {
+			return;
+		}
+		long newCapacity = Math.max(capacity, current + (current >> 1));
+		long maxCapacity = MAX_ARRAY_SIZE / hashSize;
+		if (newCapacity > maxCapacity) {
+			if (capacity > maxCapacity) {
+				throw new IllegalStateException("The number of leaves exceeds the max capacity " + maxCapacity + "!");
+			}
+			newCapacity = maxCapacity;
+		}
+
+		int levelCount = 1;
+		for (long n = newCapacity; n > 1; n = (n + 1) >>> 1) {
+			levelCount++;
+		}
+		byte[][] newLevels = new byte[levelCount][];
+		long levelCapacity = newCapacity;
+		for (int i = 0; i < levelCount; i++) {
+			int length = (int) (levelCapacity * hashSize);
+			newLevels[i] = i < levels.length ? Arrays.copyOf(levels[i], length) : new byte[length];
+			levelCapacity = (levelCapacity + 1) >>> 1;
+		}
+		levels = newLevels;
+		sizes = Arrays.copyOf(sizes, levelCount);
+	}
+
+	/**
+	 * 并行计算一层节点的任务；
+	 */
+	private class HashTask extends RecursiveAction {
+
+		private static final long serialVersionUID = -2360470420232476158L;
+
+		private final byte[][] leaves;
+
+		private final int level;
+
+		private final int from;
+
+		private final int to;
+
+		public HashTask(byte[][] leaves, int level, int from, int to) {
+			this.leaves = leaves;
+			this.level = level;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > PARALLEL_THRESHOLD) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new HashTask(leaves, level, from, mid), new HashTask(leaves, level, mid, to));
+				return;
+			}
+			hashRange(hasherFactory.get(), leaves, level, from, to);
+		}
+	}
+}
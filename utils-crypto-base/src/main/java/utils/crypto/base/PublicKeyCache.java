@@ -0,0 +1,136 @@
+package utils.crypto.base;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 解码后的公钥的缓存；
+ * <p>
+ *
+ * 以公钥的原始字节为键，缓存经过解码和校验的公钥参数，避免对同一个公钥重复地解码；
+ * 少量的验证节点和账户的密钥产生了大部分签名，因此很小的缓存就能有很高的命中率；<br>
+ *
+ * 缓存采用固定容量的直接映射表：每个哈希槽只保存一个条目，新的条目直接覆盖旧条目；读写都不加锁，内存占用以容量为上限；
+ * 解码失败的公钥不会被缓存；
+ *
+ * @author huanghaiquan
+ *
+ * @param <K> 解码后的公钥的类型；
+ */
+public class PublicKeyCache<K> {
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private final Function<byte[], K> decoder;
+
+	private final AtomicReferenceArray<Entry<K>> entries;
+
+	private final int mask;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * @param capacity 缓存的最大条目数；实际容量会向上取整为 2 的幂；
+	 * @param decoder  公钥的解码器；公钥无效时应抛出异常；
+	 */
+	public PublicKeyCache(int capacity, Function<byte[], K> decoder) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity of cache is less than 1!");
+		}
+		if (decoder == null) {
+			throw new IllegalArgumentException("Decoder is null!");
+		}
+		int size = capacity >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit(capacity - 1) << 1;
+		if (size == 0) {
+			size = 1;
+		}
+		this.decoder = decoder;
+		this.entries = new AtomicReferenceArray<Entry<K>>(size);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * 缓存的容量；
+	 *
+	 * @return int
+	 */
+	public int getCapacity() {
+		return entries.length();
+	}
+
+	/**
+	 * 返回解码后的公钥；如果缓存未命中，则进行解码并写入缓存；
+	 *
+	 * @param publicKey 公钥的原始字节；
+	 * @return 解码后的公钥；
+	 */
+	public K get(byte[] publicKey) {
+		int hashCode = Arrays.hashCode(publicKey);
+		int index = indexOf(hashCode);
+		Entry<K> entry = entries.get(index);
+		if (entry != null && entry.hashCode == hashCode && Arrays.equals(entry.key, publicKey)) {
+			hits.increment();
+			return entry.value;
+		}
+		misses.increment();
+		K value = decoder.apply(publicKey);
+		if (value != null) {
+			entries.lazySet(index, new Entry<K>(publicKey.clone(), hashCode, value));
+		}
+		return value;
+	}
+
+	/**
+	 * 命中次数；
+	 *
+	 * @return long
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * 未命中次数；
+	 *
+	 * @return long
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * 清空缓存条目和统计数据；
+	 */
+	public void clear() {
+		for (int i = 0; i < entries.length(); i++) {
+			entries.set(i, null);
+		}
+		hits.reset();
+		misses.reset();
+	}
+
+	private int indexOf(int hashCode) {
+		return (hashCode ^ (hashCode >>> 16)) & mask;
+	}
+
+	private static class Entry<K> {
+
+		private final byte[] key;
+
+		private final int hashCode;
+
+		private final K value;
+
+		public Entry(byte[] key, int hashCode, K value) {
+			this.key = key;
+			this.hashCode = hashCode;
+			this.value = value;
+		}
+	}
+}
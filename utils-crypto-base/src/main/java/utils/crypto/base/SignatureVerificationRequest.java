@@ -0,0 +1,53 @@
+package utils.crypto.base;
+
+/**
+ * 一个待验证的签名；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public final class SignatureVerificationRequest {
+
+	private final String algorithm;
+
+	private final byte[] data;
+
+	private final byte[] publicKey;
+
+	private final byte[] signature;
+
+	/**
+	 * @param algorithm 签名算法的名称；对应于
+	 *                  {@link SignatureVerificationService#register(String, SignatureVerifier)}
+	 *                  注册的名称；
+	 * @param data      被签名的数据；
+	 * @param publicKey 公钥的编码；
+	 * @param signature 签名；
+	 */
+	public SignatureVerificationRequest(String algorithm, byte[] data, byte[] publicKey, byte[] signature) {
+		if (algorithm == null) {
+			throw new IllegalArgumentException("Algorithm is null!");
+		}
+		this.algorithm = algorithm;
+		this.data = data;
+		this.publicKey = publicKey;
+		this.signature = signature;
+	}
+
+	public String getAlgorithm() {
+		return algorithm;
+	}
+
+	public byte[] getData() {
+		return data;
+	}
+
+	public byte[] getPublicKey() {
+		return publicKey;
+	}
+
+	public byte[] getSignature() {
+		return signature;
+	}
+
+}
@@ -0,0 +1,269 @@
+package utils.crypto.base;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行的签名验证服务；
+ * <p>
+ * 
+ * 一批待验证的签名按算法分组，每组再划分为多个分段，在 {@link ForkJoinPool} 中以工作窃取的方式并行验证；
+ * 同一批次中相同的公钥只解码一次；<br>
+ * 
+ * 对于 {@link BatchSignatureVerifier}，每个分段通过一次批量验证完成；<br>
+ * 
+ * 验证过程中的异常（例如格式错误的公钥或签名）被视为验证失败；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public class SignatureVerificationService {
+
+	public static final int DEFAULT_CHUNK_SIZE = 64;
+
+	/**
+	 * 解码失败的公钥的标记；
+	 */
+	private static final Object INVALID_KEY = new Object();
+
+	private final Map<String, SignatureVerifier<?>> verifiers = new ConcurrentHashMap<>();
+
+	private final ForkJoinPool pool;
+
+	private final int chunkSize;
+
+	/**
+	 * 创建在公共 {@link ForkJoinPool} 中执行验证的服务；
+	 */
+	public SignatureVerificationService() {
+		this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param pool      执行验证的线程池；
+	 * @param chunkSize 每个分段的最大签名数量；
+	 */
+	public SignatureVerificationService(ForkJoinPool pool, int chunkSize) {
+		if (pool == null) {
+			throw new IllegalArgumentException("Pool is null!");
+		}
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("The chunk size is less than 1!");
+		}
+		this.pool = pool;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * 注册签名算法的验证器；同名的验证器被替换；
+	 * 
+	 * @param algorithm 算法名称；
+	 * @param verifier  验证器；
+	 */
+	public void register(String algorithm, SignatureVerifier<?> verifier) {
+		if (algorithm == null || verifier == null) {
+			throw new IllegalArgumentException("Algorithm or verifier is null!");
+		}
+		verifiers.put(algorithm, verifier);
+	}
+
+	public boolean isSupported(String algorithm) {
+		return verifiers.containsKey(algorithm);
+	}
+
+	/**
+	 * 验证一批签名；
+	 * 
+	 * @param requests 待验证的签名；
+	 * @return 验证结果；第 i 位为 1 表示第 i 个签名有效；
+	 * @throws IllegalArgumentException 存在未注册的签名算法时抛出；
+	 */
+	public BitSet verify(List<SignatureVerificationRequest> requests) {
+		return verify(requests.toArray(new SignatureVerificationRequest[requests.size()]));
+	}
+
+	/**
+	 * 验证一批签名；
+	 * 
+	 * @param requests 待验证的签名；
+	 * @return 验证结果；第 i 位为 1 表示第 i 个签名有效；
+	 * @throws IllegalArgumentException 存在未注册的签名算法时抛出；
+	 */
+	public BitSet verify(SignatureVerificationRequest... requests) {
+		// 按算法分组；
+		Map<String, IndexList> groups = new LinkedHashMap<>();
+		for (int i = 0; i < requests.length; i++) {
+			String algorithm = requests[i].getAlgorithm();
+			IndexList group = groups.get(algorithm);
+			if (group == null) {
+				if (!verifiers.containsKey(algorithm)) {
+					throw new IllegalArgumentException("Unsupported signature algorithm[" + algorithm + "]!");
+				}
+				group = new IndexList();
+				groups.put(algorithm, group);
+			}
+			group.add(i);
+		}
+
+		boolean[] results = new boolean[requests.length];
+		List<ChunkTask<?>> tasks = new ArrayList<>(groups.size());
+		for (Map.Entry<String, IndexList> group : groups.entrySet()) {
+			SignatureVerifier<?> verifier = verifiers.get(group.getKey());
+			IndexList indexes = group.getValue();
+			tasks.add(new ChunkTask<>(verifier, new ConcurrentHashMap<>(), requests, indexes.toArray(), 0,
+					indexes.size(), results));
+		}
+		if (requests.length <= chunkSize && tasks.size() == 1) {
+			// 数量少时直接在调用者线程中验证；
+			tasks.get(0).compute();
+		} else {
+			pool.invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					invokeAll(tasks);
+				}
+			});
+		}
+
+		BitSet bits = new BitSet(requests.length);
+		for (int i = 0; i < results.length; i++) {
+			if (results[i]) {
+				bits.set(i);
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * 验证一个算法分组中的一个范围；范围大于分段大小时一分为二；
+	 */
+	private class ChunkTask<K> extends RecursiveAction {
+
+		private static final long serialVersionUID = 6154315453627457375L;
+
+		private final SignatureVerifier<K> verifier;
+
+		private final Map<ByteBuffer, Object> keys;
+
+		private final SignatureVerificationRequest[] requests;
+
+		private final int[] indexes;
+
+		private final int from;
+
+		private final int to;
+
+		private final boolean[] results;
+
+		@SuppressWarnings("unchecked")
+		public ChunkTask(SignatureVerifier<?> verifier, Map<ByteBuffer, Object> keys,
+				SignatureVerificationRequest[] requests, int[] indexes, int from, int to, boolean[] results) {
+			this.verifier = (SignatureVerifier<K>) verifier;
+			this.keys = keys;
+			this.requests = requests;
+			this.indexes = indexes;
+			this.from = from;
+			this.to = to;
+			this.results = results;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > chunkSize) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ChunkTask<K>(verifier, keys, requests, indexes, from, mid, results),
+						new ChunkTask<K>(verifier, keys, requests, indexes, mid, to, results));
+				return;
+			}
+			if (verifier instanceof BatchSignatureVerifier) {
+				verifyBatch((BatchSignatureVerifier<K>) verifier);
+				return;
+			}
+			for (int i = from; i < to; i++) {
+				SignatureVerificationRequest request = requests[indexes[i]];
+				results[indexes[i]] = verify(request);
+			}
+		}
+
+		private void verifyBatch(BatchSignatureVerifier<K> batchVerifier) {
+			int n = to - from;
+			byte[][] data = new byte[n][];
+			byte[][] publicKeys = new byte[n][];
+			byte[][] signatures = new byte[n][];
+			for (int i = 0; i < n; i++) {
+				SignatureVerificationRequest request = requests[indexes[from + i]];
+				data[i] = request.getData();
+				publicKeys[i] = request.getPublicKey();
+				signatures[i] = request.getSignature();
+			}
+			boolean[] batchResults;
+			try {
+				batchResults = batchVerifier.verifyBatch(data, publicKeys, signatures);
+			} catch (RuntimeException e) {
+				batchResults = null;
+			}
+			for (int i = 0; i < n; i++) {
+				results[indexes[from + i]] = batchResults != null ? batchResults[i]
+						: verify(requests[indexes[from + i]]);
+			}
+		}
+
+		private boolean verify(SignatureVerificationRequest request) {
+			if (request.getData() == null || request.getPublicKey() == null || request.getSignature() == null) {
+				return false;
+			}
+			Object key = keys.computeIfAbsent(ByteBuffer.wrap(request.getPublicKey()), this::decode);
+			if (key == INVALID_KEY) {
+				return false;
+			}
+			try {
+				@SuppressWarnings("unchecked")
+				K publicKey = (K) key;
+				return verifier.verify(request.getData(), publicKey, request.getSignature());
+			} catch (RuntimeException e) {
+				return false;
+			}
+		}
+
+		private Object decode(ByteBuffer encodedKey) {
+			try {
+				Object key = verifier.decodePublicKey(encodedKey.array());
+				return key == null ? INVALID_KEY : key;
+			} catch (RuntimeException e) {
+				return INVALID_KEY;
+			}
+		}
+	}
+
+	private static class IndexList {
+
+		private int[] indexes = new int[16];
+
+		private int size;
+
+		public void add(int index) {
+			if (size == indexes.length) {
+				indexes = Arrays.copyOf(indexes, size << 1);
+			}
+			indexes[size++] = index;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public int[] toArray() {
+			return indexes;
+		}
+	}
+}
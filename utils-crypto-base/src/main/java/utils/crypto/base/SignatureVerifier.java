@@ -0,0 +1,34 @@
+package utils.crypto.base;
+
+/**
+ * 签名验证器；
+ * <p>
+ * 
+ * 公钥的解码与签名的验证分开，以便同一公钥解码后在多次验证之间复用；实现必须是线程安全的；
+ * 
+ * @author huanghaiquan
+ *
+ * @param <K> 解码后的公钥的类型；
+ */
+public interface SignatureVerifier<K> {
+
+	/**
+	 * 解码公钥；
+	 * 
+	 * @param publicKey 公钥的编码；
+	 * @return 解码后的公钥；
+	 * @throws RuntimeException 公钥的格式无效时抛出；
+	 */
+	K decodePublicKey(byte[] publicKey);
+
+	/**
+	 * 验证签名；
+	 * 
+	 * @param data      被签名的数据；
+	 * @param publicKey 解码后的公钥；
+	 * @param signature 签名；
+	 * @return
+	 */
+	boolean verify(byte[] data, K publicKey, byte[] signature);
+
+}
@@ -0,0 +1,143 @@
+package utils.crypto.base;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 流式的对称加密/解密；
+ * <p>
+ *
+ * 数据可以分多次通过 {@link #update(byte[], int, int, byte[], int)} 输入，最后调用 {@link #doFinal(byte[], int)}
+ * 结束；输入和输出可以是同一个数组的同一位置，即原地加密/解密；<br>
+ *
+ * 认证加密（例如 GCM）的解密在 doFinal 验证认证标签之前不输出任何明文：update 只缓存输入并返回 0，验证通过之后由 doFinal
+ * 输出全部明文，因此需要缓存整条消息，实现可以限制缓存的长度；认证失败时 doFinal 抛出 {@link utils.security.DecryptionException}，
+ * 不输出任何数据；<br>
+ *
+ * 一个实例只用于一次加密或解密，不是线程安全的；
+ *
+ * @author huanghaiquan
+ *
+ */
+public interface StreamingCipher {
+
+	/**
+	 * 流和堆外缓冲区分段处理数据时每段的最大长度；
+	 */
+	int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * 是否为加密；
+	 *
+	 * @return
+	 */
+	boolean isEncryption();
+
+	/**
+	 * 再输入指定长度的数据之后，下一次 update 或者 doFinal 的最大输出长度；
+	 *
+	 * @param inputLength
+	 * @return
+	 */
+	int getOutputSize(int inputLength);
+
+	/**
+	 * 再输入指定长度的数据时，下一次 update 的最大输出长度；
+	 * <p>
+	 *
+	 * 认证加密的解密在 update 时只缓存输入，此值可以远小于 {@link #getOutputSize(int)}；默认实现返回
+	 * {@link #getOutputSize(int)}；
+	 *
+	 * @param inputLength
+	 * @return
+	 */
+	default int getUpdateOutputSize(int inputLength) {
+		return getOutputSize(inputLength);
+	}
+
+	/**
+	 * 输入数据，并输出已经可以确定的结果；
+	 *
+	 * @param input     输入；
+	 * @param offset    输入的起始位置；
+	 * @param length    输入的长度；
+	 * @param output    输出缓冲区；剩余空间不能小于 {@link #getUpdateOutputSize(int)}；
+	 * @param outOffset 输出的起始位置；
+	 * @return 输出的字节数；
+	 */
+	int update(byte[] input, int offset, int length, byte[] output, int outOffset);
+
+	/**
+	 * 结束加密/解密，并输出剩余的结果；
+	 *
+	 * @param output    输出缓冲区；剩余空间不能小于 getOutputSize(0)；
+	 * @param outOffset 输出的起始位置；
+	 * @return 输出的字节数；
+	 */
+	int doFinal(byte[] output, int outOffset);
+
+	/**
+	 * 输入缓冲区中剩余的数据，并将结果写入输出缓冲区；
+	 * <p>
+	 *
+	 * 之后输入缓冲区的 position 等于 limit，输出缓冲区的 position 前进输出的字节数；原地处理时以同一缓冲区的
+	 * {@link ByteBuffer#duplicate()} 作为输出；
+	 *
+	 * @param input
+	 * @param output
+	 * @return 输出的字节数；
+	 */
+	default int update(ByteBuffer input, ByteBuffer output) {
+		int length = input.remaining();
+		if (output.remaining() < getUpdateOutputSize(length)) {
+			throw new IllegalArgumentException("The output buffer is too short!");
+		}
+		if (input.hasArray() && output.hasArray()) {
+			int count = update(input.array(), input.arrayOffset() + input.position(), length, output.array(),
+					output.arrayOffset() + output.position());
+			input.position(input.limit());
+			output.position(output.position() + count);
+			return count;
+		}
+		// 堆外缓冲区经由固定大小的数组分段处理；
+		int chunkSize = Math.min(length, BUFFER_SIZE);
+		byte[] in = new byte[chunkSize];
+		byte[] out = new byte[getUpdateOutputSize(chunkSize)];
+		int total = 0;
+		do {
+			int chunk = Math.min(chunkSize, input.remaining());
+			input.get(in, 0, chunk);
+			int outSize = getUpdateOutputSize(chunk);
+			if (out.length < outSize) {
+				out = new byte[outSize];
+			}
+			int count = update(in, 0, chunk, out, 0);
+			output.put(out, 0, count);
+			total += count;
+		} while (input.hasRemaining());
+		return total;
+	}
+
+	/**
+	 * 结束加密/解密，并将剩余的结果写入输出缓冲区；
+	 *
+	 * @param output
+	 * @return 输出的字节数；
+	 */
+	default int doFinal(ByteBuffer output) {
+		int size = getOutputSize(0);
+		if (output.remaining() < size) {
+			throw new IllegalArgumentException("The output buffer is too short!");
+		}
+		int count;
+		if (output.hasArray()) {
+			count = doFinal(output.array(), output.arrayOffset() + output.position());
+		} else {
+			byte[] out = new byte[size];
+			count = doFinal(out, 0);
+			output.duplicate().put(out, 0, count);
+		}
+		output.position(output.position() + count);
+		return count;
+	}
+
+}
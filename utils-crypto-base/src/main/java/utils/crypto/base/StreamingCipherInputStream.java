@@ -0,0 +1,121 @@
+package utils.crypto.base;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 读取时加密/解密的输入流；
+ * <p>
+ *
+ * 从底层输入流分段读取数据，经 {@link StreamingCipher} 处理后输出；读到底层输入流的结尾时调用 {@link StreamingCipher#doFinal(byte[], int)}，
+ * 认证失败等错误以加密/解密异常抛出；<br>
+ *
+ * 输出缓冲区按照每一段 update 的最大输出长度分配，与数据总长度无关；但认证加密的解密由 doFinal 一次输出全部明文，
+ * 此时输出缓冲区与整条消息一样大，加上 {@link StreamingCipher} 缓存的密文，共需约两倍于消息长度的内存；
+ *
+ * @author huanghaiquan
+ *
+ */
+public class StreamingCipherInputStream extends FilterInputStream {
+
+	private final StreamingCipher cipher;
+
+	private final byte[] inBuffer = new byte[StreamingCipher.BUFFER_SIZE];
+
+	private byte[] outBuffer = new byte[0];
+
+	private int outPosition;
+
+	private int outLimit;
+
+	private boolean finished;
+
+	public StreamingCipherInputStream(InputStream in, StreamingCipher cipher) {
+		super(in);
+		this.cipher = cipher;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (outPosition == outLimit && !fill()) {
+			return -1;
+		}
+		return outBuffer[outPosition++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (outPosition == outLimit && !fill()) {
+			return -1;
+		}
+		int count = Math.min(len, outLimit - outPosition);
+		System.arraycopy(outBuffer, outPosition, b, off, count);
+		outPosition += count;
+		return count;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = 0;
+		while (skipped < n && (outPosition < outLimit || fill())) {
+			int count = (int) Math.min(n - skipped, outLimit - outPosition);
+			outPosition += count;
+			skipped += count;
+		}
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return outLimit - outPosition;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("Mark/reset is not supported!");
+	}
+
+	/**
+	 * 读取并处理下一段数据；
+	 *
+	 * @return 没有更多输出时返回 false；
+	 */
+	private boolean fill() throws IOException {
+		while (!finished) {
+			int length = in.read(inBuffer);
+			outPosition = 0;
+			if (length < 0) {
+				finished = true;
+				ensureOutput(cipher.getOutputSize(0));
+				outLimit = cipher.doFinal(outBuffer, 0);
+			} else {
+				ensureOutput(cipher.getUpdateOutputSize(length));
+				outLimit = cipher.update(inBuffer, 0, length, outBuffer, 0);
+			}
+			if (outLimit > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void ensureOutput(int size) {
+		if (outBuffer.length < size) {
+			outBuffer = new byte[size];
+		}
+	}
+
+}
@@ -0,0 +1,87 @@
+package utils.crypto.base;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 写入时加密/解密的输出流；
+ * <p>
+ *
+ * 写入的数据经 {@link StreamingCipher} 处理后写入底层输出流；调用 {@link #finish()} 或 {@link #close()} 时结束加密/解密，
+ * 认证失败等错误以加密/解密异常抛出；<br>
+ *
+ * 输出缓冲区按照每一段 update 的最大输出长度分配，与数据总长度无关；但认证加密的解密由 doFinal 一次输出全部明文，
+ * 此时输出缓冲区与整条消息一样大，加上 {@link StreamingCipher} 缓存的密文，共需约两倍于消息长度的内存；
+ *
+ * @author huanghaiquan
+ *
+ */
+public class StreamingCipherOutputStream extends FilterOutputStream {
+
+	private final StreamingCipher cipher;
+
+	private final byte[] single = new byte[1];
+
+	private byte[] outBuffer = new byte[0];
+
+	private boolean finished;
+
+	public StreamingCipherOutputStream(OutputStream out, StreamingCipher cipher) {
+		super(out);
+		this.cipher = cipher;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		single[0] = (byte) b;
+		write(single, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (finished) {
+			throw new IOException("The stream has been finished!");
+		}
+		while (len > 0) {
+			int length = Math.min(len, StreamingCipher.BUFFER_SIZE);
+			ensureOutput(cipher.getUpdateOutputSize(length));
+			int count = cipher.update(b, off, length, outBuffer, 0);
+			out.write(outBuffer, 0, count);
+			off += length;
+			len -= length;
+		}
+	}
+
+	/**
+	 * 结束加密/解密，并写出剩余的结果；不关闭底层输出流；
+	 *
+	 * @throws IOException
+	 */
+	public void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		ensureOutput(cipher.getOutputSize(0));
+		int count = cipher.doFinal(outBuffer, 0);
+		out.write(outBuffer, 0, count);
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			finish();
+		} finally {
+			out.close();
+		}
+	}
+
+	private void ensureOutput(int size) {
+		if (outBuffer.length < size) {
+			outBuffer = new byte[size];
+		}
+	}
+
+}
@@ -0,0 +1,421 @@
+package utils.crypto.classic;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.spec.AlgorithmParameterSpec;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import utils.crypto.base.DRBGUtils;
+import utils.crypto.base.StreamingCipher;
+import utils.crypto.base.StreamingCipherInputStream;
+import utils.crypto.base.StreamingCipherOutputStream;
+import utils.security.DecryptionException;
+import utils.security.EncryptionException;
+
+/**
+ * 基于 JCE {@link Cipher} 的 AES-GCM 认证加密和 AES-CTR 加密；
+ * <p>
+ *
+ * JCE 的 AES 实现由 JVM 以 AES-NI 等硬件指令加速，不再逐块调用纯 Java 实现的分组密码；GCM 的 GHASH 是否加速取决于 JDK 的版本；<br>
+ *
+ * 静态方法使用每个线程各自缓存的 {@link Cipher} 实例，每次调用只需以密钥和 IV 重新初始化，可以直接将结果写入调用者的缓冲区，
+ * 输入和输出可以是同一个数组（原地加密/解密），此时输出缓冲区需为 GCM 的认证标签留出空间；<br>
+ *
+ * 实例用于一条消息的流式加密/解密，可以分多次输入 byte 数组或 {@link ByteBuffer}，也可以通过 {@link #wrap(InputStream)}
+ * 和 {@link #wrap(OutputStream)} 包装为输入/输出流；实例不是线程安全的；<br>
+ *
+ * 注意：GCM 解密时，JCE 在认证标签验证通过之前不会输出任何明文，因此全部密文会缓存到 doFinal 时一次输出；
+ * 需要流式解密超大的数据时应使用 CTR 模式并另行认证，或者将数据分块后逐块以 GCM 加密；<br>
+ *
+ * GCM 模式下同一个密钥不能重复使用同一个 IV；使用缓存的实例以相同的密钥和 IV 连续加密时 JCE 会拒绝初始化；
+ *
+ * @author huanghaiquan
+ *
+ */
+public final class AESCipher implements StreamingCipher {
+
+	/**
+	 * GCM 模式推荐的 IV 长度；
+	 */
+	public static final int GCM_IV_SIZE = 12;
+
+	/**
+	 * GCM 模式的认证标签长度；
+	 */
+	public static final int GCM_TAG_SIZE = 16;
+
+	/**
+	 * CTR 模式的 IV（初始计数器）长度；
+	 */
+	public static final int CTR_IV_SIZE = 16;
+
+	public static enum Mode {
+
+		/**
+		 * 认证加密；密文之后附加 {@link AESCipher#GCM_TAG_SIZE} 字节的认证标签；
+		 */
+		GCM("AES/GCM/NoPadding", GCM_IV_SIZE, GCM_TAG_SIZE),
+
+		/**
+		 * 计数器模式；密文与明文等长，不提供完整性保护；
+		 */
+		CTR("AES/CTR/NoPadding", CTR_IV_SIZE, 0);
+
+		private final String transformation;
+
+		private final int ivSize;
+
+		private final int tagSize;
+
+		private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(this::newCipher);
+
+		private Mode(String transformation, int ivSize, int tagSize) {
+			this.transformation = transformation;
+			this.ivSize = ivSize;
+			this.tagSize = tagSize;
+		}
+
+		public int getIvSize() {
+			return ivSize;
+		}
+
+		public int getTagSize() {
+			return tagSize;
+		}
+
+		private Cipher newCipher() {
+			try {
+				return Cipher.getInstance(transformation);
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException("The cipher[" + transformation + "] is not supported!", e);
+			}
+		}
+
+		private AlgorithmParameterSpec parameters(byte[] iv) {
+			if (this == GCM) {
+				return new GCMParameterSpec(tagSize * 8, iv);
+			}
+			return new IvParameterSpec(iv);
+		}
+	}
+
+	private final Mode mode;
+
+	private final boolean encryption;
+
+	private final Cipher cipher;
+
+	private AESCipher(Mode mode, boolean encryption, byte[] secretKey, byte[] iv) {
+		this.mode = mode;
+		this.encryption = encryption;
+		this.cipher = mode.newCipher();
+		init(cipher, mode, encryption, secretKey, iv);
+	}
+
+	/**
+	 * 创建流式加密的实例；
+	 *
+	 * @param mode      模式；
+	 * @param secretKey 密钥；16、24 或 32 字节；
+	 * @param iv        初始向量；长度为 {@link Mode#getIvSize()}；
+	 * @return
+	 */
+	public static AESCipher encryptor(Mode mode, byte[] secretKey, byte[] iv) {
+		return new AESCipher(mode, true, secretKey, iv);
+	}
+
+	/**
+	 * 创建流式解密的实例；
+	 *
+	 * @param mode      模式；
+	 * @param secretKey 密钥；16、24 或 32 字节；
+	 * @param iv        初始向量；长度为 {@link Mode#getIvSize()}；
+	 * @return
+	 */
+	public static AESCipher decryptor(Mode mode, byte[] secretKey, byte[] iv) {
+		return new AESCipher(mode, false, secretKey, iv);
+	}
+
+	/**
+	 * 生成随机的初始向量；
+	 *
+	 * @param mode
+	 * @return
+	 */
+	public static byte[] generateIv(Mode mode) {
+		byte[] iv = new byte[mode.ivSize];
+		DRBGUtils.getDefaultRandom().nextBytes(iv);
+		return iv;
+	}
+
+	/**
+	 * 计算 {@link #encrypt(Mode, byte[], byte[])} 输出的长度；包括初始向量和认证标签；
+	 *
+	 * @param mode
+	 * @param plaintextSize
+	 * @return
+	 */
+	public static int getCiphertextSize(Mode mode, int plaintextSize) {
+		return mode.ivSize + plaintextSize + mode.tagSize;
+	}
+
+	/**
+	 * 采用随机的初始向量加密；
+	 * <p>
+	 *
+	 * 输出结果为 IV || 密文；GCM 模式下密文之后附加认证标签；
+	 *
+	 * @param mode       模式；
+	 * @param plainBytes 明文；
+	 * @param secretKey  密钥；
+	 * @return
+	 */
+	public static byte[] encrypt(Mode mode, byte[] plainBytes, byte[] secretKey) {
+		return encrypt(mode, plainBytes, 0, plainBytes.length, secretKey);
+	}
+
+	/**
+	 * 采用随机的初始向量加密；
+	 * <p>
+	 *
+	 * 输出结果为 IV || 密文；GCM 模式下密文之后附加认证标签；
+	 *
+	 * @param mode       模式；
+	 * @param plainBytes 明文；
+	 * @param offset     明文的起始位置；
+	 * @param length     明文的长度；
+	 * @param secretKey  密钥；
+	 * @return
+	 */
+	public static byte[] encrypt(Mode mode, byte[] plainBytes, int offset, int length, byte[] secretKey) {
+		byte[] iv = generateIv(mode);
+		byte[] output = new byte[getCiphertextSize(mode, length)];
+		System.arraycopy(iv, 0, output, 0, iv.length);
+		encrypt(mode, secretKey, iv, null, plainBytes, offset, length, output, iv.length);
+		return output;
+	}
+
+	/**
+	 * 解密 {@link #encrypt(Mode, byte[], byte[])} 的输出；
+	 *
+	 * @param mode        模式；
+	 * @param cipherBytes IV || 密文；
+	 * @param secretKey   密钥；
+	 * @return 明文；
+	 */
+	public static byte[] decrypt(Mode mode, byte[] cipherBytes, byte[] secretKey) {
+		return decrypt(mode, cipherBytes, 0, cipherBytes.length, secretKey);
+	}
+
+	/**
+	 * 解密 {@link #encrypt(Mode, byte[], byte[])} 的输出；
+	 *
+	 * @param mode        模式；
+	 * @param cipherBytes IV || 密文；
+	 * @param offset      起始位置；
+	 * @param length      长度；
+	 * @param secretKey   密钥；
+	 * @return 明文；
+	 */
+	public static byte[] decrypt(Mode mode, byte[] cipherBytes, int offset, int length, byte[] secretKey) {
+		if (length < mode.ivSize + mode.tagSize) {
+			throw new DecryptionException("ciphertext's length is wrong!");
+		}
+		byte[] iv = new byte[mode.ivSize];
+		System.arraycopy(cipherBytes, offset, iv, 0, iv.length);
+		byte[] output = new byte[length - mode.ivSize - mode.tagSize];
+		decrypt(mode, secretKey, iv, null, cipherBytes, offset + iv.length, length - iv.length, output, 0);
+		return output;
+	}
+
+	/**
+	 * 以当前线程缓存的 {@link Cipher} 加密，并将密文写入指定的缓冲区；
+	 * <p>
+	 *
+	 * 输入和输出可以是同一个数组；
+	 *
+	 * @param mode      模式；
+	 * @param secretKey 密钥；
+	 * @param iv        初始向量；
+	 * @param aad       附加认证数据；仅用于 GCM 模式，可以为 null；
+	 * @param input     明文；
+	 * @param offset    明文的起始位置；
+	 * @param length    明文的长度；
+	 * @param output    输出缓冲区；剩余空间不能小于明文长度加上认证标签的长度；
+	 * @param outOffset 输出的起始位置；
+	 * @return 写入的字节数；
+	 */
+	public static int encrypt(Mode mode, byte[] secretKey, byte[] iv, byte[] aad, byte[] input, int offset,
+			int length, byte[] output, int outOffset) {
+		return process(mode, true, secretKey, iv, aad, input, offset, length, output, outOffset);
+	}
+
+	/**
+	 * 以当前线程缓存的 {@link Cipher} 解密，并将明文写入指定的缓冲区；
+	 * <p>
+	 *
+	 * 输入和输出可以是同一个数组；GCM 模式下认证失败时抛出 {@link DecryptionException}，输出缓冲区不会写入明文；
+	 *
+	 * @param mode      模式；
+	 * @param secretKey 密钥；
+	 * @param iv        初始向量；
+	 * @param aad       附加认证数据；仅用于 GCM 模式，可以为 null；
+	 * @param input     密文；GCM 模式下包括末尾的认证标签；
+	 * @param offset    密文的起始位置；
+	 * @param length    密文的长度；
+	 * @param output    输出缓冲区；
+	 * @param outOffset 输出的起始位置；
+	 * @return 写入的字节数；
+	 */
+	public static int decrypt(Mode mode, byte[] secretKey, byte[] iv, byte[] aad, byte[] input, int offset,
+			int length, byte[] output, int outOffset) {
+		return process(mode, false, secretKey, iv, aad, input, offset, length, output, outOffset);
+	}
+
+	private static int process(Mode mode, boolean encryption, byte[] secretKey, byte[] iv, byte[] aad, byte[] input,
+			int offset, int length, byte[] output, int outOffset) {
+		Cipher cipher = mode.ciphers.get();
+		init(cipher, mode, encryption, secretKey, iv);
+		if (aad != null) {
+			updateAAD(cipher, mode, aad, 0, aad.length);
+		}
+		try {
+			return cipher.doFinal(input, offset, length, output, outOffset);
+		} catch (ShortBufferException e) {
+			throw new IllegalArgumentException("The output buffer is too short!", e);
+		} catch (GeneralSecurityException e) {
+			throw error(encryption, e);
+		}
+	}
+
+	private static void init(Cipher cipher, Mode mode, boolean encryption, byte[] secretKey, byte[] iv) {
+		if (secretKey.length != 16 && secretKey.length != 24 && secretKey.length != 32) {
+			throw error(encryption, "secretKey's length is wrong!", null);
+		}
+		if (iv.length != mode.ivSize) {
+			throw error(encryption, "iv's length is wrong!", null);
+		}
+		try {
+			cipher.init(encryption ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, new SecretKeySpec(secretKey, "AES"),
+					mode.parameters(iv));
+		} catch (GeneralSecurityException e) {
+			throw error(encryption, e);
+		}
+	}
+
+	private static void updateAAD(Cipher cipher, Mode mode, byte[] aad, int offset, int length) {
+		if (mode != Mode.GCM) {
+			throw new IllegalStateException("Additional authenticated data is only supported in GCM mode!");
+		}
+		cipher.updateAAD(aad, offset, length);
+	}
+
+	private static RuntimeException error(boolean encryption, GeneralSecurityException cause) {
+		if (cause instanceof AEADBadTagException) {
+			return new DecryptionException("Authentication failed!", cause);
+		}
+		return error(encryption, cause.getMessage(), cause);
+	}
+
+	private static RuntimeException error(boolean encryption, String message, Throwable cause) {
+		return encryption ? new EncryptionException(message, cause) : new DecryptionException(message, cause);
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	@Override
+	public boolean isEncryption() {
+		return encryption;
+	}
+
+	/**
+	 * 输入附加认证数据；仅用于 GCM 模式，必须在输入数据之前调用；
+	 *
+	 * @param aad
+	 */
+	public void updateAAD(byte[] aad) {
+		updateAAD(aad, 0, aad.length);
+	}
+
+	/**
+	 * 输入附加认证数据；仅用于 GCM 模式，必须在输入数据之前调用；
+	 *
+	 * @param aad
+	 * @param offset
+	 * @param length
+	 */
+	public void updateAAD(byte[] aad, int offset, int length) {
+		updateAAD(cipher, mode, aad, offset, length);
+	}
+
+	@Override
+	public int getOutputSize(int inputLength) {
+		return cipher.getOutputSize(inputLength);
+	}
+
+	@Override
+	public int update(byte[] input, int offset, int length, byte[] output, int outOffset) {
+		try {
+			return cipher.update(input, offset, length, output, outOffset);
+		} catch (ShortBufferException e) {
+			throw new IllegalArgumentException("The output buffer is too short!", e);
+		}
+	}
+
+	/**
+	 * 输入缓冲区中剩余的数据；
+	 * <p>
+	 *
+	 * 直接由 JCE 处理，堆外缓冲区不经过复制；原地处理时以同一缓冲区的 {@link ByteBuffer#duplicate()} 作为输出；
+	 */
+	@Override
+	public int update(ByteBuffer input, ByteBuffer output) {
+		try {
+			return cipher.update(input, output);
+		} catch (ShortBufferException e) {
+			throw new IllegalArgumentException("The output buffer is too short!", e);
+		}
+	}
+
+	@Override
+	public int doFinal(byte[] output, int outOffset) {
+		try {
+			return cipher.doFinal(output, outOffset);
+		} catch (ShortBufferException e) {
+			throw new IllegalArgumentException("The output buffer is too short!", e);
+		} catch (GeneralSecurityException e) {
+			throw error(encryption, e);
+		}
+	}
+
+	/**
+	 * 包装输入流；从返回的输入流读出的是底层输入流中的数据加密/解密的结果；
+	 *
+	 * @param in
+	 * @return
+	 */
+	public StreamingCipherInputStream wrap(InputStream in) {
+		return new StreamingCipherInputStream(in, this);
+	}
+
+	/**
+	 * 包装输出流；写入返回的输出流的数据加密/解密后写入底层输出流；
+	 *
+	 * @param out
+	 * @return
+	 */
+	public StreamingCipherOutputStream wrap(OutputStream out) {
+		return new StreamingCipherOutputStream(out, this);
+	}
+
+}
@@ -0,0 +1,91 @@
+package utils.crypto.classic;
+
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
+import org.bouncycastle.crypto.params.RSAKeyParameters;
+
+import utils.crypto.base.BatchSignatureVerifier;
+import utils.crypto.base.SignatureVerificationService;
+import utils.crypto.base.SignatureVerifier;
+
+/**
+ * ECDSA、RSA 和 ED25519 算法的签名验证器；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public abstract class ClassicSignatureVerifiers {
+
+	public static final String ECDSA_ALGORITHM = "ECDSA";
+
+	public static final String RSA_ALGORITHM = "RSA";
+
+	public static final String ED25519_ALGORITHM = "ED25519";
+
+	/**
+	 * ECDSA（secp256r1，SHA256）签名验证器；公钥采用 {@link ECDSAUtils} 的原始编码；
+	 */
+	public static final SignatureVerifier<ECPublicKeyParameters> ECDSA = new SignatureVerifier<ECPublicKeyParameters>() {
+
+		@Override
+		public ECPublicKeyParameters decodePublicKey(byte[] publicKey) {
+			return ECDSAUtils.getPublicKeyCache().get(publicKey);
+		}
+
+		@Override
+		public boolean verify(byte[] data, ECPublicKeyParameters publicKey, byte[] signature) {
+			return ECDSAUtils.verify(data, publicKey, signature);
+		}
+	};
+
+	/**
+	 * RSA（SHA256）签名验证器；公钥采用 {@link RSAUtils} 的原始编码；
+	 */
+	public static final SignatureVerifier<RSAKeyParameters> RSA = new SignatureVerifier<RSAKeyParameters>() {
+
+		@Override
+		public RSAKeyParameters decodePublicKey(byte[] publicKey) {
+			return RSAUtils.getPublicKeyCache().get(publicKey);
+		}
+
+		@Override
+		public boolean verify(byte[] data, RSAKeyParameters publicKey, byte[] signature) {
+			return RSAUtils.verify(data, publicKey, signature);
+		}
+	};
+
+	/**
+	 * ED25519 签名验证器；批量验证时采用 {@link ED25519Utils#verifyBatch(byte[][], byte[][], byte[][])}
+	 * 的随机化批量验证，但不再另外并行，由调用者负责分段并行；
+	 */
+	public static final BatchSignatureVerifier<Ed25519PublicKeyParameters> ED25519 = new BatchSignatureVerifier<Ed25519PublicKeyParameters>() {
+
+		@Override
+		public Ed25519PublicKeyParameters decodePublicKey(byte[] publicKey) {
+			return ED25519Utils.getPublicKeyCache().get(publicKey);
+		}
+
+		@Override
+		public boolean verify(byte[] data, Ed25519PublicKeyParameters publicKey, byte[] signature) {
+			return ED25519Utils.verify(data, publicKey, signature);
+		}
+
+		@Override
+		public boolean[] verifyBatch(byte[][] data, byte[][] publicKeys, byte[][] signatures) {
+			boolean[] results = new boolean[data.length];
+			ED25519Utils.verifyChunk(data, publicKeys, signatures, 0, data.length, results);
+			return results;
+		}
+	};
+
+	/**
+	 * 向签名验证服务注册 ECDSA、RSA 和 ED25519 的验证器；
+	 * 
+	 * @param service
+	 */
+	public static void registerTo(SignatureVerificationService service) {
+		service.register(ECDSA_ALGORITHM, ECDSA);
+		service.register(RSA_ALGORITHM, RSA);
+		service.register(ED25519_ALGORITHM, ED25519);
+	}
+}
@@ -0,0 +1,127 @@
+package utils.crypto.classic;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ParametersWithRandom;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+
+import utils.crypto.base.DRBGUtils;
+import utils.crypto.base.ECPrecomputeUtils;
+
+/**
+ * 可重复使用的 ECDSA 签名上下文；
+ * <p>
+ *
+ * 上下文持有解析后的私钥和已经初始化的签名器，每次签名只需计算消息的 SHA256 摘要和签名本身，并直接输出 r || s；<br>
+ *
+ * 上下文不是线程安全的，应由单个线程持有；需要并发签名时每个线程各自创建上下文；<br>
+ *
+ * 生成的签名与 {@link ECDSAUtils#sign(byte[], byte[])} 的格式相同，可以用 {@link ECDSAUtils} 的验签方法验证；
+ *
+ * @author huanghaiquan
+ *
+ */
+public final class ECDSASigningContext {
+
+	public static final int SIGNATURE_SIZE = ECDSAUtils.R_SIZE + ECDSAUtils.S_SIZE;
+
+	private final byte[] publicKey;
+
+	private final ECDSASigner signer = new ECDSASigner();
+
+	private final SHA256Digest digest = new SHA256Digest();
+
+	private final byte[] hash = new byte[digest.getDigestSize()];
+
+	/**
+	 * 以当前线程的 DRBG 创建签名上下文；
+	 *
+	 * @param privateKey 私钥；
+	 */
+	public ECDSASigningContext(byte[] privateKey) {
+		this(privateKey, DRBGUtils.getDefaultRandom());
+	}
+
+	/**
+	 * 创建签名上下文；
+	 *
+	 * @param privateKey 私钥；
+	 * @param random     随机数生成器；
+	 */
+	public ECDSASigningContext(byte[] privateKey, SecureRandom random) {
+		BigInteger d = new BigInteger(1, privateKey);
+		BigInteger n = ECDSAUtils.DOMAIN_PARAMS.getN();
+		if (d.signum() == 0 || d.compareTo(n) >= 0) {
+			throw new IllegalArgumentException("The private key is out of range!");
+		}
+		this.publicKey = ECPrecomputeUtils.multiplyFixedBase(ECDSAUtils.getBasePoint(), d).getEncoded(false);
+		signer.init(true, new ParametersWithRandom(new ECPrivateKeyParameters(d, ECDSAUtils.DOMAIN_PARAMS), random));
+	}
+
+	/**
+	 * 公钥；
+	 *
+	 * @return
+	 */
+	public byte[] getPublicKey() {
+		return publicKey.clone();
+	}
+
+	/**
+	 * 签名；
+	 *
+	 * @param data 要签名的数据；
+	 * @return r || s；
+	 */
+	public byte[] sign(byte[] data) {
+		return sign(data, 0, data.length);
+	}
+
+	/**
+	 * 签名；
+	 *
+	 * @param data   要签名的数据；
+	 * @param offset 数据的起始位置；
+	 * @param length 数据的长度；
+	 * @return r || s；
+	 */
+	public byte[] sign(byte[] data, int offset, int length) {
+		byte[] signature = new byte[SIGNATURE_SIZE];
+		sign(data, offset, length, signature, 0);
+		return signature;
+	}
+
+	/**
+	 * 签名，并将 r || s 写入指定的缓冲区；
+	 *
+	 * @param data      要签名的数据；
+	 * @param offset    数据的起始位置；
+	 * @param length    数据的长度；
+	 * @param signature 签名的输出缓冲区；
+	 * @param sigOffset 签名的写入位置；
+	 * @return 写入的字节数；即 {@link #SIGNATURE_SIZE}；
+	 */
+	public int sign(byte[] data, int offset, int length, byte[] signature, int sigOffset) {
+		digest.update(data, offset, length);
+		digest.doFinal(hash, 0);
+		BigInteger[] rs = signer.generateSignature(hash);
+
+		writeScalar(rs[0], signature, sigOffset, ECDSAUtils.R_SIZE);
+		writeScalar(rs[1], signature, sigOffset + ECDSAUtils.R_SIZE, ECDSAUtils.S_SIZE);
+		return SIGNATURE_SIZE;
+	}
+
+	private static void writeScalar(BigInteger value, byte[] output, int offset, int size) {
+		byte[] bytes = value.toByteArray();
+		int start = bytes.length > size ? bytes.length - size : 0;
+		int count = bytes.length - start;
+		int padding = size - count;
+		for (int i = 0; i < padding; i++) {
+			output[offset + i] = 0;
+		}
+		System.arraycopy(bytes, start, output, offset + padding, count);
+	}
+}
@@ -17,6 +17,10 @@ import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
 import org.bouncycastle.math.ec.ECCurve;
 import org.bouncycastle.math.ec.ECPoint;
 
+import utils.crypto.base.DRBGUtils;
+import utils.crypto.base.ECPrecomputeUtils;
+import utils.crypto.base.PublicKeyCache;
+
 /**
  * @author zhanglin33
  * @title: ECDSAUtils
@@ -35,6 +39,30 @@ public class ECDSAUtils {
 	public static final ECDomainParameters DOMAIN_PARAMS = new ECDomainParameters(CURVE, PARAMS.getG(), PARAMS.getN(),
 			PARAMS.getH());
 
+	/**
+	 * 域参数的基点，附带定点乘法的梳状表；
+	 * <p>
+	 * 
+	 * 表在首次取用基点时构建，之后不再重复构建；基点即 {@link #DOMAIN_PARAMS} 的基点对象，因此密钥生成、签名和公钥推导共享同一个表；
+	 */
+	private static class FixedBase {
+
+		static final ECPoint G = ECPrecomputeUtils.precomputeFixedBase(DOMAIN_PARAMS.getG());
+
+	}
+
+	/**
+	 * 返回已预计算梳状表的基点；
+	 * 
+	 * @return
+	 */
+	static ECPoint getBasePoint() {
+		return FixedBase.G;
+	}
+
+	private static final PublicKeyCache<ECPublicKeyParameters> PUBLIC_KEY_CACHE = new PublicKeyCache<ECPublicKeyParameters>(
+			PublicKeyCache.DEFAULT_CAPACITY, ECDSAUtils::decodePublicKey);
+
 	// -----------------Key Generation Algorithm-----------------
 
 	/**
@@ -43,7 +71,7 @@ public class ECDSAUtils {
 	 * @return key pair
 	 */
 	public static AsymmetricCipherKeyPair generateKeyPair() {
-		SecureRandom random = new SecureRandom();
+		SecureRandom random = DRBGUtils.getDefaultRandom();
 		return generateKeyPair(random);
 	}
 
@@ -64,7 +92,7 @@ public class ECDSAUtils {
 	 * @return publicKey
 	 */
 	public static byte[] retrievePublicKey(byte[] privateKey) {
-		ECPoint publicKeyPoint = DOMAIN_PARAMS.getG().multiply(new BigInteger(1, privateKey)).normalize();
+		ECPoint publicKeyPoint = ECPrecomputeUtils.multiplyFixedBase(getBasePoint(), new BigInteger(1, privateKey));
 		return publicKeyPoint.getEncoded(false);
 	}
 
@@ -89,7 +117,7 @@ public class ECDSAUtils {
 	 * @return signature
 	 */
 	public static byte[] sign(byte[] data, int offset, int length, byte[] privateKey) {
-		SecureRandom random = new SecureRandom();
+		SecureRandom random = DRBGUtils.getDefaultRandom();
 		ECPrivateKeyParameters privKey = new ECPrivateKeyParameters(new BigInteger(1, privateKey), DOMAIN_PARAMS);
 		CipherParameters params = new ParametersWithRandom(privKey, random);
 
@@ -151,8 +179,7 @@ public class ECDSAUtils {
 	 */
 	public static boolean verify(byte[] data, int offset, int length, byte[] publicKey, byte[] signature) {
 
-		ECPoint pubKeyPoint = resolvePubKeyBytes(publicKey);
-		ECPublicKeyParameters pubKey = new ECPublicKeyParameters(pubKeyPoint, DOMAIN_PARAMS);
+		ECPublicKeyParameters pubKey = PUBLIC_KEY_CACHE.get(publicKey);
 
 		return verify(data, offset, length, pubKey, signature);
 	}
@@ -199,6 +226,30 @@ public class ECDSAUtils {
 		return CURVE.decodePoint(publicKey);
 	}
 
+	/**
+	 * 解码公钥；
+	 * <p>
+	 * 
+	 * 返回的公钥参数已经过校验，并且公钥点附带了 wNAF 预计算表；以同一个公钥参数对象验签时复用预计算表；
+	 * 
+	 * @param publicKey 公钥的原始字节；
+	 * @return
+	 */
+	public static ECPublicKeyParameters decodePublicKey(byte[] publicKey) {
+		ECPoint point = resolvePubKeyBytes(publicKey).normalize();
+		ECPrecomputeUtils.precomputeWNaf(point, DOMAIN_PARAMS.getN());
+		return new ECPublicKeyParameters(point, DOMAIN_PARAMS);
+	}
+
+	/**
+	 * 验签所用的公钥缓存；
+	 * 
+	 * @return
+	 */
+	public static PublicKeyCache<ECPublicKeyParameters> getPublicKeyCache() {
+		return PUBLIC_KEY_CACHE;
+	}
+
 	public static ECCurve getCurve() {
 		return CURVE;
 	}
@@ -0,0 +1,475 @@
+package utils.crypto.classic;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bouncycastle.crypto.digests.SHA512Digest;
+import org.bouncycastle.math.ec.rfc7748.X25519Field;
+
+/**
+ * ED25519 签名的随机化批量验证；
+ * <p>
+ *
+ * 对一批签名 (R_i, S_i) 选取 128 位的随机系数 z_i，通过一次多标量乘法（Pippenger 桶方法）检查：<br>
+ * [8]([∑z_i·S_i]B - ∑[z_i]R_i - ∑[z_i·k_i]A_i) = 0，其中 k_i = SHA512(R_i || A_i || M_i)；<br>
+ * 同一公钥的各项系数先合并，因此一批签名中重复的公钥只参与一次点乘；<br>
+ *
+ * 方程成立表示参与批量验证的签名全部有效（错误接受的概率不超过 2^-128）；不成立时由调用者逐个验证以找出无效的签名；<br>
+ *
+ * 只有 R 和 A 都属于素数阶子群（[L]P = 0）的签名才参与批量验证，此时乘以余因子的方程与逐个验证的方程等价，
+ * 结果与逐个验证一致，且不受同一批次中其它签名的影响；含有小阶分量的点、非规范编码的点、S 不小于群阶
+ * 以及格式错误的签名不参与批量验证，由调用者逐个验证；<br>
+ *
+ * 子群检查需要对每个 R 做一次标量乘法，公钥的检查在同一批次中只进行一次；
+ *
+ * @author huanghaiquan
+ *
+ */
+final class ED25519BatchVerifier {
+
+	static final int POINT_BYTES = 32;
+
+	static final int SIGNATURE_BYTES = 64;
+
+	/**
+	 * 基点的阶 L = 2^252 + 27742317777372353535851937790883648493；
+	 */
+	private static final BigInteger L = BigInteger.ONE.shiftLeft(252)
+			.add(new BigInteger("27742317777372353535851937790883648493"));
+
+	private static final byte[] ORDER = encodeScalar(L);
+
+	private static final BigInteger P = BigInteger.ONE.shiftLeft(255).subtract(BigInteger.valueOf(19));
+
+	private static final BigInteger CURVE_D = new BigInteger(
+			"37095705934669439343138083508754565189542113879843219016388785533085940283555");
+
+	private static final int[] D = fieldElement(CURVE_D);
+
+	private static final int[] D2 = fieldElement(CURVE_D.shiftLeft(1).mod(P));
+
+	private static final Point BASE = new Point();
+
+	/**
+	 * 标量的有效位数；所有标量都小于 L < 2^253；
+	 */
+	private static final int SCALAR_BITS = 253;
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	static {
+		X25519Field.copy(fieldElement(new BigInteger(
+				"15112221349535400772501151409588531511454012693041857206046113283949847762202")), 0, BASE.x, 0);
+		X25519Field.copy(fieldElement(new BigInteger(
+				"46316835694926478169428394003475163141307993866256225615783033603165251855960")), 0, BASE.y, 0);
+		X25519Field.one(BASE.z);
+		X25519Field.mul(BASE.x, BASE.y, BASE.t);
+	}
+
+	private ED25519BatchVerifier() {
+	}
+
+	/**
+	 * 批量验证指定范围内的签名；
+	 *
+	 * @param deferred 输出参数，长度为 to - from；不参与批量验证、需要由调用者逐个验证的签名对应的元素被置为 true；
+	 * @return 参与批量验证的签名全部有效时返回 true；返回 false 表示其中至少有一个签名无效；
+	 */
+	static boolean verify(byte[][] msgs, byte[][] pubKeys, byte[][] sigs, int from, int to, boolean[] deferred) {
+		int n = to - from;
+		byte[] randoms = new byte[16 * n];
+		RANDOM.nextBytes(randoms);
+
+		// 点的顺序：[参与批量验证的 R] [A_0 .. A_m-1] [B]；公钥先暂存在位置 n 之后，最后移到 R 之后；
+		Point[] points = new Point[2 * n + 1];
+		BigInteger[] scalars = new BigInteger[2 * n + 1];
+		// 公钥在点数组中的位置；不能参与批量验证的公钥对应 -1；
+		Map<ByteBuffer, Integer> keyIndexes = new HashMap<>();
+		int keyCount = 0;
+		int count = 0;
+		BigInteger sumS = BigInteger.ZERO;
+
+		Temp t = new Temp();
+		SHA512Digest digest = new SHA512Digest();
+		byte[] hash = new byte[64];
+		for (int i = 0; i < n; i++) {
+			byte[] msg = msgs[from + i];
+			byte[] pubKey = pubKeys[from + i];
+			byte[] sig = sigs[from + i];
+			if (msg == null || pubKey == null || pubKey.length != POINT_BYTES || sig == null
+					|| sig.length != SIGNATURE_BYTES) {
+				deferred[i] = true;
+				continue;
+			}
+			BigInteger s = decodeScalar(sig, POINT_BYTES, 32);
+			if (s.compareTo(L) >= 0) {
+				deferred[i] = true;
+				continue;
+			}
+			ByteBuffer key = ByteBuffer.wrap(pubKey);
+			Integer keyIndex = keyIndexes.get(key);
+			if (keyIndex == null) {
+				Point a = new Point();
+				if (decompress(pubKey, 0, a) && isPrimeOrder(a, t)) {
+					negate(a);
+					keyIndex = n + keyCount++;
+					points[keyIndex] = a;
+					scalars[keyIndex] = BigInteger.ZERO;
+				} else {
+					keyIndex = -1;
+				}
+				keyIndexes.put(key, keyIndex);
+			}
+			if (keyIndex < 0) {
+				deferred[i] = true;
+				continue;
+			}
+			Point r = new Point();
+			if (!decompress(sig, 0, r) || !isPrimeOrder(r, t)) {
+				deferred[i] = true;
+				continue;
+			}
+
+			digest.update(sig, 0, POINT_BYTES);
+			digest.update(pubKey, 0, POINT_BYTES);
+			digest.update(msg, 0, msg.length);
+			digest.doFinal(hash, 0);
+			BigInteger k = decodeScalar(hash, 0, 64).mod(L);
+			BigInteger z = decodeScalar(randoms, 16 * i, 16);
+
+			sumS = sumS.add(z.multiply(s));
+			scalars[keyIndex] = scalars[keyIndex].add(z.multiply(k));
+			negate(r);
+			points[count] = r;
+			scalars[count] = z;
+			count++;
+		}
+		if (count == 0) {
+			return true;
+		}
+		// 把公钥紧接在参与批量验证的 R 之后；
+		for (int j = 0; j < keyCount; j++) {
+			points[count + j] = points[n + j];
+			scalars[count + j] = scalars[n + j];
+		}
+		count += keyCount;
+		points[count] = BASE;
+		scalars[count] = sumS;
+		count++;
+
+		byte[][] encodedScalars = new byte[count][];
+		for (int i = 0; i < count; i++) {
+			encodedScalars[i] = encodeScalar(scalars[i].mod(L));
+		}
+		Point q = multiScalarMultiply(points, encodedScalars, count, t);
+		dbl(q, q, t);
+		dbl(q, q, t);
+		dbl(q, q, t);
+		return isNeutral(q);
+	}
+
+	/**
+	 * Pippenger 多标量乘法：∑[s_i]P_i；
+	 */
+	private static Point multiScalarMultiply(Point[] points, byte[][] scalars, int count, Temp t) {
+		int c = windowBits(count);
+		int windows = (SCALAR_BITS + c - 1) / c;
+		Point[] buckets = new Point[(1 << c) - 1];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new Point();
+		}
+		boolean[] used = new boolean[buckets.length];
+		Point result = neutral();
+		Point sum = new Point();
+		Point acc = new Point();
+		for (int w = windows - 1; w >= 0; w--) {
+			for (int i = 0; i < c; i++) {
+				dbl(result, result, t);
+			}
+			for (int i = 0; i < used.length; i++) {
+				used[i] = false;
+			}
+			for (int i = 0; i < count; i++) {
+				int digit = digit(scalars[i], w * c, c);
+				if (digit == 0) {
+					continue;
+				}
+				Point bucket = buckets[digit - 1];
+				if (used[digit - 1]) {
+					add(bucket, points[i], bucket, t);
+				} else {
+					copy(points[i], bucket);
+					used[digit - 1] = true;
+				}
+			}
+			// 求 ∑ j·bucket[j]：从高到低累加前缀和；
+			boolean hasSum = false;
+			boolean hasAcc = false;
+			for (int j = buckets.length - 1; j >= 0; j--) {
+				if (used[j]) {
+					if (hasSum) {
+						add(sum, buckets[j], sum, t);
+					} else {
+						copy(buckets[j], sum);
+						hasSum = true;
+					}
+				}
+				if (hasSum) {
+					if (hasAcc) {
+						add(acc, sum, acc, t);
+					} else {
+						copy(sum, acc);
+						hasAcc = true;
+					}
+				}
+			}
+			if (hasAcc) {
+				add(result, acc, result, t);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 选择使点加次数 ⌈253/c⌉·(n + 2^c) 最少的窗口宽度；
+	 */
+	private static int windowBits(int count) {
+		int best = 1;
+		long bestCost = Long.MAX_VALUE;
+		for (int c = 1; c <= 16; c++) {
+			long cost = (long) ((SCALAR_BITS + c - 1) / c) * (count + (1L << c));
+			if (cost < bestCost) {
+				bestCost = cost;
+				best = c;
+			}
+		}
+		return best;
+	}
+
+	private static int digit(byte[] scalar, int bitOffset, int bits) {
+		int v = 0;
+		for (int i = 0; i < bits; i++) {
+			int bit = bitOffset + i;
+			if (bit >= SCALAR_BITS) {
+				break;
+			}
+			v |= ((scalar[bit >>> 3] >>> (bit & 7)) & 1) << i;
+		}
+		return v;
+	}
+
+	// -----------------Point Arithmetic-----------------
+
+	/**
+	 * 扩展坐标 (X : Y : Z : T) 表示的点，x = X/Z，y = Y/Z，xy = T/Z；
+	 */
+	private static final class Point {
+
+		final int[] x = X25519Field.create();
+
+		final int[] y = X25519Field.create();
+
+		final int[] z = X25519Field.create();
+
+		final int[] t = X25519Field.create();
+
+	}
+
+	private static final class Temp {
+
+		final int[] a = X25519Field.create();
+
+		final int[] b = X25519Field.create();
+
+		final int[] c = X25519Field.create();
+
+		final int[] d = X25519Field.create();
+
+		final int[] e = X25519Field.create();
+
+		final int[] f = X25519Field.create();
+
+		final int[] g = X25519Field.create();
+
+		final int[] h = X25519Field.create();
+
+	}
+
+	private static Point neutral() {
+		Point p = new Point();
+		X25519Field.zero(p.x);
+		X25519Field.one(p.y);
+		X25519Field.one(p.z);
+		X25519Field.zero(p.t);
+		return p;
+	}
+
+	private static void copy(Point p, Point r) {
+		X25519Field.copy(p.x, 0, r.x, 0);
+		X25519Field.copy(p.y, 0, r.y, 0);
+		X25519Field.copy(p.z, 0, r.z, 0);
+		X25519Field.copy(p.t, 0, r.t, 0);
+	}
+
+	private static void negate(Point p) {
+		X25519Field.negate(p.x, p.x);
+		X25519Field.negate(p.t, p.t);
+	}
+
+	/**
+	 * 完备的点加公式（a = -1 的扭曲 Edwards 曲线，add-2008-hwcd-3）；r 可以与 p 或 q 相同；
+	 */
+	private static void add(Point p, Point q, Point r, Temp t) {
+		int[] a = t.a, b = t.b, c = t.c, d = t.d, e = t.e, f = t.f, g = t.g, h = t.h;
+		X25519Field.apm(p.y, p.x, b, a);
+		X25519Field.apm(q.y, q.x, d, c);
+		X25519Field.mul(a, c, a);
+		X25519Field.mul(b, d, b);
+		X25519Field.mul(p.t, q.t, c);
+		X25519Field.mul(c, D2, c);
+		X25519Field.mul(p.z, q.z, d);
+		X25519Field.add(d, d, d);
+		X25519Field.apm(b, a, h, e);
+		X25519Field.apm(d, c, g, f);
+		X25519Field.carry(e);
+		X25519Field.carry(f);
+		X25519Field.carry(g);
+		X25519Field.carry(h);
+		X25519Field.mul(e, f, r.x);
+		X25519Field.mul(g, h, r.y);
+		X25519Field.mul(f, g, r.z);
+		X25519Field.mul(e, h, r.t);
+	}
+
+	/**
+	 * 倍点（dbl-2008-hwcd）；r 可以与 p 相同；
+	 */
+	private static void dbl(Point p, Point r, Temp t) {
+		int[] a = t.a, b = t.b, c = t.c, e = t.e, f = t.f, g = t.g, h = t.h;
+		X25519Field.sqr(p.x, a);
+		X25519Field.sqr(p.y, b);
+		X25519Field.sqr(p.z, c);
+		X25519Field.add(c, c, c);
+		X25519Field.apm(a, b, h, g);
+		X25519Field.add(p.x, p.y, e);
+		X25519Field.carry(e);
+		X25519Field.sqr(e, e);
+		X25519Field.sub(h, e, e);
+		X25519Field.add(c, g, f);
+		X25519Field.carry(e);
+		X25519Field.carry(f);
+		X25519Field.carry(g);
+		X25519Field.carry(h);
+		X25519Field.mul(e, f, r.x);
+		X25519Field.mul(g, h, r.y);
+		X25519Field.mul(f, g, r.z);
+		X25519Field.mul(e, h, r.t);
+	}
+
+	private static boolean isNeutral(Point p) {
+		int[] x = X25519Field.create();
+		int[] y = X25519Field.create();
+		int[] z = X25519Field.create();
+		X25519Field.copy(p.x, 0, x, 0);
+		X25519Field.copy(p.y, 0, y, 0);
+		X25519Field.copy(p.z, 0, z, 0);
+		X25519Field.normalize(x);
+		X25519Field.normalize(y);
+		X25519Field.normalize(z);
+		return X25519Field.isZeroVar(x) && !X25519Field.isZeroVar(z) && X25519Field.areEqualVar(y, z);
+	}
+
+	/**
+	 * 是否为素数阶子群中的非零点，即 [L]P = 0 且 P 不是单位元；
+	 */
+	private static boolean isPrimeOrder(Point p, Temp t) {
+		if (isNeutral(p)) {
+			return false;
+		}
+		Point q = neutral();
+		for (int bit = SCALAR_BITS - 1; bit >= 0; bit--) {
+			dbl(q, q, t);
+			if (((ORDER[bit >>> 3] >>> (bit & 7)) & 1) != 0) {
+				add(q, p, q, t);
+			}
+		}
+		return isNeutral(q);
+	}
+
+	/**
+	 * 解码压缩的点；拒绝非规范的编码（y >= p，或者 x = 0 而符号位为 1）；
+	 */
+	private static boolean decompress(byte[] encoded, int offset, Point r) {
+		if (!isCanonical(encoded, offset)) {
+			return false;
+		}
+		int[] u = X25519Field.create();
+		int[] v = X25519Field.create();
+		X25519Field.decode(encoded, offset, r.y);
+		X25519Field.sqr(r.y, u);
+		X25519Field.mul(D, u, v);
+		X25519Field.subOne(u);
+		X25519Field.addOne(v);
+		if (!X25519Field.sqrtRatioVar(u, v, r.x)) {
+			return false;
+		}
+		X25519Field.normalize(r.x);
+		int sign = (encoded[offset + POINT_BYTES - 1] & 0x80) >>> 7;
+		if (sign == 1 && X25519Field.isZeroVar(r.x)) {
+			return false;
+		}
+		if ((r.x[0] & 1) != sign) {
+			X25519Field.negate(r.x, r.x);
+			X25519Field.normalize(r.x);
+		}
+		X25519Field.one(r.z);
+		X25519Field.mul(r.x, r.y, r.t);
+		return true;
+	}
+
+	private static boolean isCanonical(byte[] encoded, int offset) {
+		if ((encoded[offset + POINT_BYTES - 1] & 0x7F) != 0x7F) {
+			return true;
+		}
+		for (int i = POINT_BYTES - 2; i > 0; i--) {
+			if ((encoded[offset + i] & 0xFF) != 0xFF) {
+				return true;
+			}
+		}
+		return (encoded[offset] & 0xFF) < 0xED;
+	}
+
+	// -----------------Encoding-----------------
+
+	/**
+	 * 解码小端序的无符号整数；
+	 */
+	private static BigInteger decodeScalar(byte[] bytes, int offset, int length) {
+		byte[] be = new byte[length];
+		for (int i = 0; i < length; i++) {
+			be[i] = bytes[offset + length - 1 - i];
+		}
+		return new BigInteger(1, be);
+	}
+
+	/**
+	 * 编码为 32 字节小端序的标量；
+	 */
+	private static byte[] encodeScalar(BigInteger value) {
+		byte[] be = value.toByteArray();
+		byte[] le = new byte[32];
+		for (int i = 0; i < le.length && i < be.length; i++) {
+			le[i] = be[be.length - 1 - i];
+		}
+		return le;
+	}
+
+	private static int[] fieldElement(BigInteger value) {
+		int[] fe = X25519Field.create();
+		X25519Field.decode(encodeScalar(value), 0, fe);
+		return fe;
+	}
+}
@@ -1,6 +1,7 @@
 package utils.crypto.classic;
 
 import java.security.SecureRandom;
+import java.util.stream.IntStream;
 
 import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
 import org.bouncycastle.crypto.CipherParameters;
@@ -11,6 +12,8 @@ import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
 import org.bouncycastle.crypto.prng.FixedSecureRandom;
 import org.bouncycastle.crypto.signers.Ed25519Signer;
 
+import utils.crypto.base.PublicKeyCache;
+
 /**
  * @author zhanglin33
  * @title: ED25519Utils
@@ -25,6 +28,9 @@ public class ED25519Utils {
 	 * 种子的最小长度；
 	 */
 	public static final int SEED_MIN_LENGTH = 32;
+
+	private static final PublicKeyCache<Ed25519PublicKeyParameters> PUBLIC_KEY_CACHE = new PublicKeyCache<Ed25519PublicKeyParameters>(
+			PublicKeyCache.DEFAULT_CAPACITY, ED25519Utils::decodePublicKey);
 	
 	public static void checkKeyGenSeed(byte[] seed) {
 		if (seed.length < SEED_MIN_LENGTH) {
@@ -132,7 +138,7 @@ public class ED25519Utils {
 	 * @return true or false
 	 */
 	public static boolean verify(byte[] data, byte[] publicKey, byte[] signature) {
-		Ed25519PublicKeyParameters pubKeyParams = new Ed25519PublicKeyParameters(publicKey, 0);
+		Ed25519PublicKeyParameters pubKeyParams = PUBLIC_KEY_CACHE.get(publicKey);
 		return verify(data, 0, data.length, pubKeyParams, signature);
 	}
 
@@ -145,10 +151,29 @@ public class ED25519Utils {
 	 * @return true or false
 	 */
 	public static boolean verify(byte[] data, int offset, int length, byte[] publicKey, byte[] signature) {
-		Ed25519PublicKeyParameters pubKeyParams = new Ed25519PublicKeyParameters(publicKey, 0);
+		Ed25519PublicKeyParameters pubKeyParams = PUBLIC_KEY_CACHE.get(publicKey);
 		return verify(data, offset, length, pubKeyParams, signature);
 	}
 
+	/**
+	 * 解码公钥；
+	 * 
+	 * @param publicKey 公钥的原始字节；
+	 * @return
+	 */
+	public static Ed25519PublicKeyParameters decodePublicKey(byte[] publicKey) {
+		return new Ed25519PublicKeyParameters(publicKey, 0);
+	}
+
+	/**
+	 * 验签所用的公钥缓存；
+	 * 
+	 * @return
+	 */
+	public static PublicKeyCache<Ed25519PublicKeyParameters> getPublicKeyCache() {
+		return PUBLIC_KEY_CACHE;
+	}
+
 	public static boolean verify(byte[] data, CipherParameters params, byte[] signature) {
 		return verify(data, 0, data.length, params, signature);
 	}
@@ -159,4 +184,78 @@ public class ED25519Utils {
 		verifier.update(data, offset, length);
 		return verifier.verifySignature(signature);
 	}
+
+	// -----------------Batch Verification-----------------
+
+	/**
+	 * 批量验证的最小分组大小；更小的分组直接逐个验证；
+	 */
+	public static final int BATCH_MIN_SIZE = 4;
+
+	/**
+	 * 批量验证的最大分组大小；
+	 */
+	public static final int BATCH_MAX_SIZE = 256;
+
+	/**
+	 * 批量验证签名；
+	 * <p>
+	 * 
+	 * 签名被划分为多个分组，各分组在 fork-join 线程池中并行地进行随机化批量验证（一次多标量乘法）；
+	 * 一个分组的批量验证不通过时，逐个验证该分组的签名以确定无效签名的位置；<br>
+	 * 
+	 * R 或公钥含有小阶分量、编码不规范的签名不参与批量验证，而是逐个验证，因此每个签名的结果都与
+	 * {@link #verify(byte[], byte[], byte[])} 一致，不受同一批次中其它签名的影响；<br>
+	 * 
+	 * 公钥或签名的格式错误时，对应的结果为 false，不抛出异常；
+	 * 
+	 * @param msgs    被签名的数据；
+	 * @param pubKeys 公钥；与 msgs 一一对应；
+	 * @param sigs    签名；与 msgs 一一对应；
+	 * @return 每一个签名的验证结果；
+	 */
+	public static boolean[] verifyBatch(byte[][] msgs, byte[][] pubKeys, byte[][] sigs) {
+		if (msgs.length != pubKeys.length || msgs.length != sigs.length) {
+			throw new IllegalArgumentException("The lengths of messages, public keys and signatures are different!");
+		}
+		int n = msgs.length;
+		boolean[] results = new boolean[n];
+		int parallelism = Runtime.getRuntime().availableProcessors();
+		int chunkSize = Math.max(BATCH_MIN_SIZE * 8, Math.min(BATCH_MAX_SIZE, (n + parallelism - 1) / parallelism));
+		int chunks = (n + chunkSize - 1) / chunkSize;
+		if (chunks <= 1) {
+			verifyChunk(msgs, pubKeys, sigs, 0, n, results);
+		} else {
+			IntStream.range(0, chunks).parallel().forEach((c) -> verifyChunk(msgs, pubKeys, sigs, c * chunkSize,
+					Math.min(n, c * chunkSize + chunkSize), results));
+		}
+		return results;
+	}
+
+	static void verifyChunk(byte[][] msgs, byte[][] pubKeys, byte[][] sigs, int from, int to,
+			boolean[] results) {
+		boolean[] deferred = new boolean[to - from];
+		if (to - from >= BATCH_MIN_SIZE && ED25519BatchVerifier.verify(msgs, pubKeys, sigs, from, to, deferred)) {
+			for (int i = from; i < to; i++) {
+				results[i] = !deferred[i - from] || verifyQuietly(msgs[i], pubKeys[i], sigs[i]);
+			}
+			return;
+		}
+		for (int i = from; i < to; i++) {
+			results[i] = verifyQuietly(msgs[i], pubKeys[i], sigs[i]);
+		}
+	}
+
+	private static boolean verifyQuietly(byte[] data, byte[] publicKey, byte[] signature) {
+		if (data == null || publicKey == null || publicKey.length != ED25519BatchVerifier.POINT_BYTES
+				|| signature == null || signature.length != ED25519BatchVerifier.SIGNATURE_BYTES) {
+			return false;
+		}
+		try {
+			return verify(data, publicKey, signature);
+		} catch (IllegalArgumentException e) {
+			// 无效的公钥；
+			return false;
+		}
+	}
 }
@@ -1,7 +1,12 @@
 package utils.crypto.classic;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
 import org.bouncycastle.crypto.digests.RIPEMD160Digest;
 
+import utils.crypto.base.DigestUtils;
 import utils.security.Hasher;
 
 /**
@@ -15,26 +20,83 @@ public class RIPEMD160Utils {
 	// The length of RIPEMD160 output is 20 bytes
 	public static final int RIPEMD160DIGEST_LENGTH = 160 / 8;
 
+	/**
+	 * 每个线程复用的摘要对象；
+	 */
+	private static final ThreadLocal<RIPEMD160Digest> DIGESTS = ThreadLocal.withInitial(RIPEMD160Digest::new);
+
 	public static byte[] hash(byte[] data) {
+		return hash(data, 0, data.length);
+	}
 
+	public static byte[] hash(byte[] data, int offset, int len) {
 		byte[] result = new byte[RIPEMD160DIGEST_LENGTH];
-		RIPEMD160Digest ripemd160Digest = new RIPEMD160Digest();
-
-		ripemd160Digest.update(data, 0, data.length);
-		ripemd160Digest.doFinal(result, 0);
+		hash(data, offset, len, result, 0);
 		return result;
 	}
 
-	public static byte[] hash(byte[] data, int offset, int len) {
+	/**
+	 * 计算哈希，并将结果写入指定的缓冲区；
+	 * <p>
+	 *
+	 * 计算采用当前线程复用的摘要对象，不分配内存；
+	 *
+	 * @param data      数据；
+	 * @param offset    数据的起始位置；
+	 * @param len       数据的长度；
+	 * @param output    输出缓冲区；剩余空间不能小于 {@link #RIPEMD160DIGEST_LENGTH}；
+	 * @param outOffset 输出的起始位置；
+	 * @return 写入的字节数；即 {@link #RIPEMD160DIGEST_LENGTH}；
+	 */
+	public static int hash(byte[] data, int offset, int len, byte[] output, int outOffset) {
+		return DigestUtils.hash(DIGESTS.get(), data, offset, len, output, outOffset);
+	}
 
-		byte[] result = new byte[RIPEMD160DIGEST_LENGTH];
-		RIPEMD160Digest ripemd160Digest = new RIPEMD160Digest();
+	/**
+	 * 计算缓冲区中剩余数据的哈希；之后缓冲区的 position 等于 limit；
+	 *
+	 * @param data
+	 * @return
+	 */
+	public static byte[] hash(ByteBuffer data) {
+		RIPEMD160Digest digest = new RIPEMD160Digest();
+		DigestUtils.update(digest, data);
+		return DigestUtils.doFinal(digest);
+	}
 
-		ripemd160Digest.update(data, offset, len);
-		ripemd160Digest.doFinal(result, 0);
-		return result;
+	/**
+	 * 计算输入流中全部数据的哈希；输入流不会被关闭；
+	 *
+	 * @param input
+	 * @return
+	 */
+	public static byte[] hash(InputStream input) {
+		RIPEMD160Digest digest = new RIPEMD160Digest();
+		DigestUtils.update(digest, input);
+		return DigestUtils.doFinal(digest);
+	}
+
+	/**
+	 * 计算文件的哈希；通过 {@link java.nio.channels.FileChannel} 分段读入固定大小的缓冲区进行计算，适用于很大的文件；
+	 *
+	 * @param file
+	 * @return
+	 */
+	public static byte[] hash(Path file) {
+		RIPEMD160Digest digest = new RIPEMD160Digest();
+		DigestUtils.update(digest, file);
+		return DigestUtils.doFinal(digest);
+	}
+
+	/**
+	 * 分别计算每一项数据的哈希；数据较多时并行计算；
+	 *
+	 * @param inputs
+	 * @return 与输入一一对应的哈希；
+	 */
+	public static byte[][] hashAll(byte[][] inputs) {
+		return DigestUtils.hashAll(RIPEMD160Digest::new, inputs);
 	}
-	
 
     public static Hasher beginHash() {
     	return new RipeMD160Hasher();
@@ -54,6 +116,11 @@ public class RIPEMD160Utils {
 			digest.update(bytes, offset, len);
 		}
 
+		@Override
+		public void update(ByteBuffer buffer) {
+			DigestUtils.update(digest, buffer);
+		}
+
 		@Override
 		public byte[] complete() {
 			byte[] result = new byte[RIPEMD160DIGEST_LENGTH];
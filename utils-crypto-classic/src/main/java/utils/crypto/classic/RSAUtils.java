@@ -38,6 +38,7 @@ import org.bouncycastle.crypto.params.RSAPrivateCrtKeyParameters;
 import org.bouncycastle.crypto.signers.RSADigestSigner;
 import org.bouncycastle.jcajce.provider.asymmetric.util.KeyUtil;
 
+import utils.crypto.base.PublicKeyCache;
 import utils.io.BytesOutputBuffer;
 import utils.io.BytesUtils;
 import utils.io.RuntimeIOException;
@@ -79,6 +80,9 @@ public class RSAUtils {
 	private static final int PLAINTEXT_BLOCKSIZE = 256 - 11;
 	private static final int CIPHERTEXT_BLOCKSIZE = 256;
 
+	private static final PublicKeyCache<RSAKeyParameters> PUBLIC_KEY_CACHE = new PublicKeyCache<RSAKeyParameters>(
+			PublicKeyCache.DEFAULT_CAPACITY, RSAUtils::bytes2PubKey_RawKey);
+
 	// -----------------Key Generation Algorithm-----------------
 
 	/**
@@ -160,7 +164,7 @@ public class RSAUtils {
 	 * @return true or false
 	 */
 	public static boolean verify(byte[] data, byte[] publicKey, byte[] signature) {
-		RSAKeyParameters pubKey = bytes2PubKey_RawKey(publicKey);
+		RSAKeyParameters pubKey = PUBLIC_KEY_CACHE.get(publicKey);
 		return verify(data, 0, data.length, pubKey, signature);
 	}
 
@@ -173,7 +177,7 @@ public class RSAUtils {
 	 * @return true or false
 	 */
 	public static boolean verify(byte[] data, int offset, int length, byte[] publicKey, byte[] signature) {
-		RSAKeyParameters pubKey = bytes2PubKey_RawKey(publicKey);
+		RSAKeyParameters pubKey = PUBLIC_KEY_CACHE.get(publicKey);
 		return verify(data, offset, length, pubKey, signature);
 	}
 
@@ -201,28 +205,28 @@ public class RSAUtils {
 	 * @return ciphertext
 	 */
 	public static byte[] encrypt(byte[] plainBytes, byte[] publicKey) {
-		RSAKeyParameters pubKey = bytes2PubKey_RawKey(publicKey);
+		RSAKeyParameters pubKey = PUBLIC_KEY_CACHE.get(publicKey);
 		return encrypt(plainBytes, pubKey);
 	}
 
 	public static int encrypt(byte[] plainBytes, byte[] publicKey, OutputStream out) {
-		RSAKeyParameters pubKey = bytes2PubKey_RawKey(publicKey);
+		RSAKeyParameters pubKey = PUBLIC_KEY_CACHE.get(publicKey);
 		return encrypt(plainBytes, pubKey, out);
 	}
 
 	public static byte[] encrypt(byte[] plainBytes, int offset, int length, byte[] publicKey) {
-		RSAKeyParameters pubKey = bytes2PubKey_RawKey(publicKey);
+		RSAKeyParameters pubKey = PUBLIC_KEY_CACHE.get(publicKey);
 		return encrypt(plainBytes, offset, length, pubKey);
 	}
 
 	public static int encrypt(byte[] plainBytes, int offset, int length, byte[] publicKey, OutputStream out) {
-		RSAKeyParameters pubKey = bytes2PubKey_RawKey(publicKey);
+		RSAKeyParameters pubKey = PUBLIC_KEY_CACHE.get(publicKey);
 		return encrypt(plainBytes, offset, length, pubKey, out);
 	}
 
 	public static byte[] encrypt(byte[] plainBytes, byte[] publicKey, SecureRandom random) {
 
-		RSAKeyParameters pubKey = bytes2PubKey_RawKey(publicKey);
+		RSAKeyParameters pubKey = PUBLIC_KEY_CACHE.get(publicKey);
 		ParametersWithRandom params = new ParametersWithRandom(pubKey, random);
 
 		return encrypt(plainBytes, params);
@@ -505,6 +509,15 @@ public class RSAUtils {
 		return new RSAKeyParameters(false, modulus, exponent);
 	}
 
+	/**
+	 * 验签和加密所用的公钥缓存；以原始编码的公钥为键；
+	 * 
+	 * @return
+	 */
+	public static PublicKeyCache<RSAKeyParameters> getPublicKeyCache() {
+		return PUBLIC_KEY_CACHE;
+	}
+
 	public static RSAKeyParameters bytes2PubKey_RawKey(byte[] pubKeyBytes) {
 
 		byte[] modulusBytes = new byte[MODULUS_LENGTH];
@@ -1,7 +1,12 @@
 package utils.crypto.classic;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
 import org.bouncycastle.crypto.digests.SHA256Digest;
 
+import utils.crypto.base.DigestUtils;
 import utils.security.Hasher;
 
 /**
@@ -15,27 +20,84 @@ public class SHA256Utils {
     // The length of SHA256 output is 32 bytes
     public static final int SHA256DIGEST_LENGTH = 256 / 8;
 
-    public static byte[] hash(byte[] data){
+    /**
+     * 每个线程复用的摘要对象；
+     */
+    private static final ThreadLocal<SHA256Digest> DIGESTS = ThreadLocal.withInitial(SHA256Digest::new);
 
-        byte[] result = new byte[SHA256DIGEST_LENGTH];
-        SHA256Digest sha256Digest = new SHA256Digest();
+    public static byte[] hash(byte[] data) {
+        return hash(data, 0, data.length);
+    }
 
-        sha256Digest.update(data,0,data.length);
-        sha256Digest.doFinal(result,0);
+    public static byte[] hash(byte[] data, int offset, int len) {
+        byte[] result = new byte[SHA256DIGEST_LENGTH];
+        hash(data, offset, len, result, 0);
         return result;
     }
-    
-    public static byte[] hash(byte[] data, int offset, int len){
-    	
-    	byte[] result = new byte[SHA256DIGEST_LENGTH];
-    	SHA256Digest sha256Digest = new SHA256Digest();
-    	
-    	sha256Digest.update(data, offset, len);
-    	sha256Digest.doFinal(result,0);
-    	return result;
+
+    /**
+     * 计算哈希，并将结果写入指定的缓冲区；
+     * <p>
+     *
+     * 计算采用当前线程复用的摘要对象，不分配内存；
+     *
+     * @param data      数据；
+     * @param offset    数据的起始位置；
+     * @param len       数据的长度；
+     * @param output    输出缓冲区；剩余空间不能小于 {@link #SHA256DIGEST_LENGTH}；
+     * @param outOffset 输出的起始位置；
+     * @return 写入的字节数；即 {@link #SHA256DIGEST_LENGTH}；
+     */
+    public static int hash(byte[] data, int offset, int len, byte[] output, int outOffset) {
+        return DigestUtils.hash(DIGESTS.get(), data, offset, len, output, outOffset);
     }
-    
-    
+
+    /**
+     * 计算缓冲区中剩余数据的哈希；之后缓冲区的 position 等于 limit；
+     *
+     * @param data
+     * @return
+     */
+    public static byte[] hash(ByteBuffer data) {
+        SHA256Digest digest = new SHA256Digest();
+        DigestUtils.update(digest, data);
+        return DigestUtils.doFinal(digest);
+    }
+
+    /**
+     * 计算输入流中全部数据的哈希；输入流不会被关闭；
+     *
+     * @param input
+     * @return
+     */
+    public static byte[] hash(InputStream input) {
+        SHA256Digest digest = new SHA256Digest();
+        DigestUtils.update(digest, input);
+        return DigestUtils.doFinal(digest);
+    }
+
+    /**
+     * 计算文件的哈希；通过 {@link java.nio.channels.FileChannel} 分段读入固定大小的缓冲区进行计算，适用于很大的文件；
+     *
+     * @param file
+     * @return
+     */
+    public static byte[] hash(Path file) {
+        SHA256Digest digest = new SHA256Digest();
+        DigestUtils.update(digest, file);
+        return DigestUtils.doFinal(digest);
+    }
+
+    /**
+     * 分别计算每一项数据的哈希；数据较多时并行计算；
+     *
+     * @param inputs
+     * @return 与输入一一对应的哈希；
+     */
+    public static byte[][] hashAll(byte[][] inputs) {
+        return DigestUtils.hashAll(SHA256Digest::new, inputs);
+    }
+
     public static Hasher beginHash() {
     	return new SHA256Hasher();
     }
@@ -54,6 +116,11 @@ public class SHA256Utils {
 			sha256Digest.update(bytes, offset, len);
 		}
 
+		@Override
+		public void update(ByteBuffer buffer) {
+			DigestUtils.update(sha256Digest, buffer);
+		}
+
 		@Override
 		public byte[] complete() {
 			byte[] result = new byte[SHA256DIGEST_LENGTH];
@@ -0,0 +1,246 @@
+package test.utils.crypto.classic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Test;
+
+import utils.crypto.classic.AESCipher;
+import utils.crypto.classic.AESCipher.Mode;
+import utils.crypto.classic.AESUtils;
+import utils.security.DecryptionException;
+
+public class AESCipherTest {
+
+	/**
+	 * GCM 规范的测试用例 3；
+	 */
+	@Test
+	public void gcmVectorTest() {
+		byte[] key = Hex.decode("feffe9928665731c6d6a8f9467308308");
+		byte[] iv = Hex.decode("cafebabefacedbaddecaf888");
+		byte[] plaintext = Hex.decode("d9313225f88406e5a55909c5aff5269a86a7a9531534f7da2e4c303d8a318a72"
+				+ "1c3c0c95956809532fcf0e2449a6b525b16aedf5aa0de657ba637b391aafd255");
+		byte[] expected = Hex.decode("42831ec2217774244b7221b784d0d49ce3aa212f2c02a4e035c17e2329aca12e"
+				+ "21d514b25466931c7d8f6a5aac84aa051ba30b396a0aac973d58e091473f5985"
+				+ "4d5c2af327cd64a62cf35abd2ba6fab4");
+
+		byte[] output = new byte[plaintext.length + AESCipher.GCM_TAG_SIZE];
+		int count = AESCipher.encrypt(Mode.GCM, key, iv, null, plaintext, 0, plaintext.length, output, 0);
+		assertEquals(expected.length, count);
+		assertArrayEquals(expected, output);
+
+		byte[] decrypted = new byte[plaintext.length];
+		count = AESCipher.decrypt(Mode.GCM, key, iv, null, output, 0, output.length, decrypted, 0);
+		assertEquals(plaintext.length, count);
+		assertArrayEquals(plaintext, decrypted);
+	}
+
+	/**
+	 * NIST SP 800-38A F.5.1 CTR-AES128.Encrypt 的前 2 个块；
+	 */
+	@Test
+	public void ctrVectorTest() {
+		byte[] key = Hex.decode("2b7e151628aed2a6abf7158809cf4f3c");
+		byte[] iv = Hex.decode("f0f1f2f3f4f5f6f7f8f9fafbfcfdfeff");
+		byte[] plaintext = Hex.decode("6bc1bee22e409f96e93d7e117393172aae2d8a571e03ac9c9eb76fac45af8e51");
+		byte[] expected = Hex.decode("874d6191b620e3261bef6864990db6ce9806f66b7970fdff8617187bb9fffdff");
+
+		// 原地加密；
+		byte[] buffer = plaintext.clone();
+		AESCipher.encrypt(Mode.CTR, key, iv, null, buffer, 0, buffer.length, buffer, 0);
+		assertArrayEquals(expected, buffer);
+
+		AESCipher.decrypt(Mode.CTR, key, iv, null, buffer, 0, buffer.length, buffer, 0);
+		assertArrayEquals(plaintext, buffer);
+	}
+
+	@Test
+	public void encryptDecryptTest() {
+		Random random = new Random();
+		byte[] key = new byte[32];
+		random.nextBytes(key);
+		for (Mode mode : Mode.values()) {
+			for (int length : new int[] { 0, 1, 15, 16, 17, 1000 }) {
+				byte[] data = new byte[length];
+				random.nextBytes(data);
+
+				byte[] cipherBytes = AESCipher.encrypt(mode, data, key);
+				assertEquals(AESCipher.getCiphertextSize(mode, length), cipherBytes.length);
+				assertArrayEquals(data, AESCipher.decrypt(mode, cipherBytes, key));
+
+				// 随机的 IV 使每次加密的结果不同；
+				if (length > 0) {
+					byte[] another = AESCipher.encrypt(mode, data, key);
+					assertEquals(false, Arrays.equals(cipherBytes, another));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void gcmAuthenticationTest() {
+		Random random = new Random();
+		byte[] key = new byte[16];
+		random.nextBytes(key);
+		byte[] iv = AESCipher.generateIv(Mode.GCM);
+		byte[] aad = "header".getBytes();
+		byte[] data = new byte[100];
+		random.nextBytes(data);
+
+		byte[] cipherBytes = new byte[data.length + AESCipher.GCM_TAG_SIZE];
+		AESCipher.encrypt(Mode.GCM, key, iv, aad, data, 0, data.length, cipherBytes, 0);
+
+		byte[] output = new byte[data.length];
+		AESCipher.decrypt(Mode.GCM, key, iv, aad, cipherBytes, 0, cipherBytes.length, output, 0);
+		assertArrayEquals(data, output);
+
+		// 篡改密文；
+		cipherBytes[7] ^= 1;
+		try {
+			AESCipher.decrypt(Mode.GCM, key, iv, aad, cipherBytes, 0, cipherBytes.length, output, 0);
+			fail("The tampered ciphertext should not be decrypted!");
+		} catch (DecryptionException e) {
+		}
+		cipherBytes[7] ^= 1;
+
+		// 附加认证数据不一致；
+		try {
+			AESCipher.decrypt(Mode.GCM, key, iv, "other".getBytes(), cipherBytes, 0, cipherBytes.length, output, 0);
+			fail("The ciphertext should not be decrypted with different AAD!");
+		} catch (DecryptionException e) {
+		}
+
+		// 认证失败之后缓存的实例仍然可以继续使用；
+		AESCipher.decrypt(Mode.GCM, key, iv, aad, cipherBytes, 0, cipherBytes.length, output, 0);
+		assertArrayEquals(data, output);
+	}
+
+	@Test
+	public void streamingTest() throws IOException {
+		Random random = new Random();
+		byte[] key = new byte[16];
+		random.nextBytes(key);
+		byte[] data = new byte[200 * 1024 + 7];
+		random.nextBytes(data);
+
+		for (Mode mode : Mode.values()) {
+			byte[] iv = AESCipher.generateIv(mode);
+			byte[] expected = new byte[data.length + mode.getTagSize()];
+			AESCipher.encrypt(mode, key, iv, null, data, 0, data.length, expected, 0);
+
+			// 分段输入 byte 数组；
+			AESCipher encryptor = AESCipher.encryptor(mode, key, iv);
+			byte[] cipherBytes = new byte[expected.length];
+			int count = 0;
+			for (int offset = 0; offset < data.length; offset += 1000) {
+				int length = Math.min(1000, data.length - offset);
+				count += encryptor.update(data, offset, length, cipherBytes, count);
+			}
+			count += encryptor.doFinal(cipherBytes, count);
+			assertEquals(expected.length, count);
+			assertArrayEquals(expected, cipherBytes);
+
+			// 堆外缓冲区；
+			AESCipher decryptor = AESCipher.decryptor(mode, key, iv);
+			ByteBuffer input = ByteBuffer.allocateDirect(cipherBytes.length);
+			input.put(cipherBytes).flip();
+			ByteBuffer output = ByteBuffer.allocateDirect(data.length);
+			decryptor.update(input, output);
+			decryptor.doFinal(output);
+			assertEquals(data.length, output.position());
+			byte[] plainBytes = new byte[data.length];
+			output.flip();
+			output.get(plainBytes);
+			assertArrayEquals(data, plainBytes);
+
+			// 输出流加密；
+			ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+			try (OutputStream out = AESCipher.encryptor(mode, key, iv).wrap(cipherOut)) {
+				out.write(data, 0, 10);
+				out.write(data[10]);
+				out.write(data, 11, data.length - 11);
+			}
+			assertArrayEquals(expected, cipherOut.toByteArray());
+
+			// 输入流解密；
+			ByteArrayOutputStream plainOut = new ByteArrayOutputStream();
+			try (InputStream in = AESCipher.decryptor(mode, key, iv).wrap(new ByteArrayInputStream(expected))) {
+				byte[] buffer = new byte[4096];
+				int length;
+				while ((length = in.read(buffer)) > -1) {
+					plainOut.write(buffer, 0, length);
+				}
+			}
+			assertArrayEquals(data, plainOut.toByteArray());
+		}
+	}
+
+	@Test
+	public void streamingAuthenticationTest() throws IOException {
+		byte[] key = new byte[16];
+		byte[] iv = AESCipher.generateIv(Mode.GCM);
+		byte[] data = new byte[5000];
+		byte[] cipherBytes = new byte[data.length + AESCipher.GCM_TAG_SIZE];
+		AESCipher.encrypt(Mode.GCM, key, iv, null, data, 0, data.length, cipherBytes, 0);
+		cipherBytes[cipherBytes.length - 1] ^= 1;
+
+		try (InputStream in = AESCipher.decryptor(Mode.GCM, key, iv).wrap(new ByteArrayInputStream(cipherBytes))) {
+			byte[] buffer = new byte[4096];
+			while (in.read(buffer) > -1) {
+			}
+			fail("The tampered ciphertext should not be decrypted!");
+		} catch (DecryptionException e) {
+		}
+	}
+
+	@Test
+	public void performanceTest() {
+		int count = 200;
+		byte[] data = new byte[64 * 1024];
+		new Random().nextBytes(data);
+		byte[] key = AESUtils.generateKey();
+		byte[] buffer = new byte[data.length + AESCipher.GCM_TAG_SIZE];
+		byte[] gcmIv = AESCipher.generateIv(Mode.GCM);
+		byte[] ctrIv = AESCipher.generateIv(Mode.CTR);
+
+		for (int r = 0; r < 3; r++) {
+			long startTS = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				AESUtils.encrypt(data, key);
+			}
+			long cbc = System.nanoTime() - startTS;
+
+			startTS = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				// GCM 不允许以相同的密钥和 IV 重复加密；
+				gcmIv[0] = (byte) i;
+				gcmIv[1] = (byte) r;
+				AESCipher.encrypt(Mode.GCM, key, gcmIv, null, data, 0, data.length, buffer, 0);
+			}
+			long gcm = System.nanoTime() - startTS;
+
+			startTS = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				AESCipher.encrypt(Mode.CTR, key, ctrIv, null, data, 0, data.length, buffer, 0);
+			}
+			long ctr = System.nanoTime() - startTS;
+
+			System.out.printf(
+					"AES encrypt %s x 64KB -- round[%s]: AESUtils(CBC)=%.2f ms; AESCipher(GCM)=%.2f ms; AESCipher(CTR)=%.2f ms\r\n",
+					count, r, cbc / 1000000.0D, gcm / 1000000.0D, ctr / 1000000.0D);
+		}
+	}
+
+}
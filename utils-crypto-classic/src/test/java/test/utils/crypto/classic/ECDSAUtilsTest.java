@@ -14,10 +14,13 @@ import org.bouncycastle.util.test.FixedSecureRandom;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import utils.crypto.base.PublicKeyCache;
+import utils.crypto.classic.ECDSASigningContext;
 import utils.crypto.classic.ECDSAUtils;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Random;
 
 import static org.junit.Assert.*;
@@ -150,6 +153,190 @@ public class ECDSAUtilsTest {
         assertTrue(ECDSAUtils.verify(pubKey,signature,hashedMsg));
     }
 
+    @Test
+    public void signingContextTest(){
+
+        AsymmetricCipherKeyPair keyPair = ECDSAUtils.generateKeyPair();
+        byte[] privKeyBytes = ECDSAUtils.privKey2Bytes_RawKey((ECPrivateKeyParameters) keyPair.getPrivate());
+        byte[] pubKeyBytes = ECDSAUtils.pubKey2Bytes_RawKey((ECPublicKeyParameters) keyPair.getPublic());
+
+        ECDSASigningContext context = new ECDSASigningContext(privKeyBytes);
+        assertArrayEquals(pubKeyBytes, context.getPublicKey());
+
+        byte[] data = new byte[1024];
+        new Random().nextBytes(data);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(ECDSAUtils.verify(data, pubKeyBytes, context.sign(data)));
+        }
+
+        byte[] output = new byte[ECDSASigningContext.SIGNATURE_SIZE + 8];
+        assertEquals(ECDSASigningContext.SIGNATURE_SIZE, context.sign(data, 16, 100, output, 8));
+        assertTrue(ECDSAUtils.verify(Arrays.copyOfRange(data, 16, 116), pubKeyBytes,
+                Arrays.copyOfRange(output, 8, output.length)));
+
+        try {
+            new ECDSASigningContext(new byte[32]);
+            fail("A zero private key is accepted!");
+        } catch (IllegalArgumentException e) {
+            // expected;
+        }
+    }
+
+    @Test
+    public void signingContextPerformanceTest(){
+
+        int count = 500;
+        byte[] data = new byte[256];
+        new Random().nextBytes(data);
+        byte[] privKeyBytes = ECDSAUtils.privKey2Bytes_RawKey((ECPrivateKeyParameters) ECDSAUtils.generateKeyPair().getPrivate());
+        ECDSASigningContext context = new ECDSASigningContext(privKeyBytes);
+
+        for (int r = 0; r < 3; r++) {
+            long startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                ECDSAUtils.sign(data, privKeyBytes);
+            }
+            long utils = System.nanoTime() - startTS;
+
+            startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                context.sign(data);
+            }
+            long ctx = System.nanoTime() - startTS;
+
+            System.out.printf("ECDSA sign -- round[%s]: ECDSAUtils=%.2f us/op; ECDSASigningContext=%.2f us/op\r\n", r,
+                    utils / 1000.0D / count, ctx / 1000.0D / count);
+        }
+    }
+
+    @Test
+    public void fixedBaseRetrieveTest(){
+
+        ECPoint g = ECDSAUtils.getDomainParams().getG();
+        BigInteger n = ECDSAUtils.getDomainParams().getN();
+        Random random = new Random();
+        for (int i = 0; i < 16; i++) {
+            byte[] privateKey = new byte[32];
+            random.nextBytes(privateKey);
+            byte[] expected = g.multiply(new BigInteger(1, privateKey)).normalize().getEncoded(false);
+            assertArrayEquals(expected, ECDSAUtils.retrievePublicKey(privateKey));
+        }
+
+        // 超出群的阶的私钥；
+        byte[] longKey = new byte[33];
+        random.nextBytes(longKey);
+        longKey[0] = 1;
+        byte[] expected = g.multiply(new BigInteger(1, longKey).mod(n)).normalize().getEncoded(false);
+        assertArrayEquals(expected, ECDSAUtils.retrievePublicKey(longKey));
+    }
+
+    @Test
+    public void fixedBasePerformanceTest(){
+
+        int count = 500;
+        ECPoint g = ECDSAUtils.getDomainParams().getG();
+        byte[][] privateKeys = new byte[count][32];
+        Random random = new Random();
+        for (int i = 0; i < count; i++) {
+            random.nextBytes(privateKeys[i]);
+        }
+
+        for (int r = 0; r < 3; r++) {
+            long startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                g.multiply(new BigInteger(1, privateKeys[i])).normalize().getEncoded(false);
+            }
+            long defaultMultiplier = System.nanoTime() - startTS;
+
+            startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                ECDSAUtils.retrievePublicKey(privateKeys[i]);
+            }
+            long comb = System.nanoTime() - startTS;
+
+            startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                ECDSAUtils.generateKeyPair();
+            }
+            long keyGen = System.nanoTime() - startTS;
+
+            System.out.printf("ECDSA G*k -- round[%s]: default=%.2f us/op; comb=%.2f us/op; keygen=%.2f us/op\r\n", r,
+                    defaultMultiplier / 1000.0D / count, comb / 1000.0D / count, keyGen / 1000.0D / count);
+        }
+    }
+
+    @Test
+    public void publicKeyCacheTest(){
+
+        AsymmetricCipherKeyPair keyPair = ECDSAUtils.generateKeyPair();
+        ECPrivateKeyParameters privKeyParams = (ECPrivateKeyParameters) keyPair.getPrivate();
+        ECPublicKeyParameters pubKeyParams = (ECPublicKeyParameters) keyPair.getPublic();
+        byte[] pubKeyBytes = pubKeyParams.getQ().getEncoded(false);
+
+        byte[] data = new byte[1024];
+        new Random().nextBytes(data);
+        byte[] signature = ECDSAUtils.sign(data, privKeyParams);
+
+        PublicKeyCache<ECPublicKeyParameters> cache = ECDSAUtils.getPublicKeyCache();
+        long hits = cache.getHitCount();
+        assertTrue(ECDSAUtils.verify(data, pubKeyBytes, signature));
+        assertTrue(ECDSAUtils.verify(data, pubKeyBytes.clone(), signature));
+        assertTrue(cache.getHitCount() > hits);
+        assertSame(cache.get(pubKeyBytes), cache.get(pubKeyBytes.clone()));
+        assertEquals(pubKeyParams.getQ(), cache.get(pubKeyBytes).getQ());
+
+        // 缓存的公钥不受调用者修改原始字节的影响；
+        byte[] otherKeyBytes = ((ECPublicKeyParameters) ECDSAUtils.generateKeyPair().getPublic()).getQ()
+                .getEncoded(false);
+        byte[] mutableKeyBytes = otherKeyBytes.clone();
+        ECPublicKeyParameters otherKey = cache.get(mutableKeyBytes);
+        mutableKeyBytes[1] ^= 0x01;
+        assertSame(otherKey, cache.get(otherKeyBytes));
+        assertFalse(ECDSAUtils.verify(data, otherKeyBytes, signature));
+
+        byte[] invalidKeyBytes = pubKeyBytes.clone();
+        invalidKeyBytes[1] ^= 0x01;
+        try {
+            ECDSAUtils.verify(data, invalidKeyBytes, signature);
+            fail("An invalid public key is accepted!");
+        } catch (IllegalArgumentException e) {
+            // expected;
+        }
+    }
+
+    @Test
+    public void publicKeyCachePerformanceTest(){
+
+        int count = 500;
+        byte[] data = new byte[256];
+        new Random().nextBytes(data);
+
+        AsymmetricCipherKeyPair keyPair = ECDSAUtils.generateKeyPair();
+        ECPrivateKeyParameters privKeyParams = (ECPrivateKeyParameters) keyPair.getPrivate();
+        ECPublicKeyParameters pubKeyParams = (ECPublicKeyParameters) keyPair.getPublic();
+        byte[] pubKeyBytes = pubKeyParams.getQ().getEncoded(false);
+        byte[] signature = ECDSAUtils.sign(data, privKeyParams);
+
+        for (int r = 0; r < 3; r++) {
+            long startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                ECPublicKeyParameters pubKey = new ECPublicKeyParameters(
+                        ECDSAUtils.getCurve().decodePoint(pubKeyBytes), ECDSAUtils.getDomainParams());
+                assertTrue(ECDSAUtils.verify(data, pubKey, signature));
+            }
+            long uncached = System.nanoTime() - startTS;
+
+            startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                assertTrue(ECDSAUtils.verify(data, pubKeyBytes, signature));
+            }
+            long cached = System.nanoTime() - startTS;
+
+            System.out.printf("ECDSA verify -- round[%s]: uncached=%.2f us/op; cached=%.2f us/op\r\n", r,
+                    uncached / 1000.0D / count, cached / 1000.0D / count);
+        }
+    }
+
 //    @Test
     public void performanceTest(){
 
@@ -6,11 +6,15 @@ import utils.security.Ed25519Utils;
 import utils.security.RandomUtils;
 
 import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.digests.SHA512Digest;
 import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
 import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
 import org.bouncycastle.util.test.FixedSecureRandom;
 import org.junit.Test;
 
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Random;
 
 import static org.junit.Assert.*;
@@ -135,6 +139,171 @@ public class ED25519UtilsTest {
 
     }
 
+    @Test
+    public void verifyBatchTest(){
+        int keyCount = 20;
+        int count = 300;
+        byte[][][] keyPairs = new byte[keyCount][][];
+        for (int i = 0; i < keyCount; i++) {
+            keyPairs[i] = ED25519Utils.generateKeyPairBytes(new SecureRandom());
+        }
+        Random random = new Random();
+        byte[][] msgs = new byte[count][];
+        byte[][] pubKeys = new byte[count][];
+        byte[][] sigs = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            msgs[i] = new byte[random.nextInt(200)];
+            random.nextBytes(msgs[i]);
+            byte[][] keyPair = keyPairs[i % keyCount];
+            pubKeys[i] = keyPair[0];
+            sigs[i] = ED25519Utils.sign(msgs[i], keyPair[1]);
+        }
+
+        boolean[] results = ED25519Utils.verifyBatch(msgs, pubKeys, sigs);
+        for (int i = 0; i < count; i++) {
+            assertTrue(results[i]);
+        }
+
+        // 篡改数据、签名的 R 和 S 部分、替换公钥以及错误的签名长度；
+        msgs[7] = Arrays.copyOf(msgs[7], msgs[7].length + 1);
+        sigs[100] = sigs[100].clone();
+        sigs[100][3] ^= 0x01;
+        sigs[150] = sigs[150].clone();
+        sigs[150][40] ^= 0x10;
+        pubKeys[201] = keyPairs[(201 + 1) % keyCount][0];
+        sigs[299] = Arrays.copyOf(sigs[299], 63);
+
+        results = ED25519Utils.verifyBatch(msgs, pubKeys, sigs);
+        for (int i = 0; i < count; i++) {
+            boolean expected = i != 7 && i != 100 && i != 150 && i != 201 && i != 299;
+            assertEquals("index " + i, expected, results[i]);
+            if (i != 299) {
+                assertEquals(ED25519Utils.verify(msgs[i], pubKeys[i], sigs[i]), results[i]);
+            }
+        }
+
+        assertEquals(0, ED25519Utils.verifyBatch(new byte[0][], new byte[0][], new byte[0][]).length);
+    }
+
+    @Test
+    public void verifyBatchTorsionTest(){
+        int count = 16;
+        byte[][] msgs = new byte[count][];
+        byte[][] pubKeys = new byte[count][];
+        byte[][] sigs = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            byte[][] keyPair = ED25519Utils.generateKeyPairBytes(new SecureRandom());
+            msgs[i] = BytesUtils.toBytes("transaction-" + i);
+            pubKeys[i] = keyPair[0];
+            sigs[i] = ED25519Utils.sign(msgs[i], keyPair[1]);
+        }
+        // R = [r]B + (0,-1)，S = r + k·a：满足乘以余因子的验证方程，但不满足逐个验证的方程；
+        byte[][] keyPair = ED25519Utils.generateKeyPairBytes(new SecureRandom());
+        byte[][] noncePair = ED25519Utils.generateKeyPairBytes(new SecureRandom());
+        sigs[5] = signWithTorsion(msgs[5], keyPair, noncePair);
+        pubKeys[5] = keyPair[0];
+
+        for (int r = 0; r < 16; r++) {
+            boolean[] results = ED25519Utils.verifyBatch(msgs, pubKeys, sigs);
+            for (int i = 0; i < count; i++) {
+                assertEquals("index " + i, ED25519Utils.verify(msgs[i], pubKeys[i], sigs[i]), results[i]);
+            }
+        }
+    }
+
+    private static final BigInteger P = BigInteger.ONE.shiftLeft(255).subtract(BigInteger.valueOf(19));
+
+    private static final BigInteger L = BigInteger.ONE.shiftLeft(252)
+            .add(new BigInteger("27742317777372353535851937790883648493"));
+
+    private static byte[] signWithTorsion(byte[] msg, byte[][] keyPair, byte[][] noncePair) {
+        BigInteger a = secretScalar(keyPair[1]);
+        BigInteger r = secretScalar(noncePair[1]);
+        // [r]B + (0,-1) = (-x, -y)；
+        byte[] rB = noncePair[0];
+        BigInteger y = decodeLittleEndian(rB).clearBit(255);
+        byte[] encodedR = encodeLittleEndian(P.subtract(y));
+        encodedR[31] |= (~rB[31]) & 0x80;
+
+        SHA512Digest digest = new SHA512Digest();
+        byte[] hash = new byte[64];
+        digest.update(encodedR, 0, 32);
+        digest.update(keyPair[0], 0, 32);
+        digest.update(msg, 0, msg.length);
+        digest.doFinal(hash, 0);
+        BigInteger k = decodeLittleEndian(hash).mod(L);
+
+        byte[] sig = new byte[64];
+        System.arraycopy(encodedR, 0, sig, 0, 32);
+        System.arraycopy(encodeLittleEndian(r.add(k.multiply(a)).mod(L)), 0, sig, 32, 32);
+        return sig;
+    }
+
+    private static BigInteger secretScalar(byte[] seed) {
+        SHA512Digest digest = new SHA512Digest();
+        byte[] hash = new byte[64];
+        digest.update(seed, 0, seed.length);
+        digest.doFinal(hash, 0);
+        hash[0] &= (byte) 0xF8;
+        hash[31] &= 0x7F;
+        hash[31] |= 0x40;
+        return decodeLittleEndian(Arrays.copyOf(hash, 32));
+    }
+
+    private static BigInteger decodeLittleEndian(byte[] bytes) {
+        byte[] be = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            be[i] = bytes[bytes.length - 1 - i];
+        }
+        return new BigInteger(1, be);
+    }
+
+    private static byte[] encodeLittleEndian(BigInteger value) {
+        byte[] be = value.toByteArray();
+        byte[] le = new byte[32];
+        for (int i = 0; i < le.length && i < be.length; i++) {
+            le[i] = be[be.length - 1 - i];
+        }
+        return le;
+    }
+
+    @Test
+    public void verifyBatchPerformanceTest(){
+        int keyCount = 100;
+        int count = 2000;
+        byte[][][] keyPairs = new byte[keyCount][][];
+        for (int i = 0; i < keyCount; i++) {
+            keyPairs[i] = ED25519Utils.generateKeyPairBytes(new SecureRandom());
+        }
+        byte[][] msgs = new byte[count][];
+        byte[][] pubKeys = new byte[count][];
+        byte[][] sigs = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            msgs[i] = BytesUtils.toBytes("transaction-" + i);
+            pubKeys[i] = keyPairs[i % keyCount][0];
+            sigs[i] = ED25519Utils.sign(msgs[i], keyPairs[i % keyCount][1]);
+        }
+
+        for (int r = 0; r < 3; r++) {
+            long startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                assertTrue(ED25519Utils.verify(msgs[i], pubKeys[i], sigs[i]));
+            }
+            long sequentialNanos = System.nanoTime() - startTS;
+
+            startTS = System.nanoTime();
+            boolean[] results = ED25519Utils.verifyBatch(msgs, pubKeys, sigs);
+            long batchNanos = System.nanoTime() - startTS;
+            for (boolean result : results) {
+                assertTrue(result);
+            }
+            System.out.println(String.format(
+                    "ED25519 Verifying Count=%s; Sequential=%.2fms (%.1f us/sig); Batch=%.2fms (%.1f us/sig)", count,
+                    sequentialNanos / 1000000.0D, sequentialNanos / 1000.0D / count, batchNanos / 1000000.0D,
+                    batchNanos / 1000.0D / count));
+        }
+    }
+
 //    @Test
     public void performanceTest(){
 
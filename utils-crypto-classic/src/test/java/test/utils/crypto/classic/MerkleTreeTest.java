@@ -0,0 +1,132 @@
+package test.utils.crypto.classic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Test;
+
+import utils.crypto.base.MerkleProof;
+import utils.crypto.base.MerkleTree;
+import utils.crypto.classic.SHA256Utils;
+
+public class MerkleTreeTest {
+
+	/**
+	 * RFC 6962 的参考实现所用的叶子数据，以及依次包含前 1~8 个叶子的树的根哈希；
+	 */
+	private static final String[] LEAVES = { "", "00", "10", "2021", "3031", "40414243", "5051525354555657",
+			"606162636465666768696a6b6c6d6e6f" };
+
+	private static final String[] ROOTS = { "6e340b9cffb37a989ca544e6bb780a2c78901d3fb33738768511a30617afa01d",
+			"fac54203e7cc696cf0dfcb42c92a1d9dbaf70ad9e621f4bd8d98662f00e3c125",
+			"aeb6bcfe274b70a14fb067a5e5578264db0fa9b51af5e0ba159158f329e06e77",
+			"d37ee418976dd95753c1c73862b9398fa2a2cf9b4ff0fdfe8b30cd95209614b7",
+			"4e3bbb1f7b478dcfe71fb631631519a3bca12c9aefca1612bfce4c13a86264d4",
+			"76e67dadbcdf1e10e1b74ddc608abd2f98dfb16fbce75277b5232a127f2087ef",
+			"ddb89be403809e325750d3d263cd78929c2942b7942a34b77e122c9594a74c8c",
+			"5dc9da79a70659a9ad559cb701ded9a2ab9d823aad2f4960cfe370eff4604328" };
+
+	@Test
+	public void testReferenceRoots() {
+		MerkleTree tree = new MerkleTree(SHA256Utils::beginHash);
+		assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", Hex.toHexString(tree.getRoot()));
+
+		for (int i = 0; i < LEAVES.length; i++) {
+			tree.append(Hex.decode(LEAVES[i]));
+			assertEquals(ROOTS[i], Hex.toHexString(tree.getRoot()));
+
+			byte[][] leaves = new byte[i + 1][];
+			for (int j = 0; j <= i; j++) {
+				leaves[j] = Hex.decode(LEAVES[j]);
+			}
+			assertEquals(ROOTS[i], Hex.toHexString(MerkleTree.build(SHA256Utils::beginHash, leaves).getRoot()));
+		}
+	}
+
+	@Test
+	public void testBuildAndAppend() {
+		Random random = new Random();
+		for (int n : new int[] { 1, 2, 3, 17, 1000, MerkleTree.PARALLEL_THRESHOLD * 5 + 3 }) {
+			byte[][] leaves = new byte[n][];
+			MerkleTree incremental = new MerkleTree(SHA256Utils::beginHash, 1);
+			for (int i = 0; i < n; i++) {
+				leaves[i] = new byte[random.nextInt(64)];
+				random.nextBytes(leaves[i]);
+				assertEquals(i, incremental.append(leaves[i]));
+			}
+			MerkleTree tree = MerkleTree.build(SHA256Utils::beginHash, leaves);
+			assertEquals(n, tree.getLeafCount());
+			assertArrayEquals(tree.getRoot(), incremental.getRoot());
+
+			// 修改叶子；
+			int index = random.nextInt(n);
+			byte[] root = tree.getRoot();
+			byte[] data = leaves[index].clone();
+			leaves[index] = new byte[] { 1, 2, 3 };
+			tree.update(index, leaves[index]);
+			assertFalse(Hex.toHexString(root).equals(Hex.toHexString(tree.getRoot())));
+			assertArrayEquals(MerkleTree.build(SHA256Utils::beginHash, leaves).getRoot(), tree.getRoot());
+			tree.update(index, data);
+			assertArrayEquals(root, tree.getRoot());
+		}
+	}
+
+	@Test
+	public void testProof() {
+		Random random = new Random();
+		for (int n = 1; n <= 33; n++) {
+			byte[][] leaves = new byte[n][];
+			for (int i = 0; i < n; i++) {
+				leaves[i] = new byte[8];
+				random.nextBytes(leaves[i]);
+			}
+			MerkleTree tree = MerkleTree.build(SHA256Utils::beginHash, leaves);
+			byte[] root = tree.getRoot();
+			for (int i = 0; i < n; i++) {
+				MerkleProof proof = tree.getProof(i);
+				assertTrue(MerkleTree.verify(SHA256Utils::beginHash, root, leaves[i], proof));
+
+				assertFalse(MerkleTree.verify(SHA256Utils::beginHash, root, new byte[] { 1 }, proof));
+				if (n > 1) {
+					MerkleProof wrongIndex = new MerkleProof((i + 1) % n, n, proof.getPath());
+					assertFalse(MerkleTree.verify(SHA256Utils::beginHash, root, leaves[i], wrongIndex));
+
+					byte[][] path = proof.getPath().clone();
+					path[0] = path[0].clone();
+					path[0][0] ^= 0x01;
+					assertFalse(MerkleTree.verify(SHA256Utils::beginHash, root, leaves[i],
+							new MerkleProof(i, n, path)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPerformance() {
+		int count = 200000;
+		byte[][] leaves = new byte[count][32];
+		Random random = new Random();
+		for (byte[] leaf : leaves) {
+			random.nextBytes(leaf);
+		}
+		for (int r = 0; r < 3; r++) {
+			long startTS = System.nanoTime();
+			MerkleTree tree = MerkleTree.build(SHA256Utils::beginHash, leaves);
+			long build = System.nanoTime() - startTS;
+
+			startTS = System.nanoTime();
+			for (int i = 0; i < 1000; i++) {
+				tree.update(random.nextInt(count), leaves[i]);
+			}
+			long update = System.nanoTime() - startTS;
+
+			System.out.printf("MerkleTree %s leaves -- round[%s]: build=%.2f ms; update=%.2f us/op\r\n", count, r,
+					build / 1000000.0D, update / 1000.0D / 1000);
+		}
+	}
+}
@@ -1,14 +1,30 @@
 package test.utils.crypto.classic;
 
+import utils.crypto.base.DigestUtils;
 import utils.crypto.classic.SHA256Utils;
 import utils.io.BytesUtils;
+import utils.security.Hasher;
 import utils.security.ShaUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.util.encoders.Hex;
 import org.junit.Test;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author zhanglin33
@@ -48,4 +64,168 @@ public class SHA256UtilsTest {
 		assertArrayEquals(hash1, hash2);
 	}
 
+	@Test
+	public void streamingHashTest() throws IOException {
+		Random random = new Random();
+		for (int size : new int[] { 0, 1, 1000, DigestUtils.BUFFER_SIZE, DigestUtils.BUFFER_SIZE * 3 + 17 }) {
+			byte[] data = new byte[size];
+			random.nextBytes(data);
+			byte[] expected = SHA256Utils.hash(data);
+
+			assertArrayEquals(expected, SHA256Utils.hash(ByteBuffer.wrap(data)));
+
+			ByteBuffer direct = ByteBuffer.allocateDirect(size);
+			direct.put(data).flip();
+			assertArrayEquals(expected, SHA256Utils.hash(direct));
+			assertEquals(0, direct.remaining());
+
+			assertArrayEquals(expected, SHA256Utils.hash(new ByteArrayInputStream(data)));
+
+			Path file = Files.createTempFile("sha256", ".bin");
+			try {
+				Files.write(file, data);
+				assertArrayEquals(expected, SHA256Utils.hash(file));
+			} finally {
+				Files.delete(file);
+			}
+
+			Hasher hasher = SHA256Utils.beginHash();
+			ByteBuffer slice = ByteBuffer.wrap(data, size / 2, size - size / 2).slice();
+			hasher.update(data, 0, size / 2);
+			hasher.update(slice);
+			assertArrayEquals(expected, hasher.complete());
+		}
+	}
+
+	/**
+	 * 读取输入流时在同一线程中再次进行哈希，不影响输入流的哈希结果；
+	 */
+	@Test
+	public void streamingHashReentrantTest() {
+		byte[] data = new byte[DigestUtils.BUFFER_SIZE * 2 + 17];
+		new Random().nextBytes(data);
+		byte[] expected = SHA256Utils.hash(data);
+
+		InputStream in = new ByteArrayInputStream(data) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				int n = super.read(b, off, len);
+				SHA256Utils.hash(new ByteArrayInputStream(new byte[len]));
+				return n;
+			}
+		};
+		assertArrayEquals(expected, SHA256Utils.hash(in));
+	}
+
+	@Test
+	public void hashAllTest() {
+		Random random = new Random();
+		byte[][] inputs = new byte[1000][];
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = new byte[random.nextInt(300)];
+			random.nextBytes(inputs[i]);
+		}
+		byte[][] hashes = SHA256Utils.hashAll(inputs);
+		assertEquals(inputs.length, hashes.length);
+		for (int i = 0; i < inputs.length; i++) {
+			assertArrayEquals(SHA256Utils.hash(inputs[i]), hashes[i]);
+		}
+		assertEquals(0, SHA256Utils.hashAll(new byte[0][]).length);
+	}
+
+	@Test
+	public void hashAllPerformanceTest() {
+		int count = 20000;
+		byte[][] inputs = new byte[count][256];
+		Random random = new Random();
+		for (byte[] input : inputs) {
+			random.nextBytes(input);
+		}
+		for (int r = 0; r < 3; r++) {
+			long startTS = System.nanoTime();
+			for (byte[] input : inputs) {
+				SHA256Utils.hash(input);
+			}
+			long sequential = System.nanoTime() - startTS;
+
+			startTS = System.nanoTime();
+			SHA256Utils.hashAll(inputs);
+			long batch = System.nanoTime() - startTS;
+
+			System.out.printf("SHA256 hash %s x 256 bytes -- round[%s]: hash=%.2f ms; hashAll=%.2f ms\r\n", count, r,
+					sequential / 1000000.0D, batch / 1000000.0D);
+		}
+	}
+
+	@Test
+	public void hashIntoBufferTest() {
+		byte[] data = BytesUtils.toBytes("abcdbcdecdefdefgefghfghighijhijkijkljklmklmnlmnomnopnopq");
+		byte[] output = new byte[SHA256Utils.SHA256DIGEST_LENGTH + 4];
+		assertEquals(SHA256Utils.SHA256DIGEST_LENGTH, SHA256Utils.hash(data, 0, data.length, output, 4));
+		assertEquals("248d6a61d20638b8e5c026930c3e6039a33ce45964ff2167f6ecedd419db06c1",
+				Hex.toHexString(Arrays.copyOfRange(output, 4, output.length)));
+
+		// 失败的调用不影响之后的计算；
+		try {
+			SHA256Utils.hash(data, 0, data.length, output, 5);
+			fail("A short output buffer is accepted!");
+		} catch (IllegalArgumentException e) {
+			// expected;
+		}
+		try {
+			SHA256Utils.hash(data, 10, data.length, output, 0);
+			fail("An out-of-range input is accepted!");
+		} catch (RuntimeException e) {
+			// expected;
+		}
+		assertArrayEquals(Arrays.copyOfRange(output, 4, output.length), SHA256Utils.hash(data));
+	}
+
+	@Test
+	public void hashAllocationTest() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+			return;
+		}
+		com.sun.management.ThreadMXBean mxBean = (com.sun.management.ThreadMXBean) threadMXBean;
+		if (!mxBean.isThreadAllocatedMemorySupported() || !mxBean.isThreadAllocatedMemoryEnabled()) {
+			return;
+		}
+		long threadId = Thread.currentThread().getId();
+
+		int count = 100000;
+		byte[] key = new byte[32];
+		new Random().nextBytes(key);
+		byte[] output = new byte[SHA256Utils.SHA256DIGEST_LENGTH];
+
+		for (int r = 0; r < 3; r++) {
+			long startBytes = mxBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < count; i++) {
+				SHA256Digest digest = new SHA256Digest();
+				digest.update(key, 0, key.length);
+				digest.doFinal(output, 0);
+			}
+			long unpooled = mxBean.getThreadAllocatedBytes(threadId) - startBytes;
+
+			startBytes = mxBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < count; i++) {
+				SHA256Utils.hash(key);
+			}
+			long pooled = mxBean.getThreadAllocatedBytes(threadId) - startBytes;
+
+			startBytes = mxBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < count; i++) {
+				SHA256Utils.hash(key, 0, key.length, output, 0);
+			}
+			long pooledIntoBuffer = mxBean.getThreadAllocatedBytes(threadId) - startBytes;
+
+			System.out.printf(
+					"SHA256 32-byte key -- round[%s]: new digest=%.1f bytes/op; hash=%.1f bytes/op; hash into buffer=%.1f bytes/op\r\n",
+					r, (double) unpooled / count, (double) pooled / count, (double) pooledIntoBuffer / count);
+			if (r > 0) {
+				assertTrue(pooledIntoBuffer < count);
+			}
+		}
+	}
+
 }
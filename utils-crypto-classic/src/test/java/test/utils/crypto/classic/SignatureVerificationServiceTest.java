@@ -0,0 +1,118 @@
+package test.utils.crypto.classic;
+
+import static org.junit.Assert.*;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.RSAKeyParameters;
+import org.junit.Test;
+
+import utils.crypto.base.SignatureVerificationRequest;
+import utils.crypto.base.SignatureVerificationService;
+import utils.crypto.classic.ClassicSignatureVerifiers;
+import utils.crypto.classic.ECDSAUtils;
+import utils.crypto.classic.ED25519Utils;
+import utils.crypto.classic.RSAUtils;
+
+public class SignatureVerificationServiceTest {
+
+	@Test
+	public void testMixedAlgorithms() {
+		SignatureVerificationService service = new SignatureVerificationService(ForkJoinPool.commonPool(), 16);
+		ClassicSignatureVerifiers.registerTo(service);
+
+		AsymmetricCipherKeyPair ecdsaKeyPair = ECDSAUtils.generateKeyPair();
+		byte[] ecdsaPubKey = ECDSAUtils.pubKey2Bytes_RawKey((ECPublicKeyParameters) ecdsaKeyPair.getPublic());
+		AsymmetricCipherKeyPair rsaKeyPair = RSAUtils.generateKeyPair();
+		byte[] rsaPubKey = RSAUtils.pubKey2Bytes_RawKey((RSAKeyParameters) rsaKeyPair.getPublic());
+		byte[][] ed25519KeyPair = ED25519Utils.generateKeyPairBytes(new SecureRandom());
+
+		Random random = new Random();
+		List<SignatureVerificationRequest> requests = new ArrayList<>();
+		BitSet expected = new BitSet();
+		for (int i = 0; i < 200; i++) {
+			byte[] data = new byte[32 + random.nextInt(64)];
+			random.nextBytes(data);
+			SignatureVerificationRequest request;
+			switch (i % 3) {
+			case 0:
+				request = new SignatureVerificationRequest(ClassicSignatureVerifiers.ECDSA_ALGORITHM, data,
+						ecdsaPubKey, ECDSAUtils.sign(data, ecdsaKeyPair.getPrivate()));
+				break;
+			case 1:
+				request = new SignatureVerificationRequest(ClassicSignatureVerifiers.RSA_ALGORITHM, data, rsaPubKey,
+						RSAUtils.sign(data, rsaKeyPair.getPrivate()));
+				break;
+			default:
+				request = new SignatureVerificationRequest(ClassicSignatureVerifiers.ED25519_ALGORITHM, data,
+						ed25519KeyPair[0], ED25519Utils.sign(data, ed25519KeyPair[1]));
+				break;
+			}
+			if (i % 17 == 5) {
+				// 篡改签名；
+				byte[] signature = request.getSignature().clone();
+				signature[signature.length / 2] ^= 0x40;
+				request = new SignatureVerificationRequest(request.getAlgorithm(), data, request.getPublicKey(),
+						signature);
+			} else if (i % 29 == 7) {
+				// 无效的公钥；
+				request = new SignatureVerificationRequest(request.getAlgorithm(), data, new byte[] { 1, 2, 3 },
+						request.getSignature());
+			} else {
+				expected.set(i);
+			}
+			requests.add(request);
+		}
+
+		BitSet results = service.verify(requests);
+		assertEquals(expected, results);
+
+		try {
+			service.verify(new SignatureVerificationRequest("UNKNOWN", new byte[1], new byte[1], new byte[1]));
+			fail("The algorithm is not registered!");
+		} catch (IllegalArgumentException e) {
+		}
+		assertTrue(service.verify(new ArrayList<>()).isEmpty());
+	}
+
+	@Test
+	public void testPerformance() {
+		SignatureVerificationService service = new SignatureVerificationService();
+		ClassicSignatureVerifiers.registerTo(service);
+		int count = 2000;
+		AsymmetricCipherKeyPair[] keyPairs = new AsymmetricCipherKeyPair[20];
+		for (int i = 0; i < keyPairs.length; i++) {
+			keyPairs[i] = ECDSAUtils.generateKeyPair();
+		}
+		List<SignatureVerificationRequest> requests = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			byte[] data = ("transaction-" + i).getBytes();
+			AsymmetricCipherKeyPair keyPair = keyPairs[i % keyPairs.length];
+			requests.add(new SignatureVerificationRequest(ClassicSignatureVerifiers.ECDSA_ALGORITHM, data,
+					ECDSAUtils.pubKey2Bytes_RawKey((ECPublicKeyParameters) keyPair.getPublic()),
+					ECDSAUtils.sign(data, keyPair.getPrivate())));
+		}
+		for (int r = 0; r < 2; r++) {
+			long start = System.nanoTime();
+			for (SignatureVerificationRequest request : requests) {
+				assertTrue(ECDSAUtils.verify(request.getData(), request.getPublicKey(), request.getSignature()));
+			}
+			long sequentialNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			BitSet results = service.verify(requests);
+			long serviceNanos = System.nanoTime() - start;
+			assertEquals(count, results.cardinality());
+			System.out.printf("ECDSA verify %s signatures on %s cores: sequential=%.1fms; service=%.1fms\r\n", count,
+					Runtime.getRuntime().availableProcessors(), sequentialNanos / 1000000.0D,
+					serviceNanos / 1000000.0D);
+		}
+	}
+}
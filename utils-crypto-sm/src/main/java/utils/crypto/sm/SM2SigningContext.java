@@ -0,0 +1,203 @@
+package utils.crypto.sm;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.bouncycastle.crypto.digests.SM3Digest;
+import org.bouncycastle.crypto.signers.RandomDSAKCalculator;
+import org.bouncycastle.math.ec.ECFieldElement;
+import org.bouncycastle.math.ec.ECPoint;
+
+import utils.crypto.base.DRBGUtils;
+import utils.crypto.base.ECPrecomputeUtils;
+
+/**
+ * 可重复使用的 SM2 签名上下文；
+ * <p>
+ *
+ * 上下文持有解析后的私钥、签名者的 Z 值（由用户 ID 和公钥计算的 SM3 摘要）以及 (1 + d)^-1 mod n，每次签名只需计算
+ * e = SM3(Z || M) 和一次定点乘法，并直接输出 r || s，不再经过 ASN.1 编码和解码；<br>
+ *
+ * 上下文不是线程安全的，应由单个线程持有；需要并发签名时每个线程各自创建上下文；<br>
+ *
+ * 生成的签名与 {@link SM2Utils#sign(byte[], byte[], byte[])} 的格式相同，可以用 {@link SM2Utils} 的验签方法验证；
+ *
+ * @author huanghaiquan
+ *
+ */
+public final class SM2SigningContext {
+
+	/**
+	 * 未指定用户 ID 时采用的默认值；与 {@link SM2Utils} 的默认值一致；
+	 */
+	private static final byte[] DEFAULT_ID = { '1', '2', '3', '4', '5', '6', '7', '8', '1', '2', '3', '4', '5', '6',
+			'7', '8' };
+
+	public static final int SIGNATURE_SIZE = SM2Utils.R_SIZE + SM2Utils.S_SIZE;
+
+	private final BigInteger n;
+
+	private final ECPoint g;
+
+	private final BigInteger d;
+
+	private final BigInteger dPlus1Inverse;
+
+	private final byte[] publicKey;
+
+	private final byte[] z;
+
+	private final SM3Digest digest = new SM3Digest();
+
+	private final byte[] e = new byte[SM2Utils.SM3DIGEST_LENGTH];
+
+	private final RandomDSAKCalculator kCalculator = new RandomDSAKCalculator();
+
+	/**
+	 * 以默认的用户 ID 和当前线程的 DRBG 创建签名上下文；
+	 *
+	 * @param privateKey 私钥；
+	 */
+	public SM2SigningContext(byte[] privateKey) {
+		this(privateKey, DEFAULT_ID);
+	}
+
+	/**
+	 * 以当前线程的 DRBG 创建签名上下文；
+	 *
+	 * @param privateKey 私钥；
+	 * @param ID         用户 ID；
+	 */
+	public SM2SigningContext(byte[] privateKey, byte[] ID) {
+		this(privateKey, ID, DRBGUtils.getDefaultRandom());
+	}
+
+	/**
+	 * 创建签名上下文；
+	 *
+	 * @param privateKey 私钥；
+	 * @param ID         用户 ID；长度不能超过 8191 字节；
+	 * @param random     随机数生成器；
+	 */
+	public SM2SigningContext(byte[] privateKey, byte[] ID, SecureRandom random) {
+		if (ID.length >= 8192) {
+			throw new IllegalArgumentException("The length of ID exceeds 8191 bytes!");
+		}
+		this.n = SM2Utils.DOMAIN_PARAMS.getN();
+		this.g = SM2Utils.getBasePoint();
+		this.d = new BigInteger(1, privateKey);
+		if (d.signum() == 0 || d.compareTo(n.subtract(BigInteger.ONE)) >= 0) {
+			throw new IllegalArgumentException("The private key is out of range!");
+		}
+		this.dPlus1Inverse = d.add(BigInteger.ONE).modInverse(n);
+
+		ECPoint publicKeyPoint = ECPrecomputeUtils.multiplyFixedBase(g, d);
+		this.publicKey = publicKeyPoint.getEncoded(false);
+		this.z = computeZ(ID, publicKeyPoint);
+
+		kCalculator.init(n, random);
+	}
+
+	/**
+	 * 公钥；
+	 *
+	 * @return
+	 */
+	public byte[] getPublicKey() {
+		return publicKey.clone();
+	}
+
+	/**
+	 * 签名；
+	 *
+	 * @param data 要签名的数据；
+	 * @return r || s；
+	 */
+	public byte[] sign(byte[] data) {
+		return sign(data, 0, data.length);
+	}
+
+	/**
+	 * 签名；
+	 *
+	 * @param data   要签名的数据；
+	 * @param offset 数据的起始位置；
+	 * @param length 数据的长度；
+	 * @return r || s；
+	 */
+	public byte[] sign(byte[] data, int offset, int length) {
+		byte[] signature = new byte[SIGNATURE_SIZE];
+		sign(data, offset, length, signature, 0);
+		return signature;
+	}
+
+	/**
+	 * 签名，并将 r || s 写入指定的缓冲区；
+	 *
+	 * @param data      要签名的数据；
+	 * @param offset    数据的起始位置；
+	 * @param length    数据的长度；
+	 * @param signature 签名的输出缓冲区；
+	 * @param sigOffset 签名的写入位置；
+	 * @return 写入的字节数；即 {@link #SIGNATURE_SIZE}；
+	 */
+	public int sign(byte[] data, int offset, int length, byte[] signature, int sigOffset) {
+		digest.update(z, 0, z.length);
+		digest.update(data, offset, length);
+		digest.doFinal(e, 0);
+		BigInteger eValue = new BigInteger(1, e);
+
+		BigInteger r;
+		BigInteger s;
+		do {
+			BigInteger k;
+			do {
+				k = kCalculator.nextK();
+				ECPoint p = ECPrecomputeUtils.multiplyFixedBase(g, k);
+				r = eValue.add(p.getAffineXCoord().toBigInteger()).mod(n);
+			} while (r.signum() == 0 || r.add(k).equals(n));
+
+			s = dPlus1Inverse.multiply(k.subtract(r.multiply(d))).mod(n);
+		} while (s.signum() == 0);
+
+		writeScalar(r, signature, sigOffset, SM2Utils.R_SIZE);
+		writeScalar(s, signature, sigOffset + SM2Utils.R_SIZE, SM2Utils.S_SIZE);
+		return SIGNATURE_SIZE;
+	}
+
+	/**
+	 * 计算 Z = SM3(ENTL || ID || a || b || xG || yG || xA || yA)；
+	 */
+	private byte[] computeZ(byte[] ID, ECPoint publicKeyPoint) {
+		int entl = ID.length * 8;
+		digest.update((byte) (entl >>> 8));
+		digest.update((byte) entl);
+		digest.update(ID, 0, ID.length);
+		update(SM2Utils.getCurve().getA());
+		update(SM2Utils.getCurve().getB());
+		update(g.getAffineXCoord());
+		update(g.getAffineYCoord());
+		update(publicKeyPoint.getAffineXCoord());
+		update(publicKeyPoint.getAffineYCoord());
+
+		byte[] result = new byte[digest.getDigestSize()];
+		digest.doFinal(result, 0);
+		return result;
+	}
+
+	private void update(ECFieldElement element) {
+		byte[] bytes = element.getEncoded();
+		digest.update(bytes, 0, bytes.length);
+	}
+
+	private static void writeScalar(BigInteger value, byte[] output, int offset, int size) {
+		byte[] bytes = value.toByteArray();
+		int start = bytes.length > size ? bytes.length - size : 0;
+		int count = bytes.length - start;
+		int padding = size - count;
+		for (int i = 0; i < padding; i++) {
+			output[offset + i] = 0;
+		}
+		System.arraycopy(bytes, start, output, offset + padding, count);
+	}
+}
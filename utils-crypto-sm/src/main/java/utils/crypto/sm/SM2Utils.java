@@ -26,6 +26,9 @@ import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
 import org.bouncycastle.math.ec.ECCurve;
 import org.bouncycastle.math.ec.ECPoint;
 
+import utils.crypto.base.DRBGUtils;
+import utils.crypto.base.ECPrecomputeUtils;
+import utils.crypto.base.PublicKeyCache;
 import utils.io.BytesUtils;
 import utils.security.DecryptionException;
 import utils.security.EncryptionException;
@@ -50,6 +53,30 @@ public class SM2Utils {
 	public static final ECDomainParameters DOMAIN_PARAMS = new ECDomainParameters(CURVE, PARAMS.getG(), PARAMS.getN(),
 			PARAMS.getH());
 
+	/**
+	 * 域参数的基点，附带定点乘法的梳状表；
+	 * <p>
+	 * 
+	 * 表在首次取用基点时构建，之后不再重复构建；基点即 {@link #DOMAIN_PARAMS} 的基点对象，因此密钥生成、签名和公钥推导共享同一个表；
+	 */
+	private static class FixedBase {
+
+		static final ECPoint G = ECPrecomputeUtils.precomputeFixedBase(DOMAIN_PARAMS.getG());
+
+	}
+
+	/**
+	 * 返回已预计算梳状表的基点；
+	 * 
+	 * @return
+	 */
+	static ECPoint getBasePoint() {
+		return FixedBase.G;
+	}
+
+	private static final PublicKeyCache<ECPublicKeyParameters> PUBLIC_KEY_CACHE = new PublicKeyCache<ECPublicKeyParameters>(
+			PublicKeyCache.DEFAULT_CAPACITY, SM2Utils::decodePublicKey);
+
 	// -----------------Key Generation Algorithm-----------------
 
 	/**
@@ -58,7 +85,7 @@ public class SM2Utils {
 	 * @return key pair
 	 */
 	public static AsymmetricCipherKeyPair generateKeyPair() {
-		SecureRandom random = new SecureRandom();
+		SecureRandom random = DRBGUtils.getDefaultRandom();
 		return generateKeyPair(random);
 	}
 
@@ -95,7 +122,7 @@ public class SM2Utils {
 	 * @return publicKey
 	 */
 	public static byte[] retrievePublicKey(byte[] privateKey) {
-		ECPoint publicKeyPoint = DOMAIN_PARAMS.getG().multiply(new BigInteger(1, privateKey)).normalize();
+		ECPoint publicKeyPoint = ECPrecomputeUtils.multiplyFixedBase(getBasePoint(), new BigInteger(1, privateKey));
 		return publicKeyPoint.getEncoded(false);
 	}
 
@@ -110,7 +137,7 @@ public class SM2Utils {
 	 */
 	public static byte[] sign(byte[] data, byte[] privateKey) {
 
-		SecureRandom random = new SecureRandom();
+		SecureRandom random = DRBGUtils.getDefaultRandom();
 		ECPrivateKeyParameters privKey = new ECPrivateKeyParameters(new BigInteger(1, privateKey), DOMAIN_PARAMS);
 		CipherParameters params = new ParametersWithRandom(privKey, random);
 
@@ -122,11 +149,11 @@ public class SM2Utils {
 	}
 
 	public static byte[] sign(byte[] data, byte[] privateKey, byte[] ID) {
-		return sign(data, privateKey, new SecureRandom(), ID);
+		return sign(data, privateKey, DRBGUtils.getDefaultRandom(), ID);
 	}
 
 	public static byte[] sign(byte[] data, int offset, int length, byte[] privateKey, byte[] ID) {
-		return sign(data, offset, length, privateKey, new SecureRandom(), ID);
+		return sign(data, offset, length, privateKey, DRBGUtils.getDefaultRandom(), ID);
 	}
 
 	public static byte[] sign(byte[] data, byte[] privateKey, SecureRandom random, byte[] ID) {
@@ -188,8 +215,7 @@ public class SM2Utils {
 	 */
 	public static boolean verify(byte[] data, byte[] publicKey, byte[] signature) {
 
-		ECPoint pubKeyPoint = resolvePubKeyBytes(publicKey);
-		ECPublicKeyParameters pubKey = new ECPublicKeyParameters(pubKeyPoint, DOMAIN_PARAMS);
+		ECPublicKeyParameters pubKey = PUBLIC_KEY_CACHE.get(publicKey);
 
 		return verify(data, pubKey, signature);
 	}
@@ -204,8 +230,7 @@ public class SM2Utils {
 
 	public static boolean verify(byte[] data, int offset, int length, byte[] publicKey, byte[] signature, byte[] ID) {
 
-		ECPoint pubKeyPoint = resolvePubKeyBytes(publicKey);
-		ECPublicKeyParameters pubKey = new ECPublicKeyParameters(pubKeyPoint, DOMAIN_PARAMS);
+		ECPublicKeyParameters pubKey = PUBLIC_KEY_CACHE.get(publicKey);
 		ParametersWithID params = new ParametersWithID(pubKey, ID);
 		return verify(data, params, signature);
 	}
@@ -253,14 +278,14 @@ public class SM2Utils {
 	 */
 	public static byte[] encrypt(byte[] plainBytes, byte[] publicKey) {
 
-		SecureRandom random = new SecureRandom();
+		SecureRandom random = DRBGUtils.getDefaultRandom();
 
 		return encrypt(plainBytes, 0, plainBytes.length, publicKey, random);
 	}
 
 	public static byte[] encrypt(byte[] plainBytes, int offset, int length, byte[] publicKey) {
 
-		SecureRandom random = new SecureRandom();
+		SecureRandom random = DRBGUtils.getDefaultRandom();
 
 		return encrypt(plainBytes, offset, length, publicKey, random);
 	}
@@ -271,8 +296,7 @@ public class SM2Utils {
 
 	public static byte[] encrypt(byte[] plainBytes, int offset, int length, byte[] publicKey, SecureRandom random) {
 
-		ECPoint pubKeyPoint = resolvePubKeyBytes(publicKey);
-		ECPublicKeyParameters pubKey = new ECPublicKeyParameters(pubKeyPoint, DOMAIN_PARAMS);
+		ECPublicKeyParameters pubKey = PUBLIC_KEY_CACHE.get(publicKey);
 		ParametersWithRandom params = new ParametersWithRandom(pubKey, random);
 
 		return encrypt(plainBytes, offset, length, params);
@@ -280,7 +304,7 @@ public class SM2Utils {
 
 	public static byte[] encrypt(byte[] plainBytes, ECPublicKeyParameters pubKey) {
 
-		SecureRandom random = new SecureRandom();
+		SecureRandom random = DRBGUtils.getDefaultRandom();
 		ParametersWithRandom params = new ParametersWithRandom(pubKey, random);
 
 		return encrypt(plainBytes, params);
@@ -384,6 +408,30 @@ public class SM2Utils {
 		return CURVE.decodePoint(publicKey);
 	}
 
+	/**
+	 * 解码公钥；
+	 * <p>
+	 * 
+	 * 返回的公钥参数已经过校验，并且公钥点附带了 wNAF 预计算表；以同一个公钥参数对象验签时复用预计算表；
+	 * 
+	 * @param publicKey 公钥的原始字节；
+	 * @return
+	 */
+	public static ECPublicKeyParameters decodePublicKey(byte[] publicKey) {
+		ECPoint point = resolvePubKeyBytes(publicKey).normalize();
+		ECPrecomputeUtils.precomputeWNaf(point, DOMAIN_PARAMS.getN());
+		return new ECPublicKeyParameters(point, DOMAIN_PARAMS);
+	}
+
+	/**
+	 * 验签和加密所用的公钥缓存；
+	 * 
+	 * @return
+	 */
+	public static PublicKeyCache<ECPublicKeyParameters> getPublicKeyCache() {
+		return PUBLIC_KEY_CACHE;
+	}
+
 	public static ECCurve getCurve() {
 		return CURVE;
 	}
@@ -1,7 +1,12 @@
 package utils.crypto.sm;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
 import org.bouncycastle.crypto.digests.SM3Digest;
 
+import utils.crypto.base.DigestUtils;
 import utils.security.Hasher;
 
 public class SM3Utils {
@@ -9,30 +14,83 @@ public class SM3Utils {
 	// The length of sm3 output is 32 bytes
 	public static final int SM3DIGEST_LENGTH = 32;
 
+	/**
+	 * 每个线程复用的摘要对象；
+	 */
+	private static final ThreadLocal<SM3Digest> DIGESTS = ThreadLocal.withInitial(SM3Digest::new);
+
 	public static byte[] hash(byte[] data) {
+		return hash(data, 0, data.length);
+	}
 
+	public static byte[] hash(byte[] data, int offset, int len) {
 		byte[] result = new byte[SM3DIGEST_LENGTH];
-
-		SM3Digest sm3digest = new SM3Digest();
-
-		sm3digest.update(data, 0, data.length);
-		sm3digest.doFinal(result, 0);
-
+		hash(data, offset, len, result, 0);
 		return result;
 	}
 
-	public static byte[] hash(byte[] data, int offset, int len) {
+	/**
+	 * 计算哈希，并将结果写入指定的缓冲区；
+	 * <p>
+	 *
+	 * 计算采用当前线程复用的摘要对象，不分配内存；
+	 *
+	 * @param data      数据；
+	 * @param offset    数据的起始位置；
+	 * @param len       数据的长度；
+	 * @param output    输出缓冲区；剩余空间不能小于 {@link #SM3DIGEST_LENGTH}；
+	 * @param outOffset 输出的起始位置；
+	 * @return 写入的字节数；即 {@link #SM3DIGEST_LENGTH}；
+	 */
+	public static int hash(byte[] data, int offset, int len, byte[] output, int outOffset) {
+		return DigestUtils.hash(DIGESTS.get(), data, offset, len, output, outOffset);
+	}
 
-		byte[] result = new byte[SM3DIGEST_LENGTH];
+	/**
+	 * 计算缓冲区中剩余数据的哈希；之后缓冲区的 position 等于 limit；
+	 *
+	 * @param data
+	 * @return
+	 */
+	public static byte[] hash(ByteBuffer data) {
+		SM3Digest digest = new SM3Digest();
+		DigestUtils.update(digest, data);
+		return DigestUtils.doFinal(digest);
+	}
 
-		SM3Digest sm3digest = new SM3Digest();
+	/**
+	 * 计算输入流中全部数据的哈希；输入流不会被关闭；
+	 *
+	 * @param input
+	 * @return
+	 */
+	public static byte[] hash(InputStream input) {
+		SM3Digest digest = new SM3Digest();
+		DigestUtils.update(digest, input);
+		return DigestUtils.doFinal(digest);
+	}
 
-		sm3digest.update(data, offset, len);
-		sm3digest.doFinal(result, 0);
+	/**
+	 * 计算文件的哈希；通过 {@link java.nio.channels.FileChannel} 分段读入固定大小的缓冲区进行计算，适用于很大的文件；
+	 *
+	 * @param file
+	 * @return
+	 */
+	public static byte[] hash(Path file) {
+		SM3Digest digest = new SM3Digest();
+		DigestUtils.update(digest, file);
+		return DigestUtils.doFinal(digest);
+	}
 
-		return result;
+	/**
+	 * 分别计算每一项数据的哈希；数据较多时并行计算；
+	 *
+	 * @param inputs
+	 * @return 与输入一一对应的哈希；
+	 */
+	public static byte[][] hashAll(byte[][] inputs) {
+		return DigestUtils.hashAll(SM3Digest::new, inputs);
 	}
-	
 
     public static Hasher beginHash() {
     	return new SM3Hasher();
@@ -52,6 +110,11 @@ public class SM3Utils {
 			digest.update(bytes, offset, len);
 		}
 
+		@Override
+		public void update(ByteBuffer buffer) {
+			DigestUtils.update(digest, buffer);
+		}
+
 		@Override
 		public byte[] complete() {
 			byte[] result = new byte[SM3DIGEST_LENGTH];
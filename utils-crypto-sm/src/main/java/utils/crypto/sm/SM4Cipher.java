@@ -0,0 +1,643 @@
+package utils.crypto.sm;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.bouncycastle.crypto.BufferedBlockCipher;
+import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.OutputLengthException;
+import org.bouncycastle.crypto.engines.SM4Engine;
+import org.bouncycastle.crypto.modes.CBCBlockCipher;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.paddings.PKCS7Padding;
+import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+
+import utils.crypto.base.DRBGUtils;
+import utils.crypto.base.StreamingCipher;
+import utils.crypto.base.StreamingCipherInputStream;
+import utils.crypto.base.StreamingCipherOutputStream;
+import utils.security.DecryptionException;
+import utils.security.EncryptionException;
+
+/**
+ * SM4 的流式加密/解密；支持 CBC（PKCS7 填充）、CTR 和 GCM 模式；
+ * <p>
+ *
+ * 静态方法使用每个线程各自缓存的实例，分组密码引擎在多次调用之间复用，每次调用只需以密钥和 IV 重新初始化，并直接将结果写入调用者的缓冲区；
+ * 输入和输出可以是同一个数组（原地加密/解密），此时输出缓冲区需为填充或者认证标签留出空间；<br>
+ *
+ * 实例用于一条消息的流式加密/解密，可以分多次输入 byte 数组或 {@link java.nio.ByteBuffer}，也可以通过 {@link #wrap(InputStream)} 和
+ * {@link #wrap(OutputStream)} 包装为输入/输出流；除 GCM 模式的流式解密之外，缓冲区的大小与数据总长度无关，可以处理 GB 级的文件；
+ * 实例不是线程安全的；<br>
+ *
+ * CTR 模式下各个分组的密钥流相互独立：一次输入不少于 {@link #PARALLEL_THRESHOLD} 字节时，数据按分组划分为多个分段，
+ * 在公共的 {@link java.util.concurrent.ForkJoinPool} 中并行计算；<br>
+ *
+ * GCM 模式下，流式解密的 update 只缓存密文并返回 0，doFinal 验证认证标签之后才输出全部明文，因此需要缓存整条消息，
+ * 连同输出的明文共需约两倍于消息长度的内存；缓存的密文超过 {@link #GCM_MAX_STREAMING_SIZE} 时抛出 {@link DecryptionException}，
+ * 更大的数据应分块加密，或者以一次性的 {@link #decrypt(Mode, byte[], byte[], byte[], byte[], int, int, byte[], int)} 解密；
+ * 认证失败时抛出 {@link DecryptionException}，不输出任何明文；同一个密钥不能重复使用同一个 IV；<br>
+ *
+ * CBC 模式的 {@link #encrypt(Mode, byte[], byte[])} 与 {@link SM4Utils#encrypt(byte[], byte[])} 的输出格式相同，可以相互解密；
+ *
+ * @author huanghaiquan
+ *
+ */
+public final class SM4Cipher implements StreamingCipher {
+
+	/**
+	 * GCM 模式推荐的 IV 长度；
+	 */
+	public static final int GCM_IV_SIZE = 12;
+
+	/**
+	 * GCM 模式的认证标签长度；
+	 */
+	public static final int GCM_TAG_SIZE = 16;
+
+	/**
+	 * GCM 模式流式解密时最多缓存的密文长度（包括认证标签）；
+	 */
+	public static final int GCM_MAX_STREAMING_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * CTR 模式下一次输入达到此长度时并行计算；
+	 */
+	public static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+	/**
+	 * CTR 模式并行计算时每个分段的长度；
+	 */
+	private static final int SEGMENT_SIZE = 16 * 1024;
+
+	private static final int BLOCK_SIZE = SM4Utils.BLOCK_SIZE;
+
+	/**
+	 * 并行计算的分段所用的引擎；
+	 */
+	private static final ThreadLocal<SM4Engine> SEGMENT_ENGINES = ThreadLocal.withInitial(SM4Engine::new);
+
+	public static enum Mode {
+
+		/**
+		 * 分组链接模式；采用 PKCS7 填充；
+		 */
+		CBC(SM4Utils.IV_SIZE, 0),
+
+		/**
+		 * 计数器模式；密文与明文等长，不提供完整性保护；
+		 */
+		CTR(SM4Utils.IV_SIZE, 0),
+
+		/**
+		 * 认证加密；密文之后附加 {@link SM4Cipher#GCM_TAG_SIZE} 字节的认证标签；
+		 */
+		GCM(GCM_IV_SIZE, GCM_TAG_SIZE);
+
+		private final int ivSize;
+
+		private final int tagSize;
+
+		private final ThreadLocal<SM4Cipher> ciphers = ThreadLocal.withInitial(() -> new SM4Cipher(this));
+
+		private Mode(int ivSize, int tagSize) {
+			this.ivSize = ivSize;
+			this.tagSize = tagSize;
+		}
+
+		public int getIvSize() {
+			return ivSize;
+		}
+
+		public int getTagSize() {
+			return tagSize;
+		}
+	}
+
+	private final Mode mode;
+
+	private final SM4Engine engine = new SM4Engine();
+
+	private final BufferedBlockCipher blockCipher;
+
+	private final GCMBlockCipher aeadCipher;
+
+	private boolean encryption;
+
+	/**
+	 * CTR 模式的密钥；
+	 */
+	private KeyParameter key;
+
+	/**
+	 * CTR 模式的初始计数器；
+	 */
+	private final byte[] iv = new byte[BLOCK_SIZE];
+
+	/**
+	 * CTR 模式的当前计数器；
+	 */
+	private final byte[] counter = new byte[BLOCK_SIZE];
+
+	/**
+	 * CTR 模式中上一次输入未用完的密钥流；
+	 */
+	private final byte[] keyStream = new byte[BLOCK_SIZE];
+
+	private int keyStreamOffset = BLOCK_SIZE;
+
+	/**
+	 * GCM 模式流式解密时缓存的密文；认证标签验证通过之前不输出明文；
+	 */
+	private byte[] pending = new byte[0];
+
+	private int pendingLength;
+
+	private SM4Cipher(Mode mode) {
+		this.mode = mode;
+		this.blockCipher = mode == Mode.CBC
+				? new PaddedBufferedBlockCipher(new CBCBlockCipher(engine), new PKCS7Padding())
+				: null;
+		this.aeadCipher = mode == Mode.GCM ? new GCMBlockCipher(engine) : null;
+	}
+
+	/**
+	 * 创建流式加密的实例；
+	 *
+	 * @param mode      模式；
+	 * @param secretKey 密钥；
+	 * @param iv        初始向量；长度为 {@link Mode#getIvSize()}；
+	 * @return
+	 */
+	public static SM4Cipher encryptor(Mode mode, byte[] secretKey, byte[] iv) {
+		SM4Cipher cipher = new SM4Cipher(mode);
+		cipher.init(true, secretKey, iv);
+		return cipher;
+	}
+
+	/**
+	 * 创建流式解密的实例；
+	 *
+	 * @param mode      模式；
+	 * @param secretKey 密钥；
+	 * @param iv        初始向量；长度为 {@link Mode#getIvSize()}；
+	 * @return
+	 */
+	public static SM4Cipher decryptor(Mode mode, byte[] secretKey, byte[] iv) {
+		SM4Cipher cipher = new SM4Cipher(mode);
+		cipher.init(false, secretKey, iv);
+		return cipher;
+	}
+
+	/**
+	 * 生成随机的初始向量；
+	 *
+	 * @param mode
+	 * @return
+	 */
+	public static byte[] generateIv(Mode mode) {
+		byte[] iv = new byte[mode.ivSize];
+		DRBGUtils.getDefaultRandom().nextBytes(iv);
+		return iv;
+	}
+
+	/**
+	 * 计算 {@link #encrypt(Mode, byte[], byte[])} 输出的长度；包括初始向量、填充和认证标签；
+	 *
+	 * @param mode
+	 * @param plaintextSize
+	 * @return
+	 */
+	public static int getCiphertextSize(Mode mode, int plaintextSize) {
+		int size = mode == Mode.CBC ? (plaintextSize / BLOCK_SIZE + 1) * BLOCK_SIZE : plaintextSize;
+		return mode.ivSize + size + mode.tagSize;
+	}
+
+	/**
+	 * 采用随机的初始向量加密；
+	 * <p>
+	 *
+	 * 输出结果为 IV || 密文；GCM 模式下密文之后附加认证标签；
+	 *
+	 * @param mode       模式；
+	 * @param plainBytes 明文；
+	 * @param secretKey  密钥；
+	 * @return
+	 */
+	public static byte[] encrypt(Mode mode, byte[] plainBytes, byte[] secretKey) {
+		return encrypt(mode, plainBytes, 0, plainBytes.length, secretKey);
+	}
+
+	/**
+	 * 采用随机的初始向量加密；
+	 * <p>
+	 *
+	 * 输出结果为 IV || 密文；GCM 模式下密文之后附加认证标签；
+	 *
+	 * @param mode       模式；
+	 * @param plainBytes 明文；
+	 * @param offset     明文的起始位置；
+	 * @param length     明文的长度；
+	 * @param secretKey  密钥；
+	 * @return
+	 */
+	public static byte[] encrypt(Mode mode, byte[] plainBytes, int offset, int length, byte[] secretKey) {
+		byte[] iv = generateIv(mode);
+		byte[] output = new byte[getCiphertextSize(mode, length)];
+		System.arraycopy(iv, 0, output, 0, iv.length);
+		encrypt(mode, secretKey, iv, null, plainBytes, offset, length, output, iv.length);
+		return output;
+	}
+
+	/**
+	 * 解密 {@link #encrypt(Mode, byte[], byte[])} 的输出；
+	 *
+	 * @param mode        模式；
+	 * @param cipherBytes IV || 密文；
+	 * @param secretKey   密钥；
+	 * @return 明文；
+	 */
+	public static byte[] decrypt(Mode mode, byte[] cipherBytes, byte[] secretKey) {
+		return decrypt(mode, cipherBytes, 0, cipherBytes.length, secretKey);
+	}
+
+	/**
+	 * 解密 {@link #encrypt(Mode, byte[], byte[])} 的输出；
+	 *
+	 * @param mode        模式；
+	 * @param cipherBytes IV || 密文；
+	 * @param offset      起始位置；
+	 * @param length      长度；
+	 * @param secretKey   密钥；
+	 * @return 明文；
+	 */
+	public static byte[] decrypt(Mode mode, byte[] cipherBytes, int offset, int length, byte[] secretKey) {
+		if (length < mode.ivSize + mode.tagSize) {
+			throw new DecryptionException("ciphertext's length is wrong!");
+		}
+		byte[] iv = Arrays.copyOfRange(cipherBytes, offset, offset + mode.ivSize);
+		byte[] output = new byte[length - mode.ivSize - mode.tagSize];
+		int count = decrypt(mode, secretKey, iv, null, cipherBytes, offset + iv.length, length - iv.length, output, 0);
+		return count == output.length ? output : Arrays.copyOf(output, count);
+	}
+
+	/**
+	 * 以当前线程缓存的实例加密，并将密文写入指定的缓冲区；
+	 * <p>
+	 *
+	 * 输入和输出可以是同一个数组；
+	 *
+	 * @param mode      模式；
+	 * @param secretKey 密钥；
+	 * @param iv        初始向量；
+	 * @param aad       附加认证数据；仅用于 GCM 模式，可以为 null；
+	 * @param input     明文；
+	 * @param offset    明文的起始位置；
+	 * @param length    明文的长度；
+	 * @param output    输出缓冲区；剩余空间不能小于 {@link #getCiphertextSize(Mode, int)} 减去 IV 的长度；
+	 * @param outOffset 输出的起始位置；
+	 * @return 写入的字节数；
+	 */
+	public static int encrypt(Mode mode, byte[] secretKey, byte[] iv, byte[] aad, byte[] input, int offset,
+			int length, byte[] output, int outOffset) {
+		return process(mode, true, secretKey, iv, aad, input, offset, length, output, outOffset);
+	}
+
+	/**
+	 * 以当前线程缓存的实例解密，并将明文写入指定的缓冲区；
+	 * <p>
+	 *
+	 * 输入和输出可以是同一个数组；GCM 模式下直接解密到输出缓冲区而不缓存密文，认证失败时抛出 {@link DecryptionException}，
+	 * 并将输出缓冲区中已经写入的明文清零；
+	 *
+	 * @param mode      模式；
+	 * @param secretKey 密钥；
+	 * @param iv        初始向量；
+	 * @param aad       附加认证数据；仅用于 GCM 模式，可以为 null；
+	 * @param input     密文；GCM 模式下包括末尾的认证标签；
+	 * @param offset    密文的起始位置；
+	 * @param length    密文的长度；
+	 * @param output    输出缓冲区；
+	 * @param outOffset 输出的起始位置；
+	 * @return 写入的字节数；
+	 */
+	public static int decrypt(Mode mode, byte[] secretKey, byte[] iv, byte[] aad, byte[] input, int offset,
+			int length, byte[] output, int outOffset) {
+		return process(mode, false, secretKey, iv, aad, input, offset, length, output, outOffset);
+	}
+
+	private static int process(Mode mode, boolean encryption, byte[] secretKey, byte[] iv, byte[] aad, byte[] input,
+			int offset, int length, byte[] output, int outOffset) {
+		SM4Cipher cipher = mode.ciphers.get();
+		cipher.init(encryption, secretKey, iv);
+		if (aad != null) {
+			cipher.updateAAD(aad, 0, aad.length);
+		}
+		if (mode == Mode.GCM && !encryption) {
+			return cipher.decryptGCM(input, offset, length, output, outOffset);
+		}
+		int count = cipher.update(input, offset, length, output, outOffset);
+		return count + cipher.doFinal(output, outOffset + count);
+	}
+
+	private void init(boolean encryption, byte[] secretKey, byte[] iv) {
+		if (secretKey.length != SM4Utils.KEY_SIZE) {
+			throw error(encryption, "secretKey's length is wrong!", null);
+		}
+		if (iv.length != mode.ivSize) {
+			throw error(encryption, "iv's length is wrong!", null);
+		}
+		this.encryption = encryption;
+		this.pendingLength = 0;
+		try {
+			switch (mode) {
+			case CBC:
+				blockCipher.init(encryption, new ParametersWithIV(new KeyParameter(secretKey), iv));
+				break;
+			case GCM:
+				aeadCipher.init(encryption, new AEADParameters(new KeyParameter(secretKey), GCM_TAG_SIZE * 8, iv));
+				break;
+			default:
+				key = new KeyParameter(secretKey);
+				engine.init(true, key);
+				System.arraycopy(iv, 0, this.iv, 0, BLOCK_SIZE);
+				resetCounter();
+			}
+		} catch (IllegalArgumentException e) {
+			// GCM 模式以相同的密钥和 IV 重复加密；
+			throw error(encryption, e.getMessage(), e);
+		}
+	}
+
+	private static RuntimeException error(boolean encryption, String message, Throwable cause) {
+		return encryption ? new EncryptionException(message, cause) : new DecryptionException(message, cause);
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	@Override
+	public boolean isEncryption() {
+		return encryption;
+	}
+
+	/**
+	 * 输入附加认证数据；仅用于 GCM 模式，必须在输入数据之前调用；
+	 *
+	 * @param aad
+	 */
+	public void updateAAD(byte[] aad) {
+		updateAAD(aad, 0, aad.length);
+	}
+
+	/**
+	 * 输入附加认证数据；仅用于 GCM 模式，必须在输入数据之前调用；
+	 *
+	 * @param aad
+	 * @param offset
+	 * @param length
+	 */
+	public void updateAAD(byte[] aad, int offset, int length) {
+		if (mode != Mode.GCM) {
+			throw new IllegalStateException("Additional authenticated data is only supported in GCM mode!");
+		}
+		aeadCipher.processAADBytes(aad, offset, length);
+	}
+
+	@Override
+	public int getOutputSize(int inputLength) {
+		switch (mode) {
+		case CBC:
+			return blockCipher.getOutputSize(inputLength);
+		case GCM:
+			return encryption ? aeadCipher.getOutputSize(inputLength)
+					: (int) Math.min(Integer.MAX_VALUE, Math.max(0, (long) pendingLength + inputLength - GCM_TAG_SIZE));
+		default:
+			return inputLength;
+		}
+	}
+
+	@Override
+	public int getUpdateOutputSize(int inputLength) {
+		switch (mode) {
+		case CBC:
+			return blockCipher.getUpdateOutputSize(inputLength);
+		case GCM:
+			return encryption ? aeadCipher.getUpdateOutputSize(inputLength) : 0;
+		default:
+			return inputLength;
+		}
+	}
+
+	@Override
+	public int update(byte[] input, int offset, int length, byte[] output, int outOffset) {
+		try {
+			switch (mode) {
+			case CBC:
+				return blockCipher.processBytes(input, offset, length, output, outOffset);
+			case GCM:
+				if (!encryption) {
+					appendPending(input, offset, length);
+					return 0;
+				}
+				return aeadCipher.processBytes(input, offset, length, output, outOffset);
+			default:
+				if (outOffset < 0 || output.length - outOffset < length) {
+					throw new OutputLengthException("output buffer too short");
+				}
+				processCTR(input, offset, length, output, outOffset);
+				return length;
+			}
+		} catch (OutputLengthException e) {
+			throw new IllegalArgumentException("The output buffer is too short!", e);
+		} catch (DataLengthException e) {
+			throw error(encryption, e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public int doFinal(byte[] output, int outOffset) {
+		try {
+			switch (mode) {
+			case CBC:
+				return blockCipher.doFinal(output, outOffset);
+			case GCM:
+				return encryption ? aeadCipher.doFinal(output, outOffset) : finishPending(output, outOffset);
+			default:
+				resetCounter();
+				return 0;
+			}
+		} catch (OutputLengthException e) {
+			throw new IllegalArgumentException("The output buffer is too short!", e);
+		} catch (DataLengthException e) {
+			throw error(encryption, e.getMessage(), e);
+		} catch (InvalidCipherTextException e) {
+			if (mode == Mode.GCM) {
+				throw new DecryptionException("Authentication failed!", e);
+			}
+			throw error(encryption, e.getMessage(), e);
+		}
+	}
+
+	private void appendPending(byte[] input, int offset, int length) {
+		if (offset < 0 || length < 0 || input.length - offset < length) {
+			throw new DataLengthException("input buffer too short");
+		}
+		if (length > GCM_MAX_STREAMING_SIZE - pendingLength) {
+			pending = new byte[0];
+			pendingLength = 0;
+			throw new DecryptionException("The buffered GCM ciphertext exceeds " + GCM_MAX_STREAMING_SIZE
+					+ " bytes! Split the data into smaller messages, or decrypt it in one call.");
+		}
+		if (pending.length - pendingLength < length) {
+			int capacity = (int) Math.min(GCM_MAX_STREAMING_SIZE,
+					Math.max((long) pendingLength + length, pending.length * 2L));
+			pending = Arrays.copyOf(pending, capacity);
+		}
+		System.arraycopy(input, offset, pending, pendingLength, length);
+		pendingLength += length;
+	}
+
+	/**
+	 * 在缓存的密文上原地解密并验证认证标签，验证通过之后才将明文复制到输出缓冲区；
+	 */
+	private int finishPending(byte[] output, int outOffset) throws InvalidCipherTextException {
+		int size = getOutputSize(0);
+		if (outOffset < 0 || output.length - outOffset < size) {
+			throw new OutputLengthException("output buffer too short");
+		}
+		int length = pendingLength;
+		pendingLength = 0;
+		int count = aeadCipher.processBytes(pending, 0, length, pending, 0);
+		count += aeadCipher.doFinal(pending, count);
+		System.arraycopy(pending, 0, output, outOffset, count);
+		return count;
+	}
+
+	/**
+	 * GCM 模式的一次性解密；直接解密到输出缓冲区，认证失败时将已经写入的明文清零；
+	 */
+	private int decryptGCM(byte[] input, int offset, int length, byte[] output, int outOffset) {
+		try {
+			int count = aeadCipher.processBytes(input, offset, length, output, outOffset);
+			return count + aeadCipher.doFinal(output, outOffset + count);
+		} catch (OutputLengthException e) {
+			throw new IllegalArgumentException("The output buffer is too short!", e);
+		} catch (DataLengthException e) {
+			throw new DecryptionException(e.getMessage(), e);
+		} catch (InvalidCipherTextException e) {
+			int written = Math.min(Math.max(0, length - GCM_TAG_SIZE), output.length - outOffset);
+			Arrays.fill(output, outOffset, outOffset + written, (byte) 0);
+			throw new DecryptionException("Authentication failed!", e);
+		}
+	}
+
+	/**
+	 * 包装输入流；从返回的输入流读出的是底层输入流中的数据加密/解密的结果；
+	 *
+	 * @param in
+	 * @return
+	 */
+	public StreamingCipherInputStream wrap(InputStream in) {
+		return new StreamingCipherInputStream(in, this);
+	}
+
+	/**
+	 * 包装输出流；写入返回的输出流的数据加密/解密后写入底层输出流；
+	 *
+	 * @param out
+	 * @return
+	 */
+	public StreamingCipherOutputStream wrap(OutputStream out) {
+		return new StreamingCipherOutputStream(out, this);
+	}
+
+	private void resetCounter() {
+		System.arraycopy(iv, 0, counter, 0, BLOCK_SIZE);
+		keyStreamOffset = BLOCK_SIZE;
+	}
+
+	private void processCTR(byte[] input, int offset, int length, byte[] output, int outOffset) {
+		int i = 0;
+		// 先用完上一次剩余的密钥流；
+		while (keyStreamOffset < BLOCK_SIZE && i < length) {
+			output[outOffset + i] = (byte) (input[offset + i] ^ keyStream[keyStreamOffset++]);
+			i++;
+		}
+
+		int blocks = (length - i) / BLOCK_SIZE;
+		if (blocks > 0) {
+			int bytes = blocks * BLOCK_SIZE;
+			if (bytes >= PARALLEL_THRESHOLD) {
+				processSegments(input, offset + i, output, outOffset + i, blocks);
+				addCounter(counter, blocks);
+			} else {
+				processBlocks(engine, counter, input, offset + i, output, outOffset + i, blocks, keyStream);
+			}
+			i += bytes;
+		}
+
+		if (i < length) {
+			engine.processBlock(counter, 0, keyStream, 0);
+			addCounter(counter, 1);
+			keyStreamOffset = 0;
+			while (i < length) {
+				output[outOffset + i] = (byte) (input[offset + i] ^ keyStream[keyStreamOffset++]);
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * 将完整的分组划分为多个分段并行计算；每个分段的计数器由起始计数器加上分段之前的分组数得到；
+	 */
+	private void processSegments(byte[] input, int offset, byte[] output, int outOffset, int blocks) {
+		int segmentBlocks = SEGMENT_SIZE / BLOCK_SIZE;
+		int segments = (blocks + segmentBlocks - 1) / segmentBlocks;
+		byte[] start = counter.clone();
+		KeyParameter segmentKey = key;
+		IntStream.range(0, segments).parallel().forEach((s) -> {
+			SM4Engine segmentEngine = SEGMENT_ENGINES.get();
+			segmentEngine.init(true, segmentKey);
+			byte[] segmentCounter = start.clone();
+			addCounter(segmentCounter, (long) s * segmentBlocks);
+			int from = s * segmentBlocks;
+			int count = Math.min(segmentBlocks, blocks - from);
+			int position = from * BLOCK_SIZE;
+			processBlocks(segmentEngine, segmentCounter, input, offset + position, output, outOffset + position, count,
+					new byte[BLOCK_SIZE]);
+		});
+	}
+
+	private static void processBlocks(SM4Engine engine, byte[] counter, byte[] input, int offset, byte[] output,
+			int outOffset, int blocks, byte[] buffer) {
+		for (int b = 0; b < blocks; b++) {
+			engine.processBlock(counter, 0, buffer, 0);
+			addCounter(counter, 1);
+			int position = b * BLOCK_SIZE;
+			for (int j = 0; j < BLOCK_SIZE; j++) {
+				output[outOffset + position + j] = (byte) (input[offset + position + j] ^ buffer[j]);
+			}
+		}
+	}
+
+	/**
+	 * 以 128 位大端整数的方式将计数器加上指定的值，溢出时回绕；
+	 */
+	private static void addCounter(byte[] counter, long value) {
+		long carry = value;
+		for (int i = BLOCK_SIZE - 1; i >= 0 && carry != 0; i--) {
+			long sum = (counter[i] & 0xFF) + (carry & 0xFF);
+			counter[i] = (byte) sum;
+			carry = (carry >>> 8) + (sum >>> 8);
+		}
+	}
+
+}
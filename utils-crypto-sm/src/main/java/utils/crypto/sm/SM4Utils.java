@@ -23,6 +23,10 @@ public class SM4Utils {
 	// Initial vector's size is 16 bytes
 	public static final int IV_SIZE = 16;
 
+	// The CBC cipher and its SM4 engine are reused by each thread
+	private static final ThreadLocal<CBCBlockCipher> CBC_CIPHERS = ThreadLocal
+			.withInitial(() -> new CBCBlockCipher(new SM4Engine()));
+
 	/**
 	 * key generation
 	 *
@@ -82,27 +86,24 @@ public class SM4Utils {
 
 		// To get the value padded into input
 		int padding = 16 - length % BLOCK_SIZE;
-		// The plaintext with padding value
-		byte[] plainBytesWithPadding = new byte[length + padding];
-		System.arraycopy(plainBytes, offset, plainBytesWithPadding, 0, length);
-		// The padder adds PKCS7 padding to the input, which makes its length to
-		// become an integral multiple of 16 bytes
-		PKCS7Padding padder = new PKCS7Padding();
-		// To add padding
-		padder.addPadding(plainBytesWithPadding, length);
+		int fullBlockLength = length - length % BLOCK_SIZE;
 
-		CBCBlockCipher encryptor = new CBCBlockCipher(new SM4Engine());
+		CBCBlockCipher encryptor = CBC_CIPHERS.get();
 		// To provide key and initialisation vector as input
 		encryptor.init(true, new ParametersWithIV(new KeyParameter(secretKey), iv));
-		byte[] output = new byte[plainBytesWithPadding.length + IV_SIZE];
-		// To encrypt the input_p in CBC mode
-		int blockCount = plainBytesWithPadding.length / BLOCK_SIZE;
-		int outOffset = 0;
-		for (int i = 0; i < blockCount; i++) {
-			encryptor.processBlock(plainBytesWithPadding, outOffset, output, outOffset + BLOCK_SIZE);
-			outOffset += BLOCK_SIZE;
+		byte[] output = new byte[length + padding + IV_SIZE];
+		// To encrypt the full blocks of plaintext directly in CBC mode
+		for (int i = 0; i < fullBlockLength; i += BLOCK_SIZE) {
+			encryptor.processBlock(plainBytes, offset + i, output, IV_SIZE + i);
 		}
 
+		// The last block contains the rest of plaintext and PKCS7 padding
+		byte[] lastBlock = new byte[BLOCK_SIZE];
+		System.arraycopy(plainBytes, offset + fullBlockLength, lastBlock, 0, length - fullBlockLength);
+		PKCS7Padding padder = new PKCS7Padding();
+		padder.addPadding(lastBlock, length - fullBlockLength);
+		encryptor.processBlock(lastBlock, 0, output, IV_SIZE + fullBlockLength);
+
 		// The IV locates on the first block of ciphertext
 		System.arraycopy(iv, 0, output, 0, BLOCK_SIZE);
 		return output;
@@ -156,7 +157,7 @@ public class SM4Utils {
 		byte[] iv = new byte[IV_SIZE];
 		System.arraycopy(cipherBytes, offset, iv, 0, BLOCK_SIZE);
 
-		CBCBlockCipher decryptor = new CBCBlockCipher(new SM4Engine());
+		CBCBlockCipher decryptor = CBC_CIPHERS.get();
 		// To prepare the decryption
 		decryptor.init(false, new ParametersWithIV(new KeyParameter(secretKey), iv));
 		byte[] outputWithPadding = new byte[length - BLOCK_SIZE];
@@ -0,0 +1,42 @@
+package utils.crypto.sm;
+
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+
+import utils.crypto.base.SignatureVerificationService;
+import utils.crypto.base.SignatureVerifier;
+
+/**
+ * 国密算法的签名验证器；
+ * 
+ * @author huanghaiquan
+ *
+ */
+public abstract class SMSignatureVerifiers {
+
+	public static final String SM2_ALGORITHM = "SM2";
+
+	/**
+	 * SM2 签名验证器；采用默认的用户标识，公钥采用 {@link SM2Utils} 的原始编码；
+	 */
+	public static final SignatureVerifier<ECPublicKeyParameters> SM2 = new SignatureVerifier<ECPublicKeyParameters>() {
+
+		@Override
+		public ECPublicKeyParameters decodePublicKey(byte[] publicKey) {
+			return SM2Utils.getPublicKeyCache().get(publicKey);
+		}
+
+		@Override
+		public boolean verify(byte[] data, ECPublicKeyParameters publicKey, byte[] signature) {
+			return SM2Utils.verify(data, publicKey, signature);
+		}
+	};
+
+	/**
+	 * 向签名验证服务注册 SM2 的验证器；
+	 * 
+	 * @param service
+	 */
+	public static void registerTo(SignatureVerificationService service) {
+		service.register(SM2_ALGORITHM, SM2);
+	}
+}
@@ -7,13 +7,17 @@ import static org.junit.Assert.assertTrue;
 import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
 import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.encoders.Hex;
 import org.bouncycastle.util.test.TestRandomBigInteger;
 import org.junit.Test;
 
+import utils.crypto.sm.SM2SigningContext;
 import utils.crypto.sm.SM2Utils;
 import utils.io.BytesUtils;
 
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Random;
 
 public class SM2UtilsTest {
@@ -121,6 +125,123 @@ public class SM2UtilsTest {
         assertArrayEquals(BytesUtils.toBytes(expectedMessage),plaintext);
     }
 
+    @Test
+    public void testSigningContext() {
+
+        String expectedPrivateKey = "3945208f7b2144b13f36e38ac6d39f95889393692860b51a42fb81ef4df7c5b8";
+        String expectedPublicKey  = "04"+"09f9df311e5421a150dd7d161e4bc5c672179fad1833fc076bb08ff356f35020"+"ccea490ce26775a52dc6ea718cc1aa600aed05fbf35e084a6632f6072da9ad13";
+        String expectedRandomness = "59276E27D506861A16680F3AD9C02DCCEF3CC1FA3CDBE4CE6D54B80DEAC1BC21";
+        String expectedMessage    = "message digest";
+        String expectedIdentifier = "ALICE123@YAHOO.COM";
+        String expectedR          = "b0e3e7d4ac2178f833ad73fa9d1191e41c76c8bfedb5ad89040ba2e5184bde58";
+        String expectedS          = "cc8d096578f7dd2669ac1ac42f7e722bcfa42b9e0be0b1b5df7ca0b53fdd5750";
+
+        byte[] privKeyBytes = Hex.decode(expectedPrivateKey);
+        byte[] messageBytes = BytesUtils.toBytes(expectedMessage);
+
+        SM2SigningContext context = new SM2SigningContext(privKeyBytes, BytesUtils.toBytes(expectedIdentifier),
+                new TestRandomBigInteger(expectedRandomness, 16));
+        assertArrayEquals(Hex.decode(expectedPublicKey), context.getPublicKey());
+        assertArrayEquals(Hex.decode(expectedR + expectedS), context.sign(messageBytes));
+
+        // 默认的用户 ID 和随机数；
+        SM2SigningContext defaultContext = new SM2SigningContext(privKeyBytes);
+        byte[] data = new byte[1024];
+        new Random().nextBytes(data);
+        for (int i = 0; i < 8; i++) {
+            byte[] signature = defaultContext.sign(data);
+            assertTrue(SM2Utils.verify(data, context.getPublicKey(), signature));
+        }
+
+        byte[] output = new byte[SM2SigningContext.SIGNATURE_SIZE + 8];
+        assertEquals(SM2SigningContext.SIGNATURE_SIZE, defaultContext.sign(data, 16, 100, output, 8));
+        byte[] signature = Arrays.copyOfRange(output, 8, output.length);
+        assertTrue(SM2Utils.verify(Arrays.copyOfRange(data, 16, 116), context.getPublicKey(), signature));
+    }
+
+    @Test
+    public void signingContextPerformanceTest() {
+
+        int count = 500;
+        byte[] data = new byte[256];
+        new Random().nextBytes(data);
+        byte[] privKeyBytes = SM2Utils.privKey2Bytes_RawKey((ECPrivateKeyParameters) SM2Utils.generateKeyPair().getPrivate());
+        SM2SigningContext context = new SM2SigningContext(privKeyBytes);
+
+        for (int r = 0; r < 3; r++) {
+            long startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                SM2Utils.sign(data, privKeyBytes);
+            }
+            long utils = System.nanoTime() - startTS;
+
+            startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                context.sign(data);
+            }
+            long ctx = System.nanoTime() - startTS;
+
+            System.out.printf("SM2 sign -- round[%s]: SM2Utils=%.2f us/op; SM2SigningContext=%.2f us/op\r\n", r,
+                    utils / 1000.0D / count, ctx / 1000.0D / count);
+        }
+    }
+
+    @Test
+    public void fixedBaseRetrieveTest(){
+
+        ECPoint g = SM2Utils.getDomainParams().getG();
+        BigInteger n = SM2Utils.getDomainParams().getN();
+        Random random = new Random();
+        for (int i = 0; i < 16; i++) {
+            byte[] privateKey = new byte[32];
+            random.nextBytes(privateKey);
+            byte[] expected = g.multiply(new BigInteger(1, privateKey)).normalize().getEncoded(false);
+            assertArrayEquals(expected, SM2Utils.retrievePublicKey(privateKey));
+        }
+
+        // 超出群的阶的私钥；
+        byte[] longKey = new byte[33];
+        random.nextBytes(longKey);
+        longKey[0] = 1;
+        byte[] expected = g.multiply(new BigInteger(1, longKey).mod(n)).normalize().getEncoded(false);
+        assertArrayEquals(expected, SM2Utils.retrievePublicKey(longKey));
+    }
+
+    @Test
+    public void fixedBasePerformanceTest(){
+
+        int count = 500;
+        ECPoint g = SM2Utils.getDomainParams().getG();
+        byte[][] privateKeys = new byte[count][32];
+        Random random = new Random();
+        for (int i = 0; i < count; i++) {
+            random.nextBytes(privateKeys[i]);
+        }
+
+        for (int r = 0; r < 3; r++) {
+            long startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                g.multiply(new BigInteger(1, privateKeys[i])).normalize().getEncoded(false);
+            }
+            long defaultMultiplier = System.nanoTime() - startTS;
+
+            startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                SM2Utils.retrievePublicKey(privateKeys[i]);
+            }
+            long comb = System.nanoTime() - startTS;
+
+            startTS = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                SM2Utils.generateKeyPair();
+            }
+            long keyGen = System.nanoTime() - startTS;
+
+            System.out.printf("SM2 G*k -- round[%s]: default=%.2f us/op; comb=%.2f us/op; keygen=%.2f us/op\r\n", r,
+                    defaultMultiplier / 1000.0D / count, comb / 1000.0D / count, keyGen / 1000.0D / count);
+        }
+    }
+
 //    @Test
     public void encryptingPerformace(){
 
@@ -3,6 +3,14 @@ package test.utils.crypto.sm;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
 import org.bouncycastle.util.encoders.Hex;
 import org.junit.Test;
 
@@ -66,4 +74,33 @@ public class SM3UtilsTest {
 //                    (count * 1000.00D) / elapsedTS));
 //        }
 //    }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamingHash() throws IOException {
+        byte[] data = new byte[200 * 1024 + 5];
+        new Random().nextBytes(data);
+        byte[] expected = SM3Utils.hash(data);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).flip();
+        assertArrayEquals(expected, SM3Utils.hash(direct));
+        assertArrayEquals(expected, SM3Utils.hash(new ByteArrayInputStream(data)));
+
+        Path file = Files.createTempFile("sm3", ".bin");
+        try {
+            Files.write(file, data);
+            assertArrayEquals(expected, SM3Utils.hash(file));
+        } finally {
+            Files.delete(file);
+        }
+
+        byte[][] inputs = new byte[500][];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = Arrays.copyOf(data, i);
+        }
+        byte[][] hashes = SM3Utils.hashAll(inputs);
+        for (int i = 0; i < inputs.length; i++) {
+            assertArrayEquals(SM3Utils.hash(inputs[i]), hashes[i]);
+        }
+    }
+}
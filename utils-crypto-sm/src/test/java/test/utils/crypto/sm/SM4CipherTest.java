@@ -0,0 +1,303 @@
+package test.utils.crypto.sm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.bouncycastle.crypto.engines.SM4Engine;
+import org.bouncycastle.crypto.modes.SICBlockCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Test;
+
+import utils.crypto.sm.SM4Cipher;
+import utils.crypto.sm.SM4Cipher.Mode;
+import utils.crypto.sm.SM4Utils;
+import utils.security.DecryptionException;
+
+public class SM4CipherTest {
+
+	/**
+	 * 数据来自 RFC 8998 附录 A.1 的 SM4-GCM 示例；
+	 */
+	@Test
+	public void testGcmVector() {
+		byte[] key = Hex.decode("0123456789ABCDEFFEDCBA9876543210");
+		byte[] iv = Hex.decode("00001234567800000000ABCD");
+		byte[] aad = Hex.decode("FEEDFACEDEADBEEFFEEDFACEDEADBEEFABADDAD2");
+		byte[] plaintext = Hex.decode("AAAAAAAAAAAAAAAABBBBBBBBBBBBBBBBCCCCCCCCCCCCCCCCDDDDDDDDDDDDDDDD"
+				+ "EEEEEEEEEEEEEEEEFFFFFFFFFFFFFFFFEEEEEEEEEEEEEEEEAAAAAAAAAAAAAAAA");
+		byte[] expected = Hex.decode("17F399F08C67D5EE19D0DC9969C4BB7D5FD46FD3756489069157B282BB200735"
+				+ "D82710CA5C22F0CCFA7CBF93D496AC15A56834CBCF98C397B4024A2691233B8D"
+				+ "83DE3541E4C2B58177E065A9BF7B62EC");
+
+		// 原地加密；
+		byte[] buffer = new byte[plaintext.length + SM4Cipher.GCM_TAG_SIZE];
+		System.arraycopy(plaintext, 0, buffer, 0, plaintext.length);
+		int count = SM4Cipher.encrypt(Mode.GCM, key, iv, aad, buffer, 0, plaintext.length, buffer, 0);
+		assertEquals(expected.length, count);
+		assertArrayEquals(expected, buffer);
+
+		count = SM4Cipher.decrypt(Mode.GCM, key, iv, aad, buffer, 0, buffer.length, buffer, 0);
+		assertEquals(plaintext.length, count);
+		for (int i = 0; i < plaintext.length; i++) {
+			assertEquals(plaintext[i], buffer[i]);
+		}
+	}
+
+	@Test
+	public void testCtrCompatibility() {
+		Random random = new Random();
+		byte[] key = SM4Utils.generateKey();
+		// 计数器的低位接近溢出，验证进位；
+		byte[] iv = Hex.decode("00112233445566778899aabbfffffff0");
+		byte[] data = new byte[3 * SM4Cipher.PARALLEL_THRESHOLD + 21];
+		random.nextBytes(data);
+
+		SICBlockCipher reference = new SICBlockCipher(new SM4Engine());
+		reference.init(true, new ParametersWithIV(new KeyParameter(key), iv));
+		byte[] expected = new byte[data.length];
+		reference.processBytes(data, 0, data.length, expected, 0);
+
+		// 一次输入，超过并行计算的阈值；
+		byte[] output = new byte[data.length];
+		SM4Cipher.encrypt(Mode.CTR, key, iv, null, data, 0, data.length, output, 0);
+		assertArrayEquals(expected, output);
+
+		// 长度不是分组整数倍的分段输入，并行与串行交替；
+		int[] chunks = { 5, 11, 16, 1000, SM4Cipher.PARALLEL_THRESHOLD + 3, 7, 2 * SM4Cipher.PARALLEL_THRESHOLD };
+		SM4Cipher encryptor = SM4Cipher.encryptor(Mode.CTR, key, iv);
+		output = new byte[data.length];
+		int offset = 0;
+		for (int i = 0; offset < data.length; i++) {
+			int length = Math.min(chunks[i % chunks.length], data.length - offset);
+			encryptor.update(data, offset, length, output, offset);
+			offset += length;
+		}
+		encryptor.doFinal(output, offset);
+		assertArrayEquals(expected, output);
+
+		// 原地解密；
+		SM4Cipher.decrypt(Mode.CTR, key, iv, null, output, 0, output.length, output, 0);
+		assertArrayEquals(data, output);
+	}
+
+	@Test
+	public void testCbcCompatibility() {
+		Random random = new Random();
+		byte[] key = SM4Utils.generateKey();
+		for (int length : new int[] { 0, 1, 15, 16, 17, 1000 }) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+
+			byte[] cipherBytes = SM4Cipher.encrypt(Mode.CBC, data, key);
+			assertEquals(SM4Cipher.getCiphertextSize(Mode.CBC, length), cipherBytes.length);
+			assertArrayEquals(data, SM4Utils.decrypt(cipherBytes, key));
+
+			cipherBytes = SM4Utils.encrypt(data, key);
+			assertArrayEquals(data, SM4Cipher.decrypt(Mode.CBC, cipherBytes, key));
+		}
+	}
+
+	@Test
+	public void testEncryptDecrypt() {
+		Random random = new Random();
+		byte[] key = SM4Utils.generateKey();
+		for (Mode mode : Mode.values()) {
+			for (int length : new int[] { 0, 1, 15, 16, 17, 1000 }) {
+				byte[] data = new byte[length];
+				random.nextBytes(data);
+
+				byte[] cipherBytes = SM4Cipher.encrypt(mode, data, key);
+				assertEquals(SM4Cipher.getCiphertextSize(mode, length), cipherBytes.length);
+				assertArrayEquals(data, SM4Cipher.decrypt(mode, cipherBytes, key));
+			}
+		}
+	}
+
+	@Test
+	public void testGcmAuthentication() {
+		Random random = new Random();
+		byte[] key = SM4Utils.generateKey();
+		byte[] data = new byte[100];
+		random.nextBytes(data);
+
+		byte[] cipherBytes = SM4Cipher.encrypt(Mode.GCM, data, key);
+		cipherBytes[20] ^= 1;
+		try {
+			SM4Cipher.decrypt(Mode.GCM, cipherBytes, key);
+			fail("The tampered ciphertext should not be decrypted!");
+		} catch (DecryptionException e) {
+		}
+		cipherBytes[20] ^= 1;
+
+		// 认证失败之后缓存的实例仍然可以继续使用；
+		assertArrayEquals(data, SM4Cipher.decrypt(Mode.GCM, cipherBytes, key));
+	}
+
+	@Test
+	public void testGcmStreamingAuthentication() throws IOException {
+		Random random = new Random();
+		byte[] key = SM4Utils.generateKey();
+		byte[] iv = SM4Cipher.generateIv(Mode.GCM);
+		byte[] data = new byte[5000];
+		random.nextBytes(data);
+		byte[] cipherBytes = new byte[data.length + SM4Cipher.GCM_TAG_SIZE];
+		SM4Cipher.encrypt(Mode.GCM, key, iv, null, data, 0, data.length, cipherBytes, 0);
+
+		// 验证认证标签之前不输出明文；
+		SM4Cipher decryptor = SM4Cipher.decryptor(Mode.GCM, key, iv);
+		byte[] output = new byte[data.length];
+		assertEquals(0, decryptor.update(cipherBytes, 0, 3000, output, 0));
+		assertEquals(0, decryptor.update(cipherBytes, 3000, cipherBytes.length - 3000, output, 0));
+		assertEquals(data.length, decryptor.getOutputSize(0));
+		assertEquals(data.length, decryptor.doFinal(output, 0));
+		assertArrayEquals(data, output);
+
+		cipherBytes[cipherBytes.length - 1] ^= 1;
+		decryptor = SM4Cipher.decryptor(Mode.GCM, key, iv);
+		output = new byte[data.length];
+		assertEquals(0, decryptor.update(cipherBytes, 0, cipherBytes.length, output, 0));
+		try {
+			decryptor.doFinal(output, 0);
+			fail("The tampered ciphertext should not be decrypted!");
+		} catch (DecryptionException e) {
+		}
+		assertArrayEquals(new byte[data.length], output);
+
+		ByteArrayOutputStream plainOut = new ByteArrayOutputStream();
+		try (InputStream in = SM4Cipher.decryptor(Mode.GCM, key, iv).wrap(new ByteArrayInputStream(cipherBytes))) {
+			byte[] buffer = new byte[1024];
+			int length;
+			while ((length = in.read(buffer)) > -1) {
+				plainOut.write(buffer, 0, length);
+			}
+			fail("The tampered ciphertext should not be decrypted!");
+		} catch (DecryptionException e) {
+		}
+		assertEquals(0, plainOut.size());
+
+		// 一次性解密时认证失败，已经写入的明文被清零；
+		try {
+			SM4Cipher.decrypt(Mode.GCM, key, iv, null, cipherBytes, 0, cipherBytes.length, output, 0);
+			fail("The tampered ciphertext should not be decrypted!");
+		} catch (DecryptionException e) {
+		}
+		assertArrayEquals(new byte[data.length], output);
+	}
+
+	@Test
+	public void testGcmStreamingLimit() {
+		byte[] key = SM4Utils.generateKey();
+		SM4Cipher decryptor = SM4Cipher.decryptor(Mode.GCM, key, SM4Cipher.generateIv(Mode.GCM));
+		byte[] chunk = new byte[1024 * 1024];
+		assertEquals(0, decryptor.getUpdateOutputSize(chunk.length));
+		assertEquals(Integer.MAX_VALUE - SM4Cipher.GCM_TAG_SIZE, decryptor.getOutputSize(Integer.MAX_VALUE));
+		int chunks = SM4Cipher.GCM_MAX_STREAMING_SIZE / chunk.length;
+		for (int i = 0; i < chunks; i++) {
+			assertEquals(0, decryptor.update(chunk, 0, chunk.length, chunk, 0));
+		}
+		assertEquals(Integer.MAX_VALUE, decryptor.getOutputSize(Integer.MAX_VALUE));
+		try {
+			decryptor.update(chunk, 0, 1, chunk, 0);
+			fail("The buffered ciphertext should not exceed the limit!");
+		} catch (DecryptionException e) {
+		}
+	}
+
+	@Test
+	public void testStreaming() throws IOException {
+		Random random = new Random();
+		byte[] key = SM4Utils.generateKey();
+		byte[] data = new byte[300 * 1024 + 9];
+		random.nextBytes(data);
+
+		for (Mode mode : Mode.values()) {
+			byte[] iv = SM4Cipher.generateIv(mode);
+			byte[] expected = new byte[SM4Cipher.getCiphertextSize(mode, data.length) - iv.length];
+			int size = SM4Cipher.encrypt(mode, key, iv, null, data, 0, data.length, expected, 0);
+			assertEquals(expected.length, size);
+
+			// 输出流加密；
+			ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+			try (OutputStream out = SM4Cipher.encryptor(mode, key, iv).wrap(cipherOut)) {
+				out.write(data, 0, 10);
+				out.write(data[10]);
+				out.write(data, 11, data.length - 11);
+			}
+			assertArrayEquals(expected, cipherOut.toByteArray());
+
+			// 输入流解密；
+			ByteArrayOutputStream plainOut = new ByteArrayOutputStream();
+			try (InputStream in = SM4Cipher.decryptor(mode, key, iv).wrap(new ByteArrayInputStream(expected))) {
+				byte[] buffer = new byte[4096];
+				int length;
+				while ((length = in.read(buffer)) > -1) {
+					plainOut.write(buffer, 0, length);
+				}
+			}
+			assertArrayEquals(data, plainOut.toByteArray());
+
+			// 堆外缓冲区；
+			SM4Cipher decryptor = SM4Cipher.decryptor(mode, key, iv);
+			ByteBuffer input = ByteBuffer.allocateDirect(expected.length);
+			input.put(expected).flip();
+			ByteBuffer output = ByteBuffer.allocateDirect(expected.length);
+			decryptor.update(input, output);
+			decryptor.doFinal(output);
+			assertEquals(data.length, output.position());
+			byte[] plainBytes = new byte[data.length];
+			output.flip();
+			output.get(plainBytes);
+			assertArrayEquals(data, plainBytes);
+		}
+	}
+
+	@Test
+	public void testPerformance() {
+		int count = 50;
+		byte[] data = new byte[256 * 1024];
+		new Random().nextBytes(data);
+		byte[] key = SM4Utils.generateKey();
+		byte[] buffer = new byte[data.length + SM4Cipher.GCM_TAG_SIZE];
+		byte[] ctrIv = SM4Cipher.generateIv(Mode.CTR);
+		byte[] gcmIv = SM4Cipher.generateIv(Mode.GCM);
+
+		for (int r = 0; r < 3; r++) {
+			long startTS = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				SM4Utils.encrypt(data, key);
+			}
+			long cbc = System.nanoTime() - startTS;
+
+			startTS = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				SM4Cipher.encrypt(Mode.CTR, key, ctrIv, null, data, 0, data.length, buffer, 0);
+			}
+			long ctr = System.nanoTime() - startTS;
+
+			startTS = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				// GCM 不允许以相同的密钥和 IV 重复加密；
+				gcmIv[0] = (byte) i;
+				gcmIv[1] = (byte) r;
+				SM4Cipher.encrypt(Mode.GCM, key, gcmIv, null, data, 0, data.length, buffer, 0);
+			}
+			long gcm = System.nanoTime() - startTS;
+
+			System.out.printf(
+					"SM4 encrypt %s x 256KB -- round[%s]: SM4Utils(CBC)=%.2f ms; SM4Cipher(CTR)=%.2f ms; SM4Cipher(GCM)=%.2f ms\r\n",
+					count, r, cbc / 1000000.0D, ctr / 1000000.0D, gcm / 1000000.0D);
+		}
+	}
+
+}
@@ -84,10 +84,10 @@ class JSONGlobalConfigurator implements JSONConfigurator {
 	}
 
 	private static void autoRegister(JSONConfigurator configuration) {
-		// 从当前类型的类加载器加载服务提供者；
-		pm.installAllProviders(JSONAutoConfigure.class, JSONAutoConfigure.class.getClassLoader());
-		// 从线程上下文类加载器加载服务提供者；（多次加载避免由于类加载器的原因产生遗漏，ProviderManager 内部会过滤重复加载）；
-		pm.installAllProviders(JSONAutoConfigure.class, Thread.currentThread().getContextClassLoader());
+		// 从当前类型的类加载器和线程上下文类加载器并行加载服务提供者；
+		// （多次加载避免由于类加载器的原因产生遗漏，ProviderManager 内部会过滤重复加载）；
+		pm.installAllProviders(JSONAutoConfigure.class, JSONAutoConfigure.class.getClassLoader(),
+				Thread.currentThread().getContextClassLoader());
 
 		Iterable<Provider<JSONAutoConfigure>> providers = pm.getAllProviders(JSONAutoConfigure.class);
 		for (Provider<JSONAutoConfigure> provider : providers) {